@@ -213,14 +213,15 @@ export class DomainListComponent {
     );
   }
 
-  reloadData() {
+  reloadData(pageCursor?: string) {
     this.isLoading = true;
     this.domainListService
       .retrieveDomains(
         this.pageNumber,
         this.resultsPerPage,
         this.totalResults,
-        this.searchTerm
+        this.searchTerm,
+        pageCursor
       )
       .subscribe({
         error: (err: HttpErrorResponse) => {
@@ -240,10 +241,17 @@ export class DomainListComponent {
   }
 
   onPageChange(event: PageEvent) {
+    // Moving to the next page can continue from where the current one ended,
+    // which is much cheaper for the server than skipping to a page number.
+    const isNextPage =
+      event.pageSize === this.resultsPerPage &&
+      event.pageIndex === (event.previousPageIndex ?? -1) + 1;
     this.pageNumber = event.pageIndex;
     this.resultsPerPage = event.pageSize;
     this.selection.clear();
-    this.reloadData();
+    this.reloadData(
+      isNextPage ? this.domainListService.nextPageCursor : undefined
+    );
   }
 
   toggleAllRows() {
@@ -33,6 +33,7 @@ export interface DomainListResult {
   checkpointTime: string;
   domains: Domain[];
   totalResults: number;
+  nextPageCursor?: string;
 }
 
 export enum BULK_ACTION_NAME {
@@ -46,6 +47,7 @@ export enum BULK_ACTION_NAME {
 })
 export class DomainListService {
   checkpointTime?: string;
+  nextPageCursor?: string;
   selectedDomain?: string;
   public activeActionComponent: Type<any> | null = null;
   public domainsList: Domain[] = [];
@@ -58,7 +60,8 @@ export class DomainListService {
     pageNumber?: number,
     resultsPerPage?: number,
     totalResults?: number,
-    searchTerm?: string
+    searchTerm?: string,
+    pageCursor?: string
   ) {
     return this.backendService
       .getDomains(
@@ -67,11 +70,13 @@ export class DomainListService {
         pageNumber,
         resultsPerPage,
         totalResults,
-        searchTerm
+        searchTerm,
+        pageCursor
       )
       .pipe(
         tap((domainListResult: DomainListResult) => {
           this.checkpointTime = domainListResult?.checkpointTime;
+          this.nextPageCursor = domainListResult?.nextPageCursor;
           this.domainsList = domainListResult?.domains;
         })
       );
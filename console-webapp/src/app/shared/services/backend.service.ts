@@ -101,7 +101,8 @@ export class BackendService {
     pageNumber?: number,
     resultsPerPage?: number,
     totalResults?: number,
-    searchTerm?: string
+    searchTerm?: string,
+    pageCursor?: string
   ): Observable<DomainListResult> {
     var url = `/console-api/domain-list?registrarId=${registrarId}`;
     if (checkpointTime) {
@@ -119,6 +120,9 @@ export class BackendService {
     if (searchTerm) {
       url += `&searchTerm=${searchTerm}`;
     }
+    if (pageCursor) {
+      url += `&pageCursor=${pageCursor}`;
+    }
     return this.http
       .get<DomainListResult>(url)
       .pipe(catchError((err) => this.errorCatcher<DomainListResult>(err)));
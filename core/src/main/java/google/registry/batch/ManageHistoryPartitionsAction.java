@@ -0,0 +1,213 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.batch;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static google.registry.model.common.FeatureFlag.FeatureName.COMPRESS_HISTORY_XML;
+import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
+import static google.registry.reporting.ReportingModule.PARAM_YEAR_MONTH;
+import static google.registry.request.Action.Method.POST;
+import static google.registry.request.RequestParameters.PARAM_BATCH_SIZE;
+import static java.time.ZoneOffset.UTC;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.flogger.FluentLogger;
+import google.registry.model.common.FeatureFlag;
+import google.registry.persistence.converter.CompressedXmlConverter;
+import google.registry.request.Action;
+import google.registry.request.Parameter;
+import google.registry.request.auth.Auth;
+import google.registry.util.Clock;
+import jakarta.inject.Inject;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Creates the monthly partitions of the history tables ahead of time, and compresses the EPP XML
+ * of history entries once their month has gone cold.
+ *
+ * <p>{@code DomainHistory} and {@code HostHistory} are partitioned by month of modification time.
+ * The server's database users can't create tables, so the partitions are created by the {@code
+ * create_history_partitions} procedure, which runs as the owner of the tables.
+ *
+ * <p>History entries are written with their XML as it is, and read back through {@link
+ * CompressedXmlConverter}, which accepts both forms. The XML is only compressed while the {@code
+ * COMPRESS_HISTORY_XML} feature flag is active, which must not happen before every server reads
+ * history entries through the converter. The month to compress defaults to the one that has just
+ * gone cold, and can be set with the {@code yearMonth} parameter to work through older months.
+ *
+ * <p>Cold partitions are kept attached rather than archived elsewhere, since RDE and RDAP need the
+ * most recent history entry of every resource, however old.
+ */
+@Action(
+    service = Action.Service.BACKEND,
+    path = "/_dr/task/manageHistoryPartitions",
+    method = POST,
+    auth = Auth.AUTH_ADMIN)
+public class ManageHistoryPartitionsAction implements Runnable {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  /** How many months after the current one to create partitions for. */
+  @VisibleForTesting static final int PARTITION_MONTHS_AHEAD = 3;
+
+  /** How many months old history entries have to be before their XML is compressed. */
+  @VisibleForTesting static final int COLD_AGE_MONTHS = 3;
+
+  /** Number of history entries to compress per SQL transaction. */
+  private static final int DEFAULT_BATCH_SIZE = 500;
+
+  /** The history tables, with the name of the column holding the resource's repo ID. */
+  private static final ImmutableList<HistoryTable> HISTORY_TABLES =
+      ImmutableList.of(
+          new HistoryTable("DomainHistory", "domain_repo_id"),
+          new HistoryTable("HostHistory", "host_repo_id"));
+
+  private final Optional<YearMonth> yearMonth;
+  private final int batchSize;
+  private final Clock clock;
+
+  @Inject
+  ManageHistoryPartitionsAction(
+      @Parameter(PARAM_YEAR_MONTH) Optional<YearMonth> yearMonth,
+      @Parameter(PARAM_BATCH_SIZE) Optional<Integer> batchSize,
+      Clock clock) {
+    this.yearMonth = yearMonth;
+    this.batchSize = batchSize.orElse(DEFAULT_BATCH_SIZE);
+    this.clock = clock;
+  }
+
+  @Override
+  public void run() {
+    checkArgument(batchSize > 0, "The batch size must be greater than 0");
+    YearMonth currentMonth = YearMonth.from(clock.now().atZone(UTC));
+    for (int i = 0; i <= PARTITION_MONTHS_AHEAD; i++) {
+      YearMonth month = currentMonth.plusMonths(i);
+      tm().transact(
+              () ->
+                  tm().getEntityManager()
+                      .createNativeQuery("CALL create_history_partitions(:monthStart)")
+                      .setParameter("monthStart", month.atDay(1))
+                      .executeUpdate());
+    }
+    logger.atInfo().log(
+        "Ensured history partitions exist through %s.",
+        currentMonth.plusMonths(PARTITION_MONTHS_AHEAD));
+
+    YearMonth coldMonth = yearMonth.orElse(currentMonth.minusMonths(COLD_AGE_MONTHS));
+    checkArgument(
+        !coldMonth.isAfter(currentMonth.minusMonths(COLD_AGE_MONTHS)),
+        "%s is not %s months old yet",
+        coldMonth,
+        COLD_AGE_MONTHS);
+    if (!tm().transact(() -> FeatureFlag.isActiveNow(COMPRESS_HISTORY_XML))) {
+      logger.atInfo().log("Not compressing history XML as %s is inactive.", COMPRESS_HISTORY_XML);
+      return;
+    }
+    for (HistoryTable table : HISTORY_TABLES) {
+      int compressed = compressXml(table, coldMonth);
+      logger.atInfo().log(
+          "Compressed the XML of %d %s entries from %s.", compressed, table.name(), coldMonth);
+    }
+  }
+
+  /** Compresses the XML of the table's entries from the given month, returning how many. */
+  private int compressXml(HistoryTable table, YearMonth month) {
+    String start = month.atDay(1).atStartOfDay(UTC).toInstant().toString();
+    String end = month.plusMonths(1).atDay(1).atStartOfDay(UTC).toInstant().toString();
+    // Entries are visited in order of modification time, which is indexed in every partition, and
+    // the last one visited is where the next batch starts.
+    String lastTime = start;
+    long lastRevisionId = Long.MIN_VALUE;
+    int compressed = 0;
+    while (true) {
+      Batch batch = compressBatch(table, lastTime, lastRevisionId, end);
+      compressed += batch.compressed();
+      if (batch.rows() < batchSize) {
+        return compressed;
+      }
+      lastTime = batch.lastTime();
+      lastRevisionId = batch.lastRevisionId();
+    }
+  }
+
+  private Batch compressBatch(
+      HistoryTable table, String lastTime, long lastRevisionId, String end) {
+    return tm().transact(
+            () -> {
+              @SuppressWarnings("unchecked")
+              List<Object[]> rows =
+                  tm().getEntityManager()
+                      .createNativeQuery(
+                          String.format(
+                              """
+                              SELECT %1$s, history_revision_id,
+                                CAST(history_modification_time AS text), history_xml_bytes
+                              FROM "%2$s"
+                              WHERE history_modification_time >= CAST(:lastTime AS timestamptz)
+                                AND history_modification_time < CAST(:end AS timestamptz)
+                                AND (history_modification_time, history_revision_id)
+                                  > (CAST(:lastTime AS timestamptz), :lastRevisionId)
+                                AND history_xml_bytes IS NOT NULL
+                                AND substring(history_xml_bytes FROM 1 FOR 2)
+                                  <> decode('1f8b', 'hex')
+                              ORDER BY history_modification_time, history_revision_id
+                              LIMIT :batchSize
+                              """,
+                              table.repoIdColumn(), table.name()))
+                      .setParameter("lastTime", lastTime)
+                      .setParameter("end", end)
+                      .setParameter("lastRevisionId", lastRevisionId)
+                      .setParameter("batchSize", batchSize)
+                      .getResultList();
+              int compressed = 0;
+              for (Object[] row : rows) {
+                byte[] xml = (byte[]) row[3];
+                byte[] compressedXml = CompressedXmlConverter.compress(xml);
+                // Documents that don't get smaller stay as they are, as the converter does.
+                if (compressedXml.length >= xml.length) {
+                  continue;
+                }
+                tm().getEntityManager()
+                    .createNativeQuery(
+                        String.format(
+                            """
+                            UPDATE "%2$s" SET history_xml_bytes = :xml
+                            WHERE %1$s = :repoId AND history_revision_id = :revisionId
+                              AND history_modification_time = CAST(:time AS timestamptz)
+                            """,
+                            table.repoIdColumn(), table.name()))
+                    .setParameter("xml", compressedXml)
+                    .setParameter("repoId", row[0])
+                    .setParameter("revisionId", row[1])
+                    .setParameter("time", row[2])
+                    .executeUpdate();
+                compressed++;
+              }
+              if (rows.isEmpty()) {
+                return new Batch(0, 0, lastTime, lastRevisionId);
+              }
+              Object[] last = rows.get(rows.size() - 1);
+              return new Batch(
+                  rows.size(), compressed, (String) last[2], ((Number) last[1]).longValue());
+            });
+  }
+
+  private record HistoryTable(String name, String repoIdColumn) {}
+
+  private record Batch(int rows, int compressed, String lastTime, long lastRevisionId) {}
+}
@@ -0,0 +1,200 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.beam.common;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableSortedSet.toImmutableSortedSet;
+import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
+import static java.util.Comparator.naturalOrder;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.LongStream;
+import javax.annotation.Nullable;
+
+/**
+ * Describes how a {@link RegistryJpaIO.Read} splits its query into ranges of a key, so that the
+ * ranges can be read in parallel.
+ *
+ * <p>The query must contain {@link #KEY_RANGE_TOKEN} as a condition of its {@code WHERE} clause,
+ * which is replaced with the bounds of each range. The range boundaries are sampled from the key
+ * column of an entity, evenly by row count, when the pipeline starts, which takes two scans of the
+ * key's index. The key should therefore be indexed, and should be the key that the query's rows are
+ * spread over, e.g. the repo ID of the resource being read.
+ *
+ * <p>Each range is read in its own transaction, so unlike an unpartitioned read, the results don't
+ * come from a single snapshot of the database.
+ */
+@AutoValue
+public abstract class KeyRangePartitioning implements Serializable {
+
+  private static final long serialVersionUID = 4417720598125327061L;
+
+  /** The placeholder in a query for the condition selecting a key range. */
+  public static final String KEY_RANGE_TOKEN = "%keyRange%";
+
+  static final String START_PARAMETER = "keyRangeStart";
+  static final String END_PARAMETER = "keyRangeEnd";
+
+  /** Name of the entity whose key column is sampled for the range boundaries. */
+  abstract String entityName();
+
+  /** Name of the key attribute of the entity. */
+  abstract String keyAttribute();
+
+  /** The expression for the key in the query, in place of the key attribute. */
+  abstract String keyPath();
+
+  /** The number of ranges to split the query into. */
+  abstract int partitions();
+
+  /**
+   * Returns a partitioning over the key attribute of the given entity.
+   *
+   * <p>The query is assumed to refer to the key by its bare attribute name, as in {@code SELECT
+   * repoId FROM Domain WHERE %keyRange%}. Use {@link #withKeyPath} otherwise.
+   */
+  public static KeyRangePartitioning create(
+      String entityName, String keyAttribute, int partitions) {
+    checkArgument(partitions > 0, "Number of partitions must be positive: %s", partitions);
+    return new AutoValue_KeyRangePartitioning(entityName, keyAttribute, keyAttribute, partitions);
+  }
+
+  /**
+   * Returns a copy of this partitioning that refers to the key by the given expression in the
+   * query, e.g. an aliased path in JPQL or the column name in a native query.
+   */
+  public KeyRangePartitioning withKeyPath(String keyPath) {
+    return new AutoValue_KeyRangePartitioning(entityName(), keyAttribute(), keyPath, partitions());
+  }
+
+  /**
+   * Splits the key space into up to {@link #partitions()} ranges with about the same number of
+   * rows each.
+   *
+   * <p>The rows are counted first, and then all boundaries are picked out by their row numbers in
+   * a single ordered scan of the key. Planning thus reads every key of the entity twice, which is
+   * cheap next to reading the rows themselves but not free for a large table. Ranges that would be
+   * empty, e.g. because there are fewer rows than partitions, are left out. This must be called in
+   * a transaction.
+   */
+  ImmutableList<KeyRange> planKeyRanges() {
+    long rows =
+        tm().query(String.format("SELECT COUNT(*) FROM %s", entityName()), Long.class)
+            .getSingleResult();
+    // Row numbers start at 1, so range i starts at row number rows * i / partitions + 1.
+    ImmutableSortedSet<Long> boundaryRowNumbers =
+        LongStream.range(1, partitions())
+            .map(i -> rows * i / partitions())
+            .filter(offset -> offset > 0)
+            .mapToObj(offset -> offset + 1)
+            .collect(toImmutableSortedSet(naturalOrder()));
+    ImmutableList.Builder<KeyRange> ranges = new ImmutableList.Builder<>();
+    Serializable start = null;
+    if (!boundaryRowNumbers.isEmpty()) {
+      String boundaryQuery =
+          String.format(
+              """
+              SELECT k.boundary FROM (
+                SELECT e.%2$s AS boundary, row_number() OVER (ORDER BY e.%2$s) AS rowNumber
+                FROM %1$s e) k
+              WHERE k.rowNumber IN :rowNumbers
+              ORDER BY k.rowNumber
+              """,
+              entityName(), keyAttribute());
+      for (Object boundary :
+          tm().query(boundaryQuery, Object.class)
+              .setParameter("rowNumbers", boundaryRowNumbers)
+              .getResultList()) {
+        // Keys that aren't unique can make neighboring boundaries equal.
+        if (Objects.equals(boundary, start)) {
+          continue;
+        }
+        Serializable end = (Serializable) boundary;
+        ranges.add(KeyRange.create(start, end));
+        start = end;
+      }
+    }
+    return ranges.add(KeyRange.create(start, null)).build();
+  }
+
+  /** Returns the query with the placeholder replaced by the condition for the given range. */
+  String applyTo(String query, KeyRange range) {
+    checkArgument(
+        query.contains(KEY_RANGE_TOKEN), "Partitioned query has no %s: %s", KEY_RANGE_TOKEN, query);
+    String condition;
+    if (range.start() == null && range.end() == null) {
+      condition = "1 = 1";
+    } else if (range.end() == null) {
+      condition = String.format("%s >= :%s", keyPath(), START_PARAMETER);
+    } else if (range.start() == null) {
+      condition = String.format("%s < :%s", keyPath(), END_PARAMETER);
+    } else {
+      condition =
+          String.format(
+              "%1$s >= :%2$s AND %1$s < :%3$s", keyPath(), START_PARAMETER, END_PARAMETER);
+    }
+    return query.replace(KEY_RANGE_TOKEN, "(" + condition + ")");
+  }
+
+  /** Returns the query parameters with the bounds of the given range added. */
+  static ImmutableMap<String, Object> addParameters(
+      @Nullable Map<String, Object> parameters, KeyRange range) {
+    ImmutableMap.Builder<String, Object> builder = new ImmutableMap.Builder<>();
+    if (parameters != null) {
+      builder.putAll(parameters);
+    }
+    if (range.start() != null) {
+      builder.put(START_PARAMETER, range.start());
+    }
+    if (range.end() != null) {
+      builder.put(END_PARAMETER, range.end());
+    }
+    return builder.buildOrThrow();
+  }
+
+  /** A range of keys, from an inclusive start to an exclusive end, where null means unbounded. */
+  @AutoValue
+  public abstract static class KeyRange implements Serializable {
+
+    private static final long serialVersionUID = -2470963286587452393L;
+
+    /** The range of all keys. */
+    public static final KeyRange ALL = create(null, null);
+
+    @Nullable
+    public abstract Serializable start();
+
+    @Nullable
+    public abstract Serializable end();
+
+    static KeyRange create(@Nullable Serializable start, @Nullable Serializable end) {
+      return new AutoValue_KeyRangePartitioning_KeyRange(start, end);
+    }
+
+    @Override
+    public final String toString() {
+      return String.format(
+          "[%s, %s)",
+          start() == null ? "-inf" : start(),
+          end() == null ? "+inf" : end());
+    }
+  }
+}
@@ -20,15 +20,21 @@ import static org.apache.beam.sdk.values.TypeDescriptors.integers;
 import com.google.auto.value.AutoValue;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Streams;
+import com.google.common.flogger.FluentLogger;
+import google.registry.beam.common.KeyRangePartitioning.KeyRange;
 import google.registry.beam.common.RegistryQuery.CriteriaQuerySupplier;
 import google.registry.persistence.transaction.JpaTransactionManager;
 import google.registry.persistence.transaction.TransactionManagerFactory;
 import jakarta.persistence.criteria.CriteriaQuery;
+import java.io.Serializable;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
 import javax.annotation.Nullable;
 import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.SerializableCoder;
 import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Distribution;
 import org.apache.beam.sdk.metrics.Metrics;
 import org.apache.beam.sdk.transforms.Create;
 import org.apache.beam.sdk.transforms.DoFn;
@@ -54,6 +60,8 @@ import org.apache.beam.sdk.values.PCollection;
  */
 public final class RegistryJpaIO {
 
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
   private RegistryJpaIO() {}
 
   public static <R> Read<R, R> read(CriteriaQuerySupplier<R> query) {
@@ -110,6 +118,56 @@ public final class RegistryJpaIO {
         .build();
   }
 
+  /**
+   * Returns a {@link Read} connector that splits the given {@code jpql} typed query into key
+   * ranges, and reads the ranges in parallel.
+   *
+   * <p>The query must contain {@link KeyRangePartitioning#KEY_RANGE_TOKEN} in its {@code WHERE}
+   * clause. User should take care to prevent sql-injection attacks.
+   */
+  public static <R, T> Read<R, T> readByKeyRanges(
+      String jpql,
+      @Nullable Map<String, Object> parameters,
+      Class<R> clazz,
+      KeyRangePartitioning partitioning,
+      SerializableFunction<R, T> resultMapper) {
+    return Read.<R, T>builder()
+        .partitionedQuery(
+            partitioning,
+            range ->
+                RegistryQuery.createQuery(
+                    partitioning.applyTo(jpql, range),
+                    KeyRangePartitioning.addParameters(parameters, range),
+                    clazz))
+        .resultMapper(resultMapper)
+        .build();
+  }
+
+  /**
+   * Returns a {@link Read} connector that splits the given native or {@code jpql} query string into
+   * key ranges, and reads the ranges in parallel.
+   *
+   * <p>The query must contain {@link KeyRangePartitioning#KEY_RANGE_TOKEN} in its {@code WHERE}
+   * clause. User should take care to prevent sql-injection attacks.
+   */
+  public static <R, T> Read<R, T> readByKeyRanges(
+      String sql,
+      @Nullable Map<String, Object> parameters,
+      boolean nativeQuery,
+      KeyRangePartitioning partitioning,
+      SerializableFunction<R, T> resultMapper) {
+    return Read.<R, T>builder()
+        .partitionedQuery(
+            partitioning,
+            range ->
+                RegistryQuery.<R>createQuery(
+                    partitioning.applyTo(sql, range),
+                    KeyRangePartitioning.addParameters(parameters, range),
+                    nativeQuery))
+        .resultMapper(resultMapper)
+        .build();
+  }
+
   public static <T> Write<T> write() {
     return Write.<T>builder().build();
   }
@@ -118,6 +176,10 @@ public final class RegistryJpaIO {
    * A {@link PTransform transform} that transactionally executes a JPA {@link CriteriaQuery} and
    * adds the results to the BEAM pipeline. Users have the option to transform the results before
    * sending them to the next stages.
+   *
+   * <p>By default the whole query runs in one transaction on one worker. If it was created with a
+   * {@link KeyRangePartitioning}, the query is instead split into key ranges that are spread across
+   * the workers, each of which reads its ranges in separate transactions.
    */
   @AutoValue
   public abstract static class Read<R, T> extends PTransform<PBegin, PCollection<T>> {
@@ -134,16 +196,38 @@ public final class RegistryJpaIO {
     @Nullable
     abstract Coder<T> coder();
 
+    @Nullable
+    abstract PartitionedQuery<R> partitionedQuery();
+
     abstract Builder<R, T> toBuilder();
 
     @Override
     @SuppressWarnings("deprecation") // Reshuffle still recommended by GCP.
     public PCollection<T> expand(PBegin input) {
-      PCollection<T> output =
-          input
-              .apply("Starting " + name(), Create.of((Void) null))
-              .apply(
-                  "Run query for " + name(), ParDo.of(new QueryRunner<>(query(), resultMapper())));
+      PCollection<T> output;
+      if (partitionedQuery() == null) {
+        output =
+            input
+                .apply("Starting " + name(), Create.of((Void) null))
+                .apply(
+                    "Run query for " + name(),
+                    ParDo.of(new QueryRunner<>(query(), resultMapper())));
+      } else {
+        output =
+            input
+                .apply("Starting " + name(), Create.of((Void) null))
+                .apply(
+                    "Plan key ranges for " + name(),
+                    ParDo.of(new KeyRangePlanner(partitionedQuery().partitioning())))
+                .setCoder(SerializableCoder.of(KeyRange.class))
+                // Breaks fusion so that the ranges are read on different workers.
+                .apply("Distribute key ranges for " + name(), Reshuffle.viaRandomKey())
+                .apply(
+                    "Run query by key range for " + name(),
+                    ParDo.of(
+                        new KeyRangeQueryRunner<>(
+                            name(), partitionedQuery().queryForRange(), resultMapper())));
+      }
       if (coder() != null) {
         output = output.setCoder(coder());
       }
@@ -194,6 +278,32 @@ public final class RegistryJpaIO {
       Builder<R, T> jpqlQuery(String jpql, Class<R> clazz, Map<String, Object> parameters) {
         return query(RegistryQuery.createQuery(jpql, parameters, clazz));
       }
+
+      abstract Builder<R, T> partitionedQuery(PartitionedQuery<R> partitionedQuery);
+
+      Builder<R, T> partitionedQuery(
+          KeyRangePartitioning partitioning,
+          SerializableFunction<KeyRange, RegistryQuery<R>> queryForRange) {
+        return query(queryForRange.apply(KeyRange.ALL))
+            .partitionedQuery(PartitionedQuery.create(partitioning, queryForRange));
+      }
+    }
+
+    /** A query that can be restricted to a {@link KeyRange}, and how to split it into ranges. */
+    @AutoValue
+    abstract static class PartitionedQuery<R> implements Serializable {
+
+      private static final long serialVersionUID = -5012498385431908215L;
+
+      abstract KeyRangePartitioning partitioning();
+
+      abstract SerializableFunction<KeyRange, RegistryQuery<R>> queryForRange();
+
+      static <R> PartitionedQuery<R> create(
+          KeyRangePartitioning partitioning,
+          SerializableFunction<KeyRange, RegistryQuery<R>> queryForRange) {
+        return new AutoValue_RegistryJpaIO_Read_PartitionedQuery<>(partitioning, queryForRange);
+      }
     }
 
     static class QueryRunner<R, T> extends DoFn<Void, T> {
@@ -222,6 +332,70 @@ public final class RegistryJpaIO {
                 });
       }
     }
+
+    /** Splits the key space of a {@link KeyRangePartitioning} into ranges. */
+    static class KeyRangePlanner extends DoFn<Void, KeyRange> {
+
+      private static final long serialVersionUID = 2907384618120469503L;
+      private final KeyRangePartitioning partitioning;
+
+      KeyRangePlanner(KeyRangePartitioning partitioning) {
+        this.partitioning = partitioning;
+      }
+
+      @ProcessElement
+      public void processElement(OutputReceiver<KeyRange> outputReceiver) {
+        ImmutableList<KeyRange> ranges = tm().transact(partitioning::planKeyRanges);
+        logger.atInfo().log(
+            "Split %s into %d key ranges: %s", partitioning.entityName(), ranges.size(), ranges);
+        ranges.forEach(outputReceiver::output);
+      }
+    }
+
+    /**
+     * Runs the query for each key range it receives, and reports the progress through Beam
+     * metrics.
+     */
+    static class KeyRangeQueryRunner<R, T> extends DoFn<KeyRange, T> {
+
+      private static final long serialVersionUID = -3376425917834902218L;
+      private final SerializableFunction<KeyRange, RegistryQuery<R>> queryForRange;
+      private final SerializableFunction<R, T> resultMapper;
+      private final Counter rowsRead;
+      private final Counter rangesRead;
+      private final Distribution rowsPerRange;
+
+      KeyRangeQueryRunner(
+          String name,
+          SerializableFunction<KeyRange, RegistryQuery<R>> queryForRange,
+          SerializableFunction<R, T> resultMapper) {
+        this.queryForRange = queryForRange;
+        this.resultMapper = resultMapper;
+        rowsRead = Metrics.counter("SQL_READ", name);
+        rangesRead = Metrics.counter("SQL_READ", name + " key ranges");
+        rowsPerRange = Metrics.distribution("SQL_READ", name + " rows per key range");
+      }
+
+      @ProcessElement
+      public void processElement(@Element KeyRange range, OutputReceiver<T> outputReceiver) {
+        // See QueryRunner for why this must not be retried.
+        long rows =
+            tm().transactNoRetry(
+                    () -> {
+                      long count = 0;
+                      Iterator<R> results = queryForRange.apply(range).stream().iterator();
+                      while (results.hasNext()) {
+                        outputReceiver.output(resultMapper.apply(results.next()));
+                        rowsRead.inc();
+                        count++;
+                      }
+                      return count;
+                    });
+        rangesRead.inc();
+        rowsPerRange.update(rows);
+        logger.atInfo().log("Read %d rows in key range %s.", rows, range);
+      }
+    }
   }
 
   /**
@@ -56,6 +56,14 @@ public interface RegistryPipelineOptions extends GcpOptions {
 
   void setSqlWriteBatchSize(int sqlWriteBatchSize);
 
+  @Description(
+      "The number of key ranges to split large SQL reads into, to be read in parallel on separate"
+          + " connections.")
+  @Default.Integer(16)
+  int getSqlReadPartitions();
+
+  void setSqlReadPartitions(int sqlReadPartitions);
+
   static RegistryPipelineComponent toRegistryPipelineComponent(RegistryPipelineOptions options) {
     return DaggerRegistryPipelineComponent.builder()
         .isolationOverride(options.getIsolationOverride())
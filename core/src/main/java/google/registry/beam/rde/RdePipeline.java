@@ -311,7 +311,10 @@ public class RdePipeline implements Serializable {
     return pipeline.apply(
         String.format("Load most recent %s", historyClass.getSimpleName()),
         RegistryJpaIO.read(
-                ("SELECT repoId, revisionId FROM %entity% WHERE (repoId, modificationTime) IN"
+                // The outer bound on modificationTime is implied by the subquery, but lets the
+                // database skip the partitions of history newer than the watermark.
+                ("SELECT repoId, revisionId FROM %entity% WHERE modificationTime <= :watermark"
+                     + " AND (repoId, modificationTime) IN"
                      + " (SELECT repoId, MAX(modificationTime) FROM %entity% WHERE modificationTime"
                      + " <= :watermark GROUP BY repoId) AND resource.deletionTime > :watermark AND"
                      + " COALESCE(resource.creationRegistrarId, '') NOT LIKE 'prober-%' AND"
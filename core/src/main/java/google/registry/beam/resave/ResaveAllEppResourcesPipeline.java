@@ -15,6 +15,7 @@
 package google.registry.beam.resave;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static google.registry.beam.common.KeyRangePartitioning.KEY_RANGE_TOKEN;
 import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
 import static google.registry.util.DateTimeUtils.END_INSTANT;
 import static org.apache.beam.sdk.values.TypeDescriptors.integers;
@@ -23,6 +24,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Streams;
+import google.registry.beam.common.KeyRangePartitioning;
 import google.registry.beam.common.RegistryJpaIO;
 import google.registry.beam.common.RegistryJpaIO.Read;
 import google.registry.model.EppResource;
@@ -118,9 +120,15 @@ public class ResaveAllEppResourcesPipeline implements Serializable {
   /** Projects all resources to the current time and saves them. */
   private <T extends EppResource> void forceResaveAllResources(Pipeline pipeline, Class<T> clazz) {
     Read<String, String> repoIdRead =
-        RegistryJpaIO.read(
+        RegistryJpaIO.readByKeyRanges(
                 // Note: cannot use SQL parameters for the table name
-                String.format("SELECT repoId FROM %s", clazz.getSimpleName()), String.class, r -> r)
+                String.format(
+                    "SELECT repoId FROM %s WHERE %s", clazz.getSimpleName(), KEY_RANGE_TOKEN),
+                null,
+                String.class,
+                KeyRangePartitioning.create(
+                    clazz.getSimpleName(), "repoId", options.getSqlReadPartitions()),
+                r -> r)
             .withCoder(StringUtf8Coder.of());
     projectAndResaveResources(pipeline, clazz, repoIdRead);
   }
@@ -50,9 +50,8 @@ public class SafeBrowsingTransforms {
 
   private static final FluentLogger logger = FluentLogger.forEnclosingClass();
 
-  /** The URL to send SafeBrowsing API calls (POSTS) to. */
-  private static final String SAFE_BROWSING_URL =
-      "https://safebrowsing.googleapis.com/v4/threatMatches:find";
+  /** The base URL of the SafeBrowsing API, which all API calls (POSTs) are sent under. */
+  static final String SAFE_BROWSING_API_URL = "https://safebrowsing.googleapis.com/v4";
 
   /**
    * {@link DoFn} mapping a {@link DomainNameInfo} to its evaluation report from SafeBrowsing.
@@ -71,6 +70,9 @@ public class SafeBrowsingTransforms {
      */
     private static final int BATCH_SIZE = 490;
 
+    /** The base URL of the SafeBrowsing API, which is only changed in tests. */
+    private final String apiUrl;
+
     /** Provides the SafeBrowsing API key at runtime. */
     private final String apiKey;
 
@@ -94,8 +96,16 @@ public class SafeBrowsingTransforms {
     /** Retries on receiving transient failures such as {@link IOException}. */
     private final Retrier retrier;
 
+    /** The HTTP client, which is shared by all batches the instance evaluates. */
+    private transient CloseableHttpClient httpClient;
+
+    /** Constructs a {@link EvaluateSafeBrowsingFn} with a given API key. */
+    EvaluateSafeBrowsingFn(String apiKey, Retrier retrier, Clock clock) {
+      this(SAFE_BROWSING_API_URL, apiKey, retrier, clock);
+    }
+
     /**
-     * Constructs a {@link EvaluateSafeBrowsingFn} with a given API key.
+     * Constructs a {@link EvaluateSafeBrowsingFn} that calls the API at the given base URL.
      *
      * <p>We need to dual-cast the closeableHttpClientSupplier lambda because all {@code DoFn}
      * member variables need to be serializable. The (Supplier & Serializable) dual cast is safe
@@ -103,7 +113,8 @@ public class SafeBrowsingTransforms {
      * HttpClients#createDefault()}.
      */
     @SuppressWarnings("unchecked")
-    EvaluateSafeBrowsingFn(String apiKey, Retrier retrier, Clock clock) {
+    EvaluateSafeBrowsingFn(String apiUrl, String apiKey, Retrier retrier, Clock clock) {
+      this.apiUrl = apiUrl;
       this.apiKey = apiKey;
       this.retrier = retrier;
       this.clock = clock;
@@ -119,12 +130,29 @@ public class SafeBrowsingTransforms {
     @VisibleForTesting
     EvaluateSafeBrowsingFn(
         String apiKey, Retrier retrier, Clock clock, Supplier<CloseableHttpClient> clientSupplier) {
+      this.apiUrl = SAFE_BROWSING_API_URL;
       this.apiKey = apiKey;
       this.retrier = retrier;
       this.clock = clock;
       closeableHttpClientSupplier = clientSupplier;
     }
 
+    /**
+     * Creates the HTTP client once per instance, rather than once per batch, so that connections
+     * to the API are kept alive between batches.
+     */
+    @Setup
+    public void setup() {
+      httpClient = closeableHttpClientSupplier.get();
+    }
+
+    @Teardown
+    public void teardown() throws IOException {
+      if (httpClient != null) {
+        httpClient.close();
+      }
+    }
+
     /** Evaluates any buffered {@link DomainNameInfo} objects upon completing the bundle. */
     @FinishBundle
     public void finishBundle(FinishBundleContext context) {
@@ -165,7 +193,7 @@ public class SafeBrowsingTransforms {
       ImmutableSet.Builder<KV<DomainNameInfo, ThreatMatch>> resultBuilder =
           new ImmutableSet.Builder<>();
       try {
-        URIBuilder uriBuilder = new URIBuilder(SAFE_BROWSING_URL);
+        URIBuilder uriBuilder = new URIBuilder(apiUrl + "/threatMatches:find");
         // Add the API key param
         uriBuilder.addParameter("key", apiKey);
 
@@ -177,8 +205,7 @@ public class SafeBrowsingTransforms {
         // Retry transient exceptions such as IOException
         retrier.callWithRetry(
             () -> {
-              try (CloseableHttpClient client = closeableHttpClientSupplier.get();
-                  CloseableHttpResponse response = client.execute(httpPost)) {
+              try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
                 processResponse(response, resultBuilder);
               }
             },
@@ -208,12 +235,7 @@ public class SafeBrowsingTransforms {
           .put(
               "threatInfo",
               new JSONObject()
-                  .put(
-                      "threatTypes",
-                      new JSONArray()
-                          .put("MALWARE")
-                          .put("SOCIAL_ENGINEERING")
-                          .put("UNWANTED_SOFTWARE"))
+                  .put("threatTypes", new JSONArray(ThreatPrefixDatabase.THREAT_TYPES))
                   .put("platformTypes", new JSONArray().put("ANY_PLATFORM"))
                   .put("threatEntryTypes", new JSONArray().put("URL"))
                   .put("threatEntries", threatArray));
@@ -255,4 +277,39 @@ public class SafeBrowsingTransforms {
       }
     }
   }
+
+  /**
+   * {@link DoFn} that passes on only the domains that might be threats according to a local
+   * {@link ThreatPrefixDatabase}.
+   *
+   * <p>A domain that is not passed on is definitely not on any of the threat lists, as of the last
+   * update of the database. The others still have to be evaluated with {@link
+   * EvaluateSafeBrowsingFn}, since a prefix match alone doesn't mean that the full hash matches.
+   *
+   * <p>Each instance reads the database from GCS once in {@link #setup}, rather than getting it as
+   * a side input, so that its prefixes aren't serialized into the job graph.
+   */
+  static class MatchThreatPrefixesFn extends DoFn<DomainNameInfo, DomainNameInfo> {
+
+    private final String databasePath;
+
+    private transient ThreatPrefixDatabase database;
+
+    MatchThreatPrefixesFn(String databasePath) {
+      this.databasePath = databasePath;
+    }
+
+    @Setup
+    public void setup() throws IOException {
+      database = ThreatPrefixDatabase.read(databasePath);
+    }
+
+    @ProcessElement
+    public void processElement(
+        @Element DomainNameInfo domainNameInfo, OutputReceiver<DomainNameInfo> output) {
+      if (!database.matchingThreatTypes(domainNameInfo.domainName()).isEmpty()) {
+        output.output(domainNameInfo);
+      }
+    }
+  }
 }
@@ -16,7 +16,10 @@ package google.registry.beam.spec11;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
+import static java.time.ZoneOffset.UTC;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import dagger.Component;
 import dagger.Module;
@@ -24,6 +27,7 @@ import dagger.Provides;
 import google.registry.beam.common.RegistryJpaIO;
 import google.registry.beam.common.RegistryJpaIO.Read;
 import google.registry.beam.spec11.SafeBrowsingTransforms.EvaluateSafeBrowsingFn;
+import google.registry.beam.spec11.SafeBrowsingTransforms.MatchThreatPrefixesFn;
 import google.registry.config.RegistryConfig.ConfigModule;
 import google.registry.model.domain.Domain;
 import google.registry.model.reporting.Spec11ThreatMatch;
@@ -34,24 +38,35 @@ import google.registry.util.Clock;
 import google.registry.util.Retrier;
 import google.registry.util.UtilsModule;
 import jakarta.inject.Singleton;
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import javax.annotation.Nullable;
 import org.apache.beam.sdk.Pipeline;
 import org.apache.beam.sdk.PipelineResult;
 import org.apache.beam.sdk.coders.KvCoder;
 import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.io.FileSystems;
 import org.apache.beam.sdk.io.TextIO;
+import org.apache.beam.sdk.io.WriteFilesResult;
+import org.apache.beam.sdk.io.fs.MoveOptions.StandardMoveOptions;
 import org.apache.beam.sdk.options.PipelineOptionsFactory;
+import org.apache.beam.sdk.transforms.Create;
 import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.Flatten;
 import org.apache.beam.sdk.transforms.GroupByKey;
 import org.apache.beam.sdk.transforms.MapElements;
 import org.apache.beam.sdk.transforms.ParDo;
 import org.apache.beam.sdk.transforms.Reshuffle;
+import org.apache.beam.sdk.transforms.Wait;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionList;
 import org.apache.beam.sdk.values.TypeDescriptor;
 import org.apache.beam.sdk.values.TypeDescriptors;
+import org.apache.http.impl.client.HttpClients;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -86,12 +101,25 @@ public class Spec11Pipeline implements Serializable {
   /** The JSON object field into which we put the threat match array for Spec11 reports. */
   public static final String THREAT_MATCHES_FIELD = "threatMatches";
 
+  /** Where the threat prefix database for incremental runs is kept, under the reporting bucket. */
+  static final String THREAT_PREFIX_DATABASE_PATH = "icann/spec11/threat-prefix-database";
+
+  private static final String ACTIVE_DOMAINS_QUERY =
+      "select d.repoId, r.emailAddress from Domain d join Registrar r on"
+          + " d.currentSponsorRegistrarId = r.registrarId where r.type = 'REAL' and"
+          + " d.deletionTime > CAST(now() AS timestamp)";
+
   private final Spec11PipelineOptions options;
   private final EvaluateSafeBrowsingFn safeBrowsingFn;
+  private final ThreatListUpdater threatListUpdater;
 
-  Spec11Pipeline(Spec11PipelineOptions options, EvaluateSafeBrowsingFn safeBrowsingFn) {
+  Spec11Pipeline(
+      Spec11PipelineOptions options,
+      EvaluateSafeBrowsingFn safeBrowsingFn,
+      ThreatListUpdater threatListUpdater) {
     this.options = options;
     this.safeBrowsingFn = safeBrowsingFn;
+    this.threatListUpdater = threatListUpdater;
   }
 
   PipelineResult run() {
@@ -102,29 +130,128 @@ public class Spec11Pipeline implements Serializable {
 
   void setupPipeline(Pipeline pipeline) {
     options.setIsolationOverride(TransactionIsolationLevel.TRANSACTION_READ_COMMITTED);
-    PCollection<DomainNameInfo> domains = readFromCloudSql(pipeline);
+    PCollection<DomainNameInfo> domains =
+        options.getIncremental() ? readIncrementally(pipeline) : readFromCloudSql(pipeline);
 
     PCollection<KV<DomainNameInfo, ThreatMatch>> threatMatches =
         domains.apply("Run through SafeBrowsing API", ParDo.of(safeBrowsingFn));
 
-    saveToSql(threatMatches, options);
-    saveToGcs(threatMatches, options);
+    PCollection<Void> savedToSql = saveToSql(threatMatches, options);
+    WriteFilesResult<Void> savedToGcs = saveToGcs(threatMatches, options);
+    if (options.getIncremental()) {
+      commitThreatPrefixDatabase(
+          pipeline,
+          getPendingThreatPrefixDatabasePath(),
+          getThreatPrefixDatabasePath(),
+          savedToSql,
+          savedToGcs.getPerDestinationOutputFilenames());
+    }
+  }
+
+  /**
+   * Returns the active domains that have to be evaluated with the Lookup API in an incremental run.
+   *
+   * <p>Domains created or updated since the start of the previous day are all evaluated, since
+   * they may have been registered to host a threat. The others were already evaluated by an
+   * earlier run, so they are only evaluated again if they match a hash prefix in the threat lists.
+   *
+   * <p>Those lists are brought up to date before the pipeline starts and written to a pending file
+   * for this run, which the workers read the prefixes from. The pending file only replaces the
+   * database for the next run once the reports are saved, see {@link #commitThreatPrefixDatabase}.
+   */
+  private PCollection<DomainNameInfo> readIncrementally(Pipeline pipeline) {
+    String pendingDatabasePath = getPendingThreatPrefixDatabasePath();
+    try {
+      threatListUpdater
+          .update(ThreatPrefixDatabase.load(getThreatPrefixDatabasePath()))
+          .save(pendingDatabasePath);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to update the threat prefix database", e);
+    }
+
+    ImmutableMap<String, Object> since =
+        ImmutableMap.of(
+            "since",
+            LocalDate.parse(options.getDate()).minusDays(1).atStartOfDay(UTC).toInstant());
+    PCollection<DomainNameInfo> changedDomains =
+        readFromCloudSql(
+            pipeline,
+            ACTIVE_DOMAINS_QUERY + " and d.updateTimestamp.lastUpdateTime >= :since",
+            since,
+            "changed");
+    PCollection<DomainNameInfo> prefixMatches =
+        readFromCloudSql(
+                pipeline,
+                ACTIVE_DOMAINS_QUERY + " and d.updateTimestamp.lastUpdateTime < :since",
+                since,
+                "unchanged")
+            .apply(
+                "Match threat hash prefixes",
+                ParDo.of(new MatchThreatPrefixesFn(pendingDatabasePath)));
+    return PCollectionList.of(changedDomains)
+        .and(prefixMatches)
+        .apply("Combine domains to evaluate", Flatten.pCollections());
+  }
+
+  private String getThreatPrefixDatabasePath() {
+    return String.format("%s/%s", options.getReportingBucketUrl(), THREAT_PREFIX_DATABASE_PATH);
+  }
+
+  private String getPendingThreatPrefixDatabasePath() {
+    return String.format("%s-%s", getThreatPrefixDatabasePath(), options.getDate());
+  }
+
+  /**
+   * Replaces the threat prefix database with this run's pending one, once the reports are saved.
+   *
+   * <p>If the run fails, the next one starts again from the previous database.
+   */
+  private static void commitThreatPrefixDatabase(
+      Pipeline pipeline,
+      String pendingDatabasePath,
+      String databasePath,
+      PCollection<?>... saves) {
+    pipeline
+        .apply("Create one dummy element", Create.of(pendingDatabasePath))
+        .apply("Wait for the reports to be saved", Wait.on(saves))
+        // There is only one element, so the database is only replaced once.
+        .apply(
+            "Replace threat prefix database",
+            ParDo.of(
+                new DoFn<String, Void>() {
+                  @ProcessElement
+                  public void processElement(@Element String pendingPath) throws IOException {
+                    // A retry after a successful rename finds no pending file, and does nothing.
+                    FileSystems.rename(
+                        ImmutableList.of(FileSystems.matchNewResource(pendingPath, false)),
+                        ImmutableList.of(FileSystems.matchNewResource(databasePath, false)),
+                        StandardMoveOptions.IGNORE_MISSING_FILES);
+                  }
+                }));
   }
 
   static PCollection<DomainNameInfo> readFromCloudSql(Pipeline pipeline) {
+    return readFromCloudSql(pipeline, ACTIVE_DOMAINS_QUERY, null, "active");
+  }
+
+  /**
+   * Reads the domains matching a query that selects a domain's repo ID and registrar email address.
+   *
+   * @param description describes the domains in the names of the transforms, which must be unique
+   */
+  private static PCollection<DomainNameInfo> readFromCloudSql(
+      Pipeline pipeline,
+      String query,
+      @Nullable ImmutableMap<String, Object> parameters,
+      String description) {
     Read<Object[], KV<String, String>> read =
-        RegistryJpaIO.read(
-                "select d.repoId, r.emailAddress from Domain d join Registrar r on"
-                    + " d.currentSponsorRegistrarId = r.registrarId where r.type = 'REAL' and"
-                    + " d.deletionTime > CAST(now() AS timestamp)",
-                false,
-                Spec11Pipeline::parseRow)
+        RegistryJpaIO.read(query, parameters, false, Spec11Pipeline::parseRow)
             .withCoder(KvCoder.of(StringUtf8Coder.of(), StringUtf8Coder.of()));
 
     return pipeline
-        .apply("Read active domains from Cloud SQL", read)
+        .apply(String.format("Read %s domains from Cloud SQL", description), read)
         .apply(
-            "Build DomainNameInfo",
+            String.format("Build DomainNameInfo for %s domains", description),
             ParDo.of(
                 new DoFn<KV<String, String>, DomainNameInfo>() {
                   @ProcessElement
@@ -152,11 +279,11 @@ public class Spec11Pipeline implements Serializable {
     return KV.of((String) row[0], (String) row[1]);
   }
 
-  static void saveToSql(
+  static PCollection<Void> saveToSql(
       PCollection<KV<DomainNameInfo, ThreatMatch>> threatMatches, Spec11PipelineOptions options) {
     LocalDate date = LocalDate.parse(options.getDate());
     String transformId = "Spec11 Threat Matches";
-    threatMatches
+    return threatMatches
         .apply(
             "Construct objects",
             ParDo.of(
@@ -186,9 +313,9 @@ public class Spec11Pipeline implements Serializable {
                 .withBatchSize(options.getSqlWriteBatchSize()));
   }
 
-  static void saveToGcs(
+  static WriteFilesResult<Void> saveToGcs(
       PCollection<KV<DomainNameInfo, ThreatMatch>> threatMatches, Spec11PipelineOptions options) {
-    threatMatches
+    return threatMatches
         .apply(
             "Map registrar ID to email/ThreatMatch pair",
             MapElements.into(
@@ -237,7 +364,8 @@ public class Spec11Pipeline implements Serializable {
                         options.getReportingBucketUrl(),
                         getSpec11ReportFilePath(LocalDate.parse(options.getDate()))))
                 .withoutSharding()
-                .withHeader("Map from registrar email / name to detected domain name threats:"));
+                .withHeader("Map from registrar email / name to detected domain name threats:")
+                .withOutputFilenames());
   }
 
   public static void main(String[] args) {
@@ -265,13 +393,25 @@ public class Spec11Pipeline implements Serializable {
     @Provides
     EvaluateSafeBrowsingFn provideSafeBrowsingFn(
         Spec11PipelineOptions options, Retrier retrier, Clock clock) {
-      return new EvaluateSafeBrowsingFn(options.getSafeBrowsingApiKey(), retrier, clock);
+      return new EvaluateSafeBrowsingFn(
+          options.getSafeBrowsingApiUrl(), options.getSafeBrowsingApiKey(), retrier, clock);
+    }
+
+    @Provides
+    ThreatListUpdater provideThreatListUpdater(Spec11PipelineOptions options, Retrier retrier) {
+      return new ThreatListUpdater(
+          options.getSafeBrowsingApiUrl(),
+          options.getSafeBrowsingApiKey(),
+          retrier,
+          HttpClients::createDefault);
     }
 
     @Provides
     Spec11Pipeline providePipeline(
-        Spec11PipelineOptions options, EvaluateSafeBrowsingFn safeBrowsingFn) {
-      return new Spec11Pipeline(options, safeBrowsingFn);
+        Spec11PipelineOptions options,
+        EvaluateSafeBrowsingFn safeBrowsingFn,
+        ThreatListUpdater threatListUpdater) {
+      return new Spec11Pipeline(options, safeBrowsingFn, threatListUpdater);
     }
   }
 
@@ -15,6 +15,7 @@
 package google.registry.beam.spec11;
 
 import google.registry.beam.common.RegistryPipelineOptions;
+import org.apache.beam.sdk.options.Default;
 import org.apache.beam.sdk.options.Description;
 
 /** Custom options for running the spec11 pipeline. */
@@ -34,4 +35,19 @@ public interface Spec11PipelineOptions extends RegistryPipelineOptions {
   String getReportingBucketUrl();
 
   void setReportingBucketUrl(String value);
+
+  @Description(
+      "If true, only domains created or updated since the previous day's run are sent to the"
+          + " SafeBrowsing Lookup API. The others are checked against a local threat hash prefix"
+          + " database, and only sent to the Lookup API if one of their hash prefixes matches.")
+  @Default.Boolean(false)
+  boolean getIncremental();
+
+  void setIncremental(boolean value);
+
+  @Description("The base URL of the SafeBrowsing API.")
+  @Default.String(SafeBrowsingTransforms.SAFE_BROWSING_API_URL)
+  String getSafeBrowsingApiUrl();
+
+  void setSafeBrowsingApiUrl(String value);
 }
@@ -0,0 +1,221 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.beam.spec11;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.http.HttpStatus.SC_OK;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.flogger.FluentLogger;
+import com.google.common.io.CharStreams;
+import google.registry.beam.spec11.ThreatPrefixDatabase.ThreatList;
+import google.registry.util.Retrier;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Supplier;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.protocol.HTTP;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Brings a {@link ThreatPrefixDatabase} up to date with the SafeBrowsing Update API.
+ *
+ * <p>This runs once per pipeline, in the launcher, before any domains are read.
+ *
+ * @see <a href="https://developers.google.com/safe-browsing/v4/update-api">Update API</a>
+ */
+class ThreatListUpdater {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private final String apiUrl;
+  private final String apiKey;
+  private final Retrier retrier;
+  private final Supplier<CloseableHttpClient> closeableHttpClientSupplier;
+
+  ThreatListUpdater(
+      String apiUrl,
+      String apiKey,
+      Retrier retrier,
+      Supplier<CloseableHttpClient> closeableHttpClientSupplier) {
+    this.apiUrl = apiUrl;
+    this.apiKey = apiKey;
+    this.retrier = retrier;
+    this.closeableHttpClientSupplier = closeableHttpClientSupplier;
+  }
+
+  /**
+   * Returns the database with all of its lists brought up to date.
+   *
+   * <p>If a list doesn't match the checksum of its update, e.g. because the stored copy was written
+   * by a run that failed halfway, it is downloaded again in full. A second mismatch fails the
+   * update, since the local list can't be trusted to have no false negatives.
+   */
+  ThreatPrefixDatabase update(ThreatPrefixDatabase database) {
+    ThreatPrefixDatabase updated = database;
+    ImmutableList.Builder<String> mismatched = new ImmutableList.Builder<>();
+    for (UpdatedList list : fetch(database, ThreatPrefixDatabase.THREAT_TYPES)) {
+      if (list.checksumMatches()) {
+        updated = updated.withList(list.threatType(), list.list());
+      } else {
+        mismatched.add(list.threatType());
+      }
+    }
+    ImmutableList<String> threatTypesToReset = mismatched.build();
+    if (threatTypesToReset.isEmpty()) {
+      return updated;
+    }
+    logger.atWarning().log(
+        "Checksum mismatch for %s, downloading them in full.", threatTypesToReset);
+    ThreatPrefixDatabase reset = database;
+    for (String threatType : threatTypesToReset) {
+      reset = reset.withList(threatType, ThreatList.EMPTY);
+    }
+    for (UpdatedList list : fetch(reset, threatTypesToReset)) {
+      if (!list.checksumMatches()) {
+        throw new IllegalStateException(
+            String.format("Checksum mismatch for %s after a full update.", list.threatType()));
+      }
+      updated = updated.withList(list.threatType(), list.list());
+    }
+    return updated;
+  }
+
+  /** Fetches and applies the updates to the given lists of the database. */
+  private ImmutableList<UpdatedList> fetch(
+      ThreatPrefixDatabase database, ImmutableList<String> threatTypes) {
+    try {
+      URIBuilder uriBuilder = new URIBuilder(apiUrl + "/threatListUpdates:fetch");
+      uriBuilder.addParameter("key", apiKey);
+      HttpPost httpPost = new HttpPost(uriBuilder.build());
+      httpPost.addHeader(HTTP.CONTENT_TYPE, ContentType.APPLICATION_JSON.toString());
+      JSONObject requestBody = createRequestBody(database, threatTypes);
+      httpPost.setEntity(new ByteArrayEntity(requestBody.toString().getBytes(UTF_8)));
+      JSONObject responseBody =
+          retrier.callWithRetry(
+              () -> {
+                try (CloseableHttpClient client = closeableHttpClientSupplier.get();
+                    CloseableHttpResponse response = client.execute(httpPost)) {
+                  return parseResponse(response);
+                }
+              },
+              IOException.class);
+      ImmutableMap.Builder<String, UpdatedList> updates = new ImmutableMap.Builder<>();
+      JSONArray listUpdates = responseBody.optJSONArray("listUpdateResponses", new JSONArray());
+      for (int i = 0; i < listUpdates.length(); i++) {
+        JSONObject listUpdate = listUpdates.getJSONObject(i);
+        String threatType = listUpdate.getString("threatType");
+        if (threatTypes.contains(threatType)) {
+          updates.put(threatType, applyUpdate(database.getList(threatType), listUpdate));
+        }
+      }
+      ImmutableMap<String, UpdatedList> updatesByType = updates.buildOrThrow();
+      // A list the response says nothing about has not changed.
+      return threatTypes.stream()
+          .map(
+              threatType ->
+                  updatesByType.getOrDefault(
+                      threatType,
+                      new UpdatedList(threatType, database.getList(threatType), true)))
+          .collect(ImmutableList.toImmutableList());
+    } catch (URISyntaxException | JSONException e) {
+      throw new RuntimeException("Caught parsing exception, failing pipeline.", e);
+    }
+  }
+
+  /** Creates a JSON object matching the request format for the Update API. */
+  private static JSONObject createRequestBody(
+      ThreatPrefixDatabase database, ImmutableList<String> threatTypes) throws JSONException {
+    JSONArray listUpdateRequests = new JSONArray();
+    for (String threatType : threatTypes) {
+      listUpdateRequests.put(
+          new JSONObject()
+              .put("threatType", threatType)
+              .put("platformType", "ANY_PLATFORM")
+              .put("threatEntryType", "URL")
+              .put("state", database.getList(threatType).clientState())
+              .put(
+                  "constraints",
+                  new JSONObject().put("supportedCompressions", new JSONArray().put("RAW"))));
+    }
+    return new JSONObject()
+        .put(
+            "client",
+            new JSONObject().put("clientId", "domainregistry").put("clientVersion", "0.0.1"))
+        .put("listUpdateRequests", listUpdateRequests);
+  }
+
+  private static JSONObject parseResponse(CloseableHttpResponse response) throws IOException {
+    int statusCode = response.getStatusLine().getStatusCode();
+    if (statusCode != SC_OK) {
+      throw new IOException(
+          String.format("Got unexpected status code %s from response.", statusCode));
+    }
+    try (InputStreamReader reader =
+        new InputStreamReader(response.getEntity().getContent(), UTF_8)) {
+      return new JSONObject(CharStreams.toString(reader));
+    }
+  }
+
+  /** Applies one list's update to the current copy of the list and verifies its checksum. */
+  private static UpdatedList applyUpdate(ThreatList current, JSONObject listUpdate)
+      throws JSONException {
+    String threatType = listUpdate.getString("threatType");
+    ThreatList base =
+        "FULL_UPDATE".equals(listUpdate.optString("responseType")) ? ThreatList.EMPTY : current;
+    List<Integer> removals = new ArrayList<>();
+    JSONArray removalSets = listUpdate.optJSONArray("removals", new JSONArray());
+    for (int i = 0; i < removalSets.length(); i++) {
+      JSONArray indices =
+          removalSets.getJSONObject(i).getJSONObject("rawIndices").getJSONArray("indices");
+      for (int j = 0; j < indices.length(); j++) {
+        removals.add(indices.getInt(j));
+      }
+    }
+    List<byte[]> additions = new ArrayList<>();
+    JSONArray additionSets = listUpdate.optJSONArray("additions", new JSONArray());
+    for (int i = 0; i < additionSets.length(); i++) {
+      JSONObject rawHashes = additionSets.getJSONObject(i).getJSONObject("rawHashes");
+      int prefixSize = rawHashes.getInt("prefixSize");
+      byte[] hashes = Base64.getDecoder().decode(rawHashes.getString("rawHashes"));
+      for (int offset = 0; offset + prefixSize <= hashes.length; offset += prefixSize) {
+        additions.add(Arrays.copyOfRange(hashes, offset, offset + prefixSize));
+      }
+    }
+    ThreatList updated = base.update(listUpdate.getString("newClientState"), removals, additions);
+    byte[] expectedChecksum =
+        Base64.getDecoder().decode(listUpdate.getJSONObject("checksum").getString("sha256"));
+    logger.atInfo().log(
+        "Updated %s list to %d prefixes (%d added, %d removed).",
+        threatType, updated.size(), additions.size(), removals.size());
+    return new UpdatedList(
+        threatType, updated, Arrays.equals(expectedChecksum, updated.checksum()));
+  }
+
+  private record UpdatedList(String threatType, ThreatList list, boolean checksumMatches) {}
+}
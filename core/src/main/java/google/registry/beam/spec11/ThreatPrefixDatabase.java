@@ -0,0 +1,270 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.beam.spec11;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ascii;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.apache.beam.sdk.io.FileSystems;
+import org.apache.beam.sdk.io.fs.EmptyMatchTreatment;
+import org.apache.beam.sdk.io.fs.MatchResult;
+import org.apache.beam.sdk.util.MimeTypes;
+
+/**
+ * A local copy of the SafeBrowsing threat lists, as SHA-256 hash prefixes.
+ *
+ * <p>This lets the incremental Spec11 pipeline check a domain without sending it to the Lookup
+ * API. A domain none of whose URL expressions has a prefix in the database is safe. A domain that
+ * does may or may not be a threat, since many full hashes share a prefix, and is confirmed with
+ * the Lookup API.
+ *
+ * <p>The lists are kept up to date with the Update API, see {@link ThreatListUpdater}, and stored
+ * between runs in the reporting bucket.
+ *
+ * @see <a href="https://developers.google.com/safe-browsing/v4/update-api">Update API</a>
+ */
+final class ThreatPrefixDatabase {
+
+  /** The threat types Spec11 reports, each of which is a separate list. */
+  static final ImmutableList<String> THREAT_TYPES =
+      ImmutableList.of("MALWARE", "SOCIAL_ENGINEERING", "UNWANTED_SOFTWARE");
+
+  static final ThreatPrefixDatabase EMPTY = new ThreatPrefixDatabase(ImmutableMap.of());
+
+  /** Identifies the file format, in case it ever needs to change. */
+  private static final int FORMAT_VERSION = 1;
+
+  private final ImmutableMap<String, ThreatList> lists;
+
+  private ThreatPrefixDatabase(ImmutableMap<String, ThreatList> lists) {
+    this.lists = lists;
+  }
+
+  /** Returns the list for a threat type, which is empty if it was never downloaded. */
+  ThreatList getList(String threatType) {
+    return lists.getOrDefault(threatType, ThreatList.EMPTY);
+  }
+
+  /** Returns a copy of this database with the list for a threat type replaced. */
+  ThreatPrefixDatabase withList(String threatType, ThreatList list) {
+    ImmutableMap.Builder<String, ThreatList> builder = new ImmutableMap.Builder<>();
+    builder.putAll(lists).put(threatType, list);
+    return new ThreatPrefixDatabase(builder.buildKeepingLast());
+  }
+
+  /** Returns the threat types whose lists have a prefix of one of the domain's expressions. */
+  ImmutableSet<String> matchingThreatTypes(String domainName) {
+    ImmutableList<byte[]> fullHashes =
+        expressions(domainName).stream()
+            .map(expression -> Hashing.sha256().hashString(expression, UTF_8).asBytes())
+            .collect(ImmutableList.toImmutableList());
+    ImmutableSet.Builder<String> threatTypes = new ImmutableSet.Builder<>();
+    lists.forEach(
+        (threatType, list) -> {
+          if (fullHashes.stream().anyMatch(list::matches)) {
+            threatTypes.add(threatType);
+          }
+        });
+    return threatTypes.build();
+  }
+
+  /**
+   * Returns the SafeBrowsing URL expressions whose hashes are looked up for a domain.
+   *
+   * <p>The Lookup API is given the bare domain name, which SafeBrowsing canonicalizes to {@code
+   * http://<domain>/}. Its expressions are the host and up to four of its suffixes, each followed
+   * by the root path. The top-level domain by itself is not an expression.
+   */
+  @VisibleForTesting
+  static ImmutableList<String> expressions(String domainName) {
+    List<String> labels = Splitter.on('.').splitToList(Ascii.toLowerCase(domainName));
+    ImmutableSet.Builder<String> expressions = new ImmutableSet.Builder<>();
+    expressions.add(String.join(".", labels) + "/");
+    for (int i = Math.max(1, labels.size() - 5); i <= labels.size() - 2; i++) {
+      expressions.add(String.join(".", labels.subList(i, labels.size())) + "/");
+    }
+    return expressions.build().asList();
+  }
+
+  /** Reads a database written by {@link #save}, or returns an empty one if there is none. */
+  static ThreatPrefixDatabase load(String path) throws IOException {
+    MatchResult match = FileSystems.match(path, EmptyMatchTreatment.ALLOW);
+    if (match.metadata().isEmpty()) {
+      return EMPTY;
+    }
+    try (InputStream in =
+        Channels.newInputStream(FileSystems.open(match.metadata().get(0).resourceId()))) {
+      return readFrom(in);
+    }
+  }
+
+  /** Reads a database written by {@link #save}, which must exist. */
+  static ThreatPrefixDatabase read(String path) throws IOException {
+    try (InputStream in =
+        Channels.newInputStream(
+            FileSystems.open(FileSystems.matchSingleFileSpec(path).resourceId()))) {
+      return readFrom(in);
+    }
+  }
+
+  /** Writes this database to the given path, replacing any previous one. */
+  void save(String path) throws IOException {
+    try (OutputStream out =
+        Channels.newOutputStream(
+            FileSystems.create(FileSystems.matchNewResource(path, false), MimeTypes.BINARY))) {
+      writeTo(out);
+    }
+  }
+
+  @VisibleForTesting
+  static ThreatPrefixDatabase readFrom(InputStream in) throws IOException {
+    DataInputStream data = new DataInputStream(in);
+    int version = data.readInt();
+    checkArgument(version == FORMAT_VERSION, "Unknown threat prefix database version %s", version);
+    ImmutableMap.Builder<String, ThreatList> lists = new ImmutableMap.Builder<>();
+    int listCount = data.readInt();
+    for (int i = 0; i < listCount; i++) {
+      String threatType = data.readUTF();
+      String clientState = data.readUTF();
+      byte[][] prefixes = new byte[data.readInt()][];
+      for (int j = 0; j < prefixes.length; j++) {
+        prefixes[j] = new byte[data.readUnsignedByte()];
+        data.readFully(prefixes[j]);
+      }
+      lists.put(threatType, new ThreatList(clientState, prefixes));
+    }
+    return new ThreatPrefixDatabase(lists.buildOrThrow());
+  }
+
+  @VisibleForTesting
+  void writeTo(OutputStream out) throws IOException {
+    DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(FORMAT_VERSION);
+    data.writeInt(lists.size());
+    for (Map.Entry<String, ThreatList> entry : lists.entrySet()) {
+      data.writeUTF(entry.getKey());
+      data.writeUTF(entry.getValue().clientState);
+      data.writeInt(entry.getValue().prefixes.length);
+      for (byte[] prefix : entry.getValue().prefixes) {
+        data.writeByte(prefix.length);
+        data.write(prefix);
+      }
+    }
+    data.flush();
+  }
+
+  /**
+   * One threat list: its hash prefixes in lexicographic (unsigned) order, and the opaque state the
+   * Update API returned with the latest update.
+   *
+   * <p>Prefixes are between 4 and 32 bytes long, though nearly all of them are 4 bytes.
+   */
+  static final class ThreatList {
+
+    static final ThreatList EMPTY = new ThreatList("", new byte[0][]);
+
+    private final String clientState;
+    private final byte[][] prefixes;
+    private final int[] prefixLengths;
+
+    private ThreatList(String clientState, byte[][] sortedPrefixes) {
+      this.clientState = clientState;
+      this.prefixes = sortedPrefixes;
+      Set<Integer> lengths = new TreeSet<>();
+      for (byte[] prefix : sortedPrefixes) {
+        lengths.add(prefix.length);
+      }
+      this.prefixLengths = lengths.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    String clientState() {
+      return clientState;
+    }
+
+    int size() {
+      return prefixes.length;
+    }
+
+    /** Returns whether any prefix in the list is a prefix of the given full hash. */
+    boolean matches(byte[] fullHash) {
+      for (int length : prefixLengths) {
+        if (Arrays.binarySearch(prefixes, Arrays.copyOf(fullHash, length), Arrays::compareUnsigned)
+            >= 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Returns the list after a partial update.
+     *
+     * @param removals indices into this list's prefixes of the prefixes to remove
+     * @param additions the prefixes to add
+     */
+    ThreatList update(
+        String newClientState, Collection<Integer> removals, Collection<byte[]> additions) {
+      boolean[] removed = new boolean[prefixes.length];
+      for (int index : removals) {
+        checkArgument(
+            index >= 0 && index < prefixes.length, "Removal index %s is out of range", index);
+        removed[index] = true;
+      }
+      List<byte[]> updated = new ArrayList<>(prefixes.length + additions.size());
+      for (int i = 0; i < prefixes.length; i++) {
+        if (!removed[i]) {
+          updated.add(prefixes[i]);
+        }
+      }
+      updated.addAll(additions);
+      byte[][] sorted = updated.toArray(new byte[0][]);
+      Arrays.sort(sorted, Arrays::compareUnsigned);
+      return new ThreatList(newClientState, sorted);
+    }
+
+    /**
+     * Returns the SHA-256 hash of all prefixes concatenated in order, which the Update API sends
+     * along with every update to verify the client's copy of the list.
+     */
+    byte[] checksum() {
+      Hasher hasher = Hashing.sha256().newHasher();
+      for (byte[] prefix : prefixes) {
+        hasher.putBytes(prefix);
+      }
+      return hasher.hash().asBytes();
+    }
+  }
+}
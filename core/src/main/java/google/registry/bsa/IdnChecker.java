@@ -51,9 +51,7 @@ public class IdnChecker {
 
   /** Returns all IDNs in which the {@code label} is valid. */
   public ImmutableSet<IdnTableEnum> getAllValidIdns(String label) {
-    return idnToTlds.keySet().stream()
-        .filter(idnTable -> idnTable.getTable().isValidLabel(label))
-        .collect(toImmutableSet());
+    return IdnTableEnum.getValidTables(label, idnToTlds.keySet());
   }
 
   /**
@@ -578,6 +578,52 @@ public final class RegistryConfig {
       return config.registryPolicy.requireSslCertificates;
     }
 
+    /**
+     * Returns the fraction of successful EPP responses to validate against the schemas.
+     *
+     * <p>Error responses are always validated.
+     *
+     * @see google.registry.flows.EppRequestHandler
+     */
+    @Provides
+    @Config("eppOutputValidationSampleRate")
+    public static double provideEppOutputValidationSampleRate(RegistryConfigSettings config) {
+      return config.registryPolicy.eppOutputValidationSampleRate;
+    }
+
+    /**
+     * Returns the number of threads used to verify EPP login passwords.
+     *
+     * @see google.registry.flows.session.LoginCredentialsVerifier
+     */
+    @Provides
+    @Config("loginVerificationThreads")
+    public static int provideLoginVerificationThreads(RegistryConfigSettings config) {
+      return config.registryPolicy.loginVerificationThreads;
+    }
+
+    /**
+     * Returns the maximum number of simultaneous password checks for a single registrar.
+     *
+     * @see google.registry.flows.session.LoginCredentialsVerifier
+     */
+    @Provides
+    @Config("maxConcurrentLoginsPerRegistrar")
+    public static int provideMaxConcurrentLoginsPerRegistrar(RegistryConfigSettings config) {
+      return config.registryPolicy.maxConcurrentLoginsPerRegistrar;
+    }
+
+    /**
+     * Returns how long an EPP login may wait for its password check before being rejected.
+     *
+     * @see google.registry.flows.session.LoginCredentialsVerifier
+     */
+    @Provides
+    @Config("loginVerificationTimeout")
+    public static Duration provideLoginVerificationTimeout(RegistryConfigSettings config) {
+      return Duration.ofSeconds(config.registryPolicy.loginVerificationTimeoutSeconds);
+    }
+
     /**
      * Returns the GCE machine type that a CPU-demanding pipeline should use.
      *
@@ -933,6 +979,17 @@ public final class RegistryConfig {
           .collect(toImmutableList());
     }
 
+    /**
+     * Returns whether the Spec11 pipeline only evaluates new and updated domains remotely.
+     *
+     * @see google.registry.beam.spec11.Spec11PipelineOptions#getIncremental()
+     */
+    @Provides
+    @Config("spec11IncrementalScan")
+    public static boolean provideSpec11IncrementalScan(RegistryConfigSettings config) {
+      return config.misc.spec11IncrementalScan;
+    }
+
     /**
      * Returns the name of the registry, for use in spec 11 emails.
      *
@@ -1073,6 +1130,33 @@ public final class RegistryConfig {
       return config.registryPolicy.greetingServerId;
     }
 
+    /**
+     * Returns whether domain checks may use the in-memory domain availability snapshot.
+     *
+     * @see google.registry.flows.domain.DomainAvailabilitySnapshot
+     */
+    @Provides
+    @Config("domainAvailabilitySnapshotEnabled")
+    public static boolean provideDomainAvailabilitySnapshotEnabled(RegistryConfigSettings config) {
+      return config.caching.domainAvailabilitySnapshotEnabled;
+    }
+
+    /** Returns how often the domain availability snapshot is refreshed from the replica. */
+    @Provides
+    @Config("domainAvailabilitySnapshotRefreshInterval")
+    public static Duration provideDomainAvailabilitySnapshotRefreshInterval(
+        RegistryConfigSettings config) {
+      return Duration.ofSeconds(config.caching.domainAvailabilitySnapshotRefreshSeconds);
+    }
+
+    /** Returns the age beyond which the domain availability snapshot is no longer used. */
+    @Provides
+    @Config("domainAvailabilitySnapshotMaxStaleness")
+    public static Duration provideDomainAvailabilitySnapshotMaxStaleness(
+        RegistryConfigSettings config) {
+      return Duration.ofSeconds(config.caching.domainAvailabilitySnapshotMaxStalenessSeconds);
+    }
+
     @Provides
     @Config("customLogicFactoryClass")
     public static String provideCustomLogicFactoryClass(RegistryConfigSettings config) {
@@ -1170,6 +1254,12 @@ public final class RegistryConfig {
       return config.auth.oauthClientId;
     }
 
+    @Provides
+    @Config("verifiedTokenCacheMaxEntries")
+    public static int provideVerifiedTokenCacheMaxEntries(RegistryConfigSettings config) {
+      return config.auth.verifiedTokenCacheMaxEntries;
+    }
+
     /**
      * Provides the OAuth scopes required for accessing Google APIs using the default credential.
      */
@@ -1599,6 +1689,24 @@ public final class RegistryConfig {
       return config.eppServer.serverCertificateCacheSeconds;
     }
 
+    @Provides
+    @Config("eppServerMaxPipelinedCommands")
+    public static int provideEppServerMaxPipelinedCommands(RegistryConfigSettings config) {
+      return config.eppServer.maxPipelinedCommands;
+    }
+
+    @Provides
+    @Config("eppServerPipelineWorkerThreads")
+    public static int provideEppServerPipelineWorkerThreads(RegistryConfigSettings config) {
+      return config.eppServer.pipelineWorkerThreads;
+    }
+
+    @Provides
+    @Config("eppServerInProcessAuthentication")
+    public static boolean provideEppServerInProcessAuthentication(RegistryConfigSettings config) {
+      return config.eppServer.inProcessAuthentication;
+    }
+
     @Provides
     @Config("eppServerQuota")
     public static RegistryConfigSettings.Quota provideEppServerQuota(
@@ -1678,6 +1786,15 @@ public final class RegistryConfig {
     return CONFIG_SETTINGS.get().caching.staticPremiumListMaxCachedEntries;
   }
 
+  /**
+   * Returns the maximum number of domain names across all TLDs to keep the prices of in memory.
+   *
+   * @see google.registry.pricing.PricingEngineProxy
+   */
+  public static int getDomainPricesMaxCachedEntries() {
+    return CONFIG_SETTINGS.get().caching.domainPricesMaxCachedEntries;
+  }
+
   public static boolean isEppResourceCachingEnabled() {
     return CONFIG_SETTINGS.get().caching.eppResourceCachingEnabled;
   }
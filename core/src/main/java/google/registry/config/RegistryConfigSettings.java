@@ -60,6 +60,7 @@ public class RegistryConfigSettings {
   public static class Auth {
     public List<String> allowedServiceAccountEmails;
     public String oauthClientId;
+    public int verifiedTokenCacheMaxEntries;
   }
 
   /** Configuration options for accessing Google APIs. */
@@ -104,6 +105,10 @@ public class RegistryConfigSettings {
     public String registryName;
     public List<String> spec11WebResources;
     public boolean requireSslCertificates;
+    public double eppOutputValidationSampleRate;
+    public int loginVerificationThreads;
+    public int maxConcurrentLoginsPerRegistrar;
+    public int loginVerificationTimeoutSeconds;
     public double sunriseDomainCreateDiscount;
     public Set<String> tieredPricingPromotionRegistrarIds;
     public Set<String> noPollMessageOnDeletionRegistrarIds;
@@ -158,10 +163,14 @@ public class RegistryConfigSettings {
     public int domainLabelCachingSeconds;
     public int singletonCachePersistSeconds;
     public int staticPremiumListMaxCachedEntries;
+    public int domainPricesMaxCachedEntries;
     public boolean eppResourceCachingEnabled;
     public int eppResourceCachingSeconds;
     public int eppResourceMaxCachedEntries;
     public int claimsListCachingSeconds;
+    public boolean domainAvailabilitySnapshotEnabled;
+    public int domainAvailabilitySnapshotRefreshSeconds;
+    public int domainAvailabilitySnapshotMaxStalenessSeconds;
   }
 
   /** Configuration for ICANN monthly reporting. */
@@ -219,6 +228,9 @@ public class RegistryConfigSettings {
     public int maxConnectionsPerIp;
     public int maxConnectionsPerCert;
     public int serverCertificateCacheSeconds;
+    public int maxPipelinedCommands;
+    public int pipelineWorkerThreads;
+    public boolean inProcessAuthentication;
     public Quota quota;
   }
 
@@ -248,6 +260,7 @@ public class RegistryConfigSettings {
     public String newAlertRecipientEmailAddress;
     public String spec11OutgoingEmailAddress;
     public List<String> spec11BccEmailAddresses;
+    public boolean spec11IncrementalScan;
     public int transientFailureRetries;
   }
 
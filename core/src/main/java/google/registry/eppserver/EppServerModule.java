@@ -16,6 +16,7 @@ package google.registry.eppserver;
 
 import com.google.api.services.cloudkms.v1.CloudKMS;
 import com.google.api.services.cloudkms.v1.model.DecryptRequest;
+import com.google.auth.ServiceAccountSigner;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.http.HttpTransportOptions;
 import com.google.cloud.storage.BlobId;
@@ -23,6 +24,8 @@ import com.google.cloud.storage.Storage;
 import com.google.cloud.storage.StorageException;
 import com.google.cloud.storage.StorageOptions;
 import com.google.common.base.Suppliers;
+import com.google.common.flogger.FluentLogger;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.monitoring.metrics.MetricReporter;
 import dagger.Component;
 import dagger.Module;
@@ -55,6 +58,7 @@ import java.time.Duration;
 import java.util.Base64;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -69,6 +73,8 @@ import redis.clients.jedis.UnifiedJedis;
 @Module
 public class EppServerModule {
 
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
   @Provides
   @EppProtocol
   static int provideEppPort(@Config("eppServerPort") int eppPort) {
@@ -112,6 +118,32 @@ public class EppServerModule {
         () -> OidcTokenUtils.createOidcToken(credentialsBundle, clientId), 1, TimeUnit.HOURS);
   }
 
+  /**
+   * Provides the service account that EPP commands are authenticated as when handed to the request
+   * handler, or empty if they should carry an OIDC token instead.
+   */
+  @Singleton
+  @Provides
+  @Named("inProcessServiceAccountEmail")
+  static Optional<String> provideInProcessServiceAccountEmail(
+      @Config("eppServerInProcessAuthentication") boolean inProcessAuthentication,
+      @ApplicationDefaultCredential GoogleCredentialsBundle credentialsBundle) {
+    if (!inProcessAuthentication) {
+      return Optional.empty();
+    }
+    // Both service account keys and the credentials from the GKE metadata server know their
+    // account; anything else (e.g. end-user credentials when running locally) uses tokens.
+    try {
+      if (credentialsBundle.getGoogleCredentials() instanceof ServiceAccountSigner signer) {
+        return Optional.of(signer.getAccount());
+      }
+    } catch (RuntimeException e) {
+      logger.atWarning().withCause(e).log("Cannot determine the default service account.");
+    }
+    logger.atWarning().log("In-process authentication unavailable, falling back to OIDC tokens.");
+    return Optional.empty();
+  }
+
   @Singleton
   @Provides
   @Named("canary")
@@ -207,6 +239,17 @@ public class EppServerModule {
     return Executors.newSingleThreadScheduledExecutor();
   }
 
+  /** Executor shared by all connections to run pipelined EPP commands off the event loops. */
+  @Singleton
+  @Provides
+  @Named("eppCommandExecutor")
+  static Executor provideEppCommandExecutor(
+      @Config("eppServerPipelineWorkerThreads") int workerThreads) {
+    return Executors.newFixedThreadPool(
+        workerThreads,
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("epp-command-%d").build());
+  }
+
   @Singleton
   @Provides
   static Mode provideMode() {
@@ -31,6 +31,7 @@ import google.registry.eppserver.quota.LocalConnectionLimiter;
 import google.registry.eppserver.quota.QuotaManager;
 import google.registry.module.RegistryServlet;
 import google.registry.request.RequestHandler;
+import google.registry.request.auth.InProcessAuthenticationMechanism;
 import google.registry.util.FakeHttpServletRequest;
 import google.registry.util.FakeHttpServletResponse;
 import google.registry.util.ProxyHttpHeaders;
@@ -45,7 +46,10 @@ import io.netty.util.concurrent.Promise;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import java.security.cert.X509Certificate;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -55,6 +59,14 @@ import java.util.regex.Pattern;
  *
  * <p>Consolidates throttling, session management, and in-process execution. Extracts registrar ID
  * (clID) directly from EPP login XML for accurate throttling.
+ *
+ * <p>By default each command is executed on the connection's event loop, so the next frame is not
+ * read until the previous response has been written. When {@code maxPipelinedCommands} is
+ * positive, frames keep being read while earlier commands are still executing on {@code
+ * commandExecutor}, up to that many commands per connection. Responses are always written in the
+ * order the commands were received. Consecutive read-only commands may execute concurrently, but
+ * any other command waits for everything before it to finish, and everything after it waits for
+ * it, so the observable semantics of the session are unchanged.
  */
 public class EppServiceHandler extends SimpleChannelInboundHandler<ByteBuf> {
 
@@ -64,6 +76,14 @@ public class EppServiceHandler extends SimpleChannelInboundHandler<ByteBuf> {
   private static final Pattern CLID_PATTERN =
       Pattern.compile("<clID>([^<]+)</clID>", Pattern.CASE_INSENSITIVE);
 
+  // Matches the greeting trigger and commands that never modify state. Anything not matched here
+  // is conservatively treated as mutating.
+  private static final Pattern READ_ONLY_COMMAND_PATTERN =
+      Pattern.compile(
+          "<(?:\\w+:)?hello\\s*/?>"
+              + "|<(?:\\w+:)?command>\\s*<(?:\\w+:)?(?:check|info)[\\s>]"
+              + "|<(?:\\w+:)?command>\\s*<(?:\\w+:)?poll\\s[^>]*op\\s*=\\s*[\"']req[\"']");
+
   public static final AttributeKey<String> CLIENT_CERTIFICATE_HASH_KEY =
       AttributeKey.valueOf("CLIENT_CERTIFICATE_HASH_KEY");
 
@@ -72,12 +92,21 @@ public class EppServiceHandler extends SimpleChannelInboundHandler<ByteBuf> {
   private final LocalConnectionLimiter localConnectionLimiter;
   private final QuotaManager commandQuotaManager;
   private final Supplier<String> idTokenSupplier;
+  private final Optional<String> inProcessServiceAccountEmail;
   private final String projectId;
+  private final int maxPipelinedCommands;
+  private final Executor commandExecutor;
 
   private String sslClientCertificateHash;
   private String clientAddress;
   private String registrarId; // The clID extracted from login
-  private String sessionCookie;
+  private volatile String sessionCookie;
+
+  // Pipelining state, only accessed from the channel's event loop.
+  private CompletableFuture<?> lastMutatingCommand = CompletableFuture.completedFuture(null);
+  private CompletableFuture<?> allSubmittedCommands = CompletableFuture.completedFuture(null);
+  private CompletableFuture<?> lastWrite = CompletableFuture.completedFuture(null);
+  private int inFlightCommands = 0;
 
   private boolean ipAcquired = false;
   private boolean certAcquired = false;
@@ -91,13 +120,19 @@ public class EppServiceHandler extends SimpleChannelInboundHandler<ByteBuf> {
       LocalConnectionLimiter localConnectionLimiter,
       @CommandQuota QuotaManager commandQuotaManager,
       @Named("idToken") Supplier<String> idTokenSupplier,
-      @Config("projectId") String projectId) {
+      @Named("inProcessServiceAccountEmail") Optional<String> inProcessServiceAccountEmail,
+      @Config("projectId") String projectId,
+      @Config("eppServerMaxPipelinedCommands") int maxPipelinedCommands,
+      @Named("eppCommandExecutor") Executor commandExecutor) {
     this.helloBytes = helloBytes.clone();
     this.metrics = metrics;
     this.localConnectionLimiter = localConnectionLimiter;
     this.commandQuotaManager = commandQuotaManager;
     this.idTokenSupplier = idTokenSupplier;
+    this.inProcessServiceAccountEmail = inProcessServiceAccountEmail;
     this.projectId = projectId;
+    this.maxPipelinedCommands = maxPipelinedCommands;
+    this.commandExecutor = commandExecutor;
   }
 
   @Override
@@ -176,18 +211,102 @@ public class EppServiceHandler extends SimpleChannelInboundHandler<ByteBuf> {
     }
 
     // 3. Execute command in-process
+    String commandRegistrarId = registrarId;
+    if (maxPipelinedCommands <= 0) {
+      writeResponse(ctx, executeCommand(xml, commandRegistrarId));
+      return;
+    }
+    pipelineCommand(ctx, xml, commandRegistrarId);
+  }
+
+  /**
+   * Schedules a command on the command executor and its response write on the event loop.
+   *
+   * <p>Read-only commands only wait for the last mutating command, so a run of them executes
+   * concurrently. A mutating command waits for every previously submitted command. Writes are
+   * chained on each other, which keeps responses in request order regardless of completion order.
+   * A failed write doesn't hold up the ones after it.
+   */
+  private void pipelineCommand(ChannelHandlerContext ctx, String xml, String commandRegistrarId) {
+    CompletableFuture<Optional<FakeHttpServletResponse>> result;
+    if (isReadOnlyCommand(xml)) {
+      result =
+          lastMutatingCommand.thenApplyAsync(
+              unused -> executePipelinedCommand(ctx, xml, commandRegistrarId), commandExecutor);
+      allSubmittedCommands = CompletableFuture.allOf(allSubmittedCommands, result);
+    } else {
+      result =
+          allSubmittedCommands.thenApplyAsync(
+              unused -> executePipelinedCommand(ctx, xml, commandRegistrarId), commandExecutor);
+      lastMutatingCommand = result;
+      allSubmittedCommands = result;
+    }
+    if (++inFlightCommands >= maxPipelinedCommands) {
+      ctx.channel().config().setAutoRead(false);
+    }
+    // A command that couldn't be run, e.g. because the executor rejected it, or that threw an
+    // Error, closes the connection just like a command that failed in the request handler.
+    CompletableFuture<Optional<FakeHttpServletResponse>> response =
+        result.exceptionally(
+            e -> {
+              logger.atSevere().withCause(e).log("Internal EPP processing error");
+              return Optional.empty();
+            });
+    lastWrite =
+        lastWrite
+            .handle((unused, e) -> null)
+            .thenCombine(response, (unused, rsp) -> rsp)
+            .thenAcceptAsync(
+                rsp -> {
+                  try {
+                    writeResponse(ctx, rsp);
+                  } finally {
+                    if (inFlightCommands-- == maxPipelinedCommands) {
+                      ctx.channel().config().setAutoRead(true);
+                    }
+                  }
+                },
+                ctx.executor());
+  }
+
+  private Optional<FakeHttpServletResponse> executePipelinedCommand(
+      ChannelHandlerContext ctx, String xml, String commandRegistrarId) {
+    // Don't bother executing commands queued behind a logout or a failure that closed the channel.
+    if (!ctx.channel().isActive()) {
+      return Optional.empty();
+    }
+    return executeCommand(xml, commandRegistrarId);
+  }
+
+  @VisibleForTesting
+  static boolean isReadOnlyCommand(String xml) {
+    return READ_ONLY_COMMAND_PATTERN.matcher(xml).find();
+  }
+
+  /**
+   * Runs a single command through the request handler.
+   *
+   * <p>Returns empty if processing failed, in which case the connection should be closed.
+   */
+  private Optional<FakeHttpServletResponse> executeCommand(
+      String xml, String commandRegistrarId) {
     FakeHttpServletRequest req = new FakeHttpServletRequest();
     req.setRequestUri("/_dr/epp");
     req.setBody(xml.getBytes(UTF_8));
     req.setHeader(ProxyHttpHeaders.CERTIFICATE_HASH, sslClientCertificateHash);
     req.setHeader(ProxyHttpHeaders.IP_ADDRESS, clientAddress);
-    if (registrarId != null) {
-      req.setHeader(ProxyHttpHeaders.REGISTRAR_ID, registrarId);
+    if (commandRegistrarId != null) {
+      req.setHeader(ProxyHttpHeaders.REGISTRAR_ID, commandRegistrarId);
     }
-    if (sessionCookie != null) {
-      req.setHeader("Cookie", sessionCookie);
+    String cookie = sessionCookie;
+    if (cookie != null) {
+      req.setHeader("Cookie", cookie);
+    }
+    if (inProcessServiceAccountEmail.isPresent()) {
+      InProcessAuthenticationMechanism.markAuthenticated(req, inProcessServiceAccountEmail.get());
+    } else {
+      req.setHeader("Authorization", "Bearer " + idTokenSupplier.get());
     }
-    req.setHeader("Authorization", "Bearer " + idTokenSupplier.get());
 
     FakeHttpServletResponse rsp = new FakeHttpServletResponse();
     String traceId =
@@ -201,25 +320,34 @@ public class EppServiceHandler extends SimpleChannelInboundHandler<ByteBuf> {
       if (setCookie != null) {
         sessionCookie = setCookie;
       }
-
-      ByteBuf out = Unpooled.wrappedBuffer(rsp.getPayload());
-      if ("close".equals(rsp.getHeader(ProxyHttpHeaders.EPP_SESSION))) {
-        @SuppressWarnings("unused")
-        Future<?> unusedFuture = ctx.writeAndFlush(out).addListener(ChannelFutureListener.CLOSE);
-      } else {
-        @SuppressWarnings("unused")
-        Future<?> unusedFuture = ctx.writeAndFlush(out);
-      }
+      return Optional.of(rsp);
     } catch (Exception e) {
       logger.atSevere().withCause(e).log("Internal EPP processing error");
-      @SuppressWarnings("unused")
-      Future<?> unusedFuture = ctx.close();
+      return Optional.empty();
     } finally {
       setCurrentTraceId(null);
       unsetCurrentRequest();
     }
   }
 
+  private static void writeResponse(
+      ChannelHandlerContext ctx, Optional<FakeHttpServletResponse> response) {
+    if (response.isEmpty()) {
+      @SuppressWarnings("unused")
+      Future<?> unusedFuture = ctx.close();
+      return;
+    }
+    FakeHttpServletResponse rsp = response.get();
+    ByteBuf out = Unpooled.wrappedBuffer(rsp.getPayload());
+    if ("close".equals(rsp.getHeader(ProxyHttpHeaders.EPP_SESSION))) {
+      @SuppressWarnings("unused")
+      Future<?> unusedFuture = ctx.writeAndFlush(out).addListener(ChannelFutureListener.CLOSE);
+    } else {
+      @SuppressWarnings("unused")
+      Future<?> unusedFuture = ctx.writeAndFlush(out);
+    }
+  }
+
   @Override
   public void channelInactive(ChannelHandlerContext ctx) throws Exception {
     if (certAcquired) {
@@ -22,9 +22,11 @@ import static google.registry.flows.FlowUtils.unmarshalEpp;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.flogger.FluentLogger;
 import com.google.gson.Gson;
+import google.registry.flows.EppMetrics.XmlOperation;
 import google.registry.flows.FlowModule.EppExceptionInProviderException;
 import google.registry.model.eppcommon.Trid;
 import google.registry.model.eppinput.EppInput;
@@ -33,6 +35,7 @@ import google.registry.model.eppoutput.EppResponse;
 import google.registry.model.eppoutput.Result;
 import google.registry.model.eppoutput.Result.Code;
 import google.registry.monitoring.whitebox.EppMetric;
+import google.registry.monitoring.whitebox.EppMetric.Phase;
 import jakarta.inject.Inject;
 import java.util.Optional;
 
@@ -45,6 +48,7 @@ public final class EppController {
 
   private static final FluentLogger logger = FluentLogger.forEnclosingClass();
   private static final String LOG_SEPARATOR = "=".repeat(40);
+  private static final String INVALID_COMMAND_TYPE = "_invalid";
 
   @Inject FlowComponent.Builder flowComponentBuilder;
   @Inject EppMetric.Builder eppMetricBuilder;
@@ -52,6 +56,12 @@ public final class EppController {
   @Inject ServerTridProvider serverTridProvider;
   @Inject Gson gson;
 
+  /** The type of the command most recently handled, for labeling response marshaling metrics. */
+  private String commandType = INVALID_COMMAND_TYPE;
+
+  /** The command name of the request most recently handled, for labeling its later phases. */
+  private String commandName = "";
+
   @Inject EppController() {}
 
   /** Reads EPP XML, executes the matching flow, and returns an {@link EppOutput}. */
@@ -65,8 +75,11 @@ public final class EppController {
     eppMetricBuilder.setRegistrarId(Optional.ofNullable(sessionMetadata.getRegistrarId()));
     try {
       EppInput eppInput;
+      Stopwatch stopwatch = Stopwatch.createStarted();
+      commandType = INVALID_COMMAND_TYPE;
       try {
         eppInput = unmarshalEpp(EppInput.class, inputXmlBytes);
+        commandType = eppInput.getCommandType();
       } catch (EppException e) {
         // Log the unmarshalling error, with the sanitized bytes (in base64) to help with debugging.
         Optional<String> sanitizedXml = EppXmlSanitizer.sanitizeEppXmlIfValid(inputXmlBytes);
@@ -92,6 +105,12 @@ public final class EppController {
         eppMetricBuilder.setStatus(e.getResult().getCode());
         return getErrorResponse(
             e.getResult(), Trid.create(null, serverTridProvider.createServerTrid()));
+      } finally {
+        eppMetricBuilder.addPhaseTime(Phase.PARSE, stopwatch.elapsed());
+        if (!isDryRun) {
+          eppMetrics.recordXmlProcessingTime(
+              commandType, XmlOperation.UNMARSHAL, stopwatch.elapsed());
+        }
       }
       if (!eppInput.getTargetIds().isEmpty()) {
         if (eppInput.isDomainType()) {
@@ -116,12 +135,31 @@ public final class EppController {
     } finally {
       if (!isDryRun) {
         EppMetric metric = eppMetricBuilder.build();
+        commandName = metric.getCommandName().orElse("");
         eppMetrics.incrementEppRequests(metric);
         eppMetrics.recordProcessingTime(metric);
+        eppMetrics.recordSqlStatementCounts(metric);
+        eppMetrics.recordPhaseTimes(metric);
       }
     }
   }
 
+  /**
+   * Returns the EPP command type of the last call to {@link #handleEppCommand}, or {@code
+   * "_invalid"} if its input could not be unmarshaled.
+   */
+  String getCommandType() {
+    return commandType;
+  }
+
+  /**
+   * Returns the command name, as recorded in the {@link EppMetric}, of the last call to {@link
+   * #handleEppCommand}, or an empty string if it had none or was a dry run.
+   */
+  String getCommandName() {
+    return commandName;
+  }
+
   /** Runs an EPP flow and converts known exceptions into EPP error responses. */
   private EppOutput runFlowConvertEppErrors(FlowComponent flowComponent) {
     try {
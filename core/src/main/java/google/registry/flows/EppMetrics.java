@@ -15,14 +15,20 @@
 package google.registry.flows;
 
 import static com.google.monitoring.metrics.EventMetric.DEFAULT_FITTER;
+import static java.util.Locale.ROOT;
 
+import com.google.common.collect.ImmutableMultiset;
 import com.google.common.collect.ImmutableSet;
 import com.google.monitoring.metrics.EventMetric;
+import com.google.monitoring.metrics.ExponentialFitter;
 import com.google.monitoring.metrics.IncrementableMetric;
 import com.google.monitoring.metrics.LabelDescriptor;
 import com.google.monitoring.metrics.MetricRegistryImpl;
 import google.registry.monitoring.whitebox.EppMetric;
+import google.registry.monitoring.whitebox.EppMetric.Phase;
+import google.registry.persistence.transaction.SqlStatementCounter.StatementType;
 import jakarta.inject.Inject;
+import java.time.Duration;
 
 /** EPP Instrumentation. */
 public class EppMetrics {
@@ -71,6 +77,58 @@ public class EppMetrics {
               LABEL_DESCRIPTORS,
               DEFAULT_FITTER);
 
+  private static final EventMetric sqlStatements =
+      MetricRegistryImpl.getDefault()
+          .newEventMetric(
+              "/epp/sql_statements",
+              "SQL Statements per EPP Request",
+              "count",
+              ImmutableSet.of(
+                  LabelDescriptor.create("command", "The name of the command."),
+                  LabelDescriptor.create("status", "The return status of the command."),
+                  LabelDescriptor.create("type", "The type of statement, e.g. select or update.")),
+              // Buckets from 1 to 512 statements.
+              ExponentialFitter.create(10, 2.0, 1.0));
+
+  private static final EventMetric phaseTime =
+      MetricRegistryImpl.getDefault()
+          .newEventMetric(
+              "/epp/phase_time",
+              "Time spent in each phase of an EPP request",
+              "milliseconds",
+              ImmutableSet.of(
+                  LabelDescriptor.create("command", "The name of the command."),
+                  LabelDescriptor.create("phase", "The phase of the request, e.g. flow or sql.")),
+              DEFAULT_FITTER);
+
+  private static final ImmutableSet<LabelDescriptor> LABEL_DESCRIPTORS_FOR_XML =
+      ImmutableSet.of(
+          LabelDescriptor.create("command", "The EPP command type, e.g. create or poll."),
+          LabelDescriptor.create("operation", "Whether the XML was marshaled or unmarshaled."));
+
+  private static final EventMetric xmlProcessingTime =
+      MetricRegistryImpl.getDefault()
+          .newEventMetric(
+              "/epp/xml_processing_time",
+              "EPP XML Marshaling and Unmarshaling Time",
+              "milliseconds",
+              LABEL_DESCRIPTORS_FOR_XML,
+              DEFAULT_FITTER);
+
+  private static final IncrementableMetric outputValidationFailures =
+      MetricRegistryImpl.getDefault()
+          .newIncrementableMetric(
+              "/epp/output_validation_failures",
+              "Count of EPP responses that failed schema validation",
+              "count",
+              ImmutableSet.of(LabelDescriptor.create("command", "The EPP command type.")));
+
+  /** The operation label values of {@code /epp/xml_processing_time}. */
+  public enum XmlOperation {
+    MARSHAL,
+    UNMARSHAL
+  }
+
   private enum TrafficType {
     CANARY, PROBER, REAL
   }
@@ -104,6 +162,58 @@ public class EppMetrics {
     requestTime.record(processingTime, commandName, getTrafficType(tld).toString(), eppStatusCode);
   }
 
+  /**
+   * Records the number of SQL statements of each type an EPP request took, if its flow ran in a
+   * transaction.
+   *
+   * <p>Statements sent in one JDBC batch count as one.
+   */
+  public void recordSqlStatementCounts(EppMetric metric) {
+    if (metric.getSqlStatementCounts().isEmpty()) {
+      return;
+    }
+    ImmutableMultiset<StatementType> counts = metric.getSqlStatementCounts().get();
+    String commandName = metric.getCommandName().orElse("");
+    String eppStatusCode =
+        metric.getStatus().isPresent() ? String.valueOf(metric.getStatus().get().code) : "";
+    for (StatementType type : StatementType.values()) {
+      sqlStatements.record(counts.count(type), commandName, eppStatusCode, type.label());
+    }
+  }
+
+  /**
+   * Records the time an EPP request spent in each of the phases it went through.
+   *
+   * <p>The marshaling of the response happens after the metric is built, so it's recorded
+   * separately with {@link #recordPhaseTime}.
+   */
+  public void recordPhaseTimes(EppMetric metric) {
+    String commandName = metric.getCommandName().orElse("");
+    metric.getPhaseTimes().forEach((phase, time) -> recordPhaseTime(commandName, phase, time));
+  }
+
+  /** Records the time an EPP request spent in one phase. */
+  public void recordPhaseTime(String commandName, Phase phase, Duration time) {
+    phaseTime.record(time.toNanos() / 1_000_000d, commandName, phase.label());
+  }
+
+  /**
+   * Records the time taken to convert between XML and the EPP model for one command.
+   *
+   * @param commandType the EPP command type as returned by {@code EppInput.getCommandType()}, or
+   *     {@code "_invalid"} if the input could not be unmarshaled
+   */
+  public void recordXmlProcessingTime(
+      String commandType, XmlOperation operation, Duration processingTime) {
+    xmlProcessingTime.record(
+        processingTime.toNanos() / 1_000_000d, commandType, operation.name().toLowerCase(ROOT));
+  }
+
+  /** Counts an EPP response that was sent even though it failed schema validation. */
+  public void incrementOutputValidationFailures(String commandType) {
+    outputValidationFailures.increment(commandType);
+  }
+
   private static TrafficType getTrafficType(String tld) {
     if (tld.endsWith("canary.test")) {
       return TrafficType.CANARY;
@@ -15,19 +15,26 @@
 package google.registry.flows;
 
 import static google.registry.flows.FlowUtils.marshalWithLenientRetry;
+import static google.registry.flows.FlowUtils.marshalWithoutValidation;
 import static google.registry.model.eppoutput.Result.Code.SUCCESS_AND_CLOSE;
 import static google.registry.xml.XmlTransformer.prettyPrint;
 import static jakarta.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
 import static jakarta.servlet.http.HttpServletResponse.SC_OK;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
 import com.google.common.flogger.FluentLogger;
 import com.google.common.net.MediaType;
+import google.registry.config.RegistryConfig.Config;
+import google.registry.flows.EppMetrics.XmlOperation;
 import google.registry.model.eppoutput.EppOutput;
+import google.registry.monitoring.whitebox.EppMetric.Phase;
 import google.registry.request.Response;
 import google.registry.util.ProxyHttpHeaders;
 import google.registry.util.StopwatchLogger;
 import jakarta.inject.Inject;
+import java.util.concurrent.ThreadLocalRandom;
 
 /** Handle an EPP request and response. */
 public class EppRequestHandler {
@@ -38,6 +45,11 @@ public class EppRequestHandler {
   private static final FluentLogger logger = FluentLogger.forEnclosingClass();
 
   @Inject EppController eppController;
+  @Inject EppMetrics eppMetrics;
+
+  @Inject
+  @Config("eppOutputValidationSampleRate")
+  double outputValidationSampleRate;
   @Inject Response response;
 
   @Inject
@@ -57,7 +69,19 @@ public class EppRequestHandler {
               sessionMetadata, credentials, eppRequestSource, isDryRun, isSuperuser, inputXmlBytes);
       response.setContentType(APPLICATION_EPP_XML);
       final StopwatchLogger stopwatch = new StopwatchLogger();
-      byte[] eppResponseXmlBytes = marshalWithLenientRetry(eppOutput);
+      Stopwatch marshalStopwatch = Stopwatch.createStarted();
+      String commandType = eppController.getCommandType();
+      byte[] eppResponseXmlBytes =
+          shouldValidateOutput(eppOutput)
+              ? marshalWithLenientRetry(
+                  eppOutput, () -> eppMetrics.incrementOutputValidationFailures(commandType))
+              : marshalWithoutValidation(eppOutput);
+      if (!isDryRun) {
+        eppMetrics.recordXmlProcessingTime(
+            commandType, XmlOperation.MARSHAL, marshalStopwatch.elapsed());
+        eppMetrics.recordPhaseTime(
+            eppController.getCommandName(), Phase.MARSHAL, marshalStopwatch.elapsed());
+      }
       stopwatch.tick("Completed EPP output marshaling.");
 
       response.setPayload(new String(eppResponseXmlBytes, UTF_8));
@@ -86,4 +110,18 @@ public class EppRequestHandler {
       sessionMetadata.save(response);
     }
   }
+
+  /**
+   * Returns whether to validate this response against the schemas.
+   *
+   * <p>Error responses are built from less common code paths, so they are always validated.
+   * Everything else is validated at the configured sample rate.
+   */
+  @VisibleForTesting
+  boolean shouldValidateOutput(EppOutput eppOutput) {
+    if (eppOutput.isResponse() && !eppOutput.isSuccess()) {
+      return true;
+    }
+    return ThreadLocalRandom.current().nextDouble() < outputValidationSampleRate;
+  }
 }
@@ -14,19 +14,20 @@
 
 package google.registry.flows;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static google.registry.model.eppcommon.ProtocolDefinition.ServiceExtension.FEE_0_11;
 import static google.registry.model.eppcommon.ProtocolDefinition.ServiceExtension.FEE_0_12;
 import static google.registry.model.eppcommon.ProtocolDefinition.ServiceExtension.FEE_0_6;
 import static google.registry.model.eppcommon.ProtocolDefinition.ServiceExtension.FEE_1_00;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableList;
 import google.registry.model.eppcommon.EppXmlTransformer;
 import google.registry.model.eppcommon.ProtocolDefinition.ServiceExtension;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * Normalizes Fee extension namespace tags in EPP XML response messages.
@@ -43,24 +44,37 @@ import java.util.stream.Collectors;
  * <p>This class can be used to normalize the namespace tag in EPP responses. Since every response
  * message may use at most one version of the Fee extension, we can remove declared but unused
  * versions from the message, thus freeing up the canonical tag ('fee') for the active version.
+ *
+ * <p>Responses with fee extensions can be large (e.g. a fee check of 50 names), so the marshalled
+ * bytes are rewritten in a single pass, without decoding them to a string or using regular
+ * expressions. All the tags and declarations it looks for are ASCII, and bytes of multi-byte UTF-8
+ * sequences are never ASCII, so this is safe on the encoded form.
  */
 public class FeeExtensionXmlTagNormalizer {
 
   // So far we only have Fee extensions to process
   private static final String CANONICAL_FEE_TAG = "fee";
 
-  private static final ImmutableSet<ServiceExtension> FEE_EXTENSIONS =
-      ImmutableSet.of(FEE_0_6, FEE_0_11, FEE_0_12, FEE_1_00);
+  private static final byte[] CANONICAL_TAG_WITH_COLON = (CANONICAL_FEE_TAG + ":").getBytes(UTF_8);
 
-  private static final Pattern FEE_EXTENSION_IN_USE_PATTERN =
-      Pattern.compile(feeExtensionInUseRegex());
+  private static final ImmutableList<FeeNamespace> FEE_NAMESPACES =
+      ImmutableList.of(FEE_0_6, FEE_0_11, FEE_0_12, FEE_1_00).stream()
+          .map(FeeNamespace::create)
+          .collect(toImmutableList());
 
-  @VisibleForTesting
-  static String feeExtensionInUseRegex() {
-    return FEE_EXTENSIONS.stream()
-        .map(ServiceExtension::getXmlTag)
-        .map(tag -> String.format("\\b(%s):", tag))
-        .collect(Collectors.joining("|"));
+  /** The byte sequences that identify and declare one version of the fee extension. */
+  private record FeeNamespace(
+      String tag, byte[] tagWithColon, byte[] declaration, byte[] canonicalDeclaration) {
+
+    static FeeNamespace create(ServiceExtension extension) {
+      String tag = extension.getXmlTag();
+      return new FeeNamespace(
+          tag,
+          (tag + ":").getBytes(UTF_8),
+          String.format("xmlns:%s=\"%s\"", tag, extension.getUri()).getBytes(UTF_8),
+          String.format("xmlns:%s=\"%s\"", CANONICAL_FEE_TAG, extension.getUri())
+              .getBytes(UTF_8));
+    }
   }
 
   /**
@@ -70,59 +84,96 @@ public class FeeExtensionXmlTagNormalizer {
    * removes unused namespace declarations and update the tag in the remaining declaration.
    *
    * <p>The input {@code xml} must be an EPP response message generated by the {@link
-   * EppXmlTransformer}. With this assumption, we can use regular expressions which is 10X faster
-   * than XML stream parsers.
+   * EppXmlTransformer}, encoded in UTF-8. If it doesn't use a fee extension, it is returned as is.
    */
-  public static String normalize(String xml) {
-    Optional<String> maybeFeeTagInUse = findFeeExtensionInUse(xml);
-    if (maybeFeeTagInUse.isEmpty()) {
+  public static byte[] normalize(byte[] xml) {
+    Optional<FeeNamespace> maybeInUse = findFeeExtensionInUse(xml);
+    if (maybeInUse.isEmpty()) {
       return xml;
     }
-    String feeTagInUse = maybeFeeTagInUse.get();
-    String normalized = xml;
-    for (ServiceExtension serviceExtension : FEE_EXTENSIONS) {
-      if (serviceExtension.getXmlTag().equals(feeTagInUse)) {
-        normalized = normalizeExtensionInUse(feeTagInUse, serviceExtension.getUri(), normalized);
-      } else {
-        normalized =
-            removeUnusedExtension(
-                serviceExtension.getXmlTag(), serviceExtension.getUri(), normalized);
+    FeeNamespace inUse = maybeInUse.get();
+    boolean renameInUse = !inUse.tag().equals(CANONICAL_FEE_TAG);
+    ByteArrayOutputStream normalized = new ByteArrayOutputStream(xml.length);
+    int copiedUpTo = 0;
+    int i = 0;
+    while (i < xml.length) {
+      int skip = 0;
+      byte[] replacement = null;
+      if (isWhitespace(xml[i])) {
+        // An unused declaration is removed together with the whitespace that precedes it.
+        for (FeeNamespace namespace : FEE_NAMESPACES) {
+          if (namespace != inUse && startsWith(xml, i + 1, namespace.declaration())) {
+            skip = 1 + namespace.declaration().length;
+            replacement = new byte[0];
+            break;
+          }
+        }
+      } else if (renameInUse) {
+        if (startsWith(xml, i, inUse.declaration())) {
+          skip = inUse.declaration().length;
+          replacement = inUse.canonicalDeclaration();
+        } else if (isWordBoundary(xml, i) && startsWith(xml, i, inUse.tagWithColon())) {
+          skip = inUse.tagWithColon().length;
+          replacement = CANONICAL_TAG_WITH_COLON;
+        }
       }
+      if (replacement == null) {
+        i++;
+        continue;
+      }
+      normalized.write(xml, copiedUpTo, i - copiedUpTo);
+      normalized.writeBytes(replacement);
+      i += skip;
+      copiedUpTo = i;
     }
-    return normalized;
+    normalized.write(xml, copiedUpTo, xml.length - copiedUpTo);
+    return normalized.toByteArray();
   }
 
-  static String removeUnusedExtension(String tag, String uri, String xml) {
-    String declaration = String.format("xmlns:%s=\"%s\"", tag, uri);
-    // There must be a leading whitespace, and it can be safely removed with the declaration.
-    return xml.replaceAll(String.format("\\s%s", declaration), "");
+  /** Returns an EPP response string that uses the canonical tag for the fee extension. */
+  public static String normalize(String xml) {
+    return new String(normalize(xml.getBytes(UTF_8)), UTF_8);
   }
 
-  static String normalizeExtensionInUse(String tagInUse, String uriInUse, String xml) {
-    if (tagInUse.equals(CANONICAL_FEE_TAG)) {
-      return xml;
+  /** Returns the tag of the fee extension used by the first fee element or attribute, if any. */
+  @VisibleForTesting
+  static Optional<String> findFeeExtensionInUse(String xml) {
+    return findFeeExtensionInUse(xml.getBytes(UTF_8)).map(FeeNamespace::tag);
+  }
+
+  private static Optional<FeeNamespace> findFeeExtensionInUse(byte[] xml) {
+    for (int i = 0; i < xml.length; i++) {
+      if (xml[i] != 'f' || !isWordBoundary(xml, i)) {
+        continue;
+      }
+      // We know only one extension is in use, so we can return on the first match
+      for (FeeNamespace namespace : FEE_NAMESPACES) {
+        if (startsWith(xml, i, namespace.tagWithColon())) {
+          return Optional.of(namespace);
+        }
+      }
     }
-    // Change the tag in the namespace declaration:
-    String currentDeclaration = String.format("xmlns:%s=\"%s\"", tagInUse, uriInUse);
-    String desiredDeclaraion = String.format("xmlns:fee=\"%s\"", uriInUse);
-    // The new tag at each site of use, with trailing colon:
-    String newTagWithColon = CANONICAL_FEE_TAG + ":";
-    return xml.replaceAll(String.format("\\b%s:", tagInUse), newTagWithColon)
-        .replaceAll(currentDeclaration, desiredDeclaraion);
+    return Optional.empty();
   }
 
-  static Optional<String> findFeeExtensionInUse(String xml) {
-    Matcher matcher = FEE_EXTENSION_IN_USE_PATTERN.matcher(xml);
+  private static boolean startsWith(byte[] xml, int offset, byte[] prefix) {
+    return offset + prefix.length <= xml.length
+        && Arrays.equals(xml, offset, offset + prefix.length, prefix, 0, prefix.length);
+  }
 
-    if (!matcher.find()) {
-      return Optional.empty();
-    }
-    // We know only one extension is in use, so we can return on the first match
-    for (int i = 1; i <= matcher.groupCount(); i++) {
-      if (matcher.group(i) != null) {
-        return Optional.of(matcher.group(i));
-      }
+  /** Whether {@code offset} is not preceded by an (ASCII) word character, like regex {@code \b}. */
+  private static boolean isWordBoundary(byte[] xml, int offset) {
+    if (offset == 0) {
+      return true;
     }
-    throw new IllegalStateException("Should not reach here. Bad FEE_EXTENSION_IN_USE_PATTERN?");
+    byte previous = xml[offset - 1];
+    return !((previous >= 'a' && previous <= 'z')
+        || (previous >= 'A' && previous <= 'Z')
+        || (previous >= '0' && previous <= '9')
+        || previous == '_');
+  }
+
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r';
   }
 }
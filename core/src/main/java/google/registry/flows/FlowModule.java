@@ -18,6 +18,7 @@ import static com.google.common.base.Preconditions.checkState;
 import static google.registry.persistence.transaction.TransactionManagerFactory.replicaTm;
 import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
 
+import com.google.common.base.Ascii;
 import com.google.common.base.Strings;
 import dagger.Module;
 import dagger.Provides;
@@ -37,6 +38,7 @@ import google.registry.model.host.HostHistory;
 import google.registry.model.reporting.HistoryEntry;
 import google.registry.persistence.IsolationLevel;
 import google.registry.persistence.PersistenceModule.TransactionIsolationLevel;
+import google.registry.persistence.TransactionRetries;
 import google.registry.persistence.transaction.JpaTransactionManager;
 import jakarta.inject.Qualifier;
 import java.lang.annotation.Documented;
@@ -146,6 +148,19 @@ public class FlowModule {
         .map(IsolationLevel::value);
   }
 
+  @Provides
+  @FlowScope
+  Optional<TransactionRetries> provideTransactionRetries(Class<? extends Flow> flowClass) {
+    return Optional.ofNullable(flowClass.getAnnotation(TransactionRetries.class));
+  }
+
+  @Provides
+  @FlowScope
+  @ConflictKey
+  static Optional<String> provideConflictKey(EppInput eppInput) {
+    return eppInput.getSingleTargetId().map(Ascii::toLowerCase);
+  }
+
   @Provides
   @FlowScope
   @LogSqlStatements
@@ -340,6 +355,11 @@ public class FlowModule {
   @Documented
   public @interface TargetId {}
 
+  /** Dagger qualifier for what a flow's transaction is expected to contend on, if anything. */
+  @Qualifier
+  @Documented
+  public @interface ConflictKey {}
+
   /** Dagger qualifier for the message id for poll flows. */
   @Qualifier
   @Documented
@@ -16,7 +16,9 @@ package google.registry.flows;
 
 import static google.registry.xml.XmlTransformer.prettyPrint;
 
+import com.google.common.base.Stopwatch;
 import com.google.common.flogger.FluentLogger;
+import google.registry.flows.FlowModule.ConflictKey;
 import google.registry.flows.FlowModule.DryRun;
 import google.registry.flows.FlowModule.InputXml;
 import google.registry.flows.FlowModule.LogSqlStatements;
@@ -27,8 +29,13 @@ import google.registry.flows.session.LoginFlow;
 import google.registry.model.eppcommon.Trid;
 import google.registry.model.eppoutput.EppOutput;
 import google.registry.monitoring.whitebox.EppMetric;
+import google.registry.monitoring.whitebox.EppMetric.Phase;
 import google.registry.persistence.PersistenceModule.TransactionIsolationLevel;
+import google.registry.persistence.TransactionRetries;
 import google.registry.persistence.transaction.JpaTransactionManager;
+import google.registry.persistence.transaction.SqlStatementCounter;
+import google.registry.persistence.transaction.TransactionRetrier;
+import google.registry.persistence.transaction.TransactionRetrier.RetryScope;
 import google.registry.util.StopwatchLogger;
 import jakarta.inject.Inject;
 import jakarta.inject.Provider;
@@ -46,6 +53,8 @@ public class FlowRunner {
   @Inject EppRequestSource eppRequestSource;
   @Inject Provider<Flow> flowProvider;
   @Inject Optional<TransactionIsolationLevel> isolationLevelOverride;
+  @Inject Optional<TransactionRetries> transactionRetries;
+  @Inject @ConflictKey Optional<String> conflictKey;
   @Inject Class<? extends Flow> flowClass;
   @Inject @InputXml byte[] inputXmlBytes;
   @Inject @DryRun boolean isDryRun;
@@ -61,6 +70,7 @@ public class FlowRunner {
 
   /** Runs the EPP flow, and records metrics on the given builder. */
   public EppOutput run(final EppMetric.Builder eppMetricBuilder) throws EppException {
+    Stopwatch sanitizeAndLogStopwatch = Stopwatch.createStarted();
     String prettyXml = prettyPrint(EppXmlSanitizer.sanitizeEppXml(inputXmlBytes));
 
     logger.atInfo().log(
@@ -77,34 +87,36 @@ public class FlowRunner {
     if (!isDryRun) {
       flowReporter.recordToLogs();
     }
+    eppMetricBuilder.addPhaseTime(Phase.SANITIZE_AND_LOG, sanitizeAndLogStopwatch.elapsed());
     eppMetricBuilder.setCommandNameFromFlow(flowClass.getSimpleName());
     final StopwatchLogger stopwatch = new StopwatchLogger();
 
     // We may already be in a transaction, e.g., when invoked by DeleteExpiredDomainsAction.
     if (!isTransactional || jpaTransactionManager.inTransaction()) {
       stopwatch.tick("We're in transaction, running the flow now.");
-      return EppOutput.create(flowProvider.get().run());
+      return runFlow(eppMetricBuilder);
     }
 
     stopwatch.tick("We're not in transaction, calling transact.");
-    try {
+    SqlStatementCounter.start();
+    try (RetryScope retryScope =
+        TransactionRetrier.enterScope(
+            flowClass.getSimpleName(),
+            transactionRetries
+                .map(TransactionRetries::maxAttempts)
+                .orElse(TransactionRetrier.DEFAULT_ATTEMPTS),
+            conflictKey,
+            transactionRetries.map(TransactionRetries::serializeByTargetId).orElse(false))) {
       return jpaTransactionManager.transact(
           isolationLevelOverride.orElse(null),
           () -> {
             try {
               stopwatch.tick("Running the flow in transaction.");
-              EppOutput output = EppOutput.create(flowProvider.get().run());
+              EppOutput output = runFlow(eppMetricBuilder);
               stopwatch.tick("Completed the flow in transaction.");
               if (isDryRun) {
                 throw new DryRunException(output);
               }
-              if (flowClass.equals(LoginFlow.class)) {
-                // In LoginFlow, registrarId isn't known until after the flow executes, so save
-                // it then.
-                stopwatch.tick("Login flow started setting registrar id.");
-                eppMetricBuilder.setRegistrarId(sessionMetadata.getRegistrarId());
-                stopwatch.tick("Login flow finished setting registrar id.");
-              }
               return output;
             } catch (EppException e) {
               throw new EppRuntimeException(e);
@@ -115,6 +127,31 @@ public class FlowRunner {
       return e.output;
     } catch (EppRuntimeException e) {
       throw e.getCause();
+    } finally {
+      SqlStatementCounter.Totals sqlStatements = SqlStatementCounter.stop();
+      eppMetricBuilder
+          .setSqlStatementCounts(sqlStatements.counts())
+          .addPhaseTime(Phase.SQL, sqlStatements.executionTime())
+          .addPhaseTime(Phase.COMMIT, sqlStatements.commitTime());
+    }
+  }
+
+  /** Runs the flow, and records the time it takes, and for a login, the time to authenticate. */
+  private EppOutput runFlow(EppMetric.Builder eppMetricBuilder) throws EppException {
+    Stopwatch flowStopwatch = Stopwatch.createStarted();
+    Flow flow = flowProvider.get();
+    try {
+      EppOutput output = EppOutput.create(flow.run());
+      if (flow instanceof LoginFlow) {
+        // In LoginFlow, registrarId isn't known until after the flow executes, so save it then.
+        eppMetricBuilder.setRegistrarId(sessionMetadata.getRegistrarId());
+      }
+      return output;
+    } finally {
+      eppMetricBuilder.addPhaseTime(Phase.FLOW, flowStopwatch.elapsed());
+      if (flow instanceof LoginFlow loginFlow) {
+        eppMetricBuilder.addPhaseTime(Phase.AUTH, loginFlow.getCredentialsVerificationTime());
+      }
     }
   }
 
@@ -87,6 +87,15 @@ public final class FlowUtils {
   }
 
   public static byte[] marshalWithLenientRetry(EppOutput eppOutput) {
+    return marshalWithLenientRetry(eppOutput, () -> {});
+  }
+
+  /**
+   * Marshals with schema validation, falling back to unvalidated output if validation fails.
+   *
+   * @param onValidationFailure run when validation failed but the lenient retry succeeded
+   */
+  public static byte[] marshalWithLenientRetry(EppOutput eppOutput, Runnable onValidationFailure) {
     checkState(eppOutput != null);
     // We need to marshal to a string instead of writing the response directly to the servlet's
     // response writer, so that partial results don't get written on failure.
@@ -100,6 +109,7 @@ public final class FlowUtils {
         // Marshaling worked even though the results didn't validate against the schema.
         logger.atSevere().withCause(e).log(
             "Result marshaled but did not validate: %s", new String(lenient, UTF_8));
+        onValidationFailure.run();
         return lenient;
       } catch (XmlException e2) {
         throw new RuntimeException(e2); // Failing to marshal at all is not recoverable.
@@ -107,6 +117,16 @@ public final class FlowUtils {
     }
   }
 
+  /** Marshals without schema validation, for responses that weren't sampled for validation. */
+  public static byte[] marshalWithoutValidation(EppOutput eppOutput) {
+    checkState(eppOutput != null);
+    try {
+      return EppXmlTransformer.marshal(eppOutput, LENIENT);
+    } catch (XmlException e) {
+      throw new RuntimeException(e); // Failing to marshal at all is not recoverable.
+    }
+  }
+
   public static HistoryEntryId createHistoryEntryId(EppResource parent) {
     return new HistoryEntryId(parent.getRepoId(), tm().allocateId());
   }
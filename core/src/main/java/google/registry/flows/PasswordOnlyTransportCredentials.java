@@ -18,14 +18,14 @@ import static com.google.common.base.MoreObjects.toStringHelper;
 
 import google.registry.flows.EppException.AuthenticationErrorException;
 import google.registry.model.registrar.Registrar;
+import google.registry.util.PasswordUtils.HashAlgorithm;
 
 /** A transport credentials that validates the registrar's EPP password and nothing else. */
 public class PasswordOnlyTransportCredentials implements TransportCredentials {
   @Override
-  public void validate(Registrar r, String password) throws AuthenticationErrorException {
-    if (!r.verifyPassword(password)) {
-      throw new BadRegistrarPasswordException();
-    }
+  public HashAlgorithm validate(Registrar r, String password)
+      throws AuthenticationErrorException {
+    return r.getCurrentHashAlgorithm(password).orElseThrow(BadRegistrarPasswordException::new);
   }
 
   @Override
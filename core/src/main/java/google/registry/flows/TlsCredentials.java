@@ -32,6 +32,7 @@ import google.registry.flows.certs.CertificateChecker.InsecureCertificateExcepti
 import google.registry.model.registrar.Registrar;
 import google.registry.request.Header;
 import google.registry.util.CidrAddressBlock;
+import google.registry.util.PasswordUtils.HashAlgorithm;
 import google.registry.util.ProxyHttpHeaders;
 import google.registry.util.RegistryEnvironment;
 import jakarta.inject.Inject;
@@ -84,10 +85,11 @@ public class TlsCredentials implements TransportCredentials {
   }
 
   @Override
-  public void validate(Registrar registrar, String password) throws AuthenticationErrorException {
+  public HashAlgorithm validate(Registrar registrar, String password)
+      throws AuthenticationErrorException {
     validateIp(registrar);
     validateCertificateHash(registrar);
-    validatePassword(registrar, password);
+    return validatePassword(registrar, password);
   }
 
   /**
@@ -110,11 +112,8 @@ public class TlsCredentials implements TransportCredentials {
           "Authentication error: Missing IP address for registrar %s.", registrar.getRegistrarId());
       throw new BadRegistrarIpAddressException(clientInetAddr);
     }
-    for (CidrAddressBlock cidrAddressBlock : ipAddressAllowList) {
-      if (cidrAddressBlock.contains(clientInetAddr.get())) {
-        // IP address is in allow list; return early.
-        return;
-      }
+    if (registrar.isIpAddressAllowListed(clientInetAddr.get())) {
+      return;
     }
     logger.atWarning().log(
         "Authentication error: IP address %s is not allow-listed for registrar %s; allow list is:"
@@ -181,11 +180,11 @@ public class TlsCredentials implements TransportCredentials {
     }
   }
 
-  private void validatePassword(Registrar registrar, String password)
+  private HashAlgorithm validatePassword(Registrar registrar, String password)
       throws BadRegistrarPasswordException {
-    if (!registrar.verifyPassword(password)) {
-      throw new BadRegistrarPasswordException();
-    }
+    return registrar
+        .getCurrentHashAlgorithm(password)
+        .orElseThrow(BadRegistrarPasswordException::new);
   }
 
   @Override
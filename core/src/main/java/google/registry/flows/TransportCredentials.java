@@ -16,6 +16,7 @@ package google.registry.flows;
 
 import google.registry.flows.EppException.AuthenticationErrorException;
 import google.registry.model.registrar.Registrar;
+import google.registry.util.PasswordUtils.HashAlgorithm;
 
 /** Interface for objects containing registrar credentials provided via an EPP transport. */
 public interface TransportCredentials {
@@ -25,8 +26,11 @@ public interface TransportCredentials {
    * <p>Called by {@link google.registry.flows.session.LoginFlow LoginFlow} to check the transport
    * credentials against the stored registrar's credentials. If they do not match, throw an {@link
    * AuthenticationErrorException}.
+   *
+   * @return the algorithm that the stored password hash was verified with, so that callers don't
+   *     need to hash the password a second time to find out
    */
-  void validate(Registrar registrar, String password) throws AuthenticationErrorException;
+  HashAlgorithm validate(Registrar registrar, String password) throws AuthenticationErrorException;
 
   /** Registrar password is incorrect. */
   class BadRegistrarPasswordException extends AuthenticationErrorException {
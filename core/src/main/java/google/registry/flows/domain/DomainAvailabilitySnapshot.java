@@ -0,0 +1,432 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.flows.domain;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static google.registry.persistence.transaction.TransactionManagerFactory.replicaTm;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.flogger.FluentLogger;
+import com.google.common.net.InternetDomainName;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.monitoring.metrics.LabelDescriptor;
+import com.google.monitoring.metrics.Metric;
+import com.google.monitoring.metrics.MetricRegistryImpl;
+import google.registry.config.RegistryConfig.Config;
+import google.registry.model.ForeignKeyUtils;
+import google.registry.model.ForeignKeyUtils.MostRecentResource;
+import google.registry.model.domain.Domain;
+import google.registry.util.Clock;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-memory snapshot of the registered domain names of every TLD, used to short-circuit checks.
+ *
+ * <p>Registrars that run drop-catching or name-spinning clients send huge volumes of checks for
+ * names that aren't registered. With the snapshot enabled, {@link DomainCheckFlow} only goes to the
+ * database for names that the snapshot doesn't know to be available, i.e. names that were
+ * registered when the snapshot was taken, and names whose status changed in the most recent
+ * refresh.
+ *
+ * <p>The snapshot is built from the replica the first time it is needed, and then incrementally
+ * refreshed in the background using the {@code updateTimestamp} of the domains that changed since
+ * the previous refresh. Request threads never wait for a refresh: they keep using the previous
+ * snapshot while a single background thread builds the next one. If refreshing keeps failing and
+ * the snapshot becomes older than the configured maximum staleness, it is ignored entirely and
+ * every name is looked up in the database, as if the snapshot were disabled.
+ *
+ * <p>Domain creates and deletes on this instance are recorded with {@link #recordChange}, and the
+ * names they touch are looked up in the database until a refresh has picked the change up. A name
+ * that is registered on another instance after the latest refresh, however, may be reported as
+ * available until the next refresh. This is the same trade-off that the EPP resource caches make,
+ * and is acceptable for checks because they are purely advisory; the create flow always checks the
+ * database transactionally.
+ *
+ * <p>Note: this should be injected as a singleton -- it's essentially static, but we have it as a
+ * non-static object for testing purposes.
+ */
+@Singleton
+public class DomainAvailabilitySnapshot {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  /**
+   * How far before the previous snapshot time each incremental refresh looks for changes.
+   *
+   * <p>The {@code updateTimestamp} of a domain is its transaction time rather than its commit time,
+   * and the replica may lag behind the primary, so a change can become visible after the refresh
+   * that should have picked it up. One minute comfortably covers both our transaction durations
+   * and normal replica lag.
+   */
+  private static final Duration DELTA_OVERLAP = Duration.ofMinutes(1);
+
+  /** Maximum number of foreign keys to resolve per query during an incremental refresh. */
+  private static final int DELTA_BATCH_SIZE = 1000;
+
+  /** Rough per-label overhead of a {@link String} in a {@code String[]}, in bytes. */
+  private static final int ESTIMATED_BYTES_PER_LABEL = 48;
+
+  private static final ImmutableSet<LabelDescriptor> LABEL_DESCRIPTORS =
+      ImmutableSet.of(LabelDescriptor.create("tld", "The TLD of the snapshot."));
+
+  /** The most recently built snapshot, exported through the gauges below. */
+  private static final AtomicReference<Snapshot> latestSnapshot = new AtomicReference<>();
+
+  @VisibleForTesting
+  static final Metric<Long> snapshotSizeGauge =
+      MetricRegistryImpl.getDefault()
+          .newGauge(
+              "/epp/domain_availability_snapshot/size",
+              "Number of registered domain labels in the domain availability snapshot.",
+              "count",
+              LABEL_DESCRIPTORS,
+              () -> exportPerTld(SortedLabels::size),
+              Long.class);
+
+  @VisibleForTesting
+  static final Metric<Long> snapshotMemoryGauge =
+      MetricRegistryImpl.getDefault()
+          .newGauge(
+              "/epp/domain_availability_snapshot/memory",
+              "Estimated memory footprint of the domain availability snapshot.",
+              "bytes",
+              LABEL_DESCRIPTORS,
+              () -> exportPerTld(SortedLabels::estimatedBytes),
+              Long.class);
+
+  @VisibleForTesting
+  static final Metric<Long> snapshotTimestampGauge =
+      MetricRegistryImpl.getDefault()
+          .newGauge(
+              "/epp/domain_availability_snapshot/timestamp",
+              "Time as of which the domain availability snapshot is current. The staleness window"
+                  + " is the difference between the current time and this timestamp.",
+              "milliseconds since epoch",
+              ImmutableSet.of(),
+              () ->
+                  Optional.ofNullable(latestSnapshot.get())
+                      .map(
+                          s ->
+                              ImmutableMap.of(
+                                  ImmutableList.<String>of(), s.asOf().toEpochMilli()))
+                      .orElse(ImmutableMap.of()),
+              Long.class);
+
+  private final Clock clock;
+  private final boolean enabled;
+  private final Duration refreshInterval;
+  private final Duration maxStaleness;
+  private final Executor refreshExecutor;
+  private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+  private final AtomicBoolean refreshInProgress = new AtomicBoolean();
+
+  /** Names created or deleted on this instance, with the time of the change. */
+  private final ConcurrentMap<String, Instant> locallyChanged = new ConcurrentHashMap<>();
+
+  @Inject
+  DomainAvailabilitySnapshot(
+      Clock clock,
+      @Config("domainAvailabilitySnapshotEnabled") boolean enabled,
+      @Config("domainAvailabilitySnapshotRefreshInterval") Duration refreshInterval,
+      @Config("domainAvailabilitySnapshotMaxStaleness") Duration maxStaleness) {
+    this(
+        clock,
+        enabled,
+        refreshInterval,
+        maxStaleness,
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("domain-availability-snapshot-%d")
+                .build()));
+  }
+
+  @VisibleForTesting
+  DomainAvailabilitySnapshot(
+      Clock clock,
+      boolean enabled,
+      Duration refreshInterval,
+      Duration maxStaleness,
+      Executor refreshExecutor) {
+    this.clock = clock;
+    this.enabled = enabled;
+    this.refreshInterval = refreshInterval;
+    this.maxStaleness = maxStaleness;
+    this.refreshExecutor = refreshExecutor;
+  }
+
+  /**
+   * Returns the subset of the given domain names that may be registered at the current time.
+   *
+   * <p>Names that are left out of the result are known to be unregistered, so they don't need to
+   * be looked up in the database. If the snapshot is disabled, hasn't been built yet, or is too
+   * stale, all the names are returned.
+   */
+  public ImmutableSet<String> filterPossiblyRegistered(
+      ImmutableMap<String, InternetDomainName> domainNames) {
+    if (!enabled) {
+      return domainNames.keySet();
+    }
+    Instant now = clock.now();
+    Snapshot current = snapshot.get();
+    if (current == null || now.isAfter(current.asOf().plus(refreshInterval))) {
+      triggerRefresh();
+    }
+    if (current == null || now.isAfter(current.asOf().plus(maxStaleness))) {
+      return domainNames.keySet();
+    }
+    return domainNames.entrySet().stream()
+        .filter(
+            e ->
+                locallyChanged.containsKey(e.getKey())
+                    || current.isPossiblyRegistered(e.getKey(), e.getValue()))
+        .map(Map.Entry::getKey)
+        .collect(toImmutableSet());
+  }
+
+  /**
+   * Records that the given domain name is being created or deleted on this instance.
+   *
+   * <p>The name is looked up in the database by checks on this instance until a refresh taken
+   * well after the change has picked it up. This is called from within the flow's transaction,
+   * before it commits, which errs on the safe side: a change that is rolled back only costs a few
+   * database lookups.
+   */
+  public void recordChange(String domainName) {
+    if (enabled) {
+      locallyChanged.put(domainName, clock.now());
+    }
+  }
+
+  private void triggerRefresh() {
+    if (!refreshInProgress.compareAndSet(false, true)) {
+      return;
+    }
+    refreshExecutor.execute(
+        () -> {
+          try {
+            refresh();
+          } catch (RuntimeException e) {
+            logger.atWarning().withCause(e).log("Failed to refresh domain availability snapshot.");
+          } finally {
+            refreshInProgress.set(false);
+          }
+        });
+  }
+
+  /** Builds the next snapshot from the replica and atomically swaps it in. */
+  @VisibleForTesting
+  void refresh() {
+    Snapshot previous = snapshot.get();
+    Snapshot next =
+        replicaTm().transact(() -> previous == null ? loadFull() : loadIncremental(previous));
+    snapshot.set(next);
+    latestSnapshot.set(next);
+    // The refresh picks up every change made up to DELTA_OVERLAP before it was taken.
+    Instant pickedUpBefore = next.asOf().minus(DELTA_OVERLAP);
+    locallyChanged.values().removeIf(changeTime -> changeTime.isBefore(pickedUpBefore));
+    logger.atInfo().log(
+        "Refreshed domain availability snapshot as of %s with %d recently changed names.",
+        next.asOf(), next.recentlyChanged().size());
+  }
+
+  private static Snapshot loadFull() {
+    Instant asOf = replicaTm().getTxTime();
+    Map<String, List<String>> labelsByTld = new HashMap<>();
+    replicaTm()
+        .query("SELECT domainName, tld FROM Domain WHERE deletionTime > :asOf", Object[].class)
+        .setParameter("asOf", asOf)
+        .getResultStream()
+        .forEach(
+            row -> {
+              String domainName = (String) row[0];
+              String tld = (String) row[1];
+              labelsByTld
+                  .computeIfAbsent(tld, t -> new ArrayList<>())
+                  .add(getLabel(domainName, tld));
+            });
+    return new Snapshot(
+        asOf,
+        labelsByTld.entrySet().stream()
+            .collect(
+                toImmutableMap(Map.Entry::getKey, e -> SortedLabels.create(e.getValue()))),
+        ImmutableSet.of());
+  }
+
+  private static Snapshot loadIncremental(Snapshot previous) {
+    Instant asOf = replicaTm().getTxTime();
+    ImmutableMap<String, String> changedNamesToTld =
+        replicaTm()
+            .query(
+                "SELECT DISTINCT domainName, tld FROM Domain"
+                    + " WHERE updateTimestamp.lastUpdateTime > :since",
+                Object[].class)
+            .setParameter("since", previous.asOf().minus(DELTA_OVERLAP))
+            .getResultStream()
+            .collect(toImmutableMap(row -> (String) row[0], row -> (String) row[1]));
+    if (changedNamesToTld.isEmpty()) {
+      return new Snapshot(asOf, previous.labelsByTld(), ImmutableSet.of());
+    }
+    // A name may have several rows (e.g. a deleted domain and its re-registration), so resolve the
+    // most recent row of each changed name rather than trusting the changed rows themselves.
+    Map<String, MostRecentResource> mostRecent = new HashMap<>();
+    for (List<String> batch :
+        Lists.partition(ImmutableList.copyOf(changedNamesToTld.keySet()), DELTA_BATCH_SIZE)) {
+      mostRecent.putAll(ForeignKeyUtils.loadMostRecentResources(Domain.class, batch, true));
+    }
+    Map<String, List<String>> addedByTld = new HashMap<>();
+    Map<String, List<String>> removedByTld = new HashMap<>();
+    changedNamesToTld.forEach(
+        (domainName, tld) -> {
+          MostRecentResource resource = mostRecent.get(domainName);
+          boolean registered = resource != null && asOf.isBefore(resource.deletionTime());
+          (registered ? addedByTld : removedByTld)
+              .computeIfAbsent(tld, t -> new ArrayList<>())
+              .add(getLabel(domainName, tld));
+        });
+    Map<String, SortedLabels> labelsByTld = new HashMap<>(previous.labelsByTld());
+    for (String tld : Sets.union(addedByTld.keySet(), removedByTld.keySet())) {
+      labelsByTld.put(
+          tld,
+          labelsByTld
+              .getOrDefault(tld, SortedLabels.EMPTY)
+              .withChanges(
+                  addedByTld.getOrDefault(tld, ImmutableList.of()),
+                  removedByTld.getOrDefault(tld, ImmutableList.of())));
+    }
+    return new Snapshot(asOf, ImmutableMap.copyOf(labelsByTld), changedNamesToTld.keySet());
+  }
+
+  private static String getLabel(String domainName, String tld) {
+    return domainName.substring(0, domainName.length() - tld.length() - 1);
+  }
+
+  private static ImmutableMap<ImmutableList<String>, Long> exportPerTld(
+      ToLongFunction<SortedLabels> value) {
+    Snapshot current = latestSnapshot.get();
+    if (current == null) {
+      return ImmutableMap.of();
+    }
+    return current.labelsByTld().entrySet().stream()
+        .collect(
+            toImmutableMap(
+                e -> ImmutableList.of(e.getKey()), e -> value.applyAsLong(e.getValue())));
+  }
+
+  /**
+   * An immutable view of the registered names as of a point in time.
+   *
+   * @param asOf the replica transaction time at which the snapshot was taken
+   * @param labelsByTld the registered labels of each TLD that has any registered domains
+   * @param recentlyChanged the domain names that changed in the latest incremental refresh, which
+   *     are always looked up in the database since they may still be changing
+   */
+  record Snapshot(
+      Instant asOf,
+      ImmutableMap<String, SortedLabels> labelsByTld,
+      ImmutableSet<String> recentlyChanged) {
+
+    boolean isPossiblyRegistered(String domainName, InternetDomainName parsedDomain) {
+      if (recentlyChanged.contains(domainName)) {
+        return true;
+      }
+      SortedLabels labels = labelsByTld.get(parsedDomain.parent().toString());
+      return labels != null && labels.contains(parsedDomain.parts().get(0));
+    }
+  }
+
+  /** A compact, immutable set of domain labels, stored as a sorted array. */
+  static final class SortedLabels {
+
+    static final SortedLabels EMPTY = new SortedLabels(new String[0]);
+
+    private final String[] labels;
+
+    private SortedLabels(String[] labels) {
+      this.labels = labels;
+    }
+
+    static SortedLabels create(List<String> labels) {
+      String[] array = labels.toArray(new String[0]);
+      Arrays.sort(array);
+      return new SortedLabels(array);
+    }
+
+    boolean contains(String label) {
+      return Arrays.binarySearch(labels, label) >= 0;
+    }
+
+    long size() {
+      return labels.length;
+    }
+
+    long estimatedBytes() {
+      long bytes = 0;
+      for (String label : labels) {
+        bytes += ESTIMATED_BYTES_PER_LABEL + label.length();
+      }
+      return bytes;
+    }
+
+    /**
+     * Returns a copy of this set with the given labels added and removed.
+     *
+     * <p>This is a linear merge of two sorted arrays, so that incremental refreshes don't need to
+     * re-sort the labels of the whole TLD.
+     */
+    SortedLabels withChanges(List<String> added, List<String> removed) {
+      String[] toAdd = added.stream().sorted().distinct().toArray(String[]::new);
+      Set<String> toRemove = ImmutableSet.copyOf(removed);
+      List<String> merged = new ArrayList<>(labels.length + toAdd.length);
+      int i = 0;
+      int j = 0;
+      while (i < labels.length || j < toAdd.length) {
+        int comparison =
+            i == labels.length ? 1 : j == toAdd.length ? -1 : labels[i].compareTo(toAdd[j]);
+        String next = comparison <= 0 ? labels[i++] : toAdd[j++];
+        if (comparison == 0) {
+          j++;
+        }
+        if (!toRemove.contains(next)) {
+          merged.add(next);
+        }
+      }
+      return new SortedLabels(merged.toArray(new String[0]));
+    }
+  }
+}
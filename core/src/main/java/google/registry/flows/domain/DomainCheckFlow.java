@@ -150,6 +150,7 @@ public final class DomainCheckFlow implements TransactionalFlow {
   @Inject EppResponse.Builder responseBuilder;
   @Inject DomainCheckFlowCustomLogic flowCustomLogic;
   @Inject DomainPricingLogic pricingLogic;
+  @Inject DomainAvailabilitySnapshot availabilitySnapshot;
 
   @Inject
   DomainCheckFlow() {}
@@ -188,8 +189,14 @@ public final class DomainCheckFlow implements TransactionalFlow {
             // TODO: Use as of date from fee extension v0.12 instead of now, if specified.
             .setAsOfDate(now)
             .build());
+    // Names that the availability snapshot knows to be unregistered don't need a database lookup.
+    // The rest still need to be loaded, since their keys are needed for fee checks.
+    ImmutableSet<String> possiblyRegisteredDomains =
+        availabilitySnapshot.filterPossiblyRegistered(parsedDomains);
     ImmutableMap<String, VKey<Domain>> existingDomains =
-        ForeignKeyUtils.loadKeys(Domain.class, domainNames, now);
+        possiblyRegisteredDomains.isEmpty()
+            ? ImmutableMap.of()
+            : ForeignKeyUtils.loadKeys(Domain.class, possiblyRegisteredDomains, now);
     // Check block labels only when there are unregistered domains, since "In use" goes before
     // "Blocked by BSA".
     ImmutableSet<InternetDomainName> bsaBlockedDomainNames =
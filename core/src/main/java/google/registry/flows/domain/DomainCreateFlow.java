@@ -123,6 +123,7 @@ import google.registry.model.tld.Tld.TldType;
 import google.registry.model.tld.label.ReservationType;
 import google.registry.model.tmch.ClaimsList;
 import google.registry.model.tmch.ClaimsListDao;
+import google.registry.persistence.TransactionRetries;
 import google.registry.tmch.LordnTaskUtils.LordnPhase;
 import jakarta.inject.Inject;
 import java.time.Duration;
@@ -207,6 +208,7 @@ import org.joda.money.Money;
  * @error {@link DomainFlowUtils.UnsupportedMarkTypeException}
  */
 @ReportingSpec(ActivityReportField.DOMAIN_CREATE)
+@TransactionRetries(maxAttempts = 3, serializeByTargetId = true)
 public final class DomainCreateFlow implements MutatingFlow {
 
   /** Anchor tenant creates should always be for 2 years, since they get 2 years free. */
@@ -224,6 +226,7 @@ public final class DomainCreateFlow implements MutatingFlow {
   @Inject DomainFlowTmchUtils tmchUtils;
   @Inject DomainPricingLogic pricingLogic;
   @Inject DomainDeletionTimeCache domainDeletionTimeCache;
+  @Inject DomainAvailabilitySnapshot availabilitySnapshot;
 
   @Inject
   @Config("domainExpiryAccessPeriodTotalLength")
@@ -461,6 +464,7 @@ public final class DomainCreateFlow implements MutatingFlow {
                 .setYears(years)
                 .build());
     persistEntityChanges(entityChanges);
+    availabilitySnapshot.recordChange(targetId);
 
     // If the registrar is participating in tiered pricing promos, return the standard price in the
     // response (even if the actual charged price is less)
@@ -137,6 +137,7 @@ public final class DomainDeleteFlow implements MutatingFlow, SqlStatementLogging
   @Inject AsyncTaskEnqueuer asyncTaskEnqueuer;
   @Inject EppResponse.Builder responseBuilder;
   @Inject DomainDeleteFlowCustomLogic flowCustomLogic;
+  @Inject DomainAvailabilitySnapshot availabilitySnapshot;
   @Inject DomainDeleteFlow() {}
 
   @Override
@@ -296,6 +297,7 @@ public final class DomainDeleteFlow implements MutatingFlow, SqlStatementLogging
                     getResponseExtensions(billingRecurrence, existingDomain, now))
                 .build());
     persistEntityChanges(entityChanges);
+    availabilitySnapshot.recordChange(targetId);
     return responseBuilder
         .setResultFromCode(responseData.resultCode())
         .setExtensions(responseData.responseExtensions())
@@ -0,0 +1,208 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.flows.session;
+
+import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static com.google.monitoring.metrics.EventMetric.DEFAULT_FITTER;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.monitoring.metrics.EventMetric;
+import com.google.monitoring.metrics.IncrementableMetric;
+import com.google.monitoring.metrics.LabelDescriptor;
+import com.google.monitoring.metrics.MetricRegistryImpl;
+import google.registry.config.RegistryConfig.Config;
+import google.registry.flows.EppException.AuthenticationErrorClosingConnectionException;
+import google.registry.flows.EppException.AuthenticationErrorException;
+import google.registry.flows.TransportCredentials;
+import google.registry.model.registrar.Registrar;
+import google.registry.util.PasswordUtils.HashAlgorithm;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Checks EPP login credentials on a dedicated, bounded thread pool.
+ *
+ * <p>Password verification uses a memory-hard hash and is by far the most expensive part of a
+ * login. When many clients reconnect at once, e.g. after a proxy restart, running those hashes on
+ * the request threads would starve every other EPP command. Instead they are queued to a small
+ * fixed pool, at most a configured number of them per registrar, and logins that can't be checked
+ * in time are turned away with a response that closes the connection, so that the client retries
+ * later.
+ *
+ * <p>Callers wait for the result, so this must not be called from within a database transaction,
+ * which would otherwise hold a connection for as long as the login is queued.
+ *
+ * <p>Note: this should be injected as a singleton, since the pool and the per-registrar limits are
+ * shared by all requests.
+ */
+@Singleton
+public class LoginCredentialsVerifier {
+
+  /** Maximum number of logins waiting for a verification thread before new ones are rejected. */
+  private static final int MAX_QUEUED_LOGINS = 256;
+
+  private static final EventMetric queueTime =
+      MetricRegistryImpl.getDefault()
+          .newEventMetric(
+              "/epp/login/verification_queue_time",
+              "Time EPP logins waited for a credential verification thread",
+              "milliseconds",
+              ImmutableSet.of(),
+              DEFAULT_FITTER);
+
+  private static final EventMetric verificationTime =
+      MetricRegistryImpl.getDefault()
+          .newEventMetric(
+              "/epp/login/verification_time",
+              "Time taken to verify EPP login credentials, including password hashing",
+              "milliseconds",
+              ImmutableSet.of(
+                  LabelDescriptor.create(
+                      "result", "The hash algorithm that verified the password, or FAILED.")),
+              DEFAULT_FITTER);
+
+  private static final IncrementableMetric rejectedLogins =
+      MetricRegistryImpl.getDefault()
+          .newIncrementableMetric(
+              "/epp/login/rejected",
+              "Count of EPP logins rejected because credential verification was overloaded",
+              "count",
+              ImmutableSet.of(LabelDescriptor.create("reason", "Why the login was rejected.")));
+
+  private final ExecutorService executor;
+  private final int maxConcurrentLoginsPerRegistrar;
+  private final Duration timeout;
+  private final ConcurrentHashMap<String, Semaphore> permitsByRegistrar =
+      new ConcurrentHashMap<>();
+
+  @Inject
+  LoginCredentialsVerifier(
+      @Config("loginVerificationThreads") int threads,
+      @Config("maxConcurrentLoginsPerRegistrar") int maxConcurrentLoginsPerRegistrar,
+      @Config("loginVerificationTimeout") Duration timeout) {
+    this(
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            MILLISECONDS,
+            new LinkedBlockingQueue<>(MAX_QUEUED_LOGINS),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("epp-login-%d").build()),
+        maxConcurrentLoginsPerRegistrar,
+        timeout);
+  }
+
+  @VisibleForTesting
+  LoginCredentialsVerifier(
+      ExecutorService executor, int maxConcurrentLoginsPerRegistrar, Duration timeout) {
+    this.executor = executor;
+    this.maxConcurrentLoginsPerRegistrar = maxConcurrentLoginsPerRegistrar;
+    this.timeout = timeout;
+  }
+
+  /**
+   * Validates the transport credentials and password of a login on the verification pool.
+   *
+   * @return the algorithm that the stored password hash was verified with
+   * @throws AuthenticationErrorException if the credentials are invalid
+   * @throws TooManyConcurrentLoginsException if the login could not be checked in time
+   */
+  public HashAlgorithm verify(
+      TransportCredentials credentials, Registrar registrar, String password)
+      throws AuthenticationErrorException, TooManyConcurrentLoginsException {
+    Semaphore permits =
+        permitsByRegistrar.computeIfAbsent(
+            registrar.getRegistrarId(), unused -> new Semaphore(maxConcurrentLoginsPerRegistrar));
+    if (!permits.tryAcquire()) {
+      rejectedLogins.increment("registrar_limit");
+      throw new TooManyConcurrentLoginsException();
+    }
+    // Whoever claims the login first, the verification thread to run it or the caller to give up
+    // on it, releases the permit once done with it. A running hash can't be interrupted, so the
+    // permit stays taken for as long as the hash actually runs, even if the caller timed out.
+    AtomicBoolean claimed = new AtomicBoolean();
+    Future<HashAlgorithm> result;
+    Stopwatch queueStopwatch = Stopwatch.createStarted();
+    try {
+      result =
+          executor.submit(
+              () -> {
+                if (!claimed.compareAndSet(false, true)) {
+                  throw new TooManyConcurrentLoginsException();
+                }
+                queueTime.record(toMillis(queueStopwatch.elapsed()));
+                Stopwatch verificationStopwatch = Stopwatch.createStarted();
+                String outcome = "FAILED";
+                try {
+                  HashAlgorithm algorithm = credentials.validate(registrar, password);
+                  outcome = algorithm.name();
+                  return algorithm;
+                } finally {
+                  verificationTime.record(toMillis(verificationStopwatch.elapsed()), outcome);
+                  permits.release();
+                }
+              });
+    } catch (RejectedExecutionException e) {
+      permits.release();
+      rejectedLogins.increment("queue_full");
+      throw new TooManyConcurrentLoginsException();
+    }
+    try {
+      return result.get(timeout.toMillis(), MILLISECONDS);
+    } catch (TimeoutException e) {
+      if (claimed.compareAndSet(false, true)) {
+        // The login never left the queue, so it is skipped once it gets to the front.
+        permits.release();
+      }
+      rejectedLogins.increment("timeout");
+      throw new TooManyConcurrentLoginsException();
+    } catch (ExecutionException e) {
+      throwIfInstanceOf(e.getCause(), AuthenticationErrorException.class);
+      throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static double toMillis(Duration duration) {
+    return duration.toNanos() / 1_000_000d;
+  }
+
+  /** Too many logins are being verified; the client should reconnect later. */
+  public static class TooManyConcurrentLoginsException
+      extends AuthenticationErrorClosingConnectionException {
+    public TooManyConcurrentLoginsException() {
+      super("Too many concurrent login attempts; try again later");
+    }
+  }
+}
@@ -18,6 +18,7 @@ import static com.google.common.collect.Sets.difference;
 import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
 import static google.registry.util.CollectionUtils.nullToEmpty;
 
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.flogger.FluentLogger;
 import google.registry.flows.EppException;
@@ -30,9 +31,10 @@ import google.registry.flows.EppException.UnimplementedExtensionException;
 import google.registry.flows.EppException.UnimplementedObjectServiceException;
 import google.registry.flows.EppException.UnimplementedProtocolVersionException;
 import google.registry.flows.ExtensionManager;
+import google.registry.flows.Flow;
+import google.registry.flows.FlowModule.DryRun;
 import google.registry.flows.FlowModule.RegistrarId;
 import google.registry.flows.FlowUtils.GenericXmlSyntaxErrorException;
-import google.registry.flows.MutatingFlow;
 import google.registry.flows.SessionMetadata;
 import google.registry.flows.TlsCredentials.BadRegistrarCertificateException;
 import google.registry.flows.TlsCredentials.BadRegistrarIpAddressException;
@@ -47,15 +49,20 @@ import google.registry.model.eppinput.EppInput.Options;
 import google.registry.model.eppinput.EppInput.Services;
 import google.registry.model.eppoutput.EppResponse;
 import google.registry.model.registrar.Registrar;
-import google.registry.util.PasswordUtils;
+import google.registry.util.PasswordUtils.HashAlgorithm;
 import google.registry.util.StopwatchLogger;
 import jakarta.inject.Inject;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.Set;
 
 /**
  * An EPP flow for login.
  *
+ * <p>This isn't run in a transaction, so that a login waiting for its credentials to be verified
+ * doesn't hold a database connection. Rehashing the password is done in a transaction of its own,
+ * which is skipped on a dry run since there is no outer transaction to roll it back.
+ *
  * @error {@link UnimplementedExtensionException}
  * @error {@link UnimplementedObjectServiceException}
  * @error {@link UnimplementedProtocolVersionException}
@@ -69,8 +76,9 @@ import java.util.Set;
  * @error {@link LoginFlow.TooManyFailedLoginsException}
  * @error {@link LoginFlow.RegistrarAccountNotActiveException}
  * @error {@link LoginFlow.UnsupportedLanguageException}
+ * @error {@link LoginCredentialsVerifier.TooManyConcurrentLoginsException}
  */
-public class LoginFlow implements MutatingFlow {
+public class LoginFlow implements Flow {
 
   private static final FluentLogger logger = FluentLogger.forEnclosingClass();
 
@@ -83,6 +91,11 @@ public class LoginFlow implements MutatingFlow {
   @Inject TransportCredentials credentials;
   @Inject @RegistrarId String registrarId;
   @Inject EppResponse.Builder responseBuilder;
+  @Inject LoginCredentialsVerifier credentialsVerifier;
+  @Inject @DryRun boolean isDryRun;
+
+  /** The time spent verifying the credentials, if the flow got that far. */
+  private Duration credentialsVerificationTime = Duration.ZERO;
 
   @Inject LoginFlow() {}
 
@@ -138,8 +151,10 @@ public class LoginFlow implements MutatingFlow {
     }
     stopwatch.tick("LoginFlow loadByRegistrarIdCached");
     // AuthenticationErrorExceptions will propagate up through here.
+    HashAlgorithm hashAlgorithm;
+    Stopwatch verificationStopwatch = Stopwatch.createStarted();
     try {
-      credentials.validate(registrar.get(), login.getPassword());
+      hashAlgorithm = credentialsVerifier.verify(credentials, registrar.get(), login.getPassword());
     } catch (AuthenticationErrorException e) {
       sessionMetadata.incrementFailedLoginAttempts();
       if (sessionMetadata.getFailedLoginAttempts() > MAX_FAILED_LOGIN_ATTEMPTS_PER_CONNECTION) {
@@ -147,6 +162,8 @@ public class LoginFlow implements MutatingFlow {
       } else {
         throw e;
       }
+    } finally {
+      credentialsVerificationTime = verificationStopwatch.elapsed();
     }
     stopwatch.tick("LoginFlow credentials.validate");
     if (!registrar.get().isLive()) {
@@ -155,9 +172,8 @@ public class LoginFlow implements MutatingFlow {
 
     // TODO(b/458423787): Remove this circa March 2026 after enough time has passed for the logins
     // to have transitioned to Argon2 hashing.
-    if (login.getNewPassword().isPresent()
-        || registrar.get().getCurrentHashAlgorithm(login.getPassword()).orElse(null)
-            != PasswordUtils.HashAlgorithm.ARGON_2_ID) {
+    if (!isDryRun
+        && (login.getNewPassword().isPresent() || hashAlgorithm != HashAlgorithm.ARGON_2_ID)) {
       String newPassword =
           login
               .getNewPassword()
@@ -167,12 +183,18 @@ public class LoginFlow implements MutatingFlow {
                     return login.getPassword();
                   });
       // Load fresh from database (bypassing the cache) to ensure we don't save stale data.
-      Optional<Registrar> freshRegistrar = Registrar.loadByRegistrarId(login.getClientId());
-      stopwatch.tick("LoginFlow reload freshRegistrar");
-      if (freshRegistrar.isEmpty()) {
+      boolean updated =
+          tm().transact(
+              () -> {
+                Optional<Registrar> freshRegistrar =
+                    Registrar.loadByRegistrarId(login.getClientId());
+                freshRegistrar.ifPresent(
+                    r -> tm().put(r.asBuilder().setPassword(newPassword).build()));
+                return freshRegistrar.isPresent();
+              });
+      if (!updated) {
         throw new BadRegistrarIdException(login.getClientId());
       }
-      tm().put(freshRegistrar.get().asBuilder().setPassword(newPassword).build());
       stopwatch.tick("LoginFlow updated password");
     }
 
@@ -188,6 +210,11 @@ public class LoginFlow implements MutatingFlow {
     return eppResponse;
   }
 
+  /** Returns the time spent verifying the credentials, for the flow's latency breakdown. */
+  public Duration getCredentialsVerificationTime() {
+    return credentialsVerificationTime;
+  }
+
   /** Registrar with this ID could not be found. */
   static class BadRegistrarIdException extends AuthenticationErrorException {
     BadRegistrarIdException(String registrarId) {
@@ -21,6 +21,7 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.base.Supplier;
 import java.time.Duration;
+import javax.annotation.Nullable;
 
 /** Utility methods related to caching database entities. */
 public class CacheUtils {
@@ -35,6 +36,29 @@ public class CacheUtils {
     return tryMemoizeWithExpiration(getSingletonCacheRefreshDuration(), original);
   }
 
+  /**
+   * Memoize a supplier, refreshing its value in the background once it's older than the short
+   * expiration specified in the environment config.
+   *
+   * <p>Use this rather than {@link #memoizeWithShortExpiration} for values that are read on every
+   * request and are slow to load, such as a whole table, so that no request waits for the reload.
+   * If the refresh duration is zero (likely in a unit test), it returns the original supplier.
+   *
+   * @param name the name of the cache in metrics
+   * @param original the supplier of the value
+   * @param versionProbe a supplier of the value's version, e.g. the latest update time of the
+   *     table, which is much cheaper to call than {@code original}; a refresh only calls {@code
+   *     original} if the version has changed since the last load, or if the value is old enough
+   *     that the probe may have missed a change
+   */
+  public static <T> Supplier<T> memoizeWithRefreshAhead(
+      String name, Supplier<T> original, @Nullable Supplier<?> versionProbe) {
+    Duration refresh = getSingletonCacheRefreshDuration();
+    return refresh.isZero()
+        ? original
+        : RefreshAheadSupplier.create(name, original, versionProbe, refresh);
+  }
+
   /**
    * Memoize a supplier with the given expiration. If the expiration is zero(likely happens in a
    * unit test), it returns the original supplier.
@@ -0,0 +1,85 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.model;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.MapDifference;
+import com.google.common.collect.Maps;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Helpers for lists that are stored as a full snapshot followed by a chain of deltas.
+ *
+ * <p>The TMCH claims list and SMD revocation list are downloaded in full several times a day, but
+ * only a handful of their entries change between downloads. A new revision of such a list can
+ * therefore store just the entries that were added or changed since the previous revision, plus
+ * a null value for each removed key, together with the id of the snapshot its chain starts from.
+ * The value of a key in a revision is then its value in the latest revision of the chain, up to
+ * and including that one, that has an entry for the key.
+ *
+ * <p>A new snapshot is written once the chain gets long, or when a delta would be about as large as
+ * the list itself, so that a read never has to fold together more than a bounded number of
+ * revisions.
+ */
+public final class DeltaRevisions {
+
+  /** The most deltas that are written on top of one snapshot. */
+  public static final int MAX_DELTAS_PER_SNAPSHOT = 30;
+
+  private DeltaRevisions() {}
+
+  /**
+   * Returns the entries of {@code current} that are new or changed relative to {@code previous},
+   * and a null value for every key of {@code previous} that is no longer in {@code current}.
+   */
+  public static <V> Map<String, V> diff(Map<String, V> previous, Map<String, V> current) {
+    MapDifference<String, V> difference = Maps.difference(previous, current);
+    Map<String, V> delta = new HashMap<>(difference.entriesOnlyOnRight());
+    difference.entriesDiffering().forEach((key, values) -> delta.put(key, values.rightValue()));
+    difference.entriesOnlyOnLeft().keySet().forEach(key -> delta.put(key, null));
+    return delta;
+  }
+
+  /**
+   * Returns whether a new revision should be written as a full snapshot rather than a delta.
+   *
+   * @param deltasInChain the number of deltas already written on top of the current snapshot
+   * @param deltaSize the number of entries in the delta, as returned by {@link #diff}
+   * @param listSize the number of entries in the new revision of the list
+   */
+  public static boolean isSnapshotDue(long deltasInChain, int deltaSize, int listSize) {
+    return deltasInChain >= MAX_DELTAS_PER_SNAPSHOT || 2L * deltaSize >= listSize;
+  }
+
+  /**
+   * Applies a delta, as written by {@link #diff}, to the given map and returns the result.
+   *
+   * <p>The entries of the delta are applied in iteration order, so the entries of later revisions
+   * must come after those of earlier ones.
+   */
+  public static <V> ImmutableMap<String, V> apply(
+      Map<String, V> base, Iterable<Map.Entry<String, V>> delta) {
+    Map<String, V> result = new HashMap<>(base);
+    for (Map.Entry<String, V> entry : delta) {
+      if (entry.getValue() == null) {
+        result.remove(entry.getKey());
+      } else {
+        result.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return ImmutableMap.copyOf(result);
+  }
+}
@@ -0,0 +1,245 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.model;
+
+import static com.google.monitoring.metrics.EventMetric.DEFAULT_FITTER;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.monitoring.metrics.EventMetric;
+import com.google.monitoring.metrics.LabelDescriptor;
+import com.google.monitoring.metrics.Metric;
+import com.google.monitoring.metrics.MetricRegistryImpl;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import javax.annotation.Nullable;
+
+/**
+ * A memoizing supplier that refreshes its value in the background.
+ *
+ * <p>Once the value is older than the refresh duration, the next call starts a refresh on a
+ * background thread and returns the old value, as do all calls until the refresh is done. Only the
+ * first call, and the first call once the value was loaded {@value #EXPIRY_REFRESHES} refresh
+ * durations ago, e.g. because it has gone unused or refreshes have been failing, waits for a load.
+ *
+ * <p>If a version probe is given, a refresh first calls it, and only reloads the value if the
+ * version has changed since the last load. The probe should be much cheaper than the load, e.g.
+ * the latest update time of a table rather than all of its rows. A probe like that can miss
+ * changes, e.g. a transaction that commits after a later one with an earlier update time, so the
+ * value is reloaded regardless once it was loaded {@value #FULL_RELOAD_REFRESHES} refresh durations
+ * ago.
+ *
+ * @see CacheUtils#memoizeWithRefreshAhead
+ */
+final class RefreshAheadSupplier<T> implements Supplier<T> {
+
+  /** The thread that refreshes all the suppliers, so that at most one refresh runs at a time. */
+  private static final Executor REFRESH_EXECUTOR =
+      Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder().setDaemon(true).setNameFormat("cache-refresh-%d").build());
+
+  /** How many refresh durations after its load a value is reloaded even if found unchanged. */
+  @VisibleForTesting static final int FULL_RELOAD_REFRESHES = 5;
+
+  /** How many refresh durations after its load a value expires, so that a get waits for a load. */
+  @VisibleForTesting static final int EXPIRY_REFRESHES = 10;
+
+  private static final ConcurrentMap<String, RefreshAheadSupplier<?>> suppliersByName =
+      new ConcurrentHashMap<>();
+
+  private static final EventMetric refreshDuration =
+      MetricRegistryImpl.getDefault()
+          .newEventMetric(
+              "/cache/refresh_duration",
+              "Time taken to refresh a singleton cache",
+              "milliseconds",
+              ImmutableSet.of(
+                  LabelDescriptor.create("cache", "Name of the cache."),
+                  LabelDescriptor.create(
+                      "result", "Whether the value was loaded, unchanged or failed to load.")),
+              DEFAULT_FITTER);
+
+  @VisibleForTesting
+  static final Metric<Long> staleness =
+      MetricRegistryImpl.getDefault()
+          .newGauge(
+              "/cache/staleness",
+              "Time since the value of a singleton cache was last known to be current",
+              "milliseconds",
+              ImmutableSet.of(LabelDescriptor.create("cache", "Name of the cache.")),
+              RefreshAheadSupplier::exportStaleness,
+              Long.class);
+
+  private final String name;
+  private final Supplier<T> loader;
+  @Nullable private final Supplier<?> versionProbe;
+  private final Ticker ticker;
+  private final long fullReloadNanos;
+  private final LoadingCache<String, Snapshot<T>> cache;
+
+  RefreshAheadSupplier(
+      String name,
+      Supplier<T> loader,
+      @Nullable Supplier<?> versionProbe,
+      Duration refresh,
+      Executor executor,
+      Ticker ticker) {
+    this.name = name;
+    this.loader = loader;
+    this.versionProbe = versionProbe;
+    this.ticker = ticker;
+    this.fullReloadNanos = refresh.multipliedBy(FULL_RELOAD_REFRESHES).toNanos();
+    this.cache =
+        CacheUtils.newCacheBuilder()
+            .refreshAfterWrite(refresh)
+            .expireAfter(new LoadTimeExpiry(refresh.multipliedBy(EXPIRY_REFRESHES).toNanos()))
+            .executor(executor)
+            .ticker(ticker)
+            .build(new SnapshotLoader());
+  }
+
+  /** Creates a supplier refreshed on the shared background thread, and exports its staleness. */
+  static <T> RefreshAheadSupplier<T> create(
+      String name, Supplier<T> loader, @Nullable Supplier<?> versionProbe, Duration refresh) {
+    RefreshAheadSupplier<T> supplier =
+        new RefreshAheadSupplier<>(
+            name, loader, versionProbe, refresh, REFRESH_EXECUTOR, Ticker.systemTicker());
+    suppliersByName.put(name, supplier);
+    return supplier;
+  }
+
+  @Override
+  public T get() {
+    return cache.get(name).value();
+  }
+
+  /** Returns the time since the value was loaded, or last found to be unchanged, if loaded. */
+  @VisibleForTesting
+  @Nullable
+  Duration getStaleness() {
+    Snapshot<T> snapshot = cache.getIfPresent(name);
+    return snapshot == null
+        ? null
+        : Duration.ofNanos(ticker.read() - snapshot.checkedAtNanos());
+  }
+
+  private static ImmutableMap<ImmutableList<String>, Long> exportStaleness() {
+    ImmutableMap.Builder<ImmutableList<String>, Long> builder = new ImmutableMap.Builder<>();
+    suppliersByName.forEach(
+        (name, supplier) -> {
+          Duration staleness = supplier.getStaleness();
+          if (staleness != null) {
+            builder.put(ImmutableList.of(name), staleness.toMillis());
+          }
+        });
+    return builder.buildOrThrow();
+  }
+
+  /**
+   * A loaded value, with the version it was loaded at, when it was loaded, and when it was last
+   * known to be current.
+   */
+  private record Snapshot<T>(
+      T value, @Nullable Object version, long loadedAtNanos, long checkedAtNanos) {}
+
+  /**
+   * Expires a snapshot a fixed time after its value was loaded.
+   *
+   * <p>A refresh that finds the value unchanged replaces the snapshot, which would otherwise
+   * restart the expiry.
+   */
+  private class LoadTimeExpiry implements Expiry<String, Snapshot<T>> {
+
+    private final long expiryNanos;
+
+    LoadTimeExpiry(long expiryNanos) {
+      this.expiryNanos = expiryNanos;
+    }
+
+    @Override
+    public long expireAfterCreate(String unused, Snapshot<T> snapshot, long currentTime) {
+      return Math.max(0, snapshot.loadedAtNanos() + expiryNanos - currentTime);
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String unused, Snapshot<T> snapshot, long currentTime, long currentDuration) {
+      return expireAfterCreate(unused, snapshot, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        String unused, Snapshot<T> snapshot, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+
+  private class SnapshotLoader implements CacheLoader<String, Snapshot<T>> {
+
+    @Override
+    public Snapshot<T> load(String unused) {
+      return timed(this::loadSnapshot, null);
+    }
+
+    @Override
+    public Snapshot<T> reload(String unused, Snapshot<T> cached) {
+      return timed(
+          () -> {
+            if (versionProbe != null && ticker.read() - cached.loadedAtNanos() < fullReloadNanos) {
+              Object version = versionProbe.get();
+              if (Objects.equals(version, cached.version())) {
+                return new Snapshot<>(
+                    cached.value(), version, cached.loadedAtNanos(), ticker.read());
+              }
+            }
+            return loadSnapshot();
+          },
+          cached);
+    }
+
+    private Snapshot<T> loadSnapshot() {
+      // Probe before loading, so that a change made during the load is picked up next time.
+      Object version = versionProbe == null ? null : versionProbe.get();
+      long loadedAtNanos = ticker.read();
+      return new Snapshot<>(loader.get(), version, loadedAtNanos, ticker.read());
+    }
+
+    private Snapshot<T> timed(Supplier<Snapshot<T>> work, @Nullable Snapshot<T> cached) {
+      Stopwatch stopwatch = Stopwatch.createStarted();
+      String result = "failed";
+      try {
+        Snapshot<T> snapshot = work.get();
+        result = cached != null && snapshot.value() == cached.value() ? "unchanged" : "loaded";
+        return snapshot;
+      } finally {
+        refreshDuration.record(stopwatch.elapsed(NANOSECONDS) / 1e6, name, result);
+      }
+    }
+  }
+}
@@ -87,7 +87,21 @@ public class FeatureFlag extends ImmutableObject implements Buildable {
     PROHIBIT_CONTACT_OBJECTS_ON_LOGIN(FeatureStatus.INACTIVE),
 
     /** If we're prohibiting insecure algorithms as detailed by RFC 9904. */
-    FORBID_INSECURE_ALGORITHMS_RFC_9904(FeatureStatus.INACTIVE);
+    FORBID_INSECURE_ALGORITHMS_RFC_9904(FeatureStatus.INACTIVE),
+
+    /**
+     * If we're storing new claims list and SMDRL revisions as deltas on top of the latest snapshot.
+     *
+     * <p>Only turn this on once every server reads revisions with a base revision id.
+     */
+    TMCH_DELTA_REVISIONS(FeatureStatus.INACTIVE),
+
+    /**
+     * If we're compressing the EPP XML of history entries once their month has gone cold.
+     *
+     * <p>Only turn this on once every server reads history XML through the compressed converter.
+     */
+    COMPRESS_HISTORY_XML(FeatureStatus.INACTIVE);
 
     private final FeatureStatus defaultStatus;
 
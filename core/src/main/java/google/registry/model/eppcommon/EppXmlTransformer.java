@@ -14,6 +14,7 @@
 
 package google.registry.model.eppcommon;
 
+import static google.registry.xml.ValidationMode.STRICT;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -26,6 +27,8 @@ import google.registry.model.domain.fee06.FeeInfoResponseExtensionV06;
 import google.registry.model.eppinput.EppInput;
 import google.registry.model.eppoutput.EppOutput;
 import google.registry.model.eppoutput.EppResponse;
+import google.registry.model.eppoutput.Result;
+import google.registry.model.eppoutput.Result.Code;
 import google.registry.xml.ValidationMode;
 import google.registry.xml.XmlException;
 import google.registry.xml.XmlTransformer;
@@ -64,6 +67,28 @@ public class EppXmlTransformer  {
   private static final XmlTransformer OUTPUT_TRANSFORMER =
       new XmlTransformer(getSchemas(), EppOutput.class);
 
+  /** A minimal command used to exercise the input transformer in {@link #warmUp}. */
+  private static final byte[] WARM_UP_INPUT =
+      "<epp xmlns=\"urn:ietf:params:xml:ns:epp-1.0\"><hello/></epp>".getBytes(UTF_8);
+
+  /**
+   * Runs one unmarshal and one validated marshal so that the first real commands don't pay for it.
+   *
+   * <p>Loading this class compiles the schemas and builds both JAXB contexts, but JAXB still does a
+   * fair amount of lazy initialization on first use. This also leaves a configured marshaller and
+   * unmarshaller in the pools.
+   */
+  public static void warmUp() throws XmlException {
+    unmarshal(EppInput.class, WARM_UP_INPUT);
+    marshal(
+        EppOutput.create(
+            new EppResponse.Builder()
+                .setResult(Result.create(Code.COMMAND_FAILED))
+                .setTrid(Trid.create(null, "warm-up"))
+                .build()),
+        STRICT);
+  }
+
   // TODO(b/159033801): remove method and inline ALL_SCHEMA.
   @VisibleForTesting
   public static ImmutableList<String> getSchemas() {
@@ -111,7 +136,7 @@ public class EppXmlTransformer  {
   public static byte[] marshal(EppOutput root, ValidationMode validation) throws XmlException {
     byte[] bytes = marshal(OUTPUT_TRANSFORMER, root, validation);
     if (hasFeeExtension(root)) {
-      return FeeExtensionXmlTagNormalizer.normalize(new String(bytes, UTF_8)).getBytes(UTF_8);
+      return FeeExtensionXmlTagNormalizer.normalize(bytes);
     }
     return bytes;
   }
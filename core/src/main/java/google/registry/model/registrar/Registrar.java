@@ -25,7 +25,7 @@ import static com.google.common.collect.Sets.immutableEnumSet;
 import static com.google.common.collect.Streams.stream;
 import static com.google.common.io.BaseEncoding.base64;
 import static google.registry.config.RegistryConfig.getDefaultRegistrarWhoisServer;
-import static google.registry.model.CacheUtils.memoizeWithShortExpiration;
+import static google.registry.model.CacheUtils.memoizeWithRefreshAhead;
 import static google.registry.model.tld.Tlds.assertTldsExist;
 import static google.registry.persistence.transaction.TransactionManagerFactory.replicaTm;
 import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
@@ -66,6 +66,7 @@ import google.registry.persistence.converter.CidrBlockListUserType;
 import google.registry.persistence.converter.CurrencyToStringMapUserType;
 import google.registry.persistence.transaction.TransactionManager;
 import google.registry.util.CidrAddressBlock;
+import google.registry.util.CidrAddressTrie;
 import google.registry.util.PasswordUtils;
 import google.registry.util.PasswordUtils.HashAlgorithm;
 import jakarta.mail.internet.AddressException;
@@ -80,8 +81,11 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.net.InetAddress;
 import java.security.cert.CertificateParsingException;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -208,11 +212,31 @@ public class Registrar extends UpdateAutoTimestampEntity implements Buildable, J
 
   /** A caching {@link Supplier} of a registrarId to {@link Registrar} map. */
   private static final Supplier<ImmutableMap<String, Registrar>> CACHE_BY_REGISTRAR_ID =
-      memoizeWithShortExpiration(
+      memoizeWithRefreshAhead(
+          "registrars",
           () ->
               Maps.uniqueIndex(
                   tm().reTransact(() -> tm().loadAllOf(Registrar.class)),
-                  Registrar::getRegistrarId));
+                  Registrar::getRegistrarId),
+          Registrar::getTableVersion);
+
+  /**
+   * Returns a value that changes when a registrar is saved or deleted.
+   *
+   * <p>Every save bumps the update timestamp, and the count catches deletions. A save can still be
+   * missed if it commits after a save with a later timestamp was probed, which the cache makes up
+   * for by reloading the registrars regardless every few refreshes.
+   */
+  private static List<Object> getTableVersion() {
+    return Arrays.asList(
+        tm().reTransact(
+                () ->
+                    tm().query(
+                            "SELECT COUNT(r), MAX(r.updateTimestamp.lastUpdateTime)"
+                                + " FROM Registrar r",
+                            Object[].class)
+                        .getSingleResult()));
+  }
 
   /**
    * Unique registrar client id. Must conform to "clIDType" as defined in RFC5730.
@@ -301,6 +325,9 @@ public class Registrar extends UpdateAutoTimestampEntity implements Buildable, J
   @Expose
   List<CidrAddressBlock> ipAddressAllowList;
 
+  /** {@link #ipAddressAllowList} compiled for lookups, built on first use. */
+  @Insignificant @Transient CidrAddressTrie ipAddressAllowListTrie;
+
   /** A hashed password for EPP access. The hash is a base64 encoded SHA256 string. */
   String passwordHash;
 
@@ -540,6 +567,22 @@ public class Registrar extends UpdateAutoTimestampEntity implements Buildable, J
     return nullToEmptyImmutableCopy(ipAddressAllowList);
   }
 
+  /**
+   * Returns true if the address is in the IP address allow list.
+   *
+   * <p>The allow list is compiled into a trie the first time this is called, and the trie is kept
+   * with this instance, so the registrars in the cache compile their allow lists only once.
+   */
+  public boolean isIpAddressAllowListed(InetAddress address) {
+    CidrAddressTrie trie = ipAddressAllowListTrie;
+    if (trie == null) {
+      // Threads racing here may each build the trie, which is harmless since it's immutable.
+      trie = CidrAddressTrie.create(getIpAddressAllowList());
+      ipAddressAllowListTrie = trie;
+    }
+    return trie.contains(address);
+  }
+
   public RegistrarAddress getLocalizedAddress() {
     return localizedAddress;
   }
@@ -892,6 +935,7 @@ public class Registrar extends UpdateAutoTimestampEntity implements Buildable, J
           ipAddressAllowList == null
               ? ImmutableList.of()
               : ImmutableList.copyOf(ipAddressAllowList);
+      getInstance().ipAddressAllowListTrie = null;
       return this;
     }
 
@@ -30,11 +30,13 @@ import google.registry.model.host.HostBase;
 import google.registry.model.host.HostHistory;
 import google.registry.model.reporting.HistoryEntry.HistoryEntryId;
 import google.registry.persistence.EntityCallbacksListener.RecursivePostLoad;
+import google.registry.persistence.converter.CompressedXmlConverter;
 import jakarta.persistence.Access;
 import jakarta.persistence.AccessType;
 import jakarta.persistence.AttributeOverride;
 import jakarta.persistence.AttributeOverrides;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Embeddable;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -131,9 +133,11 @@ public abstract class HistoryEntry extends ImmutableObject
   /**
    * The actual EPP xml of the command, stored as bytes to be agnostic of encoding.
    *
-   * <p>Changes performed by backend actions would not have EPP requests to store.
+   * <p>Changes performed by backend actions would not have EPP requests to store. The bytes of
+   * old entries may be stored gzipped, which the entity never sees.
    */
   @Column(name = "historyXmlBytes")
+  @Convert(converter = CompressedXmlConverter.class)
   byte[] xmlBytes;
 
   /** The time the command occurred, represented by the transaction time. */
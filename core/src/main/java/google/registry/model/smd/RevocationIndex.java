@@ -0,0 +1,88 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.model.smd;
+
+import com.google.common.collect.ImmutableMap;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The revocations of a {@link SignedMarkRevocationList}, as parallel arrays sorted by SMD ID.
+ *
+ * <p>A list has tens of thousands of revocations and every sunrise create looks one up, so this
+ * stores them without a boxed {@link Instant} and hash entry per revocation. Revocation times are
+ * kept to millisecond precision, which is finer than the second precision of the SMDRL file.
+ */
+final class RevocationIndex {
+
+  private final String[] smdIds;
+  private final long[] revocationMillis;
+
+  private RevocationIndex(String[] smdIds, long[] revocationMillis) {
+    this.smdIds = smdIds;
+    this.revocationMillis = revocationMillis;
+  }
+
+  static RevocationIndex copyOf(Map<String, Instant> revokes) {
+    String[] smdIds = revokes.keySet().toArray(new String[0]);
+    Arrays.sort(smdIds);
+    long[] revocationMillis = new long[smdIds.length];
+    for (int i = 0; i < smdIds.length; i++) {
+      revocationMillis[i] = revokes.get(smdIds[i]).toEpochMilli();
+    }
+    return new RevocationIndex(smdIds, revocationMillis);
+  }
+
+  /** Returns when the SMD with the given ID was revoked, if it was. */
+  Optional<Instant> getRevocationTime(String smdId) {
+    int index = Arrays.binarySearch(smdIds, smdId);
+    return index < 0
+        ? Optional.empty()
+        : Optional.of(Instant.ofEpochMilli(revocationMillis[index]));
+  }
+
+  int size() {
+    return smdIds.length;
+  }
+
+  /** Returns the revocations as a map, e.g. to compare them with another revision's. */
+  ImmutableMap<String, Instant> toMap() {
+    ImmutableMap.Builder<String, Instant> revokes =
+        ImmutableMap.builderWithExpectedSize(smdIds.length);
+    for (int i = 0; i < smdIds.length; i++) {
+      revokes.put(smdIds[i], Instant.ofEpochMilli(revocationMillis[i]));
+    }
+    return revokes.buildOrThrow();
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof RevocationIndex index
+        && Arrays.equals(smdIds, index.smdIds)
+        && Arrays.equals(revocationMillis, index.revocationMillis);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(smdIds) + Arrays.hashCode(revocationMillis);
+  }
+
+  @Override
+  public String toString() {
+    return toMap().toString();
+  }
+}
@@ -0,0 +1,41 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.model.smd;
+
+import google.registry.model.ImmutableObject;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Revocation entry record, used by {@link SignedMarkRevocationList} for persistence.
+ *
+ * <p>The entries are only ever written by {@link SignedMarkRevocationListDao} with {@code COPY} and
+ * read with projection queries, so this class just describes the table to Hibernate.
+ */
+@Entity(name = "SignedMarkRevocationEntry")
+@SuppressWarnings("unused")
+class SignedMarkRevocationEntry extends ImmutableObject implements Serializable {
+  @Id private Long revisionId;
+
+  @Id private String smdId;
+
+  /** When the SMD was revoked, or null if a delta revision removed it from the list. */
+  private Instant revocationTime;
+
+  /** Default constructor for Hibernate. */
+  SignedMarkRevocationEntry() {}
+}
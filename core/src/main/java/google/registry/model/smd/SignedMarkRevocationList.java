@@ -15,23 +15,25 @@
 package google.registry.model.smd;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static google.registry.model.CacheUtils.memoizeWithShortExpiration;
+import static google.registry.config.RegistryConfig.getSingletonCacheRefreshDuration;
 import static google.registry.util.DateTimeUtils.isBeforeOrAt;
 
-import com.google.common.base.Supplier;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
+import google.registry.model.CacheUtils;
+import google.registry.model.DeltaRevisions;
 import google.registry.model.ImmutableObject;
-import jakarta.persistence.CollectionTable;
-import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
-import jakarta.persistence.MapKeyColumn;
+import jakarta.persistence.Transient;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.Map;
+import java.util.Objects;
 
 /**
  * Signed Mark Data Revocation List (SMDRL).
@@ -40,6 +42,9 @@ import java.util.Map;
  * all the {@link SignedMark SignedMarks} that have been revoked. A new list is created for each new
  * file that's created, depending on the timestamp.
  *
+ * <p>A revision is either a full snapshot or a delta on top of the latest snapshot, which only has
+ * entries for the SMD IDs that were added, changed or removed since. See {@link DeltaRevisions}.
+ *
  * @see google.registry.tmch.SmdrlCsvParser
  * @see <a href="http://tools.ietf.org/html/draft-lozano-tmch-func-spec-08#section-6.2">TMCH
  *     functional specifications - SMD Revocation List</a>
@@ -54,21 +59,66 @@ public class SignedMarkRevocationList extends ImmutableObject {
   /** Time when this list was last updated, as specified in the first line of the CSV file. */
   Instant creationTime;
 
-  /** A map from SMD IDs to revocation time. */
-  @ElementCollection
-  @CollectionTable(
-      name = "SignedMarkRevocationEntry",
-      joinColumns = @JoinColumn(name = "revisionId", referencedColumnName = "revisionId"))
-  @MapKeyColumn(name = "smdId")
-  @Column(name = "revocationTime", nullable = false)
-  Map</*@MatchesPattern("[0-9]+-[0-9]+")*/ String, Instant> revokes;
+  /**
+   * The revision id of the snapshot this revision is a delta on top of, or null if this revision
+   * is itself a full snapshot.
+   */
+  Long baseRevisionId;
+
+  /**
+   * The SMD IDs and their revocation times.
+   *
+   * <p>This is stored as {@link SignedMarkRevocationEntry} rows, which {@link
+   * SignedMarkRevocationListDao} reads and writes itself since a revision may only store the
+   * changes since the previous one.
+   */
+  @Transient RevocationIndex revokes;
+
+  /**
+   * A cache of the latest {@link SignedMarkRevocationList}.
+   *
+   * <p>Once the cached list is older than the singleton cache refresh duration, the next read
+   * starts an asynchronous refresh and keeps getting the cached list until it is done, so a request
+   * only ever waits for the first load (or, on an instance that has been idle for ten refresh
+   * periods, for a reload). A refresh only looks up the latest revision id, and loads the list
+   * again only if a new revision has been saved since.
+   */
+  private static final LoadingCache<Class<SignedMarkRevocationList>, SignedMarkRevocationList>
+      CACHE = createCache(getSingletonCacheRefreshDuration());
+
+  private static LoadingCache<Class<SignedMarkRevocationList>, SignedMarkRevocationList>
+      createCache(Duration refresh) {
+    // As in CacheUtils, a zero duration (the default in tests) means every read loads the list.
+    Caffeine<Object, Object> caffeine =
+        refresh.isZero()
+            ? CacheUtils.newCacheBuilder().expireAfterWrite(Duration.ZERO)
+            : CacheUtils.newCacheBuilder()
+                .refreshAfterWrite(refresh)
+                .expireAfterWrite(refresh.multipliedBy(10));
+    return caffeine.build(new RevisionAwareLoader());
+  }
+
+  /** Loads the latest list, and on refresh keeps the cached list if it is still the latest. */
+  @VisibleForTesting
+  static class RevisionAwareLoader
+      implements CacheLoader<Class<SignedMarkRevocationList>, SignedMarkRevocationList> {
 
-  /** A cached supplier that fetches the {@link SignedMarkRevocationList} object. */
-  private static final Supplier<SignedMarkRevocationList> CACHE =
-      memoizeWithShortExpiration(SignedMarkRevocationListDao::load);
+    @Override
+    public SignedMarkRevocationList load(Class<SignedMarkRevocationList> unused) {
+      return SignedMarkRevocationListDao.load();
+    }
+
+    @Override
+    public SignedMarkRevocationList reload(
+        Class<SignedMarkRevocationList> unused, SignedMarkRevocationList cached) {
+      return Objects.equals(SignedMarkRevocationListDao.loadLatestRevisionId(), cached.revisionId)
+          ? cached
+          : SignedMarkRevocationListDao.load();
+    }
+  }
 
   public static SignedMarkRevocationList get() {
-    return CACHE.get();
+    return CACHE.get(SignedMarkRevocationList.class);
   }
 
   /** Create a new {@link SignedMarkRevocationList} without saving it. */
@@ -76,14 +126,16 @@ public class SignedMarkRevocationList extends ImmutableObject {
       Instant creationTime, ImmutableMap<String, Instant> revokes) {
     SignedMarkRevocationList instance = new SignedMarkRevocationList();
     instance.creationTime = checkNotNull(creationTime, "creationTime");
-    instance.revokes = checkNotNull(revokes, "revokes");
+    instance.revokes = RevocationIndex.copyOf(checkNotNull(revokes, "revokes"));
     return instance;
   }
 
   /** Returns {@code true} if the SMD ID has been revoked at the given point in time. */
   public boolean isSmdRevoked(String smdId, Instant now) {
-    Instant revoked = revokes.get(checkNotNull(smdId, "smdId"));
-    return revoked != null && isBeforeOrAt(revoked, now);
+    return revokes
+        .getRevocationTime(checkNotNull(smdId, "smdId"))
+        .map(revoked -> isBeforeOrAt(revoked, now))
+        .orElse(false);
   }
 
   /** Returns the creation timestamp specified at the top of the SMDRL CSV file. */
@@ -14,34 +14,83 @@
 
 package google.registry.model.smd;
 
+import static google.registry.model.common.FeatureFlag.FeatureName.TMCH_DELTA_REVISIONS;
 import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
 import static google.registry.util.DateTimeUtils.START_INSTANT;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
 import com.google.common.flogger.FluentLogger;
+import google.registry.model.DeltaRevisions;
+import google.registry.model.common.FeatureFlag;
+import google.registry.persistence.transaction.PostgresCopy;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
 
 public class SignedMarkRevocationListDao {
 
   private static final FluentLogger logger = FluentLogger.forEnclosingClass();
 
+  private static final ImmutableList<String> ENTRY_COLUMNS =
+      ImmutableList.of("revision_id", "smd_id", "revocation_time");
+
   /** Loads the {@link SignedMarkRevocationList}. */
   static SignedMarkRevocationList load() {
+    return tm().reTransact(SignedMarkRevocationListDao::loadLatest)
+        .orElseGet(() -> SignedMarkRevocationList.create(START_INSTANT, ImmutableMap.of()));
+  }
+
+  /** Returns the revision id of the latest {@link SignedMarkRevocationList}, or null if none. */
+  @Nullable
+  static Long loadLatestRevisionId() {
+    return tm().reTransact(
+            () ->
+                tm().query("SELECT MAX(revisionId) FROM SignedMarkRevocationList", Long.class)
+                    .getSingleResult());
+  }
+
+  private static Optional<SignedMarkRevocationList> loadLatest() {
     Optional<SignedMarkRevocationList> smdrl =
-        tm().reTransact(
-                () -> {
-                  Long revisionId =
-                      tm().query("SELECT MAX(revisionId) FROM SignedMarkRevocationList", Long.class)
-                          .getSingleResult();
-                  return tm().query(
-                          "FROM SignedMarkRevocationList smrl LEFT JOIN FETCH smrl.revokes "
-                              + "WHERE smrl.revisionId = :revisionId",
-                          SignedMarkRevocationList.class)
-                      .setParameter("revisionId", revisionId)
-                      .getResultStream()
-                      .findFirst();
-                });
-    return smdrl.orElseGet(() -> SignedMarkRevocationList.create(START_INSTANT, ImmutableMap.of()));
+        tm().query(
+                "FROM SignedMarkRevocationList ORDER BY revisionId DESC",
+                SignedMarkRevocationList.class)
+            .setMaxResults(1)
+            .getResultStream()
+            .findFirst();
+    smdrl.ifPresent(
+        list ->
+            list.revokes = RevocationIndex.copyOf(loadRevokes(list.revisionId, chainStart(list))));
+    return smdrl;
+  }
+
+  /**
+   * Loads the revocations of a revision by applying, in order, the entries of its snapshot and of
+   * all deltas on top of that snapshot up to and including the revision itself.
+   */
+  private static ImmutableMap<String, Instant> loadRevokes(long revisionId, long chainStart) {
+    Stream<Map.Entry<String, Instant>> entries =
+        tm().query(
+                "SELECT e.smdId, e.revocationTime FROM SignedMarkRevocationEntry e "
+                    + "WHERE e.revisionId IN (SELECT l.revisionId FROM SignedMarkRevocationList l "
+                    + "WHERE l.revisionId <= :revisionId "
+                    + "AND (l.revisionId = :chainStart OR l.baseRevisionId = :chainStart)) "
+                    + "ORDER BY e.revisionId",
+                Object[].class)
+            .setParameter("revisionId", revisionId)
+            .setParameter("chainStart", chainStart)
+            .getResultStream()
+            .map(row -> Maps.immutableEntry((String) row[0], (Instant) row[1]));
+    return DeltaRevisions.apply(ImmutableMap.of(), entries::iterator);
+  }
+
+  private static long chainStart(SignedMarkRevocationList list) {
+    return list.baseRevisionId == null ? list.revisionId : list.baseRevisionId;
   }
 
   /**
@@ -49,20 +98,57 @@ public class SignedMarkRevocationListDao {
    *
    * <p>Note that the input parameter is untouched. Use the returned object if metadata fields like
    * {@code revisionId} are needed.
+   *
+   * <p>Like {@link google.registry.model.tmch.ClaimsListDao#save}, this stores a delta against the
+   * latest revision when {@code TMCH_DELTA_REVISIONS} is active and few enough revocations changed,
+   * and copies the entries in with a single {@code COPY}.
    */
   public static SignedMarkRevocationList save(SignedMarkRevocationList signedMarkRevocationList) {
-    SignedMarkRevocationList persisted =
-        tm().transact(
-                () -> {
-                  var entity =
-                      SignedMarkRevocationList.create(
-                          signedMarkRevocationList.getCreationTime(),
-                          ImmutableMap.copyOf(signedMarkRevocationList.revokes));
-                  tm().insert(entity);
-                  return entity;
-                });
+    return tm().transact(
+            () ->
+                insertRevision(
+                    signedMarkRevocationList.getCreationTime(),
+                    signedMarkRevocationList.revokes.toMap()));
+  }
+
+  private static SignedMarkRevocationList insertRevision(
+      Instant creationTime, ImmutableMap<String, Instant> revokes) {
+    SignedMarkRevocationList entity = SignedMarkRevocationList.create(creationTime, revokes);
+    Map<String, Instant> entries = revokes;
+    if (FeatureFlag.isActiveNow(TMCH_DELTA_REVISIONS)) {
+      // Serializes writers, which each write a delta against the latest revision. Readers aren't
+      // blocked.
+      tm().getEntityManager()
+          .createNativeQuery("LOCK TABLE \"SignedMarkRevocationList\" IN SHARE ROW EXCLUSIVE MODE")
+          .executeUpdate();
+      Optional<SignedMarkRevocationList> previous = loadLatest();
+      if (previous.isPresent()) {
+        long chainStart = chainStart(previous.get());
+        long deltasInChain =
+            tm().query(
+                    "SELECT COUNT(*) FROM SignedMarkRevocationList "
+                        + "WHERE baseRevisionId = :chainStart",
+                    Long.class)
+                .setParameter("chainStart", chainStart)
+                .getSingleResult();
+        Map<String, Instant> delta = DeltaRevisions.diff(previous.get().revokes.toMap(), revokes);
+        if (!DeltaRevisions.isSnapshotDue(deltasInChain, delta.size(), revokes.size())) {
+          entity.baseRevisionId = chainStart;
+          entries = delta;
+        }
+      }
+    }
+    tm().insert(entity);
+    long revisionId = entity.revisionId;
+    PostgresCopy.copyIn(
+        "SignedMarkRevocationEntry",
+        ENTRY_COLUMNS,
+        Iterables.transform(
+            entries.entrySet(),
+            entry -> Arrays.asList(revisionId, entry.getKey(), entry.getValue())));
     logger.atInfo().log(
-        "Inserted %,d signed mark revocations into Cloud SQL.", persisted.revokes.size());
-    return persisted;
+        "Inserted %,d signed mark revocations into Cloud SQL as a %s of %,d entries.",
+        revokes.size(), entity.baseRevisionId == null ? "snapshot" : "delta", entries.size());
+    return entity;
   }
 }
@@ -21,7 +21,7 @@ import static com.google.common.base.Predicates.not;
 import static com.google.common.base.Strings.emptyToNull;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.collect.Maps.filterValues;
-import static google.registry.model.CacheUtils.memoizeWithShortExpiration;
+import static google.registry.model.CacheUtils.memoizeWithRefreshAhead;
 import static google.registry.model.tld.Tld.isEnrolledWithBsa;
 import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
 import static google.registry.util.CollectionUtils.entriesToImmutableMap;
@@ -56,7 +56,9 @@ public final class Tlds {
    * query inside an unrelated client-affecting transaction.
    */
   private static Supplier<ImmutableMap<String, TldType>> createFreshCache() {
-    return memoizeWithShortExpiration(
+    // The query is as cheap as a version probe would be, so there's no probe.
+    return memoizeWithRefreshAhead(
+        "tlds",
         () ->
             tm().reTransact(
                     () -> {
@@ -68,7 +70,8 @@ public final class Tlds {
                       return resultStream
                           .map(e -> Maps.immutableEntry((String) e[0], ((TldType) e[1])))
                           .collect(entriesToImmutableMap());
-                    }));
+                    }),
+        null);
   }
 
   /** Manually reset the static cache backing the methods on this class. */
@@ -15,9 +15,10 @@
 package google.registry.model.tmch;
 
 import google.registry.model.ImmutableObject;
-import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import java.io.Serializable;
 
 /**
@@ -29,6 +30,11 @@ import java.io.Serializable;
  * work.
  */
 @Entity(name = "ClaimsEntry")
+@Table(
+    indexes =
+        @Index(
+            columnList = "domainLabel,revisionId",
+            name = "claimsentry_domain_label_revision_id_idx"))
 class ClaimsEntry extends ImmutableObject implements Serializable {
   @SuppressWarnings("unused")
   @Id
@@ -36,7 +42,7 @@ class ClaimsEntry extends ImmutableObject implements Serializable {
 
   @Id private String domainLabel;
 
-  @Column(nullable = false)
+  /** The claim key of the label, or null if a delta revision removed the label from the list. */
   private String claimKey;
 
   /** Default constructor for Hibernate. */
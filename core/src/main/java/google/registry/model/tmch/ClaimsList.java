@@ -16,15 +16,16 @@ package google.registry.model.tmch;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
-import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static google.registry.persistence.transaction.QueryComposer.Comparator.EQ;
 import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
 
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import google.registry.model.CacheUtils;
 import google.registry.model.CreateAutoTimestamp;
+import google.registry.model.DeltaRevisions;
 import google.registry.model.ImmutableObject;
 import google.registry.persistence.EntityCallbacksListener.RecursivePostPersist;
 import google.registry.persistence.EntityCallbacksListener.RecursivePostUpdate;
@@ -38,9 +39,12 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
+import jakarta.persistence.TypedQuery;
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * A list of TMCH claims labels and their associated claims keys.
@@ -50,11 +54,23 @@ import java.util.Optional;
  * succeeds, we will end up with having two exact same claims list with only different {@link
  * #revisionId}. However, this is not an actual problem because we only use the claims list with
  * highest {@link #revisionId}.
+ *
+ * <p>A revision is either a full snapshot, which has a {@link ClaimsEntry} for every label, or a
+ * delta on top of the latest snapshot, which only has entries for the labels that were added,
+ * changed or removed since. See {@link DeltaRevisions} for how a delta chain is read.
  */
 @Entity(name = "ClaimsList")
 @Table
 public class ClaimsList extends ImmutableObject {
 
+  /**
+   * A JPQL subquery for the ids of the revisions whose entries make up a revision: its snapshot
+   * and every delta on top of that snapshot up to and including the revision itself.
+   */
+  private static final String CHAIN_REVISIONS =
+      "SELECT l.revisionId FROM ClaimsList l WHERE l.revisionId <= :revisionId "
+          + "AND (l.revisionId = :chainStart OR l.baseRevisionId = :chainStart)";
+
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   Long revisionId;
@@ -76,6 +92,12 @@ public class ClaimsList extends ImmutableObject {
   @Column(nullable = false)
   Instant tmdbGenerationTime;
 
+  /**
+   * The revision id of the snapshot this revision is a delta on top of, or null if this revision
+   * is itself a full snapshot.
+   */
+  Long baseRevisionId;
+
   /**
    * A map from labels to claims keys.
    *
@@ -167,50 +189,71 @@ public class ClaimsList extends ImmutableObject {
    */
   public ImmutableMap<String, String> getLabelsToKeys() {
     if (labelsToKeys == null) {
-      labelsToKeys =
-          tm().transact(
-                  () ->
-                      tm()
-                          .createQueryComposer(ClaimsEntry.class)
-                          .where("revisionId", EQ, revisionId)
-                          .stream()
-                          .collect(
-                              toImmutableMap(
-                                  ClaimsEntry::getDomainLabel, ClaimsEntry::getClaimKey)));
+      labelsToKeys = tm().reTransact(this::loadLabelsToKeys);
     }
     return labelsToKeys;
   }
 
+  private ImmutableMap<String, String> loadLabelsToKeys() {
+    Stream<Map.Entry<String, String>> entries =
+        setChainParameters(
+                tm().query(
+                        "SELECT e.domainLabel, e.claimKey FROM ClaimsEntry e "
+                            + "WHERE e.revisionId IN ("
+                            + CHAIN_REVISIONS
+                            + ") ORDER BY e.revisionId",
+                        Object[].class))
+            .getResultStream()
+            .map(row -> Maps.immutableEntry((String) row[0], (String) row[1]));
+    return DeltaRevisions.apply(ImmutableMap.of(), entries::iterator);
+  }
+
   /**
    * Returns the number of claims.
    *
    * <p>Note that this will perform a database "count" query if the label to key map has not been
-   * previously cached by calling {@link #getLabelsToKeys()}.
+   * previously cached by calling {@link #getLabelsToKeys()}, or load the whole map if this
+   * revision is a delta.
    */
   public long size() {
-    if (labelsToKeys == null) {
+    if (labelsToKeys == null && baseRevisionId == null) {
       return tm().createQueryComposer(ClaimsEntry.class)
           .where("revisionId", EQ, revisionId)
           .count();
     }
-    return labelsToKeys.size();
+    return getLabelsToKeys().size();
   }
 
   /**
    * Returns the claim key for a given domain if there is one, empty otherwise.
    *
    * <p>This attempts to load from the base {@link #labelsToKeys} if possible, otherwise it will
-   * query the database for the entry requested.
+   * query the database for the latest entry of the label in this revision's delta chain.
    */
   private Optional<String> getClaimKeyUncached(String label) {
     if (labelsToKeys != null) {
       return Optional.ofNullable(labelsToKeys.get(label));
     }
-    return tm().createQueryComposer(ClaimsEntry.class)
-        .where("revisionId", EQ, revisionId)
-        .where("domainLabel", EQ, label)
-        .first()
-        .map(ClaimsEntry::getClaimKey);
+    // A null claim key marks the label as removed, so an empty result and a null are both absent.
+    List<String> claimKeys =
+        setChainParameters(
+                tm().query(
+                        "SELECT e.claimKey FROM ClaimsEntry e WHERE e.domainLabel = :label "
+                            + "AND e.revisionId IN ("
+                            + CHAIN_REVISIONS
+                            + ") ORDER BY e.revisionId DESC",
+                        String.class))
+            .setParameter("label", label)
+            .setMaxResults(1)
+            .getResultList();
+    return claimKeys.isEmpty() ? Optional.empty() : Optional.ofNullable(claimKeys.get(0));
+  }
+
+  /** Sets the parameters of the {@link #CHAIN_REVISIONS} subquery for this revision. */
+  private <T> TypedQuery<T> setChainParameters(TypedQuery<T> query) {
+    return query
+        .setParameter("revisionId", getRevisionId())
+        .setParameter("chainStart", baseRevisionId == null ? revisionId : baseRevisionId);
   }
 
   public static ClaimsList create(
@@ -14,20 +14,37 @@
 
 package google.registry.model.tmch;
 
+import static com.google.common.base.Preconditions.checkNotNull;
 import static google.registry.config.RegistryConfig.getClaimsListCacheDuration;
+import static google.registry.model.common.FeatureFlag.FeatureName.TMCH_DELTA_REVISIONS;
 import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
 import static google.registry.util.DateTimeUtils.START_INSTANT;
 
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.flogger.FluentLogger;
 import google.registry.model.CacheUtils;
+import google.registry.model.DeltaRevisions;
+import google.registry.model.common.FeatureFlag;
+import google.registry.persistence.transaction.PostgresCopy;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 /** Data access object for {@link ClaimsList}. */
 public class ClaimsListDao {
 
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private static final ImmutableList<String> ENTRY_COLUMNS =
+      ImmutableList.of("revision_id", "domain_label", "claim_key");
+
   /**
    * Cache of the {@link ClaimsList} instance.
    *
@@ -53,20 +70,78 @@ public class ClaimsListDao {
    *
    * <p>Note that the input parameter is untouched. Use the returned object if metadata fields like
    * {@code revisionId} are needed.
+   *
+   * <p>While {@code TMCH_DELTA_REVISIONS} is active, the new revision is stored as a delta against
+   * the latest one when few enough labels changed, and as a full snapshot otherwise (see {@link
+   * DeltaRevisions}). Either way its entries are written with a single {@code COPY} rather than one
+   * insert per entry.
    */
   public static ClaimsList save(ClaimsList claimsList) {
     var persisted =
         tm().transact(
-                () -> {
-                  var entity =
-                      ClaimsList.create(claimsList.tmdbGenerationTime, claimsList.labelsToKeys);
-                  tm().insert(entity);
-                  return entity;
-                });
+                () ->
+                    insertRevision(
+                        claimsList.getTmdbGenerationTime(), claimsList.getLabelsToKeys()));
     CACHE.put(ClaimsListDao.class, persisted);
     return persisted;
   }
 
+  private static ClaimsList insertRevision(
+      Instant tmdbGenerationTime, ImmutableMap<String, String> labelsToKeys) {
+    var entity = new ClaimsList();
+    entity.tmdbGenerationTime = checkNotNull(tmdbGenerationTime);
+    Map<String, String> entries = labelsToKeys;
+    if (FeatureFlag.isActiveNow(TMCH_DELTA_REVISIONS)) {
+      // Only one writer at a time may read the latest revision and write a delta against it. This
+      // lock doesn't block readers.
+      tm().getEntityManager()
+          .createNativeQuery("LOCK TABLE \"ClaimsList\" IN SHARE ROW EXCLUSIVE MODE")
+          .executeUpdate();
+      Optional<ClaimsList> previous = getLatest();
+      if (previous.isPresent()) {
+        ClaimsList latest = previous.get();
+        long chainStart =
+            latest.baseRevisionId == null ? latest.getRevisionId() : latest.baseRevisionId;
+        long deltasInChain =
+            tm().query(
+                    "SELECT COUNT(*) FROM ClaimsList WHERE baseRevisionId = :chainStart",
+                    Long.class)
+                .setParameter("chainStart", chainStart)
+                .getSingleResult();
+        Map<String, String> delta = DeltaRevisions.diff(labelsToKeysOf(latest), labelsToKeys);
+        if (!DeltaRevisions.isSnapshotDue(deltasInChain, delta.size(), labelsToKeys.size())) {
+          entity.baseRevisionId = chainStart;
+          entries = delta;
+        }
+      }
+    }
+    // The entries are copied below, so the header is inserted without them to skip postPersist().
+    tm().insert(entity);
+    long revisionId = entity.getRevisionId();
+    PostgresCopy.copyIn(
+        "ClaimsEntry",
+        ENTRY_COLUMNS,
+        Iterables.transform(
+            entries.entrySet(),
+            entry -> Arrays.asList(revisionId, entry.getKey(), entry.getValue())));
+    entity.labelsToKeys = labelsToKeys;
+    logger.atInfo().log(
+        "Inserted claims list revision %d as a %s with %,d entries.",
+        revisionId, entity.baseRevisionId == null ? "snapshot" : "delta", entries.size());
+    return entity;
+  }
+
+  /** Returns the labels of a revision, reusing the cached copy if it is the same revision. */
+  private static ImmutableMap<String, String> labelsToKeysOf(ClaimsList claimsList) {
+    ClaimsList cached = CACHE.getIfPresent(ClaimsListDao.class);
+    if (cached != null
+        && cached.labelsToKeys != null
+        && Objects.equals(cached.revisionId, claimsList.revisionId)) {
+      return cached.labelsToKeys;
+    }
+    return claimsList.getLabelsToKeys();
+  }
+
   /** Returns the most recent revision of the {@link ClaimsList} from the cache. */
   public static ClaimsList get() {
     return CACHE.get(ClaimsListDao.class);
@@ -77,14 +152,16 @@ public class ClaimsListDao {
    * doesn't exist.
    */
   private static ClaimsList getUncached() {
-    return tm().reTransact(
-            () ->
-                tm().query("FROM ClaimsList ORDER BY revisionId DESC", ClaimsList.class)
-                    .setMaxResults(1)
-                    .getResultStream()
-                    .findFirst())
+    return tm().reTransact(ClaimsListDao::getLatest)
         .orElse(ClaimsList.create(START_INSTANT, ImmutableMap.of()));
   }
 
+  private static Optional<ClaimsList> getLatest() {
+    return tm().query("FROM ClaimsList ORDER BY revisionId DESC", ClaimsList.class)
+        .setMaxResults(1)
+        .getResultStream()
+        .findFirst();
+  }
+
   private ClaimsListDao() {}
 }
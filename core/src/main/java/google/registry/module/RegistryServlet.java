@@ -22,10 +22,13 @@ import static google.registry.util.GcpJsonFormatter.unsetLabels;
 import static google.registry.util.RandomStringGenerator.insecureRandomStringGenerator;
 import static google.registry.util.StringGenerator.Alphabets.HEX_DIGITS_ONLY;
 
+import com.google.common.flogger.FluentLogger;
+import google.registry.model.eppcommon.EppXmlTransformer;
 import google.registry.request.RequestHandler;
 import google.registry.util.GcpJsonFormatter;
 import google.registry.util.JdkLoggerConfig;
 import google.registry.util.RandomStringGenerator;
+import google.registry.xml.XmlException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
@@ -40,6 +43,8 @@ import java.util.regex.Pattern;
 /** Servlet that handles all requests. */
 public class RegistryServlet extends ServletBase {
 
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
   // Length of a log trace_id, arbitrarily chosen.
   private static final int LOG_TRACE_ID_LENGTH = 32;
   // GCP log trace pattern. Fill in project_id and trace id
@@ -72,6 +77,18 @@ public class RegistryServlet extends ServletBase {
     this.projectId = component.projectId();
   }
 
+  @Override
+  public void init() {
+    super.init();
+    // Pay for schema compilation and JAXB initialization at startup rather than on the first EPP
+    // commands after a rollout.
+    try {
+      EppXmlTransformer.warmUp();
+    } catch (XmlException e) {
+      logger.atWarning().withCause(e).log("Failed to warm up EPP XML transformers.");
+    }
+  }
+
   @Override
   public void service(HttpServletRequest req, HttpServletResponse rsp) throws IOException {
     setCurrentTraceId(traceId());
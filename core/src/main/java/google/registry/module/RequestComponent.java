@@ -23,6 +23,7 @@ import google.registry.batch.DeleteExpiredDomainsAction;
 import google.registry.batch.DeleteLoadTestDataAction;
 import google.registry.batch.DeleteProberDataAction;
 import google.registry.batch.ExpandBillingRecurrencesAction;
+import google.registry.batch.ManageHistoryPartitionsAction;
 import google.registry.batch.RelockDomainAction;
 import google.registry.batch.ResaveAllEppResourcesPipelineAction;
 import google.registry.batch.ResaveEntityAction;
@@ -87,6 +88,7 @@ import google.registry.reporting.billing.BillingModule;
 import google.registry.reporting.billing.CopyDetailReportsAction;
 import google.registry.reporting.billing.GenerateInvoicesAction;
 import google.registry.reporting.billing.PublishInvoicesAction;
+import google.registry.reporting.icann.CountIcannTransactionsAction;
 import google.registry.reporting.icann.DnsCountQueryCoordinator.DnsCountQueryCoordinatorModule;
 import google.registry.reporting.icann.IcannReportingModule;
 import google.registry.reporting.icann.IcannReportingStagingAction;
@@ -209,6 +211,8 @@ public interface RequestComponent {
 
   CopyDetailReportsAction copyDetailReportAction();
 
+  CountIcannTransactionsAction countIcannTransactionsAction();
+
   CreateGroupsAction createGroupsAction();
 
   DeleteExpiredDomainsAction deleteExpiredDomainsAction();
@@ -255,6 +259,8 @@ public interface RequestComponent {
 
   LoadTestAction loadTestAction();
 
+  ManageHistoryPartitionsAction manageHistoryPartitionsAction();
+
   NordnUploadAction nordnUploadAction();
 
   NordnVerifyAction nordnVerifyAction();
@@ -15,14 +15,21 @@
 package google.registry.monitoring.whitebox;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Locale.ROOT;
 
 import com.google.auto.value.AutoBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultiset;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
 import google.registry.model.eppoutput.Result.Code;
 import google.registry.model.tld.Tlds;
+import google.registry.persistence.transaction.SqlStatementCounter.StatementType;
 import google.registry.util.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.EnumMap;
 import java.util.Optional;
 
 /** A record for recording attributes of an EPP metric. */
@@ -32,7 +39,37 @@ public record EppMetric(
     Optional<String> commandName,
     Optional<String> registrarId,
     Optional<String> tld,
-    Optional<Code> status) {
+    Optional<Code> status,
+    Optional<ImmutableMultiset<StatementType>> sqlStatementCounts,
+    ImmutableMap<EppMetric.Phase, Duration> phaseTimes) {
+
+  /**
+   * A phase of handling an EPP request, for breaking down its latency.
+   *
+   * <p>The phases aren't exclusive: the SQL time is spent within the flow and commit phases, and
+   * the authentication time within the flow phase of a login.
+   */
+  public enum Phase {
+    /** Unmarshaling the request XML. */
+    PARSE,
+    /** Sanitizing the request XML and logging the command. */
+    SANITIZE_AND_LOG,
+    /** Verifying the credentials of a login. */
+    AUTH,
+    /** Running the flow, including all of its attempts if it was retried. */
+    FLOW,
+    /** Preparing and executing SQL statements. */
+    SQL,
+    /** Committing the flow's transactions, including flushing their changes. */
+    COMMIT,
+    /** Marshaling the response XML. */
+    MARSHAL;
+
+    /** Returns the name of the phase as used in metric labels. */
+    public String label() {
+      return name().toLowerCase(ROOT);
+    }
+  }
 
   /** Create an {@link Builder}. */
   public static Builder builder() {
@@ -73,6 +110,14 @@ public record EppMetric(
     return status;
   }
 
+  public Optional<ImmutableMultiset<StatementType>> getSqlStatementCounts() {
+    return sqlStatementCounts;
+  }
+
+  public ImmutableMap<Phase, Duration> getPhaseTimes() {
+    return phaseTimes;
+  }
+
   /** A builder to create instances of {@link EppMetric}. */
   @AutoBuilder
   public abstract static class Builder {
@@ -80,6 +125,9 @@ public record EppMetric(
     /** Builder-only clock to support automatic recording of endTimestamp on {@link #build()}. */
     private Clock clock = null;
 
+    /** The time spent in each phase so far, set as the phase times on {@link #build()}. */
+    private final EnumMap<Phase, Duration> phaseTimes = new EnumMap<>(Phase.class);
+
     abstract Builder setStartTimestamp(Instant startTimestamp);
 
     abstract Builder setEndTimestamp(Instant endTimestamp);
@@ -126,6 +174,18 @@ public record EppMetric(
 
     public abstract Builder setStatus(Code code);
 
+    /** Sets the SQL statements prepared by the flow's transaction by type, including retries. */
+    public abstract Builder setSqlStatementCounts(
+        ImmutableMultiset<StatementType> sqlStatementCounts);
+
+    abstract Builder setPhaseTimes(ImmutableMap<Phase, Duration> phaseTimes);
+
+    /** Adds time spent in a phase, to any time already spent in it, e.g. by earlier attempts. */
+    public Builder addPhaseTime(Phase phase, Duration time) {
+      phaseTimes.merge(phase, time, Duration::plus);
+      return this;
+    }
+
     Builder setClock(Clock clock) {
       this.clock = clock;
       return this;
@@ -141,6 +201,7 @@ public record EppMetric(
       if (clock != null) {
         setEndTimestamp(clock.now());
       }
+      setPhaseTimes(Maps.immutableEnumMap(phaseTimes));
       return autoBuild();
     }
 
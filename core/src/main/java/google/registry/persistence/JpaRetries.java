@@ -14,39 +14,45 @@
 
 package google.registry.persistence;
 
-import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableMap;
 import jakarta.persistence.OptimisticLockException;
 import java.sql.SQLException;
-import java.util.function.Predicate;
+import java.util.Optional;
 
 /** Helpers for identifying retriable database operations. */
 public final class JpaRetries {
 
   private JpaRetries() {}
 
-  private static final ImmutableSet<String> RETRIABLE_TXN_SQL_STATE =
-      ImmutableSet.of(
-          "40001", // serialization_failure
-          "40P01", // deadlock_detected, PSQL-specific
-          "55006", // object_in_use, PSQL and DB2
-          "55P03" // lock_not_available, PSQL-specific
+  /** The SQL states of retriable failures, with the names used for them in metrics. */
+  private static final ImmutableMap<String, String> RETRIABLE_TXN_SQL_STATES =
+      ImmutableMap.of(
+          "40001", "serialization_failure",
+          "40P01", "deadlock_detected", // PSQL-specific
+          "55006", "object_in_use", // PSQL and DB2
+          "55P03", "lock_not_available" // PSQL-specific
           );
 
-  private static final Predicate<Throwable> RETRIABLE_TXN_PREDICATE =
-      ((Predicate<Throwable>) OptimisticLockException.class::isInstance)
-          .or(
-              e ->
-                  e instanceof SQLException sqlException
-                      && RETRIABLE_TXN_SQL_STATE.contains(sqlException.getSQLState()));
-
   public static boolean isFailedTxnRetriable(Throwable throwable) {
+    return getRetriableReason(throwable).isPresent();
+  }
+
+  /**
+   * Returns the reason a failed transaction can be retried, e.g. {@code serialization_failure}, or
+   * empty if it can't be.
+   */
+  public static Optional<String> getRetriableReason(Throwable throwable) {
     Throwable t = throwable;
     while (t != null) {
-      if (RETRIABLE_TXN_PREDICATE.test(t)) {
-        return true;
+      if (t instanceof OptimisticLockException) {
+        return Optional.of("optimistic_lock");
+      }
+      if (t instanceof SQLException sqlException
+          && RETRIABLE_TXN_SQL_STATES.containsKey(sqlException.getSQLState())) {
+        return Optional.of(RETRIABLE_TXN_SQL_STATES.get(sqlException.getSQLState()));
       }
       t = t.getCause();
     }
-    return false;
+    return Optional.empty();
   }
 }
@@ -0,0 +1,44 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.persistence;
+
+import google.registry.persistence.transaction.TransactionRetrier;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates how the transaction of a {@link google.registry.flows.TransactionalFlow} is retried
+ * when it fails on contention.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface TransactionRetries {
+
+  /** The number of times to attempt the transaction, including the first. */
+  int maxAttempts() default TransactionRetrier.DEFAULT_ATTEMPTS;
+
+  /**
+   * Whether to run flows on the same target ID one at a time on each server instance.
+   *
+   * <p>This is meant for flows that are commonly run many times at once on the same name, such as
+   * domain creates for a name that is about to drop. All but one of them would otherwise fail on
+   * contention and be retried.
+   */
+  boolean serializeByTargetId() default false;
+}
@@ -0,0 +1,80 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.persistence.converter;
+
+import com.google.common.io.ByteStreams;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Nullable;
+
+/**
+ * JPA converter for XML documents stored as bytes that may have been gzipped.
+ *
+ * <p>Documents are written as they are. Cold history entries have their XML compressed in place
+ * by {@code ManageHistoryPartitionsAction}, so a column may hold either form. A value is therefore
+ * only decompressed if it starts with the gzip magic number, which can't be the start of an XML
+ * document.
+ */
+@Converter
+public class CompressedXmlConverter implements AttributeConverter<byte[], byte[]> {
+
+  private static final byte GZIP_MAGIC_0 = (byte) 0x1f;
+  private static final byte GZIP_MAGIC_1 = (byte) 0x8b;
+
+  @Override
+  @Nullable
+  public byte[] convertToDatabaseColumn(@Nullable byte[] xml) {
+    return xml;
+  }
+
+  @Override
+  @Nullable
+  public byte[] convertToEntityAttribute(@Nullable byte[] columnValue) {
+    if (columnValue == null || !isCompressed(columnValue)) {
+      return columnValue;
+    }
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(columnValue))) {
+      return ByteStreams.toByteArray(in);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error decompressing XML", e);
+    }
+  }
+
+  /** Returns the gzipped bytes, regardless of whether they are smaller. */
+  public static byte[] compress(byte[] xml) {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream(xml.length / 2);
+    try (OutputStream out = new GZIPOutputStream(bos)) {
+      out.write(xml);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error compressing XML", e);
+    }
+    return bos.toByteArray();
+  }
+
+  /** Returns whether a column value was written compressed. */
+  public static boolean isCompressed(byte[] columnValue) {
+    return columnValue.length >= 2
+        && columnValue[0] == GZIP_MAGIC_0
+        && columnValue[1] == GZIP_MAGIC_1;
+  }
+}
@@ -33,13 +33,15 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Streams;
 import com.google.common.flogger.FluentLogger;
 import com.google.common.flogger.StackSize;
+import com.google.monitoring.metrics.EventMetric;
+import com.google.monitoring.metrics.ExponentialFitter;
+import com.google.monitoring.metrics.LabelDescriptor;
+import com.google.monitoring.metrics.MetricRegistryImpl;
 import google.registry.model.ImmutableObject;
-import google.registry.persistence.JpaRetries;
 import google.registry.persistence.PersistenceModule.TransactionIsolationLevel;
 import google.registry.persistence.VKey;
 import google.registry.util.Clock;
 import google.registry.util.RegistryEnvironment;
-import google.registry.util.Retrier;
 import google.registry.util.SystemSleeper;
 import jakarta.persistence.CacheRetrieveMode;
 import jakarta.persistence.CacheStoreMode;
@@ -70,6 +72,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
@@ -81,6 +84,7 @@ import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import javax.annotation.Nullable;
 import org.hibernate.Session;
+import org.hibernate.SessionBuilder;
 import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Environment;
 
@@ -88,7 +92,18 @@ import org.hibernate.cfg.Environment;
 public class JpaTransactionManagerImpl implements JpaTransactionManager {
 
   private static final FluentLogger logger = FluentLogger.forEnclosingClass();
-  private static final Retrier retrier = new Retrier(new SystemSleeper(), 6);
+  private static final TransactionRetrier retrier =
+      new TransactionRetrier(new SystemSleeper(), new Random());
+
+  private static final EventMetric transactionStatements =
+      MetricRegistryImpl.getDefault()
+          .newEventMetric(
+              "/database/transaction_sql_statements",
+              "Count of SQL statements prepared per transaction, including transaction setup",
+              "count",
+              ImmutableSet.of(
+                  LabelDescriptor.create("role", "Whether the primary or a replica was used.")),
+              ExponentialFitter.create(10, 2.0, 1.0));
 
   /**
    * Strict allowlist regex for property/field names in dynamic JPQL ORDER BY clauses.
@@ -182,8 +197,7 @@ public class JpaTransactionManagerImpl implements JpaTransactionManager {
     if (inTransaction()) {
       return transactNoRetry(null, work);
     }
-    return retrier.callWithRetry(
-        () -> transactNoRetry(null, work), JpaRetries::isFailedTxnRetriable);
+    return retrier.callWithRetry(() -> transactNoRetry(null, work));
   }
 
   @Override
@@ -205,9 +219,7 @@ public class JpaTransactionManagerImpl implements JpaTransactionManager {
       // This prevents inner transaction from retrying, thus avoiding a cascade retry effect.
       return transactNoRetry(isolationLevel, work);
     }
-    return retrier.callWithRetry(
-        () -> transactNoRetry(isolationLevel, work, logSqlStatements),
-        JpaRetries::isFailedTxnRetriable);
+    return retrier.callWithRetry(() -> transactNoRetry(isolationLevel, work, logSqlStatements));
   }
 
   @Override
@@ -254,20 +266,23 @@ public class JpaTransactionManagerImpl implements JpaTransactionManager {
     }
     TransactionInfo txnInfo = transactionInfo.get();
 
+    SessionBuilder sessionBuilder = emf.unwrap(SessionFactory.class).withOptions();
+    SqlStatementCounter.newStatementTimer().ifPresent(sessionBuilder::eventListeners);
     txnInfo.entityManager =
-        logSqlStatements
-            ? emf.unwrap(SessionFactory.class)
-                .withOptions()
-                .statementInspector(
-                    new UnaryOperator<String>() {
-                      @Override
-                      public String apply(String s) {
-                        logger.atInfo().log(SQL_STATEMENT_LOG_SENTINEL_FORMAT, s);
-                        return s;
-                      }
-                    })
-                .openSession()
-            : emf.createEntityManager();
+        sessionBuilder
+            .statementInspector(
+                new UnaryOperator<String>() {
+                  @Override
+                  public String apply(String s) {
+                    if (logSqlStatements) {
+                      logger.atInfo().log(SQL_STATEMENT_LOG_SENTINEL_FORMAT, s);
+                    }
+                    txnInfo.sqlStatements++;
+                    SqlStatementCounter.count(s);
+                    return s;
+                  }
+                })
+            .openSession();
     if (readOnly) {
       // Disable Hibernate's dirty object check on flushing, it has become more aggressive in v6.
       txnInfo.entityManager.unwrap(Session.class).setDefaultReadOnly(true);
@@ -277,7 +292,13 @@ public class JpaTransactionManagerImpl implements JpaTransactionManager {
       txn.begin();
       txnInfo.start(clock, readOnly ? ReplicaDbIdService::allocateId : this::fetchIdFromSequence);
       if (readOnly) {
-        getEntityManager().createNativeQuery("SET TRANSACTION READ ONLY").executeUpdate();
+        // The driver starts the transaction of a read-only connection with BEGIN READ ONLY, which
+        // it sends along with the first statement, so this costs no extra round trip. The replica
+        // pools hand out read-only connections to begin with, in which case this is a no-op.
+        txnInfo
+            .entityManager
+            .unwrap(Session.class)
+            .doWork(connection -> connection.setReadOnly(true));
         logger.atInfo().log("Using read-only SQL replica");
       }
       if (isolationLevel != null && isolationLevel != getDefaultTransactionIsolationLevel()) {
@@ -290,7 +311,9 @@ public class JpaTransactionManagerImpl implements JpaTransactionManager {
             getDefaultTransactionIsolationLevel(), isolationLevel);
       }
       T result = work.call();
+      long commitStartNanos = System.nanoTime();
       txn.commit();
+      SqlStatementCounter.countCommit(System.nanoTime() - commitStartNanos);
       return result;
     } catch (Throwable e) {
       // Catch a Throwable here so even Errors would lead to a rollback.
@@ -304,6 +327,7 @@ public class JpaTransactionManagerImpl implements JpaTransactionManager {
       throwIfUnchecked(e);
       throw new RuntimeException(e);
     } finally {
+      transactionStatements.record(txnInfo.sqlStatements, readOnly ? "replica" : "primary");
       txnInfo.clear();
     }
   }
@@ -413,11 +437,20 @@ public class JpaTransactionManagerImpl implements JpaTransactionManager {
     entities.forEach(this::put);
   }
 
+  /**
+   * Updates an object that must already exist in the database.
+   *
+   * <p>The existing row is loaded into the persistence context rather than just checked for, since
+   * the merge needs it anyway. The merge then copies the new state onto it without reading it
+   * again, and only writes the collection elements that changed.
+   */
   @Override
   public void update(Object entity) {
     checkArgumentNotNull(entity, "entity must be specified");
     assertInTransaction();
-    checkArgument(exists(entity), "Given entity does not exist");
+    Object id = emf.getPersistenceUnitUtil().getIdentifier(entity);
+    checkArgument(
+        getEntityManager().find(entity.getClass(), id) != null, "Given entity does not exist");
     transactionInfo.get().updateObject(entity);
   }
 
@@ -782,6 +815,7 @@ public class JpaTransactionManagerImpl implements JpaTransactionManager {
     boolean inTransaction = false;
     Instant transactionTime;
     Supplier<Long> idProvider;
+    int sqlStatements;
 
     // The set of entity objects that have been either persisted (via insert()) or merged (via
     // put()/update()). If the entity manager returns these as a result of a find() or query
@@ -799,6 +833,7 @@ public class JpaTransactionManagerImpl implements JpaTransactionManager {
 
     private void clear() {
       idProvider = null;
+      sqlStatements = 0;
       inTransaction = false;
       transactionTime = null;
       objectsToSave = Collections.newSetFromMap(new IdentityHashMap<>());
@@ -0,0 +1,127 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.persistence.transaction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import java.sql.SQLException;
+import java.util.List;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+/**
+ * Bulk inserts rows with PostgreSQL's {@code COPY ... FROM STDIN}.
+ *
+ * <p>This is much cheaper than inserting the same rows as entities: there is no per-row statement
+ * or Hibernate bookkeeping, and the rows are streamed to the server in large chunks. The rows
+ * bypass Hibernate completely, so they are not in the session and no entity callbacks run for
+ * them.
+ */
+public final class PostgresCopy {
+
+  /** How many bytes of row data to buffer before sending them to the server. */
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private PostgresCopy() {}
+
+  /**
+   * Copies {@code rows} into {@code table} in the current transaction, and returns the number of
+   * rows copied.
+   *
+   * <p>Each row holds one value per column, in the order of {@code columns}. Values are written in
+   * their {@link Object#toString} form, which the server then parses as the column's type, and
+   * nulls are written as SQL {@code NULL}.
+   */
+  public static long copyIn(
+      String table, ImmutableList<String> columns, Iterable<? extends List<?>> rows) {
+    tm().assertInTransaction();
+    checkArgument(!columns.isEmpty(), "No columns to copy into %s", table);
+    String sql =
+        String.format(
+            "COPY \"%s\" (%s) FROM STDIN",
+            table, Joiner.on(", ").join(columns.stream().map(c -> '"' + c + '"').iterator()));
+    Session session = tm().getEntityManager().unwrap(Session.class);
+    // Rows the COPY depends on, e.g. the parent revision, may still be pending in the session.
+    session.flush();
+    return session.doReturningWork(
+        connection -> {
+          CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+          try {
+            StringBuilder buffer = new StringBuilder(BUFFER_SIZE + 1024);
+            for (List<?> row : rows) {
+              checkArgument(
+                  row.size() == columns.size(),
+                  "Row has %s values but %s has %s columns",
+                  row.size(),
+                  table,
+                  columns.size());
+              appendRow(buffer, row);
+              if (buffer.length() >= BUFFER_SIZE) {
+                write(copyIn, buffer);
+              }
+            }
+            write(copyIn, buffer);
+            return copyIn.endCopy();
+          } finally {
+            if (copyIn.isActive()) {
+              copyIn.cancelCopy();
+            }
+          }
+        });
+  }
+
+  /** Appends a row in the COPY text format: tab-separated values, terminated by a newline. */
+  private static void appendRow(StringBuilder buffer, List<?> row) {
+    for (int i = 0; i < row.size(); i++) {
+      if (i > 0) {
+        buffer.append('\t');
+      }
+      Object value = row.get(i);
+      if (value == null) {
+        buffer.append("\\N");
+      } else {
+        appendEscaped(buffer, value.toString());
+      }
+    }
+    buffer.append('\n');
+  }
+
+  private static void appendEscaped(StringBuilder buffer, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '\\' -> buffer.append("\\\\");
+        case '\t' -> buffer.append("\\t");
+        case '\n' -> buffer.append("\\n");
+        case '\r' -> buffer.append("\\r");
+        default -> buffer.append(c);
+      }
+    }
+  }
+
+  private static void write(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+    if (buffer.isEmpty()) {
+      return;
+    }
+    byte[] bytes = buffer.toString().getBytes(UTF_8);
+    copyIn.writeToCopy(bytes, 0, bytes.length);
+    buffer.setLength(0);
+  }
+}
@@ -0,0 +1,188 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.persistence.transaction;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Locale.ROOT;
+
+import com.google.common.base.Ascii;
+import com.google.common.collect.EnumMultiset;
+import com.google.common.collect.ImmutableMultiset;
+import java.time.Duration;
+import java.util.Optional;
+import org.hibernate.SessionEventListener;
+
+/**
+ * Counts the SQL statements prepared by transactions on the current thread, by type, and times
+ * them.
+ *
+ * <p>This is used to record how many statements an EPP flow takes, and how long they take.
+ * Statements that are sent in a single JDBC batch are prepared once, so they're counted once.
+ */
+public final class SqlStatementCounter {
+
+  /** The type of a SQL statement, taken from its first keyword. */
+  public enum StatementType {
+    SELECT,
+    INSERT,
+    UPDATE,
+    DELETE,
+    OTHER;
+
+    static StatementType of(String sql) {
+      String trimmed = sql.stripLeading();
+      int end = 0;
+      while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+        end++;
+      }
+      return switch (Ascii.toLowerCase(trimmed.substring(0, end))) {
+        // Hibernate only uses common table expressions in queries.
+        case "select", "with" -> SELECT;
+        case "insert" -> INSERT;
+        // Hibernate writes upserts as MERGE statements.
+        case "update", "merge" -> UPDATE;
+        case "delete" -> DELETE;
+        default -> OTHER;
+      };
+    }
+
+    /** Returns the name of the type as used in metric labels. */
+    public String label() {
+      return name().toLowerCase(ROOT);
+    }
+  }
+
+  /**
+   * The statements of the transactions on a thread since counting started.
+   *
+   * @param counts the number of statements of each type
+   * @param executionTime the time spent preparing and executing the statements, not counting the
+   *     time spent reading their results
+   * @param commitTime the time spent committing the transactions, including flushing their changes
+   */
+  public record Totals(
+      ImmutableMultiset<StatementType> counts, Duration executionTime, Duration commitTime) {}
+
+  /** The running totals of the statements counted on a thread. */
+  private static final class Statements {
+    final EnumMultiset<StatementType> counts = EnumMultiset.create(StatementType.class);
+    long executionNanos;
+    long commitNanos;
+  }
+
+  private static final ThreadLocal<Statements> statements = new ThreadLocal<>();
+
+  private SqlStatementCounter() {}
+
+  /** Starts counting the statements of transactions started on this thread. */
+  public static void start() {
+    checkState(statements.get() == null, "Already counting SQL statements on this thread");
+    statements.set(new Statements());
+  }
+
+  /** Stops counting, and returns the totals of the statements since {@link #start}. */
+  public static Totals stop() {
+    Statements current = statements.get();
+    checkState(current != null, "Not counting SQL statements on this thread");
+    statements.remove();
+    return new Totals(
+        ImmutableMultiset.copyOf(current.counts),
+        Duration.ofNanos(current.executionNanos),
+        Duration.ofNanos(current.commitNanos));
+  }
+
+  static boolean isCounting() {
+    return statements.get() != null;
+  }
+
+  static void count(String sql) {
+    Statements current = statements.get();
+    if (current != null) {
+      current.counts.add(StatementType.of(sql));
+    }
+  }
+
+  static void countCommit(long nanos) {
+    Statements current = statements.get();
+    if (current != null) {
+      current.commitNanos += nanos;
+    }
+  }
+
+  /**
+   * Returns a listener that times the statements of a session, if counting on this thread.
+   *
+   * <p>The session must only be used on this thread, as is the case for transactions.
+   */
+  static Optional<SessionEventListener> newStatementTimer() {
+    Statements current = statements.get();
+    return current == null ? Optional.empty() : Optional.of(new StatementTimer(current));
+  }
+
+  /**
+   * Adds up the time spent in JDBC calls that send statements to the database.
+   *
+   * <p>The calls of a session never overlap, so one start time is enough.
+   */
+  private static final class StatementTimer implements SessionEventListener {
+
+    private static final long serialVersionUID = 5405921339683624017L;
+
+    private final transient Statements statements;
+    private long startNanos;
+
+    StatementTimer(Statements statements) {
+      this.statements = statements;
+    }
+
+    private void start() {
+      startNanos = System.nanoTime();
+    }
+
+    private void end() {
+      statements.executionNanos += System.nanoTime() - startNanos;
+    }
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+      start();
+    }
+
+    @Override
+    public void jdbcPrepareStatementEnd() {
+      end();
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+      start();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+      end();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+      start();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+      end();
+    }
+  }
+}
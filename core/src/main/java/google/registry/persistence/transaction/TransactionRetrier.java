@@ -0,0 +1,270 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.persistence.transaction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.monitoring.metrics.EventMetric.DEFAULT_FITTER;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.flogger.FluentLogger;
+import com.google.monitoring.metrics.EventMetric;
+import com.google.monitoring.metrics.IncrementableMetric;
+import com.google.monitoring.metrics.LabelDescriptor;
+import com.google.monitoring.metrics.MetricRegistryImpl;
+import google.registry.model.CacheUtils;
+import google.registry.persistence.JpaRetries;
+import google.registry.util.Sleeper;
+import jakarta.persistence.PersistenceException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+
+/**
+ * Retries transactions that fail on contention, e.g. with a serialization failure.
+ *
+ * <p>Each retry waits for a random time of up to an exponentially growing bound. Transactions that
+ * conflicted with each other therefore spread out rather than all retrying at the same moment and
+ * conflicting again.
+ *
+ * <p>By default a transaction is attempted {@value #DEFAULT_ATTEMPTS} times. The caller can set a
+ * different budget for the transactions it starts on the current thread, along with a label for
+ * the metrics and the key the transaction is expected to contend on, using {@link #enterScope}.
+ * Keys that keep conflicting are logged as hot.
+ *
+ * <p>The transactions of a scope can also be made to run one at a time per key on this instance.
+ * Each attempt holds the key's lock only while it runs, not while it backs off.
+ */
+public class TransactionRetrier {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  public static final int DEFAULT_ATTEMPTS = 6;
+
+  private static final Duration BASE_BACKOFF = Duration.ofMillis(100);
+  private static final Duration MAX_BACKOFF = Duration.ofSeconds(5);
+
+  /** Number of conflicts on a key within {@link #HOT_KEY_WINDOW} after which it's hot. */
+  @VisibleForTesting static final int HOT_KEY_THRESHOLD = 10;
+
+  private static final Duration HOT_KEY_WINDOW = Duration.ofMinutes(1);
+
+  /** How long to wait for a transaction on the same key before running concurrently with it. */
+  private static final Duration KEY_LOCK_TIMEOUT = Duration.ofMillis(500);
+
+  private static final RetryScope DEFAULT_SCOPE =
+      new RetryScope("", DEFAULT_ATTEMPTS, Optional.empty(), false, null);
+
+  private static final ThreadLocal<RetryScope> currentScope = new ThreadLocal<>();
+
+  private static final IncrementableMetric retries =
+      MetricRegistryImpl.getDefault()
+          .newIncrementableMetric(
+              "/database/transaction_retries",
+              "Count of transaction attempts that failed on contention",
+              "count",
+              ImmutableSet.of(
+                  LabelDescriptor.create("label", "What ran the transaction, e.g. the flow."),
+                  LabelDescriptor.create("reason", "Why the attempt failed."),
+                  LabelDescriptor.create("retried", "Whether the attempt was retried.")));
+
+  private static final EventMetric wastedTime =
+      MetricRegistryImpl.getDefault()
+          .newEventMetric(
+              "/database/transaction_wasted_time",
+              "Time spent in transaction attempts that failed on contention",
+              "milliseconds",
+              ImmutableSet.of(
+                  LabelDescriptor.create("label", "What ran the transaction, e.g. the flow.")),
+              DEFAULT_FITTER);
+
+  private static final IncrementableMetric hotKeyConflicts =
+      MetricRegistryImpl.getDefault()
+          .newIncrementableMetric(
+              "/database/hot_key_conflicts",
+              "Count of contention failures on keys that have been conflicting repeatedly",
+              "count",
+              ImmutableSet.of(
+                  LabelDescriptor.create("label", "What ran the transaction, e.g. the flow.")));
+
+  private final Sleeper sleeper;
+  private final Random random;
+
+  /** Recent contention failures by conflict key. */
+  private final Cache<String, AtomicInteger> conflictsByKey =
+      CacheUtils.newCacheBuilder().expireAfterWrite(HOT_KEY_WINDOW).maximumSize(10_000).build();
+
+  /**
+   * Locks for the transactions that run one at a time per key.
+   *
+   * <p>A lock is only kept while some thread holds or waits for it, so there is one per key in
+   * use, and transactions on different keys never wait for each other.
+   */
+  private final Cache<String, Lock> keyLocks = CacheUtils.newCacheBuilder().weakValues().build();
+
+  TransactionRetrier(Sleeper sleeper, Random random) {
+    this.sleeper = sleeper;
+    this.random = random;
+  }
+
+  /**
+   * Sets how the transactions started on this thread are retried, until the returned scope is
+   * closed.
+   *
+   * @param label what runs the transactions, for metrics, e.g. the name of a flow
+   * @param maxAttempts the number of times to attempt each transaction, including the first
+   * @param conflictKey what the transactions are expected to contend on, e.g. a domain name
+   * @param serializeByKey whether to run the transactions one at a time per conflict key
+   */
+  public static RetryScope enterScope(
+      String label, int maxAttempts, Optional<String> conflictKey, boolean serializeByKey) {
+    checkArgument(maxAttempts > 0, "Number of attempts must be positive");
+    RetryScope scope =
+        new RetryScope(label, maxAttempts, conflictKey, serializeByKey, currentScope.get());
+    currentScope.set(scope);
+    return scope;
+  }
+
+  /** How the transactions started on a thread are retried. */
+  public record RetryScope(
+      String label,
+      int maxAttempts,
+      Optional<String> conflictKey,
+      boolean serializeByKey,
+      @Nullable RetryScope previous)
+      implements AutoCloseable {
+
+    @Override
+    public void close() {
+      if (previous == null) {
+        currentScope.remove();
+      } else {
+        currentScope.set(previous);
+      }
+    }
+  }
+
+  /**
+   * Calls the work, retrying it if it fails on contention.
+   *
+   * <p>Only a {@link PersistenceException} caused by contention, which the transaction manager
+   * throws for e.g. a serialization failure, is retried. Anything else, and the last failure once
+   * all attempts are used up, is propagated as it is.
+   */
+  <T> T callWithRetry(Supplier<T> work) {
+    RetryScope scope = Optional.ofNullable(currentScope.get()).orElse(DEFAULT_SCOPE);
+    int failures = 0;
+    while (true) {
+      Optional<Lock> keyLock = lockKey(scope);
+      Stopwatch stopwatch = Stopwatch.createStarted();
+      PersistenceException failure;
+      try {
+        return work.get();
+      } catch (PersistenceException e) {
+        failure = e;
+      } finally {
+        keyLock.ifPresent(Lock::unlock);
+      }
+      Optional<String> reason = JpaRetries.getRetriableReason(failure);
+      if (reason.isEmpty()) {
+        throw failure;
+      }
+      failures++;
+      boolean retrying = failures < scope.maxAttempts();
+      wastedTime.record(stopwatch.elapsed().toMillis(), scope.label());
+      retries.increment(scope.label(), reason.get(), String.valueOf(retrying));
+      scope.conflictKey().ifPresent(key -> recordConflict(scope.label(), key));
+      if (!retrying) {
+        throw failure;
+      }
+      logger.atInfo().withCause(failure).log(
+          "Retrying transaction after %s, attempt %d/%d.",
+          reason.get(), failures, scope.maxAttempts());
+      try {
+        sleeper.sleep(getBackoff(failures));
+      } catch (InterruptedException e) {
+        // Since we're not rethrowing InterruptedException, set the interrupt state on the thread
+        // so the next blocking operation will know to abort the thread.
+        Thread.currentThread().interrupt();
+        throw failure;
+      }
+    }
+  }
+
+  /**
+   * Waits for any other transaction on the scope's conflict key on this instance to finish, if the
+   * scope runs its transactions one at a time per key, and returns the lock to release once the
+   * attempt is done.
+   *
+   * <p>Transactions that wait too long give up and run anyway, and contend in the database instead.
+   */
+  private Optional<Lock> lockKey(RetryScope scope) {
+    if (!scope.serializeByKey() || scope.conflictKey().isEmpty()) {
+      return Optional.empty();
+    }
+    String key = scope.conflictKey().get();
+    Lock lock = keyLocks.get(key, k -> new ReentrantLock());
+    try {
+      if (lock.tryLock(KEY_LOCK_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+        return Optional.of(lock);
+      }
+      logger.atInfo().log(
+          "Timed out waiting for other transactions on %s, running concurrently.", key);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return Optional.empty();
+  }
+
+  /** Returns a random backoff of up to 100ms doubled for each failure so far, at most 5s. */
+  @VisibleForTesting
+  Duration getBackoff(int failures) {
+    long boundMillis =
+        Math.min(MAX_BACKOFF.toMillis(), BASE_BACKOFF.toMillis() << Math.min(failures, 16));
+    return Duration.ofMillis(random.nextLong(boundMillis + 1));
+  }
+
+  private void recordConflict(String label, String key) {
+    int conflicts = conflictsByKey.get(key, k -> new AtomicInteger()).incrementAndGet();
+    if (conflicts >= HOT_KEY_THRESHOLD) {
+      hotKeyConflicts.increment(label);
+    }
+    if (conflicts == HOT_KEY_THRESHOLD) {
+      logger.atWarning().log(
+          "Hot key %s: %d transaction conflicts in %s in the last %s.",
+          key, conflicts, label, HOT_KEY_WINDOW);
+    }
+  }
+
+  @VisibleForTesting
+  int getRecentConflicts(String key) {
+    AtomicInteger conflicts = conflictsByKey.getIfPresent(key);
+    return conflicts == null ? 0 : conflicts.get();
+  }
+
+  @VisibleForTesting
+  boolean isKeyLocked(String key) {
+    Lock lock = keyLocks.getIfPresent(key);
+    return lock != null && ((ReentrantLock) lock).isLocked();
+  }
+}
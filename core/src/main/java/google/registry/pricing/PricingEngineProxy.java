@@ -16,13 +16,25 @@ package google.registry.pricing;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static google.registry.config.RegistryConfig.getDomainLabelListCacheDuration;
+import static google.registry.config.RegistryConfig.getDomainPricesMaxCachedEntries;
+import static google.registry.util.DateTimeUtils.START_INSTANT;
 import static google.registry.util.DomainNameUtils.getTldFromDomainName;
 
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Ordering;
+import google.registry.model.CacheUtils;
 import google.registry.model.pricing.PremiumPricingEngine;
 import google.registry.model.pricing.PremiumPricingEngine.DomainPrices;
+import google.registry.model.pricing.StaticPremiumListPricingEngine;
 import google.registry.model.tld.Tld;
+import google.registry.util.NonFinalForTesting;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
+import java.util.Optional;
 import org.joda.money.Money;
 
 /**
@@ -34,6 +46,47 @@ public final class PricingEngineProxy {
   private static final Map<String, PremiumPricingEngine>
       premiumPricingEngines = DaggerPricingComponent.create().premiumPricingEngines();
 
+  /**
+   * The key of {@link #pricesCache}.
+   *
+   * <p>For TLDs whose prices only change at known transitions, the price time is the start of the
+   * period of constant pricing it falls in, rather than the time actually asked for.
+   */
+  private record DomainNameAndPriceTime(String domainName, Instant priceTime) {}
+
+  /**
+   * A cache of the prices of domain names, per period of constant pricing.
+   *
+   * <p>A fee check asks for the prices of the same domain name many times over: once for each
+   * command and period being checked, and once for each candidate allocation token. Each of those
+   * otherwise walks the premium list and the TLD's billing cost transitions again, as does every
+   * later check of the same name.
+   *
+   * <p>The prices of the {@link StaticPremiumListPricingEngine} only change over time at the TLD's
+   * create and renew billing cost transitions, so its prices are cached for the whole period
+   * between two transitions and are reused across requests. Other engines may price by the
+   * instant, so their prices are only reused for the exact same price time, i.e. within a request.
+   *
+   * <p>Entries expire along with the premium list cache, so edits to a premium list, or to the
+   * price of an existing transition, take effect as late as edits to the premium list alone used
+   * to. A new transition takes effect right away, since it starts a new period.
+   */
+  @NonFinalForTesting
+  private static LoadingCache<DomainNameAndPriceTime, DomainPrices> pricesCache =
+      createPricesCache(getDomainLabelListCacheDuration());
+
+  private static LoadingCache<DomainNameAndPriceTime, DomainPrices> createPricesCache(
+      Duration expiry) {
+    return CacheUtils.newCacheBuilder(expiry)
+        .maximumSize(getDomainPricesMaxCachedEntries())
+        .build(key -> getPricesForDomainNameUncached(key.domainName(), key.priceTime()));
+  }
+
+  @VisibleForTesting
+  public static void setPricesCacheForTest(Optional<Duration> expiry) {
+    pricesCache = createPricesCache(expiry.orElse(getDomainLabelListCacheDuration()));
+  }
+
   /** Returns the billing cost for registering the specified domain name for this many years. */
   public static Money getDomainCreateCost(String domainName, Instant priceTime, int years) {
     checkArgument(years > 0, "Number of years must be positive");
@@ -57,6 +110,35 @@ public final class PricingEngineProxy {
    * domain is under.
    */
   public static DomainPrices getPricesForDomainName(String domainName, Instant priceTime) {
+    Tld tld = Tld.get(getTldFromDomainName(domainName));
+    return pricesCache.get(
+        new DomainNameAndPriceTime(domainName, getPricingPeriodStart(tld, priceTime)));
+  }
+
+  /**
+   * Returns the start of the period of constant pricing of the TLD that the time is in.
+   *
+   * <p>The {@link StaticPremiumListPricingEngine} prices a name the same anywhere between two of
+   * the TLD's create or renew billing cost transitions, so pricing at the start of the period gives
+   * the same result as pricing at the time itself.
+   */
+  private static Instant getPricingPeriodStart(Tld tld, Instant priceTime) {
+    if (!tld.getPricingEngineClassName().equals(StaticPremiumListPricingEngine.NAME)) {
+      return priceTime;
+    }
+    return Ordering.natural()
+        .max(
+            getTransitionStart(tld.getCreateBillingCostTransitions(), priceTime),
+            getTransitionStart(tld.getRenewBillingCostTransitions(), priceTime));
+  }
+
+  private static Instant getTransitionStart(
+      ImmutableSortedMap<Instant, Money> transitions, Instant time) {
+    // Transitions always start at START_INSTANT, so there is always one at or before the time.
+    return Optional.ofNullable(transitions.floorKey(time)).orElse(START_INSTANT);
+  }
+
+  private static DomainPrices getPricesForDomainNameUncached(String domainName, Instant priceTime) {
     String tld = getTldFromDomainName(domainName);
     String clazz = Tld.get(tld).getPricingEngineClassName();
     PremiumPricingEngine engine = premiumPricingEngines.get(clazz);
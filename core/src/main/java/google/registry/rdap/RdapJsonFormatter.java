@@ -98,12 +98,15 @@ public class RdapJsonFormatter {
   @VisibleForTesting
   record HistoryTimeAndRegistrar(Instant modificationTime, String registrarId) {}
 
-  private static final LoadingCache<String, ImmutableMap<EventAction, HistoryTimeAndRegistrar>>
+  /** A resource's repo ID, along with its creation time, before which it has no history. */
+  private record HistoryKey(String repoId, Instant creationTime) {}
+
+  private static final LoadingCache<HistoryKey, ImmutableMap<EventAction, HistoryTimeAndRegistrar>>
       DOMAIN_HISTORIES_BY_REPO_ID =
           CacheUtils.newCacheBuilder(RegistryConfig.getEppResourceCachingDuration())
               // Cache more than the EPP resource cache because we're only caching small objects
               .maximumSize(RegistryConfig.getEppResourceMaxCachedEntries() * 4L)
-              .build(repoId -> getLastHistoryByType(repoId, Domain.class));
+              .build(key -> getLastHistoryByType(key, Domain.class));
 
   private Instant requestTime = null;
 
@@ -174,15 +177,20 @@ public class RdapJsonFormatter {
   /**
    * JPQL query template for finding the latest history entry per event type for an EPP entity.
    *
-   * <p>User should replace '%entityName%' and '%repoIdValue%' with valid values. A {@code
-   * DomainHistory} query may look like below: {@code select e from DomainHistory e where
-   * domainRepoId = '17-Q9JYB4C' and modificationTime in (select max(modificationTime) from
-   * DomainHistory where domainRepoId = '17-Q9JYB4C' and type is not null group by type)}
+   * <p>User should replace '%entityName%' with a valid value and bind the {@code repoId} and {@code
+   * creationTime} parameters. A {@code DomainHistory} query may look like below: {@code select e
+   * from DomainHistory e where repoId = :repoId and modificationTime >= :creationTime and
+   * modificationTime in (select max(modificationTime) from DomainHistory where repoId = :repoId
+   * and modificationTime >= :creationTime and type is not null group by type)}
+   *
+   * <p>The history tables are partitioned by modification time, and the bound on the creation time
+   * of the resource lets Postgres skip the partitions from before it was created.
    */
   private static final String GET_LAST_HISTORY_BY_TYPE_JPQL_TEMPLATE =
-      "select e from %entityName% e where repoId = '%repoIdValue%' and modificationTime in "
-          + " (select max(modificationTime) from %entityName% where "
-          + " repoId = '%repoIdValue%' and type is not null group by type)";
+      "select e from %entityName% e where repoId = :repoId"
+          + " and modificationTime >= :creationTime and modificationTime in "
+          + " (select max(modificationTime) from %entityName% where repoId = :repoId"
+          + " and modificationTime >= :creationTime and type is not null group by type)";
 
   /** Map of EPP status values to the RDAP equivalents. */
   private static final ImmutableMap<EppEnum, RdapStatus> STATUS_TO_RDAP_STATUS_MAP =
@@ -710,13 +718,17 @@ public class RdapJsonFormatter {
   static ImmutableMap<EventAction, HistoryTimeAndRegistrar> getLastHistoryByType(
       EppResource eppResource) {
     if (eppResource instanceof Domain) {
-      return DOMAIN_HISTORIES_BY_REPO_ID.get(eppResource.getRepoId());
+      return DOMAIN_HISTORIES_BY_REPO_ID.get(historyKey(eppResource));
     }
-    return getLastHistoryByType(eppResource.getRepoId(), eppResource.getClass());
+    return getLastHistoryByType(historyKey(eppResource), eppResource.getClass());
+  }
+
+  private static HistoryKey historyKey(EppResource eppResource) {
+    return new HistoryKey(eppResource.getRepoId(), eppResource.getCreationTime());
   }
 
   private static ImmutableMap<EventAction, HistoryTimeAndRegistrar> getLastHistoryByType(
-      String repoId, Class<? extends EppResource> resourceType) {
+      HistoryKey key, Class<? extends EppResource> resourceType) {
     ImmutableMap.Builder<EventAction, HistoryTimeAndRegistrar> lastEntryOfType =
         new ImmutableMap.Builder<>();
     // Events (such as transfer, but also create) can appear multiple times. We only want the last
@@ -731,16 +743,15 @@ public class RdapJsonFormatter {
     // domain was transferred. The event of *eventAction* type *transfer* MUST be omitted if the
     // domain name has not been transferred since it was created.
     String entityName = HistoryEntryDao.getHistoryClassFromParent(resourceType).getSimpleName();
-    String jpql =
-        GET_LAST_HISTORY_BY_TYPE_JPQL_TEMPLATE
-            .replace("%entityName%", entityName)
-            .replace("%repoIdValue%", repoId);
+    String jpql = GET_LAST_HISTORY_BY_TYPE_JPQL_TEMPLATE.replace("%entityName%", entityName);
     replicaTm()
         .transact(
             () ->
                 replicaTm()
                     .getEntityManager()
                     .createQuery(jpql, HistoryEntry.class)
+                    .setParameter("repoId", key.repoId())
+                    .setParameter("creationTime", key.creationTime())
                     .getResultStream()
                     .forEach(
                         historyEntry -> {
@@ -0,0 +1,75 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.reporting.icann;
+
+import static google.registry.reporting.ReportingModule.PARAM_YEAR_MONTH;
+import static google.registry.request.Action.Method.POST;
+
+import com.google.common.annotations.VisibleForTesting;
+import google.registry.request.Action;
+import google.registry.request.Parameter;
+import google.registry.request.auth.Auth;
+import google.registry.util.Clock;
+import jakarta.inject.Inject;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Optional;
+
+/**
+ * Action that brings the daily counts of the ICANN transactions report up to date.
+ *
+ * <p>By default, this recounts the days from the start of the previous month to {@link
+ * #DAYS_AHEAD} days from now. New transaction records are reported at most that far ahead, and
+ * hardly ever before the time they are written, e.g. only when autorenews are expanded late, so
+ * this picks up the new records while the previous month can still be staged. A past month can be
+ * recounted with the {@code yearMonth} parameter, e.g. to fill in the months from before the
+ * counts were kept.
+ *
+ * @see IcannTransactionCounter
+ */
+@Action(
+    service = Action.Service.BACKEND,
+    path = "/_dr/task/countIcannTransactions",
+    method = POST,
+    auth = Auth.AUTH_ADMIN)
+public class CountIcannTransactionsAction implements Runnable {
+
+  /** How many days ahead of now transactions are counted. */
+  @VisibleForTesting static final int DAYS_AHEAD = 60;
+
+  private final Optional<YearMonth> yearMonth;
+  private final IcannTransactionCounter counter;
+  private final Clock clock;
+
+  @Inject
+  CountIcannTransactionsAction(
+      @Parameter(PARAM_YEAR_MONTH) Optional<YearMonth> yearMonth,
+      IcannTransactionCounter counter,
+      Clock clock) {
+    this.yearMonth = yearMonth;
+    this.counter = counter;
+    this.clock = clock;
+  }
+
+  @Override
+  public void run() {
+    if (yearMonth.isPresent()) {
+      counter.recount(yearMonth.get());
+      return;
+    }
+    LocalDate today = clock.nowDate();
+    counter.recount(YearMonth.from(today).minusMonths(1).atDay(1), today.plusDays(DAYS_AHEAD));
+  }
+}
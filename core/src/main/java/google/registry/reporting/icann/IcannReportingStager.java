@@ -63,6 +63,7 @@ public class IcannReportingStager {
 
   @Inject ActivityReportingQueryBuilder activityQueryBuilder;
   @Inject TransactionsReportingQueryBuilder transactionsQueryBuilder;
+  @Inject IcannTransactionCounter transactionCounter;
   @Inject GcsUtils gcsUtils;
   @Inject BigqueryConnection bigquery;
 
@@ -82,6 +83,10 @@ public class IcannReportingStager {
     if (reportType == ReportType.ACTIVITY) {
       // Prepare for the DNS count query, which may have special needs.
       activityQueryBuilder.prepareForQuery(yearMonth);
+    } else {
+      // The transaction counts are kept up to date by CountIcannTransactionsAction, but recount
+      // the month in case records were added since it last ran.
+      transactionCounter.recount(yearMonth);
     }
 
     ImmutableMap<String, String> viewQueryMap = queryBuilder.getViewQueryMap(yearMonth);
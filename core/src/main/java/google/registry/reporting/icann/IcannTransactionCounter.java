@@ -0,0 +1,143 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.reporting.icann;
+
+import static google.registry.persistence.PersistenceModule.TransactionIsolationLevel.TRANSACTION_REPEATABLE_READ;
+import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
+import static java.time.ZoneOffset.UTC;
+
+import com.google.common.flogger.FluentLogger;
+import jakarta.inject.Inject;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Keeps the daily transaction counts of the ICANN transactions report in the {@code
+ * IcannTransactionCount} table.
+ *
+ * <p>The counts are kept per day, TLD, registrar and report metric, with transfers counted for both
+ * the gaining and the losing registrar. The report of a month, or of the month so far, then only
+ * has to add up a few rows per registrar instead of joining a month of domain transaction records
+ * with their history entries.
+ *
+ * <p>Transaction records are dated by their reporting time, which is usually some days after the
+ * transaction, e.g. at the end of a grace period, and records can be added for days that have
+ * already been counted, e.g. when a domain is deleted in its add grace period. The counts of a
+ * range of days are therefore recounted as a whole, rather than incremented as transactions
+ * happen.
+ *
+ * <p>Recounts run at {@code REPEATABLE READ} rather than the default {@code SERIALIZABLE}
+ * isolation: they read a whole range of transaction records, and would otherwise fail the flows
+ * that add records in that range with serialization conflicts. The table lock already keeps
+ * concurrent recounts apart, and a record committed during a recount is counted by the next one.
+ */
+public class IcannTransactionCounter {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  @Inject
+  IcannTransactionCounter() {}
+
+  /** Recounts the transactions reported in the given month. */
+  public void recount(YearMonth yearMonth) {
+    recount(yearMonth.atDay(1), yearMonth.plusMonths(1).atDay(1));
+  }
+
+  /**
+   * Recounts the transactions reported on the days from {@code start}, inclusive, to {@code end},
+   * exclusive, replacing their previous counts.
+   */
+  public void recount(LocalDate start, LocalDate end) {
+    int rows =
+        tm().transact(
+                TRANSACTION_REPEATABLE_READ,
+                () -> {
+                  // Keeps concurrent recounts from inserting the same rows, without blocking the
+                  // report from reading the table.
+                  tm().getEntityManager()
+                      .createNativeQuery(
+                          "LOCK TABLE \"IcannTransactionCount\" IN SHARE ROW EXCLUSIVE MODE")
+                      .executeUpdate();
+                  tm().getEntityManager()
+                      .createNativeQuery(
+                          """
+                          DELETE FROM "IcannTransactionCount"
+                          WHERE reporting_date >= CAST(:start AS date)
+                            AND reporting_date < CAST(:end AS date)
+                          """)
+                      .setParameter("start", start.toString())
+                      .setParameter("end", end.toString())
+                      .executeUpdate();
+                  return tm().getEntityManager()
+                      .createNativeQuery(
+                          """
+                          WITH records AS (
+                            SELECT
+                              CAST(dtr.reporting_time AT TIME ZONE 'UTC' AS date) AS reporting_date,
+                              dtr.tld,
+                              dtr.report_field,
+                              dtr.report_amount,
+                              -- Transfer approvals and rejections are made by the losing
+                              -- registrar, so their records count for the other registrar.
+                              dh.history_type IN ('DOMAIN_TRANSFER_APPROVE',
+                                'DOMAIN_TRANSFER_REJECT') AS by_losing_registrar,
+                              dh.history_registrar_id,
+                              dh.history_other_registrar_id
+                            FROM "DomainTransactionRecord" dtr
+                            JOIN "DomainHistory" dh
+                              ON dh.domain_repo_id = dtr.domain_repo_id
+                              AND dh.history_revision_id = dtr.history_revision_id
+                            WHERE dtr.reporting_time >= CAST(:startTime AS timestamptz)
+                              AND dtr.reporting_time < CAST(:endTime AS timestamptz)
+                          )
+                          INSERT INTO "IcannTransactionCount"
+                            (reporting_date, tld, registrar_id, metric_name, metric_value)
+                          SELECT reporting_date, tld, registrar_id, metric_name, SUM(report_amount)
+                          FROM (
+                            SELECT
+                              reporting_date,
+                              tld,
+                              CASE WHEN by_losing_registrar THEN history_other_registrar_id
+                                ELSE history_registrar_id END AS registrar_id,
+                              CASE report_field
+                                WHEN 'TRANSFER_SUCCESSFUL' THEN 'TRANSFER_GAINING_SUCCESSFUL'
+                                WHEN 'TRANSFER_NACKED' THEN 'TRANSFER_GAINING_NACKED'
+                                ELSE report_field END AS metric_name,
+                              report_amount
+                            FROM records
+                            UNION ALL
+                            SELECT
+                              reporting_date,
+                              tld,
+                              CASE WHEN by_losing_registrar THEN history_registrar_id
+                                ELSE history_other_registrar_id END,
+                              CASE report_field
+                                WHEN 'TRANSFER_SUCCESSFUL' THEN 'TRANSFER_LOSING_SUCCESSFUL'
+                                ELSE 'TRANSFER_LOSING_NACKED' END,
+                              report_amount
+                            FROM records
+                            WHERE report_field IN ('TRANSFER_SUCCESSFUL', 'TRANSFER_NACKED')
+                          ) AS counts
+                          WHERE registrar_id IS NOT NULL
+                          GROUP BY reporting_date, tld, registrar_id, metric_name
+                          """)
+                      .setParameter("startTime", start.atStartOfDay(UTC).toInstant().toString())
+                      .setParameter("endTime", end.atStartOfDay(UTC).toInstant().toString())
+                      .executeUpdate();
+                });
+    logger.atInfo().log(
+        "Recounted ICANN transactions from %s to %s into %d rows.", start, end, rows);
+  }
+}
@@ -92,19 +92,21 @@ public final class TransactionsReportingQueryBuilder implements QueryBuilder {
             .build();
     queriesBuilder.put(getTableName(TOTAL_NAMESERVERS, yearMonth), totalNameserversQuery);
 
+    // The transaction counts are kept per day, see IcannTransactionCounter.
+    DateTimeFormatter dateFormatter = DateTimeFormatter.ISO_LOCAL_DATE.withZone(UTC);
     String transactionCountsQuery =
         SqlTemplate.create(getQueryFromFile(TRANSACTION_COUNTS + ".sql"))
             .put("PROJECT_ID", projectId)
-            .put("EARLIEST_REPORT_TIME", timestampFormatter.format(earliestReportTime))
-            .put("LATEST_REPORT_TIME", timestampFormatter.format(latestReportTime))
+            .put("EARLIEST_REPORT_DATE", dateFormatter.format(earliestReportTime))
+            .put("LATEST_REPORT_DATE", dateFormatter.format(latestReportTime))
             .build();
     queriesBuilder.put(getTableName(TRANSACTION_COUNTS, yearMonth), transactionCountsQuery);
 
     String transactionTransferLosingQuery =
         SqlTemplate.create(getQueryFromFile(TRANSACTION_TRANSFER_LOSING + ".sql"))
             .put("PROJECT_ID", projectId)
-            .put("EARLIEST_REPORT_TIME", timestampFormatter.format(earliestReportTime))
-            .put("LATEST_REPORT_TIME", timestampFormatter.format(latestReportTime))
+            .put("EARLIEST_REPORT_DATE", dateFormatter.format(earliestReportTime))
+            .put("LATEST_REPORT_DATE", dateFormatter.format(latestReportTime))
             .build();
     queriesBuilder.put(
         getTableName(TRANSACTION_TRANSFER_LOSING, yearMonth), transactionTransferLosingQuery);
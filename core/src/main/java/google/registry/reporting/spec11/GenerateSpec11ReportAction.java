@@ -70,6 +70,7 @@ public class GenerateSpec11ReportAction implements Runnable {
   private final Response response;
   private final Dataflow dataflow;
   private final boolean sendEmail;
+  private final boolean incremental;
   private final CloudTasksUtils cloudTasksUtils;
 
   @Inject
@@ -79,6 +80,7 @@ public class GenerateSpec11ReportAction implements Runnable {
       @Config("beamStagingBucketUrl") String stagingBucketUrl,
       @Config("reportingBucketUrl") String reportingBucketUrl,
       @Key("safeBrowsingAPIKey") String apiKey,
+      @Config("spec11IncrementalScan") boolean incremental,
       @Parameter(ReportingModule.PARAM_DATE) LocalDate date,
       @Parameter(ReportingModule.SEND_EMAIL) boolean sendEmail,
       Clock clock,
@@ -90,6 +92,7 @@ public class GenerateSpec11ReportAction implements Runnable {
     this.stagingBucketUrl = stagingBucketUrl;
     this.reportingBucketUrl = reportingBucketUrl;
     this.apiKey = apiKey;
+    this.incremental = incremental;
     this.date = date;
     this.clock = clock;
     this.response = response;
@@ -116,7 +119,9 @@ public class GenerateSpec11ReportAction implements Runnable {
                       "reportingBucketUrl",
                       reportingBucketUrl,
                       "registryEnvironment",
-                      RegistryEnvironment.get().name()));
+                      RegistryEnvironment.get().name(),
+                      "incremental",
+                      String.valueOf(incremental)));
       LaunchFlexTemplateResponse launchResponse =
           dataflow
               .projects()
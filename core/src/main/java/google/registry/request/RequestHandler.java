@@ -182,6 +182,10 @@ public class RequestHandler<C> {
     } catch (HttpException e) {
       e.send(rsp);
       success = false;
+    } catch (ResponseAbortedException e) {
+      logger.atSevere().withCause(e).log("Aborting partially sent response");
+      success = false;
+      throw e;
     } catch (Exception e) {
       rsp.setStatus(SC_INTERNAL_SERVER_ERROR);
       rsp.getWriter().write("Internal server error, please try again later");
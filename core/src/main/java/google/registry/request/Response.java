@@ -18,6 +18,7 @@ import com.google.common.net.MediaType;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.time.Instant;
 
@@ -64,5 +65,22 @@ public interface Response {
    */
   void addCookie(Cookie cookie);
 
+  /**
+   * Clears the status, the headers and any payload that is still buffered.
+   *
+   * @throws IllegalStateException if the response has already been committed
+   * @see HttpServletResponse#reset()
+   */
+  void reset();
+
   PrintWriter getWriter() throws IOException;
+
+  /**
+   * Returns the raw output stream, for binary or streamed payloads.
+   *
+   * <p>Only one of this and {@link #getWriter} may be used for a response.
+   *
+   * @see HttpServletResponse#getOutputStream()
+   */
+  OutputStream getOutputStream() throws IOException;
 }
@@ -0,0 +1,30 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.request;
+
+/**
+ * Exception for an action that failed after part of its response was already sent.
+ *
+ * <p>By then the status line has gone out, so the failure can no longer be reported with an error
+ * response. {@link RequestHandler} instead lets this propagate out of the servlet, which makes the
+ * servlet container abort the response rather than end it as if it were complete, so that the
+ * client sees the download fail instead of getting a truncated one.
+ */
+public class ResponseAbortedException extends RuntimeException {
+
+  public ResponseAbortedException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -19,6 +19,7 @@ import jakarta.inject.Inject;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.time.Instant;
 
@@ -71,8 +72,18 @@ public final class ResponseImpl implements Response {
     rsp.addCookie(cookie);
   }
 
+  @Override
+  public void reset() {
+    rsp.reset();
+  }
+
   @Override
   public PrintWriter getWriter() throws IOException {
     return rsp.getWriter();
   }
+
+  @Override
+  public OutputStream getOutputStream() throws IOException {
+    return rsp.getOutputStream();
+  }
 }
@@ -35,6 +35,7 @@ import google.registry.request.auth.OidcTokenAuthenticationMechanism.IapOidcAuth
 import google.registry.request.auth.OidcTokenAuthenticationMechanism.RegularOidcAuthenticationMechanism;
 import google.registry.request.auth.OidcTokenAuthenticationMechanism.TokenExtractor;
 import google.registry.request.auth.OidcTokenAuthenticationMechanism.TokenVerifier;
+import google.registry.util.Clock;
 import google.registry.util.GoogleCredentialsBundle;
 import google.registry.util.RegistryEnvironment;
 import jakarta.inject.Named;
@@ -69,9 +70,14 @@ public class AuthModule {
   /** Provides the custom authentication mechanisms. */
   @Provides
   ImmutableList<AuthenticationMechanism> provideApiAuthenticationMechanisms(
+      InProcessAuthenticationMechanism inProcessAuthenticationMechanism,
       IapOidcAuthenticationMechanism iapOidcAuthenticationMechanism,
       RegularOidcAuthenticationMechanism regularOidcAuthenticationMechanism) {
-    return ImmutableList.of(iapOidcAuthenticationMechanism, regularOidcAuthenticationMechanism);
+    // The in-process check is a single attribute lookup, so it goes first.
+    return ImmutableList.of(
+        inProcessAuthenticationMechanism,
+        iapOidcAuthenticationMechanism,
+        regularOidcAuthenticationMechanism);
   }
 
   @Qualifier
@@ -88,41 +94,50 @@ public class AuthModule {
   @Singleton
   TokenVerifier provideIapTokenVerifier(
       @Config("projectIdNumber") long projectIdNumber,
-      @Named("backendServiceIdMap") Supplier<ImmutableMap<String, Long>> backendServiceIdMap) {
+      @Named("backendServiceIdMap") Supplier<ImmutableMap<String, Long>> backendServiceIdMap,
+      @Config("verifiedTokenCacheMaxEntries") int verifiedTokenCacheMaxEntries,
+      Clock clock) {
     ConcurrentHashMap<String, com.google.auth.oauth2.TokenVerifier> tokenVerifiers =
         new ConcurrentHashMap<>();
-    return (String service, String token) -> {
-      Long backendServiceId = backendServiceIdMap.get().get(service);
-      checkNotNull(
-          backendServiceId,
-          "Backend service ID not found for service: %s, available IDs are %s",
-          service,
-          backendServiceIdMap);
-      String audience = String.format(IAP_AUDIENCE_FORMAT, projectIdNumber, backendServiceId);
-      com.google.auth.oauth2.TokenVerifier verifier =
-          tokenVerifiers.computeIfAbsent(
-              audience,
-              aud ->
-                  com.google.auth.oauth2.TokenVerifier.newBuilder()
-                      .setIssuer(IAP_ISSUER_URL)
-                      .setAudience(aud)
-                      .build());
-      return verifier.verify(token);
-    };
+    TokenVerifier iapTokenVerifier =
+        (String service, String token) -> {
+          Long backendServiceId = backendServiceIdMap.get().get(service);
+          checkNotNull(
+              backendServiceId,
+              "Backend service ID not found for service: %s, available IDs are %s",
+              service,
+              backendServiceIdMap);
+          String audience = String.format(IAP_AUDIENCE_FORMAT, projectIdNumber, backendServiceId);
+          com.google.auth.oauth2.TokenVerifier verifier =
+              tokenVerifiers.computeIfAbsent(
+                  audience,
+                  aud ->
+                      com.google.auth.oauth2.TokenVerifier.newBuilder()
+                          .setIssuer(IAP_ISSUER_URL)
+                          .setAudience(aud)
+                          .build());
+          return verifier.verify(token);
+        };
+    return new CachingTokenVerifier("IAP", iapTokenVerifier, clock, verifiedTokenCacheMaxEntries);
   }
 
   @Provides
   @RegularOidc
   @Singleton
-  TokenVerifier provideRegularTokenVerifier(@Config("oauthClientId") String clientId) {
+  TokenVerifier provideRegularTokenVerifier(
+      @Config("oauthClientId") String clientId,
+      @Config("verifiedTokenCacheMaxEntries") int verifiedTokenCacheMaxEntries,
+      Clock clock) {
     com.google.auth.oauth2.TokenVerifier tokenVerifier =
         com.google.auth.oauth2.TokenVerifier.newBuilder()
             .setAudience(clientId)
             .setIssuer(REGULAR_ISSUER_URL)
             .build();
-    return (@Nullable String service, String token) -> {
-      return tokenVerifier.verify(token);
-    };
+    return new CachingTokenVerifier(
+        "REGULAR",
+        (@Nullable String service, String token) -> tokenVerifier.verify(token),
+        clock,
+        verifiedTokenCacheMaxEntries);
   }
 
   @Provides
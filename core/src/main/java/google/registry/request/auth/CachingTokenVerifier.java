@@ -0,0 +1,118 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.request.auth;
+
+import static com.google.common.base.Strings.nullToEmpty;
+import static google.registry.model.CacheUtils.newCacheBuilder;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.auth.oauth2.TokenVerifier.VerificationException;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.monitoring.metrics.IncrementableMetric;
+import com.google.monitoring.metrics.LabelDescriptor;
+import com.google.monitoring.metrics.MetricRegistryImpl;
+import google.registry.request.auth.OidcTokenAuthenticationMechanism.TokenVerifier;
+import google.registry.util.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link TokenVerifier} that remembers successfully verified tokens until they expire.
+ *
+ * <p>Clients such as the integrated EPP server and Cloud Tasks present the same OIDC token on every
+ * request until it is about to expire, and checking its signature is the most expensive part of
+ * authenticating a request. Verified tokens are therefore cached, keyed by a hash of the raw token
+ * and the service it was presented to (IAP audiences differ per service). An entry is never used
+ * at or after the token's {@code exp} claim, and each verifier keeps its own cache, so a token is
+ * only ever accepted by the verifier (and thus the issuer and audience) that checked it. Failed
+ * verifications are not cached.
+ */
+final class CachingTokenVerifier implements TokenVerifier {
+
+  // Google-issued ID tokens are valid for an hour at most, so nothing in the cache outlives this.
+  private static final Duration MAX_TOKEN_LIFETIME = Duration.ofHours(1);
+
+  private static final IncrementableMetric tokenVerifications =
+      MetricRegistryImpl.getDefault()
+          .newIncrementableMetric(
+              "/auth/oidc/token_verifications",
+              "Count of OIDC token verifications, by whether the signature had to be checked",
+              "count",
+              ImmutableSet.of(
+                  LabelDescriptor.create("verifier", "The kind of OIDC token verified."),
+                  LabelDescriptor.create(
+                      "result", "CACHE_HIT, or VERIFIED / FAILED if the signature was checked.")));
+
+  private final String name;
+  private final TokenVerifier delegate;
+  private final Clock clock;
+  private final Cache<HashCode, VerifiedToken> cache;
+
+  CachingTokenVerifier(String name, TokenVerifier delegate, Clock clock, int maxEntries) {
+    this.name = name;
+    this.delegate = delegate;
+    this.clock = clock;
+    this.cache =
+        newCacheBuilder().expireAfterWrite(MAX_TOKEN_LIFETIME).maximumSize(maxEntries).build();
+  }
+
+  @Override
+  @Nullable
+  public JsonWebSignature verify(@Nullable String service, String rawToken)
+      throws VerificationException {
+    HashCode key =
+        Hashing.sha256()
+            .newHasher()
+            .putString(nullToEmpty(service), UTF_8)
+            .putByte((byte) 0)
+            .putString(rawToken, UTF_8)
+            .hash();
+    Instant now = clock.now();
+    VerifiedToken cached = cache.getIfPresent(key);
+    if (cached != null) {
+      if (now.isBefore(cached.expiry())) {
+        tokenVerifications.increment(name, "CACHE_HIT");
+        return cached.token();
+      }
+      cache.invalidate(key);
+    }
+    JsonWebSignature token;
+    try {
+      token = delegate.verify(service, rawToken);
+    } catch (VerificationException | RuntimeException e) {
+      tokenVerifications.increment(name, "FAILED");
+      throw e;
+    }
+    tokenVerifications.increment(name, token == null ? "FAILED" : "VERIFIED");
+    if (token != null) {
+      Long expirationSeconds = token.getPayload().getExpirationTimeSeconds();
+      // Tokens without an expiration are unusual enough that they just aren't cached.
+      if (expirationSeconds != null) {
+        Instant expiry = Instant.ofEpochSecond(expirationSeconds);
+        if (now.isBefore(expiry)) {
+          cache.put(key, new VerifiedToken(token, expiry));
+        }
+      }
+    }
+    return token;
+  }
+
+  private record VerifiedToken(JsonWebSignature token, Instant expiry) {}
+}
@@ -0,0 +1,68 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.request.auth;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.flogger.FluentLogger;
+import google.registry.config.RegistryConfig.Config;
+import jakarta.inject.Inject;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * An authentication mechanism for requests that are dispatched in-process and never cross the
+ * network, such as the commands the integrated EPP server hands to the request handler.
+ *
+ * <p>Such a dispatcher already runs as a service account, so minting an OIDC token for every
+ * request only for {@link OidcTokenAuthenticationMechanism} to verify it again is wasted work.
+ * Instead the dispatcher calls {@link #markAuthenticated} on the request it built. This stores a
+ * marker object, which can't be created outside this class, as a servlet request attribute.
+ * Remote clients can only control headers and content, never attributes, so the mark can't be
+ * forged from outside the process. The service account still has to be one of the allowed ones.
+ */
+public class InProcessAuthenticationMechanism implements AuthenticationMechanism {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private static final String ATTRIBUTE_NAME = InProcessAuthenticationMechanism.class.getName();
+
+  private final ImmutableSet<String> serviceAccountEmails;
+
+  @Inject
+  public InProcessAuthenticationMechanism(
+      @Config("allowedServiceAccountEmails") ImmutableSet<String> serviceAccountEmails) {
+    this.serviceAccountEmails = serviceAccountEmails;
+  }
+
+  /** Marks a request built in this process as sent by the given service account. */
+  public static void markAuthenticated(HttpServletRequest request, String serviceAccountEmail) {
+    request.setAttribute(ATTRIBUTE_NAME, new InProcessPrincipal(serviceAccountEmail));
+  }
+
+  @Override
+  public AuthResult authenticate(HttpServletRequest request) {
+    if (!(request.getAttribute(ATTRIBUTE_NAME) instanceof InProcessPrincipal principal)) {
+      return AuthResult.NOT_AUTHENTICATED;
+    }
+    if (!serviceAccountEmails.contains(principal.email())) {
+      logger.atWarning().log(
+          "In-process request from %s, which is not an allowed service account",
+          principal.email());
+      return AuthResult.NOT_AUTHENTICATED;
+    }
+    return AuthResult.createApp(principal.email());
+  }
+
+  private record InProcessPrincipal(String email) {}
+}
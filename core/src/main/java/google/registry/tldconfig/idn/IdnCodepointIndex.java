@@ -0,0 +1,92 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.tldconfig.idn;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+
+/**
+ * Index of the code points allowed by a list of IDN tables, for checking a label against all of
+ * them at once.
+ *
+ * <p>Each code point maps to a bitmask of the tables that allow it, with bit {@code i} standing for
+ * the {@code i}th table. The masks are held in blocks of 256 consecutive code points, and blocks
+ * without any allowed code point all share the same empty block, so the few scripts the tables
+ * cover take a few kilobytes.
+ */
+final class IdnCodepointIndex {
+
+  private static final int BLOCK_BITS = 8;
+  private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+  private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+  private static final int[] EMPTY_BLOCK = new int[BLOCK_SIZE];
+
+  /** Bitmasks of the tables that allow each code point, by block. */
+  private final int[][] blocks;
+
+  /** Bitmask with a bit set for every table. */
+  private final int allTables;
+
+  private IdnCodepointIndex(int[][] blocks, int allTables) {
+    this.blocks = blocks;
+    this.allTables = allTables;
+  }
+
+  /** Creates the index for the given sets of allowed code points, one for each table. */
+  static IdnCodepointIndex create(ImmutableList<? extends RangeSet<Integer>> tables) {
+    checkArgument(tables.size() <= Integer.SIZE, "Can't index more than 32 IDN tables");
+    int[][] blocks = new int[(Character.MAX_CODE_POINT >> BLOCK_BITS) + 1][];
+    for (int i = 0; i < tables.size(); i++) {
+      for (Range<Integer> range : tables.get(i).asRanges()) {
+        // The table ranges are built from singletons, so they're always closed.
+        for (int codepoint = range.lowerEndpoint();
+            codepoint <= range.upperEndpoint();
+            codepoint++) {
+          int block = codepoint >> BLOCK_BITS;
+          if (blocks[block] == null) {
+            blocks[block] = new int[BLOCK_SIZE];
+          }
+          blocks[block][codepoint & BLOCK_MASK] |= 1 << i;
+        }
+      }
+    }
+    for (int block = 0; block < blocks.length; block++) {
+      if (blocks[block] == null) {
+        blocks[block] = EMPTY_BLOCK;
+      }
+    }
+    int allTables = tables.size() == Integer.SIZE ? -1 : (1 << tables.size()) - 1;
+    return new IdnCodepointIndex(blocks, allTables);
+  }
+
+  /**
+   * Returns the bitmask of the tables that allow every code point of the label.
+   *
+   * <p>This doesn't check the tables' language rules.
+   */
+  int getTablesAllowing(String label) {
+    int tables = allTables;
+    final int length = label.length();
+    for (int i = 0; i < length && tables != 0; ) {
+      int codepoint = label.codePointAt(i);
+      tables &= blocks[codepoint >> BLOCK_BITS][codepoint & BLOCK_MASK];
+      i += Character.charCount(codepoint);
+    }
+    return tables;
+  }
+}
@@ -38,13 +38,8 @@ public final class IdnLabelValidator {
   public Optional<String> findValidIdnTableForTld(String label, String tldStr) {
     String unicodeString = Idn.toUnicode(label);
     Tld tld = Tld.get(tldStr); // uses the cache
-    ImmutableSet<IdnTableEnum> idnTables = getIdnTablesForTld(tld);
-    for (IdnTableEnum idnTable : idnTables) {
-      if (idnTable.getTable().isValidLabel(unicodeString)) {
-        return Optional.of(idnTable.getTable().getName());
-      }
-    }
-    return Optional.empty();
+    return IdnTableEnum.findFirstValidTable(unicodeString, getIdnTablesForTld(tld))
+        .map(idnTable -> idnTable.getTable().getName());
   }
 
   /** Returns the names of the IDN tables supported by a {@code tld}. */
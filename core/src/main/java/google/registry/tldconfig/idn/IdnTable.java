@@ -96,10 +96,23 @@ public final class IdnTable {
       // surrogates).
       i += Character.charCount(codepoint);
     }
+    return isValidForLanguage(label);
+  }
+
+  /**
+   * Returns true if the given label follows the language rules of this IDN table, if it has any.
+   *
+   * <p>This doesn't check the label's codepoints, see {@link IdnTableEnum#getValidTables}.
+   */
+  boolean isValidForLanguage(String label) {
     return !(languageValidator.isPresent()
         && !languageValidator.get().isValidLabelForLanguage(label));
   }
 
+  ImmutableRangeSet<Integer> getValidCodepoints() {
+    return validCodepoints;
+  }
+
   /** Creates an IDN table given the lines from text file. */
   static IdnTable createFrom(
       String language, Iterable<String> data, Optional<LanguageValidator> languageValidator) {
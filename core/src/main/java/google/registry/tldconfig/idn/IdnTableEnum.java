@@ -14,13 +14,17 @@
 
 package google.registry.tldconfig.idn;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.io.Resources.readLines;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import com.google.common.base.Ascii;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.io.Resources;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.Optional;
 
 /** Wrapper enum that loads all {@link IdnTable} resources into memory. */
 public enum IdnTableEnum {
@@ -60,6 +64,13 @@ public enum IdnTableEnum {
    */
   JA("japanese.txt");
 
+  /** The code points allowed by each table, with bit {@code i} standing for {@code values()[i]}. */
+  private static final IdnCodepointIndex CODEPOINT_INDEX =
+      IdnCodepointIndex.create(
+          Arrays.stream(values())
+              .map(idnTable -> idnTable.getTable().getValidCodepoints())
+              .collect(toImmutableList()));
+
   private final IdnTable table;
 
   IdnTableEnum(String filename) {
@@ -70,6 +81,49 @@ public enum IdnTableEnum {
     return table;
   }
 
+  /**
+   * Returns the tables among the given ones that the label is valid for, in the given order.
+   *
+   * <p>This is equivalent to calling {@link IdnTable#isValidLabel} for each of the tables, but
+   * checks the label's codepoints against all the tables in a single pass.
+   */
+  public static ImmutableSet<IdnTableEnum> getValidTables(
+      String label, Iterable<IdnTableEnum> idnTables) {
+    int allowingTables = CODEPOINT_INDEX.getTablesAllowing(label);
+    if (allowingTables == 0) {
+      return ImmutableSet.of();
+    }
+    ImmutableSet.Builder<IdnTableEnum> validTables = new ImmutableSet.Builder<>();
+    for (IdnTableEnum idnTable : idnTables) {
+      if (idnTable.isValidLabel(label, allowingTables)) {
+        validTables.add(idnTable);
+      }
+    }
+    return validTables.build();
+  }
+
+  /**
+   * Returns the first of the given tables that the label is valid for, like {@link
+   * #getValidTables}, without checking the language rules of the tables after it.
+   */
+  public static Optional<IdnTableEnum> findFirstValidTable(
+      String label, Iterable<IdnTableEnum> idnTables) {
+    int allowingTables = CODEPOINT_INDEX.getTablesAllowing(label);
+    if (allowingTables == 0) {
+      return Optional.empty();
+    }
+    for (IdnTableEnum idnTable : idnTables) {
+      if (idnTable.isValidLabel(label, allowingTables)) {
+        return Optional.of(idnTable);
+      }
+    }
+    return Optional.empty();
+  }
+
+  private boolean isValidLabel(String label, int allowingTables) {
+    return (allowingTables & (1 << ordinal())) != 0 && table.isValidForLanguage(label);
+  }
+
   private static IdnTable load(String tableName, String filename) {
     try {
       URL resource = Resources.getResource(IdnTableEnum.class, filename);
@@ -42,6 +42,7 @@ import google.registry.model.console.User;
 import google.registry.model.registrar.Registrar;
 import google.registry.model.registrar.RegistrarPoc;
 import google.registry.request.HttpException;
+import google.registry.request.ResponseAbortedException;
 import google.registry.security.XsrfTokenManager;
 import google.registry.util.DiffUtils;
 import google.registry.util.RegistryEnvironment;
@@ -99,6 +100,9 @@ public abstract class ConsoleApiAction implements Runnable {
     } catch (HttpException.BadRequestException | IllegalArgumentException e) {
       logger.atWarning().withCause(e).log("Error in request");
       setFailedResponse(Throwables.getRootCause(e).getMessage(), SC_BAD_REQUEST);
+    } catch (ResponseAbortedException e) {
+      // Too late for an error response, let the request handler abort the response instead.
+      throw e;
     } catch (Throwable t) {
       logger.atWarning().withCause(t).log("Internal server error");
       setFailedResponse(Throwables.getRootCause(t).getMessage(), SC_INTERNAL_SERVER_ERROR);
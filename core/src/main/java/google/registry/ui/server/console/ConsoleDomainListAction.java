@@ -15,12 +15,15 @@
 package google.registry.ui.server.console;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.io.BaseEncoding.base64Url;
 import static google.registry.model.console.ConsolePermission.DOWNLOAD_DOMAINS;
-import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
+import static google.registry.persistence.transaction.TransactionManagerFactory.replicaTm;
 import static jakarta.servlet.http.HttpServletResponse.SC_OK;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Ascii;
+import com.google.common.collect.Iterables;
 import com.google.gson.annotations.Expose;
 import google.registry.model.CreateAutoTimestamp;
 import google.registry.model.console.User;
@@ -29,13 +32,26 @@ import google.registry.request.Action;
 import google.registry.request.Action.Service;
 import google.registry.request.Parameter;
 import google.registry.request.auth.Auth;
+import google.registry.util.NonFinalForTesting;
 import jakarta.inject.Inject;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
 
-/** Returns a (paginated) list of domains for a particular registrar. */
+/**
+ * Returns a (paginated) list of domains for a particular registrar.
+ *
+ * <p>Pages can be requested either by number or, more efficiently, with the {@code pageCursor}
+ * returned along with the previous page. A cursor is the (creation time, repo ID) of the last
+ * domain on that page, so the next page starts with an index seek no matter how deep it is, while
+ * a page number has to skip over every domain before it.
+ */
 @Action(
     service = Service.CONSOLE,
     path = ConsoleDomainListAction.PATH,
@@ -50,7 +66,27 @@ public class ConsoleDomainListAction extends ConsoleApiAction {
       "FROM Domain WHERE currentSponsorRegistrarId = :registrarId AND deletionTime >"
           + " :deletedAfterTime AND creationTime <= :createdBeforeTime";
   private static final String SEARCH_TERM_QUERY = " AND LOWER(domainName) LIKE :searchTerm";
-  private static final String ORDER_BY_STATEMENT = " ORDER BY creationTime DESC";
+  private static final String PAGE_CURSOR_QUERY =
+      " AND (creationTime < :cursorCreationTime"
+          + " OR (creationTime = :cursorCreationTime AND repoId < :cursorRepoId))";
+  private static final String ORDER_BY_STATEMENT = " ORDER BY creationTime DESC, repoId DESC";
+
+  // Native SQL versions of the above, so that counting can be cut off after a number of rows.
+  private static final String NATIVE_DOMAIN_QUERY_TEMPLATE =
+      "SELECT 1 FROM \"Domain\" WHERE current_sponsor_registrar_id = :registrarId AND"
+          + " deletion_time > :deletedAfterTime AND creation_time <= :createdBeforeTime";
+  private static final String NATIVE_SEARCH_TERM_QUERY = " AND lower(domain_name) LIKE :searchTerm";
+
+  // Matches the estimated number of rows in the first line of the output of EXPLAIN.
+  private static final Pattern PLAN_ROWS_PATTERN = Pattern.compile(" rows=(\\d+) ");
+
+  /**
+   * Maximum number of matching domains to count exactly.
+   *
+   * <p>Beyond this the query planner's estimate is returned instead, so that the first page of a
+   * large portfolio doesn't have to visit every domain in it.
+   */
+  @NonFinalForTesting private static int maxExactCount = 10_000;
 
   private final String registrarId;
   private final Optional<Instant> checkpointTime;
@@ -58,6 +94,7 @@ public class ConsoleDomainListAction extends ConsoleApiAction {
   private final int resultsPerPage;
   private final Optional<Long> totalResults;
   private final Optional<String> searchTerm;
+  private final Optional<String> pageCursor;
 
   @Inject
   public ConsoleDomainListAction(
@@ -67,14 +104,16 @@ public class ConsoleDomainListAction extends ConsoleApiAction {
       @Parameter("pageNumber") Optional<Integer> pageNumber,
       @Parameter("resultsPerPage") Optional<Integer> resultsPerPage,
       @Parameter("totalResults") Optional<Long> totalResults,
-      @Parameter("searchTerm") Optional<String> searchTerm) {
+      @Parameter("searchTerm") Optional<String> searchTerm,
+      @Parameter("pageCursor") Optional<String> pageCursor) {
     super(consoleApiParams);
     this.registrarId = registrarId;
     this.checkpointTime = checkpointTime;
     this.pageNumber = pageNumber.orElse(0);
     this.resultsPerPage = resultsPerPage.orElse(DEFAULT_RESULTS_PER_PAGE);
     this.totalResults = totalResults;
-    this.searchTerm = searchTerm;
+    this.searchTerm = searchTerm.filter(term -> !term.isEmpty());
+    this.pageCursor = pageCursor;
   }
 
   @Override
@@ -84,61 +123,123 @@ public class ConsoleDomainListAction extends ConsoleApiAction {
         resultsPerPage > 0 && resultsPerPage <= 500,
         "Results per page must be between 1 and 500 inclusive");
     checkArgument(pageNumber >= 0, "Page number must be non-negative");
-    tm().transact(this::runInTransaction);
+    Optional<PageCursor> cursor = pageCursor.map(PageCursor::decode);
+    // The console only ever reads here, so it needn't compete with EPP traffic on the primary.
+    replicaTm().transact(() -> runInTransaction(cursor));
   }
 
-  private void runInTransaction() {
-    int numResultsToSkip = resultsPerPage * pageNumber;
-
+  private void runInTransaction(Optional<PageCursor> cursor) {
     // We have to use a constant checkpoint time in order to have stable pagination, since domains
     // can be constantly created or deleted
-    Instant checkpoint = checkpointTime.orElseGet(tm()::getTxTime);
-    CreateAutoTimestamp checkpointTimestamp = CreateAutoTimestamp.create(checkpoint);
+    Instant checkpoint = checkpointTime.orElseGet(replicaTm()::getTxTime);
     // Don't compute the number of total results over and over if we don't need to
-    long actualTotalResults =
-        totalResults.orElseGet(
-            () ->
-                createCountQuery()
-                    .setParameter("registrarId", registrarId)
-                    .setParameter("createdBeforeTime", checkpointTimestamp)
-                    .setParameter("deletedAfterTime", checkpoint)
-                    .getSingleResult());
-    List<Domain> domains =
-        createDomainQuery()
+    long actualTotalResults = totalResults.orElseGet(() -> countDomains(checkpoint));
+    TypedQuery<Domain> query =
+        replicaTm()
+            .query(
+                DOMAIN_QUERY_TEMPLATE
+                    + (searchTerm.isPresent() ? SEARCH_TERM_QUERY : "")
+                    + (cursor.isPresent() ? PAGE_CURSOR_QUERY : "")
+                    + ORDER_BY_STATEMENT,
+                Domain.class)
             .setParameter("registrarId", registrarId)
-            .setParameter("createdBeforeTime", checkpointTimestamp)
+            .setParameter("createdBeforeTime", CreateAutoTimestamp.create(checkpoint))
             .setParameter("deletedAfterTime", checkpoint)
-            .setFirstResult(numResultsToSkip)
-            .setMaxResults(resultsPerPage)
-            .getResultList();
+            .setMaxResults(resultsPerPage);
+    searchTerm.ifPresent(term -> query.setParameter("searchTerm", toLikePattern(term)));
+    if (cursor.isPresent()) {
+      query
+          .setParameter(
+              "cursorCreationTime", CreateAutoTimestamp.create(cursor.get().creationTime()))
+          .setParameter("cursorRepoId", cursor.get().repoId());
+    } else {
+      query.setFirstResult(resultsPerPage * pageNumber);
+    }
+    List<Domain> domains = query.getResultList();
+    String nextPageCursor =
+        domains.size() < resultsPerPage ? null : PageCursor.after(Iterables.getLast(domains));
 
     consoleApiParams
         .response()
         .setPayload(
             consoleApiParams
                 .gson()
-                .toJson(new DomainListResult(domains, checkpoint, actualTotalResults)));
+                .toJson(
+                    new DomainListResult(domains, checkpoint, actualTotalResults, nextPageCursor)));
     consoleApiParams.response().setStatus(SC_OK);
   }
 
-  /** Creates the query to get the total number of matching domains, interpolating as necessary. */
-  private TypedQuery<Long> createCountQuery() {
-    String queryString = "SELECT COUNT(*) " + DOMAIN_QUERY_TEMPLATE;
-    if (searchTerm.isPresent() && !searchTerm.get().isEmpty()) {
-      return tm().query(queryString + SEARCH_TERM_QUERY, Long.class)
-          .setParameter("searchTerm", String.format("%%%s%%", Ascii.toLowerCase(searchTerm.get())));
+  /**
+   * Returns the number of matching domains, or an estimate of it if there are more than {@link
+   * #maxExactCount}.
+   */
+  private long countDomains(Instant checkpoint) {
+    String matchingDomains =
+        NATIVE_DOMAIN_QUERY_TEMPLATE + (searchTerm.isPresent() ? NATIVE_SEARCH_TERM_QUERY : "");
+    long count =
+        ((Number)
+                setNativeQueryParameters(
+                        replicaTm()
+                            .getEntityManager()
+                            .createNativeQuery(
+                                "SELECT COUNT(*) FROM (" + matchingDomains + " LIMIT :limit) d"),
+                        checkpoint)
+                    .setParameter("limit", maxExactCount + 1)
+                    .getSingleResult())
+            .longValue();
+    if (count <= maxExactCount) {
+      return count;
     }
-    return tm().query(queryString, Long.class);
+    List<?> plan =
+        setNativeQueryParameters(
+                replicaTm().getEntityManager().createNativeQuery("EXPLAIN " + matchingDomains),
+                checkpoint)
+            .getResultList();
+    Matcher matcher = PLAN_ROWS_PATTERN.matcher((String) plan.get(0));
+    // However far off the estimate is, there are at least as many domains as were counted.
+    return matcher.find() ? Math.max(count, Long.parseLong(matcher.group(1))) : count;
+  }
+
+  private Query setNativeQueryParameters(Query query, Instant checkpoint) {
+    query
+        .setParameter("registrarId", registrarId)
+        .setParameter("createdBeforeTime", checkpoint)
+        .setParameter("deletedAfterTime", checkpoint);
+    searchTerm.ifPresent(term -> query.setParameter("searchTerm", toLikePattern(term)));
+    return query;
   }
 
-  /** Creates the query to retrieve the matching domains themselves, interpolating as necessary. */
-  private TypedQuery<Domain> createDomainQuery() {
-    if (searchTerm.isPresent() && !searchTerm.get().isEmpty()) {
-      return tm().query(
-              DOMAIN_QUERY_TEMPLATE + SEARCH_TERM_QUERY + ORDER_BY_STATEMENT, Domain.class)
-          .setParameter("searchTerm", String.format("%%%s%%", Ascii.toLowerCase(searchTerm.get())));
+  private static String toLikePattern(String searchTerm) {
+    return String.format("%%%s%%", Ascii.toLowerCase(searchTerm));
+  }
+
+  @VisibleForTesting
+  static void setMaxExactCountForTest(int maxExactCount) {
+    ConsoleDomainListAction.maxExactCount = maxExactCount;
+  }
+
+  /** The position of a domain in the list, i.e. its (creation time, repo ID). */
+  private record PageCursor(Instant creationTime, String repoId) {
+
+    static String after(Domain domain) {
+      return base64Url()
+          .omitPadding()
+          .encode((domain.getCreationTime() + "/" + domain.getRepoId()).getBytes(UTF_8));
+    }
+
+    static PageCursor decode(String pageCursor) {
+      try {
+        String decoded = new String(base64Url().omitPadding().decode(pageCursor), UTF_8);
+        int separator = decoded.indexOf('/');
+        if (separator > 0) {
+          return new PageCursor(
+              Instant.parse(decoded.substring(0, separator)), decoded.substring(separator + 1));
+        }
+      } catch (IllegalArgumentException | DateTimeParseException e) {
+        // Reported below, without the details of how cursors are encoded.
+      }
+      throw new IllegalArgumentException("Invalid page cursor");
     }
-    return tm().query(DOMAIN_QUERY_TEMPLATE + ORDER_BY_STATEMENT, Domain.class);
   }
 
   /** Container result class that allows for pagination. */
@@ -147,11 +248,17 @@ public class ConsoleDomainListAction extends ConsoleApiAction {
     @Expose List<Domain> domains;
     @Expose Instant checkpointTime;
     @Expose long totalResults;
+    @Expose @Nullable String nextPageCursor;
 
-    private DomainListResult(List<Domain> domains, Instant checkpointTime, long totalResults) {
+    private DomainListResult(
+        List<Domain> domains,
+        Instant checkpointTime,
+        long totalResults,
+        @Nullable String nextPageCursor) {
       this.domains = domains;
       this.checkpointTime = checkpointTime;
       this.totalResults = totalResults;
+      this.nextPageCursor = nextPageCursor;
     }
   }
 }
@@ -14,13 +14,26 @@
 
 package google.registry.ui.server.console;
 
+import static com.google.common.net.HttpHeaders.ACCEPT_ENCODING;
+import static com.google.common.net.HttpHeaders.CONTENT_ENCODING;
+import static com.google.common.net.HttpHeaders.VARY;
+import static com.google.monitoring.metrics.EventMetric.DEFAULT_FITTER;
+import static google.registry.persistence.transaction.TransactionManagerFactory.replicaTm;
 import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
 import static google.registry.request.Action.Method.GET;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.ZoneOffset.UTC;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.flogger.FluentLogger;
 import com.google.common.net.MediaType;
+import com.google.monitoring.metrics.EventMetric;
+import com.google.monitoring.metrics.LabelDescriptor;
+import com.google.monitoring.metrics.MetricRegistryImpl;
 import google.registry.config.RegistryConfig.Config;
 import google.registry.model.console.ConsolePermission;
 import google.registry.model.console.ConsoleUpdateHistory;
@@ -28,14 +41,39 @@ import google.registry.model.console.User;
 import google.registry.request.Action;
 import google.registry.request.Action.Service;
 import google.registry.request.Parameter;
+import google.registry.request.ResponseAbortedException;
 import google.registry.request.auth.Auth;
 import google.registry.util.Clock;
 import jakarta.inject.Inject;
+import jakarta.persistence.PersistenceException;
 import jakarta.servlet.http.HttpServletResponse;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Nullable;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 
+/**
+ * Streams the domains of a registrar as a CSV file.
+ *
+ * <p>The export can cover millions of domains, so rows are read from a replica through a
+ * server-side cursor, a bounded number at a time, and the response is flushed as it goes. Since no
+ * content length is set, the servlet container sends it with chunked transfer encoding and the
+ * first rows reach the browser long before the last ones are read. Clients that accept it get the
+ * CSV gzip-compressed.
+ *
+ * <p>A failure before any rows are sent gets an error response. Once streaming has started, a
+ * failure aborts the response instead, so that the client doesn't mistake a truncated CSV for a
+ * complete one.
+ */
 @Action(
     service = Service.CONSOLE,
     path = ConsoleDumDownloadAction.PATH,
@@ -43,16 +81,53 @@ import org.apache.commons.csv.CSVPrinter;
     auth = Auth.AUTH_PUBLIC_LOGGED_IN)
 public class ConsoleDumDownloadAction extends ConsoleApiAction {
 
-  private static final String SQL_TEMPLATE =
+  private static final String SQL =
       """
-            SELECT CONCAT(
-              d.domain_name,',',d.creation_time,',',d.registration_expiration_time,',',d.statuses
-            ) AS result FROM "Domain" d
+            SELECT d.domain_name, CAST(d.creation_time AS text),
+              CAST(d.registration_expiration_time AS text), CAST(d.statuses AS text)
+            FROM "Domain" d
             WHERE d.current_sponsor_registrar_id = :registrarId
-            AND d.deletion_time > ':now'
-            AND d.creation_time <= ':now';
+            AND d.deletion_time > :now
+            AND d.creation_time <= :now
       """;
 
+  /** Number of rows fetched from the database at a time. */
+  private static final int FETCH_SIZE = 1000;
+
+  /** Number of rows written between flushes of the response. */
+  private static final int FLUSH_INTERVAL_ROWS = 1000;
+
+  private static final ImmutableSet<LabelDescriptor> LABELS =
+      ImmutableSet.of(
+          LabelDescriptor.create("content_encoding", "The encoding of the CSV, gzip or identity."));
+
+  private static final EventMetric timeToFirstRow =
+      MetricRegistryImpl.getDefault()
+          .newEventMetric(
+              "/console/dum_download/time_to_first_row",
+              "Time from the start of a domain list download until its first row was flushed",
+              "milliseconds",
+              LABELS,
+              DEFAULT_FITTER);
+
+  private static final EventMetric downloadDuration =
+      MetricRegistryImpl.getDefault()
+          .newEventMetric(
+              "/console/dum_download/duration",
+              "Total time taken to stream a domain list download",
+              "milliseconds",
+              LABELS,
+              DEFAULT_FITTER);
+
+  private static final EventMetric rowsPerSecond =
+      MetricRegistryImpl.getDefault()
+          .newEventMetric(
+              "/console/dum_download/rows_per_second",
+              "Rate at which rows of a domain list download were streamed",
+              "rows/second",
+              LABELS,
+              DEFAULT_FITTER);
+
   private static final FluentLogger logger = FluentLogger.forEnclosingClass();
 
   public static final String PATH = "/console-api/dum-download";
@@ -60,6 +135,9 @@ public class ConsoleDumDownloadAction extends ConsoleApiAction {
   private final String registrarId;
   private final String dumFileName;
 
+  /** Whether any of the CSV has been sent, after which failures can't be reported with a status. */
+  private boolean streamStarted;
+
   @Inject
   public ConsoleDumDownloadAction(
       Clock clock,
@@ -75,6 +153,9 @@ public class ConsoleDumDownloadAction extends ConsoleApiAction {
   @Override
   protected void getHandler(User user) {
     checkPermission(user, registrarId, ConsolePermission.DOWNLOAD_DOMAINS);
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    boolean gzip = acceptsGzip(consoleApiParams.request().getHeader(ACCEPT_ENCODING));
+    String contentEncoding = gzip ? "gzip" : "identity";
     consoleApiParams.response().setContentType(MediaType.CSV_UTF_8);
     consoleApiParams
         .response()
@@ -86,16 +167,37 @@ public class ConsoleDumDownloadAction extends ConsoleApiAction {
     consoleApiParams
         .response()
         .setDateHeader("Expires", clock.nowDate().atStartOfDay(UTC).plusDays(1).toInstant());
+    consoleApiParams.response().setHeader(VARY, ACCEPT_ENCODING);
+    if (gzip) {
+      consoleApiParams.response().setHeader(CONTENT_ENCODING, "gzip");
+    }
 
-    try (var writer = consoleApiParams.response().getWriter()) {
-      CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT);
-      writeCsv(csvPrinter);
-    } catch (IOException e) {
+    long rows;
+    // The response stream is left open when the printer is closed, so that a failure before any
+    // rows are sent can still be turned into an error response.
+    try (CSVPrinter csvPrinter =
+        new CSVPrinter(
+            createWriter(
+                new NonClosingOutputStream(consoleApiParams.response().getOutputStream()), gzip),
+            CSVFormat.DEFAULT)) {
+      rows = writeCsv(csvPrinter, stopwatch, contentEncoding);
+    } catch (IOException | UncheckedIOException | PersistenceException e) {
+      if (streamStarted) {
+        throw new ResponseAbortedException(
+            String.format("Failed to stream DUM csv for %s", registrarId), e);
+      }
       logger.atWarning().withCause(e).log(
           String.format("Failed to create DUM csv for %s", registrarId));
+      // Drops what was buffered so far, e.g. the gzip header, along with the Content-Encoding.
+      consoleApiParams.response().reset();
       consoleApiParams.response().setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
       return;
     }
+    Duration elapsed = stopwatch.elapsed();
+    downloadDuration.record(elapsed.toMillis(), contentEncoding);
+    if (!elapsed.isZero()) {
+      rowsPerSecond.record(rows * 1e9 / elapsed.toNanos(), contentEncoding);
+    }
     tm().transact(
             () -> {
               finishAndPersistConsoleUpdateHistory(
@@ -106,30 +208,81 @@ public class ConsoleDumDownloadAction extends ConsoleApiAction {
     consoleApiParams.response().setStatus(HttpServletResponse.SC_OK);
   }
 
-  private void writeCsv(CSVPrinter printer) throws IOException {
-    String sql = SQL_TEMPLATE.replaceAll(":now", clock.now().toString());
+  private static Writer createWriter(OutputStream outputStream, boolean gzip)
+      throws IOException {
+    // Sync flushing makes each flush push out everything compressed so far, not just fill a buffer.
+    return new OutputStreamWriter(
+        gzip ? new GZIPOutputStream(outputStream, /* syncFlush= */ true) : outputStream, UTF_8);
+  }
+
+  /** An output stream that doesn't close the stream it writes to. */
+  private static final class NonClosingOutputStream extends FilterOutputStream {
 
+    NonClosingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  /** Writes the header and every domain, returning the number of domain rows written. */
+  private long writeCsv(CSVPrinter printer, Stopwatch stopwatch, String contentEncoding)
+      throws IOException {
     printer.printRecord(
         ImmutableList.of("Domain Name", "Creation Time", "Expiration Time", "Domain Statuses"));
 
-    tm().transact(
+    // Rows already flushed can't be taken back, so a failed read mustn't be retried.
+    return replicaTm()
+        .transactNoRetry(
             () -> {
+              long rows = 0;
               try (var resultStream =
-                  tm().getEntityManager()
-                      .createNativeQuery(sql, String.class)
+                  replicaTm()
+                      .getEntityManager()
+                      .createNativeQuery(SQL)
                       .setParameter("registrarId", registrarId)
-                      .setHint("org.hibernate.fetchSize", 1000)
+                      .setParameter("now", clock.now())
+                      .setHint("org.hibernate.fetchSize", FETCH_SIZE)
                       .getResultStream()) {
-
-                resultStream.forEach(
-                    row -> {
-                      try {
-                        printer.printRecord((Object[]) ((String) row).split(","));
-                      } catch (IOException e) {
-                        throw new RuntimeException(e);
-                      }
-                    });
+                Iterator<?> iterator = resultStream.iterator();
+                while (iterator.hasNext()) {
+                  printer.printRecord((Object[]) iterator.next());
+                  rows++;
+                  if (rows == 1) {
+                    streamStarted = true;
+                    printer.flush();
+                    timeToFirstRow.record(stopwatch.elapsed().toMillis(), contentEncoding);
+                  } else if (rows % FLUSH_INTERVAL_ROWS == 0) {
+                    printer.flush();
+                  }
+                }
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
               }
+              return rows;
             });
   }
+
+  /** Returns whether an {@code Accept-Encoding} header allows a gzip-encoded response. */
+  @VisibleForTesting
+  static boolean acceptsGzip(@Nullable String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : Splitter.on(',').trimResults().omitEmptyStrings().split(acceptEncoding)) {
+      // E.g. "gzip;q=0.8". A q-value of zero means the encoding is not acceptable.
+      List<String> parts = Splitter.on(';').trimResults().splitToList(coding);
+      if (parts.get(0).equalsIgnoreCase("gzip")
+          && parts.stream().skip(1).noneMatch(param -> param.matches("q=0(\\.0*)?"))) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
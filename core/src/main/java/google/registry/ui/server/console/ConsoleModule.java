@@ -241,6 +241,12 @@ public final class ConsoleModule {
     return extractOptionalParameter(req, "searchTerm");
   }
 
+  @Provides
+  @Parameter("pageCursor")
+  public static Optional<String> providePageCursor(HttpServletRequest req) {
+    return extractOptionalParameter(req, "pageCursor");
+  }
+
   @Provides
   @Parameter("bulkDomainAction")
   public static String provideBulkDomainAction(HttpServletRequest req) {
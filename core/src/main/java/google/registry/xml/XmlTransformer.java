@@ -38,7 +38,8 @@ import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.Collection;
-import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import javax.annotation.Nullable;
 import javax.xml.XMLConstants;
 import javax.xml.stream.XMLInputFactory;
@@ -73,6 +74,23 @@ public class XmlTransformer {
   /** A {@link Schema} to validate XML. */
   private final Schema schema;
 
+  /** Maximum number of idle marshallers and unmarshallers kept for reuse by each transformer. */
+  private static final int MAX_POOLED_INSTANCES = 64;
+
+  /**
+   * Idle unmarshallers, already configured with {@link #schema} and the event handler.
+   *
+   * <p>Creating an unmarshaller and attaching the schema to it is a measurable part of handling a
+   * small document, so instances are recycled after successful use. Neither marshallers nor
+   * unmarshallers are thread-safe, so each is only ever held by one caller at a time.
+   */
+  private final BlockingQueue<Unmarshaller> unmarshallerPool =
+      new ArrayBlockingQueue<>(MAX_POOLED_INSTANCES);
+
+  /** Idle marshallers, which are reconfigured for the requested output on every use. */
+  private final BlockingQueue<Marshaller> marshallerPool =
+      new ArrayBlockingQueue<>(MAX_POOLED_INSTANCES);
+
   /**
    * Create a new XmlTransformer that validates using the given schemas, but uses the given classes
    * (rather than generated ones) for marshaling and unmarshaling.
@@ -150,8 +168,15 @@ public class XmlTransformer {
    */
   public <T> T unmarshal(Class<T> clazz, InputStream stream) throws XmlException {
     try (InputStream autoClosingStream = stream) {
-      return clazz.cast(getUnmarshaller().unmarshal(
-          XML_INPUT_FACTORY.createXMLStreamReader(new StreamSource(autoClosingStream, SYSTEM_ID))));
+      Unmarshaller unmarshaller = borrowUnmarshaller();
+      T result =
+          clazz.cast(
+              unmarshaller.unmarshal(
+                  XML_INPUT_FACTORY.createXMLStreamReader(
+                      new StreamSource(autoClosingStream, SYSTEM_ID))));
+      // Only recycle instances that completed normally, so no state from a failure can leak.
+      unmarshallerPool.offer(unmarshaller);
+      return result;
     } catch (UnmarshalException e) {
       // Plain old parsing exceptions have a SAXParseException with no further cause.
       if (e.getLinkedException() instanceof SAXParseException sae
@@ -197,10 +222,10 @@ public class XmlTransformer {
   public void marshal(Object root, Writer writer, ValidationMode validation) throws XmlException {
     try {
       // Omit XML declaration because character-oriented output prevents us from knowing.
-      getMarshaller(
-          STRICT.equals(validation) ? schema : null,
-          ImmutableMap.of(Marshaller.JAXB_FRAGMENT, true)).marshal(
-              checkNotNull(root, "root"), checkNotNull(writer, "writer"));
+      Marshaller marshaller =
+          borrowMarshaller(STRICT.equals(validation) ? schema : null, true, UTF_8);
+      marshaller.marshal(checkNotNull(root, "root"), checkNotNull(writer, "writer"));
+      marshallerPool.offer(marshaller);
     } catch (JAXBException e) {
       throw new XmlException(e);
     }
@@ -224,10 +249,10 @@ public class XmlTransformer {
   public void marshal(Object root, OutputStream out, Charset charset, ValidationMode validation)
       throws XmlException {
     try {
-      getMarshaller(
-          STRICT.equals(validation) ? schema : null,
-          ImmutableMap.of(Marshaller.JAXB_ENCODING, charset.toString())).marshal(
-              checkNotNull(root, "root"), checkNotNull(out, "out"));
+      Marshaller marshaller =
+          borrowMarshaller(STRICT.equals(validation) ? schema : null, false, charset);
+      marshaller.marshal(checkNotNull(root, "root"), checkNotNull(out, "out"));
+      marshallerPool.offer(marshaller);
     } catch (JAXBException e) {
       throw new XmlException(e);
     }
@@ -260,8 +285,14 @@ public class XmlTransformer {
     return JAXBContext.newInstance(prefix + Joiner.on(':' + prefix).join(schemaNames));
   }
 
+  /** Takes an idle {@link Unmarshaller} from the pool, or creates one if there are none. */
+  private Unmarshaller borrowUnmarshaller() throws JAXBException {
+    Unmarshaller unmarshaller = unmarshallerPool.poll();
+    return (unmarshaller != null) ? unmarshaller : createUnmarshaller();
+  }
+
   /** Get a {@link Unmarshaller} instance with the default configuration. */
-  private Unmarshaller getUnmarshaller() throws JAXBException {
+  private Unmarshaller createUnmarshaller() throws JAXBException {
     Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
     unmarshaller.setSchema(schema);
     // This handler was the default in JAXB 1.0. It fails on any exception thrown while
@@ -271,14 +302,22 @@ public class XmlTransformer {
     return unmarshaller;
   }
 
-  /** Get a {@link Marshaller} instance with the given configuration. */
-  private Marshaller getMarshaller(@Nullable Schema schemaParam, Map<String, ?> properties)
-      throws JAXBException {
-    Marshaller marshaller = jaxbContext.createMarshaller();
-    for (Map.Entry<String, ?> entry : properties.entrySet()) {
-      marshaller.setProperty(entry.getKey(), entry.getValue());
+  /**
+   * Takes an idle {@link Marshaller} from the pool, or creates one if there are none, and
+   * configures it with the given settings.
+   *
+   * <p>Every setting that differs between callers is set explicitly, since a pooled instance may
+   * have last been used with a different configuration.
+   */
+  private Marshaller borrowMarshaller(
+      @Nullable Schema schemaParam, boolean fragment, Charset charset) throws JAXBException {
+    Marshaller marshaller = marshallerPool.poll();
+    if (marshaller == null) {
+      marshaller = jaxbContext.createMarshaller();
+      marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
     }
-    marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+    marshaller.setProperty(Marshaller.JAXB_FRAGMENT, fragment);
+    marshaller.setProperty(Marshaller.JAXB_ENCODING, charset.toString());
     marshaller.setSchema(schemaParam);
     return marshaller;
   }
@@ -0,0 +1,195 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.batch;
+
+import static com.google.common.truth.Truth.assertThat;
+import static google.registry.model.common.FeatureFlag.FeatureName.COMPRESS_HISTORY_XML;
+import static google.registry.model.common.FeatureFlag.FeatureStatus.ACTIVE;
+import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
+import static google.registry.testing.DatabaseHelper.createTld;
+import static google.registry.testing.DatabaseHelper.loadAllOf;
+import static google.registry.testing.DatabaseHelper.persistActiveDomain;
+import static google.registry.testing.DatabaseHelper.persistActiveHost;
+import static google.registry.testing.DatabaseHelper.persistFeatureFlag;
+import static google.registry.testing.DatabaseHelper.persistResource;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.base.Strings;
+import google.registry.model.domain.DomainHistory;
+import google.registry.model.host.HostHistory;
+import google.registry.model.reporting.HistoryEntry;
+import google.registry.persistence.converter.CompressedXmlConverter;
+import google.registry.persistence.transaction.JpaTestExtensions;
+import google.registry.persistence.transaction.JpaTestExtensions.JpaIntegrationTestExtension;
+import google.registry.testing.FakeClock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+/** Unit tests for {@link ManageHistoryPartitionsAction}. */
+class ManageHistoryPartitionsActionTest {
+
+  private static final byte[] XML =
+      ("<epp><command><update>"
+              + Strings.repeat("<domain:ns>ns1.example.tld</domain:ns>", 20)
+              + "</update></command></epp>")
+          .getBytes(UTF_8);
+
+  private final FakeClock clock = new FakeClock(Instant.parse("2027-01-10T12:00:00Z"));
+
+  @RegisterExtension
+  final JpaIntegrationTestExtension jpa =
+      new JpaTestExtensions.Builder().withClock(clock).buildIntegrationTestExtension();
+
+  private int domainCount;
+
+  @BeforeEach
+  void beforeEach() {
+    createTld("tld");
+  }
+
+  private ManageHistoryPartitionsAction createAction(Optional<YearMonth> yearMonth) {
+    return new ManageHistoryPartitionsAction(yearMonth, Optional.of(2), clock);
+  }
+
+  @Test
+  void testSuccess_createsPartitions() {
+    clock.setTo(Instant.parse("2027-04-15T00:00:00Z"));
+    createAction(Optional.empty()).run();
+    assertThat(partitionExists("DomainHistory_y2027m04")).isTrue();
+    assertThat(partitionExists("DomainHistory_y2027m07")).isTrue();
+    assertThat(partitionExists("HostHistory_y2027m07")).isTrue();
+    assertThat(partitionExists("DomainHistory_y2027m08")).isFalse();
+    // Running again is a no-op.
+    createAction(Optional.empty()).run();
+    assertThat(partitionExists("HostHistory_y2027m04")).isTrue();
+  }
+
+  @Test
+  void testSuccess_compressesColdMonth() {
+    persistFeatureFlag(COMPRESS_HISTORY_XML, ACTIVE);
+    persistDomainHistories(3);
+    persistHostHistory();
+    clock.setTo(Instant.parse("2027-02-01T00:00:00Z"));
+    persistDomainHistories(1);
+    assertThat(countCompressed("DomainHistory", "2027-01")).isEqualTo(0);
+
+    clock.setTo(Instant.parse("2027-04-15T00:00:00Z"));
+    createAction(Optional.empty()).run();
+
+    assertThat(countCompressed("DomainHistory", "2027-01")).isEqualTo(3);
+    assertThat(countCompressed("DomainHistory", "2027-02")).isEqualTo(0);
+    assertThat(countCompressed("HostHistory", "2027-01")).isEqualTo(1);
+    assertThat(loadAllOf(DomainHistory.class).stream().map(HistoryEntry::getXmlBytes))
+        .containsExactly(XML, XML, XML, XML);
+    assertThat(loadAllOf(HostHistory.class).get(0).getXmlBytes()).isEqualTo(XML);
+  }
+
+  @Test
+  void testSuccess_compressesGivenMonth_inDefaultPartition() {
+    persistFeatureFlag(COMPRESS_HISTORY_XML, ACTIVE);
+    clock.setTo(Instant.parse("2026-10-20T00:00:00Z"));
+    persistDomainHistories(2);
+
+    clock.setTo(Instant.parse("2027-04-15T00:00:00Z"));
+    createAction(Optional.of(YearMonth.of(2026, 10))).run();
+
+    assertThat(countCompressed("DomainHistory", "2026-10")).isEqualTo(2);
+    assertThat(loadAllOf(DomainHistory.class).stream().map(HistoryEntry::getXmlBytes))
+        .containsExactly(XML, XML);
+  }
+
+  @Test
+  void testSuccess_compressionInactive_onlyCreatesPartitions() {
+    persistDomainHistories(2);
+
+    clock.setTo(Instant.parse("2027-04-15T00:00:00Z"));
+    createAction(Optional.empty()).run();
+
+    assertThat(partitionExists("DomainHistory_y2027m07")).isTrue();
+    assertThat(countCompressed("DomainHistory", "2027-01")).isEqualTo(0);
+    assertThat(loadAllOf(DomainHistory.class).stream().map(HistoryEntry::getXmlBytes))
+        .containsExactly(XML, XML);
+  }
+
+  @Test
+  void testFailure_monthNotColdYet() {
+    clock.setTo(Instant.parse("2027-04-15T00:00:00Z"));
+    IllegalArgumentException thrown =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> createAction(Optional.of(YearMonth.of(2027, 2))).run());
+    assertThat(thrown).hasMessageThat().isEqualTo("2027-02 is not 3 months old yet");
+  }
+
+  private void persistDomainHistories(int count) {
+    for (int i = 0; i < count; i++) {
+      persistResource(
+          new DomainHistory.Builder()
+              .setDomain(persistActiveDomain(String.format("example-%d.tld", domainCount++)))
+              .setType(HistoryEntry.Type.DOMAIN_UPDATE)
+              .setModificationTime(clock.now())
+              .setRegistrarId("TheRegistrar")
+              .setXmlBytes(XML)
+              .build());
+      clock.advanceOneMilli();
+    }
+  }
+
+  private void persistHostHistory() {
+    persistResource(
+        new HostHistory.Builder()
+            .setHost(persistActiveHost("ns1.example.tld"))
+            .setType(HistoryEntry.Type.HOST_UPDATE)
+            .setModificationTime(clock.now())
+            .setRegistrarId("TheRegistrar")
+            .setXmlBytes(XML)
+            .build());
+  }
+
+  private static long countCompressed(String table, String month) {
+    @SuppressWarnings("unchecked")
+    List<byte[]> values =
+        tm().transact(
+                () ->
+                    tm().getEntityManager()
+                        .createNativeQuery(
+                            String.format(
+                                """
+                                SELECT history_xml_bytes FROM "%s"
+                                WHERE to_char(history_modification_time AT TIME ZONE 'UTC',
+                                  'YYYY-MM') = :month
+                                """,
+                                table))
+                        .setParameter("month", month)
+                        .getResultList());
+    return values.stream().filter(CompressedXmlConverter::isCompressed).count();
+  }
+
+  private static boolean partitionExists(String name) {
+    return tm().transact(
+            () ->
+                !tm().getEntityManager()
+                    .createNativeQuery("SELECT 1 FROM pg_tables WHERE tablename = :name")
+                    .setParameter("name", name)
+                    .getResultList()
+                    .isEmpty());
+  }
+}
@@ -14,7 +14,11 @@
 
 package google.registry.beam.common;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+import static google.registry.beam.common.KeyRangePartitioning.KEY_RANGE_TOKEN;
 import static google.registry.persistence.transaction.JpaTransactionManagerExtension.makeRegistrar1;
+import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
 import static google.registry.testing.DatabaseHelper.newHost;
 import static google.registry.testing.DatabaseHelper.newTld;
 import static google.registry.testing.DatabaseHelper.persistResource;
@@ -27,6 +31,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import google.registry.beam.TestPipelineExtension;
+import google.registry.beam.common.KeyRangePartitioning.KeyRange;
 import google.registry.beam.common.RegistryJpaIO.Read;
 import google.registry.model.domain.Domain;
 import google.registry.model.domain.DomainAuthInfo;
@@ -162,6 +167,63 @@ public class RegistryJpaReadTest {
     testPipeline.run();
   }
 
+  @Test
+  void readByKeyRanges() {
+    Read<String, String> read =
+        RegistryJpaIO.readByKeyRanges(
+                "select h.hostName from Host h where " + KEY_RANGE_TOKEN,
+                null,
+                String.class,
+                KeyRangePartitioning.create("Host", "repoId", 2).withKeyPath("h.repoId"),
+                x -> x)
+            .withCoder(StringUtf8Coder.of());
+    PCollection<String> hostNames = testPipeline.apply(read);
+
+    PAssert.that(hostNames)
+        .containsInAnyOrder("ns0.example.tld", "ns1.example.tld", "ns2.example.tld");
+    testPipeline.run();
+  }
+
+  @Test
+  void planKeyRanges_splitsByRowCount() {
+    assertThat(planHostKeyRanges(3)).containsExactlyElementsIn(expectedHostKeyRanges()).inOrder();
+  }
+
+  @Test
+  void planKeyRanges_fewerRowsThanPartitions_leavesOutEmptyRanges() {
+    assertThat(planHostKeyRanges(10)).containsExactlyElementsIn(expectedHostKeyRanges()).inOrder();
+  }
+
+  @Test
+  void planKeyRanges_unevenSplit() {
+    ImmutableList<String> repoIds =
+        hosts.stream().map(Host::getRepoId).sorted().collect(toImmutableList());
+    assertThat(planHostKeyRanges(2))
+        .containsExactly(
+            KeyRange.create(null, repoIds.get(1)), KeyRange.create(repoIds.get(1), null))
+        .inOrder();
+  }
+
+  @Test
+  void planKeyRanges_onePartition() {
+    assertThat(planHostKeyRanges(1)).containsExactly(KeyRange.ALL);
+  }
+
+  private static ImmutableList<KeyRange> planHostKeyRanges(int partitions) {
+    return tm().transact(
+            () -> KeyRangePartitioning.create("Host", "repoId", partitions).planKeyRanges());
+  }
+
+  /** Returns the ranges that put each of the three hosts in a range of its own. */
+  private ImmutableList<KeyRange> expectedHostKeyRanges() {
+    ImmutableList<String> repoIds =
+        hosts.stream().map(Host::getRepoId).sorted().collect(toImmutableList());
+    return ImmutableList.of(
+        KeyRange.create(null, repoIds.get(1)),
+        KeyRange.create(repoIds.get(1), repoIds.get(2)),
+        KeyRange.create(repoIds.get(2), null));
+  }
+
   private void setupForJoinQuery() {
     Tld registry = newTld("com", "ABCDAPP");
     Registrar registrar =
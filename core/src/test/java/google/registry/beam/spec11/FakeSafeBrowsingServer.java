@@ -0,0 +1,232 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.beam.spec11;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.SetMultimap;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.CharStreams;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.jetty.ee10.servlet.ServletContextHandler;
+import org.eclipse.jetty.ee10.servlet.ServletHolder;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * A local stand-in for the SafeBrowsing API, serving both the Lookup and the Update API.
+ *
+ * <p>The threat lists it serves contain the 4-byte hash prefix of every threat and of every extra
+ * prefix added with {@link #addPrefix}. Each update the server sends is computed against the list
+ * it sent for the client's state, so partial updates contain real removals and additions.
+ */
+final class FakeSafeBrowsingServer extends HttpServlet
+    implements BeforeEachCallback, AfterEachCallback {
+
+  private static final int PREFIX_SIZE = 4;
+
+  private final Map<String, String> threats = new HashMap<>();
+  private final SetMultimap<String, String> prefixes = HashMultimap.create();
+  private final Map<String, ImmutableList<String>> listsByState = new HashMap<>();
+  private final Set<String> lookedUpUrls = new HashSet<>();
+  private int nextState = 1;
+  private int checksumsToCorrupt;
+  private Server server;
+  private String apiUrl;
+
+  /** Adds a domain that the Lookup API reports as a threat, and that is on the threat list. */
+  synchronized FakeSafeBrowsingServer addThreat(String threatType, String domainName) {
+    threats.put(domainName, threatType);
+    prefixes.put(threatType, prefixOf(domainName));
+    return this;
+  }
+
+  /** Adds the hash prefix of a domain that the Lookup API doesn't report as a threat. */
+  synchronized FakeSafeBrowsingServer addPrefix(String threatType, String domainName) {
+    prefixes.put(threatType, prefixOf(domainName));
+    return this;
+  }
+
+  /** Removes a domain from the threats and the threat list. */
+  synchronized void removeThreat(String domainName) {
+    String threatType = threats.remove(domainName);
+    prefixes.remove(threatType, prefixOf(domainName));
+  }
+
+  /** Makes the next list updates carry a checksum that doesn't match the list. */
+  synchronized void corruptChecksums(int count) {
+    checksumsToCorrupt = count;
+  }
+
+  synchronized ImmutableSet<String> getLookedUpUrls() {
+    return ImmutableSet.copyOf(lookedUpUrls);
+  }
+
+  /** Returns the base URL of the API, which takes the place of the real API's. */
+  String getApiUrl() {
+    return apiUrl;
+  }
+
+  @Override
+  public void beforeEach(ExtensionContext context) throws Exception {
+    server = new Server();
+    ServerConnector connector = new ServerConnector(server);
+    connector.setHost("localhost");
+    connector.setPort(0);
+    server.addConnector(connector);
+    ServletContextHandler handler = new ServletContextHandler();
+    handler.addServlet(new ServletHolder(this), "/*");
+    server.setHandler(handler);
+    server.start();
+    apiUrl = String.format("http://localhost:%d/v4", connector.getLocalPort());
+  }
+
+  @Override
+  public void afterEach(ExtensionContext context) throws Exception {
+    server.stop();
+  }
+
+  @Override
+  protected synchronized void doPost(HttpServletRequest req, HttpServletResponse rsp)
+      throws IOException {
+    JSONObject request =
+        new JSONObject(CharStreams.toString(new InputStreamReader(req.getInputStream(), UTF_8)));
+    JSONObject response;
+    if (req.getRequestURI().endsWith("/threatMatches:find")) {
+      response = findThreatMatches(request);
+    } else if (req.getRequestURI().endsWith("/threatListUpdates:fetch")) {
+      response = fetchThreatListUpdates(request);
+    } else {
+      rsp.sendError(HttpServletResponse.SC_NOT_FOUND);
+      return;
+    }
+    rsp.setContentType("application/json");
+    rsp.getWriter().write(response.toString());
+  }
+
+  private JSONObject findThreatMatches(JSONObject request) {
+    JSONArray threatEntries = request.getJSONObject("threatInfo").getJSONArray("threatEntries");
+    JSONArray matches = new JSONArray();
+    for (int i = 0; i < threatEntries.length(); i++) {
+      String url = threatEntries.getJSONObject(i).getString("url");
+      lookedUpUrls.add(url);
+      if (threats.containsKey(url)) {
+        matches.put(
+            new JSONObject()
+                .put("threatType", threats.get(url))
+                .put("threat", new JSONObject().put("url", url)));
+      }
+    }
+    return matches.isEmpty() ? new JSONObject() : new JSONObject().put("matches", matches);
+  }
+
+  private JSONObject fetchThreatListUpdates(JSONObject request) {
+    JSONArray listUpdateRequests = request.getJSONArray("listUpdateRequests");
+    JSONArray listUpdateResponses = new JSONArray();
+    for (int i = 0; i < listUpdateRequests.length(); i++) {
+      JSONObject listUpdateRequest = listUpdateRequests.getJSONObject(i);
+      String threatType = listUpdateRequest.getString("threatType");
+      ImmutableList<String> previous = listsByState.get(listUpdateRequest.getString("state"));
+      ImmutableList<String> current =
+          prefixes.get(threatType).stream().sorted().collect(toImmutableList());
+      String newState = String.valueOf(nextState++);
+      listsByState.put(newState, current);
+      JSONObject listUpdateResponse =
+          new JSONObject()
+              .put("threatType", threatType)
+              .put("platformType", "ANY_PLATFORM")
+              .put("threatEntryType", "URL")
+              .put("responseType", previous == null ? "FULL_UPDATE" : "PARTIAL_UPDATE")
+              .put("newClientState", newState)
+              .put("checksum", new JSONObject().put("sha256", checksum(current)));
+      List<String> additions = new ArrayList<>(current);
+      if (previous != null) {
+        additions.removeAll(previous);
+        JSONArray removals = new JSONArray();
+        for (int index = 0; index < previous.size(); index++) {
+          if (!current.contains(previous.get(index))) {
+            removals.put(index);
+          }
+        }
+        listUpdateResponse.put(
+            "removals",
+            new JSONArray()
+                .put(
+                    new JSONObject()
+                        .put("compressionType", "RAW")
+                        .put("rawIndices", new JSONObject().put("indices", removals))));
+      }
+      listUpdateResponse.put(
+          "additions",
+          new JSONArray()
+              .put(
+                  new JSONObject()
+                      .put("compressionType", "RAW")
+                      .put(
+                          "rawHashes",
+                          new JSONObject()
+                              .put("prefixSize", PREFIX_SIZE)
+                              .put("rawHashes", toBase64(additions)))));
+      listUpdateResponses.put(listUpdateResponse);
+    }
+    return new JSONObject().put("listUpdateResponses", listUpdateResponses);
+  }
+
+  private String checksum(List<String> sortedPrefixes) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    sortedPrefixes.forEach(prefix -> hasher.putBytes(BaseEncoding.base16().decode(prefix)));
+    if (checksumsToCorrupt > 0) {
+      checksumsToCorrupt--;
+      hasher.putByte((byte) 0);
+    }
+    return Base64.getEncoder().encodeToString(hasher.hash().asBytes());
+  }
+
+  private static String toBase64(List<String> prefixes) {
+    return Base64.getEncoder()
+        .encodeToString(BaseEncoding.base16().decode(String.join("", prefixes)));
+  }
+
+  /**
+   * Returns the hash prefix of the domain's URL, in upper case hex so that sorting the prefixes as
+   * strings sorts them the same way as the bytes.
+   */
+  private static String prefixOf(String domainName) {
+    byte[] hash = Hashing.sha256().hashString(domainName + "/", UTF_8).asBytes();
+    return BaseEncoding.base16().encode(hash, 0, PREFIX_SIZE);
+  }
+}
@@ -20,6 +20,7 @@ import static google.registry.model.ImmutableObjectSubject.immutableObjectCorres
 import static google.registry.persistence.transaction.JpaTransactionManagerExtension.makeRegistrar1;
 import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
 import static google.registry.testing.DatabaseHelper.createTld;
+import static google.registry.testing.DatabaseHelper.loadByKey;
 import static google.registry.testing.DatabaseHelper.persistNewRegistrar;
 import static google.registry.testing.DatabaseHelper.persistResource;
 import static google.registry.util.DateTimeUtils.plusYears;
@@ -44,6 +45,7 @@ import google.registry.model.registrar.Registrar;
 import google.registry.model.reporting.Spec11ThreatMatch;
 import google.registry.model.reporting.Spec11ThreatMatch.ThreatType;
 import google.registry.model.reporting.Spec11ThreatMatchDao;
+import google.registry.persistence.VKey;
 import google.registry.persistence.transaction.JpaTestExtensions;
 import google.registry.persistence.transaction.JpaTestExtensions.JpaIntegrationTestExtension;
 import google.registry.testing.FakeClock;
@@ -64,6 +66,7 @@ import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
@@ -115,9 +118,13 @@ class Spec11PipelineTest {
   final TestPipelineExtension pipeline =
       TestPipelineExtension.create().enableAbandonedNodeEnforcement(true);
 
+  private final FakeClock databaseClock = new FakeClock();
+
   @RegisterExtension
   final JpaIntegrationTestExtension database =
-      new JpaTestExtensions.Builder().withClock(new FakeClock()).buildIntegrationTestExtension();
+      new JpaTestExtensions.Builder().withClock(databaseClock).buildIntegrationTestExtension();
+
+  @RegisterExtension final FakeSafeBrowsingServer safeBrowsing = new FakeSafeBrowsingServer();
 
   private final Spec11PipelineOptions options =
       PipelineOptionsFactory.create().as(Spec11PipelineOptions.class);
@@ -192,13 +199,63 @@ class Spec11PipelineTest {
             fakeClock,
             Suppliers.ofInstance(mockHttpClient));
     when(mockHttpClient.execute(any(HttpPost.class))).thenAnswer(new HttpResponder());
-    Spec11Pipeline spec11Pipeline = new Spec11Pipeline(options, safeBrowsingFn);
+    Spec11Pipeline spec11Pipeline =
+        new Spec11Pipeline(options, safeBrowsingFn, createThreatListUpdater());
     spec11Pipeline.setupPipeline(pipeline);
     pipeline.run(options).waitUntilFinish();
     verifySaveToGcs();
     verifySaveToCloudSql();
   }
 
+  @Test
+  void testSuccess_incrementalPipeline() throws Exception {
+    setupCloudSql();
+    // Updated since the start of the previous day, so it is looked up even though it isn't on any
+    // threat list.
+    databaseClock.setTo(START_TIME);
+    Domain noEmail = loadByKey(VKey.create(Domain.class, "2A4BA9BBC-COM"));
+    persistResource(noEmail.asBuilder().setLastEppUpdateTime(START_TIME.plusSeconds(1)).build());
+    safeBrowsing
+        .addThreat("MALWARE", "111.com")
+        .addThreat("SOCIAL_ENGINEERING", "party-night.net")
+        // A prefix that matches a safe domain, which the Lookup API doesn't report.
+        .addPrefix("UNWANTED_SOFTWARE", "bitcoin.bank");
+    options.setIncremental(true);
+    options.setSafeBrowsingApiUrl(safeBrowsing.getApiUrl());
+    EvaluateSafeBrowsingFn safeBrowsingFn =
+        new EvaluateSafeBrowsingFn(
+            safeBrowsing.getApiUrl(),
+            SAFE_BROWSING_API_KEY,
+            new Retrier(new FakeSleeper(fakeClock), 1),
+            fakeClock);
+    new Spec11Pipeline(options, safeBrowsingFn, createThreatListUpdater())
+        .setupPipeline(pipeline);
+    pipeline.run(options).waitUntilFinish();
+
+    // The unchanged domain that matches no threat prefix is never sent to the Lookup API.
+    assertThat(safeBrowsing.getLookedUpUrls())
+        .containsExactly("111.com", "party-night.net", "bitcoin.bank", "no-email.com");
+    tm().transact(
+            () ->
+                assertThat(Spec11ThreatMatchDao.loadEntriesByDate(tm(), LocalDate.of(2020, 1, 27)))
+                    .comparingElementsUsing(immutableObjectCorrespondence("id"))
+                    .containsExactlyElementsIn(
+                        sqlThreatMatches.stream()
+                            .filter(
+                                match ->
+                                    ImmutableSet.of("111.com", "party-night.net")
+                                        .contains(match.getDomainName()))
+                            .collect(toImmutableList())));
+    // The updated database replaces the previous one only once the reports are saved.
+    String databasePath =
+        String.format(
+            "%s/%s",
+            reportingBucketUrl.getAbsolutePath(), Spec11Pipeline.THREAT_PREFIX_DATABASE_PATH);
+    assertThat(ThreatPrefixDatabase.load(databasePath).matchingThreatTypes("111.com"))
+        .containsExactly("MALWARE");
+    assertThat(new File(databasePath + "-" + DATE).exists()).isFalse();
+  }
+
   @Test
   void testSuccess_saveToSql() {
     Spec11Pipeline.saveToSql(threatMatches, options);
@@ -221,6 +278,14 @@ class Spec11PipelineTest {
     pipeline.run().waitUntilFinish();
   }
 
+  private ThreatListUpdater createThreatListUpdater() {
+    return new ThreatListUpdater(
+        safeBrowsing.getApiUrl(),
+        SAFE_BROWSING_API_KEY,
+        new Retrier(new FakeSleeper(fakeClock), 1),
+        HttpClients::createDefault);
+  }
+
   private void setupCloudSql() {
     persistNewRegistrar("TheRegistrar");
     persistNewRegistrar("NewRegistrar");
@@ -0,0 +1,96 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.beam.spec11;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import google.registry.testing.FakeClock;
+import google.registry.testing.FakeSleeper;
+import google.registry.util.Retrier;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+/** Unit tests for {@link ThreatListUpdater}. */
+class ThreatListUpdaterTest {
+
+  @RegisterExtension
+  final FakeSafeBrowsingServer safeBrowsing =
+      new FakeSafeBrowsingServer()
+          .addThreat("MALWARE", "111.com")
+          .addThreat("SOCIAL_ENGINEERING", "party-night.net")
+          .addPrefix("UNWANTED_SOFTWARE", "bitcoin.bank");
+
+  private ThreatListUpdater updater;
+
+  @BeforeEach
+  void beforeEach() {
+    updater =
+        new ThreatListUpdater(
+            safeBrowsing.getApiUrl(),
+            "api-key",
+            new Retrier(new FakeSleeper(new FakeClock()), 1),
+            HttpClients::createDefault);
+  }
+
+  @Test
+  void testUpdate_fullUpdate() {
+    ThreatPrefixDatabase database = updater.update(ThreatPrefixDatabase.EMPTY);
+    assertThat(database.matchingThreatTypes("111.com")).containsExactly("MALWARE");
+    assertThat(database.matchingThreatTypes("party-night.net"))
+        .containsExactly("SOCIAL_ENGINEERING");
+    assertThat(database.matchingThreatTypes("bitcoin.bank")).containsExactly("UNWANTED_SOFTWARE");
+    assertThat(database.matchingThreatTypes("no-email.com")).isEmpty();
+    assertThat(database.getList("MALWARE").size()).isEqualTo(1);
+  }
+
+  @Test
+  void testUpdate_partialUpdate() {
+    ThreatPrefixDatabase database = updater.update(ThreatPrefixDatabase.EMPTY);
+    safeBrowsing.removeThreat("111.com");
+    safeBrowsing.addThreat("MALWARE", "no-email.com").addThreat("MALWARE", "hooli.com");
+    database = updater.update(database);
+    assertThat(database.matchingThreatTypes("111.com")).isEmpty();
+    assertThat(database.matchingThreatTypes("no-email.com")).containsExactly("MALWARE");
+    assertThat(database.matchingThreatTypes("hooli.com")).containsExactly("MALWARE");
+    assertThat(database.matchingThreatTypes("party-night.net"))
+        .containsExactly("SOCIAL_ENGINEERING");
+    assertThat(database.getList("MALWARE").size()).isEqualTo(2);
+  }
+
+  @Test
+  void testUpdate_checksumMismatch_downloadsListAgain() {
+    ThreatPrefixDatabase database = updater.update(ThreatPrefixDatabase.EMPTY);
+    safeBrowsing.addThreat("MALWARE", "no-email.com");
+    safeBrowsing.corruptChecksums(1);
+    database = updater.update(database);
+    assertThat(database.matchingThreatTypes("no-email.com")).containsExactly("MALWARE");
+    assertThat(database.matchingThreatTypes("111.com")).containsExactly("MALWARE");
+    assertThat(database.getList("MALWARE").size()).isEqualTo(2);
+  }
+
+  @Test
+  void testFailure_repeatedChecksumMismatch() {
+    safeBrowsing.corruptChecksums(2);
+    IllegalStateException thrown =
+        assertThrows(
+            IllegalStateException.class, () -> updater.update(ThreatPrefixDatabase.EMPTY));
+    assertThat(thrown)
+        .hasMessageThat()
+        .isEqualTo("Checksum mismatch for MALWARE after a full update.");
+  }
+}
@@ -0,0 +1,132 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.beam.spec11;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import google.registry.beam.spec11.ThreatPrefixDatabase.ThreatList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Unit tests for {@link ThreatPrefixDatabase}. */
+class ThreatPrefixDatabaseTest {
+
+  @TempDir Path tmpDir;
+
+  private static byte[] prefix(String expression, int length) {
+    return Arrays.copyOf(Hashing.sha256().hashString(expression, UTF_8).asBytes(), length);
+  }
+
+  private static ThreatPrefixDatabase database() {
+    return ThreatPrefixDatabase.EMPTY
+        .withList(
+            "MALWARE",
+            ThreatList.EMPTY.update(
+                "state-1",
+                ImmutableList.of(),
+                ImmutableList.of(prefix("evil.example.com/", 4), prefix("bad.dev/", 32))))
+        .withList(
+            "SOCIAL_ENGINEERING",
+            ThreatList.EMPTY.update(
+                "state-2", ImmutableList.of(), ImmutableList.of(prefix("phish.net/", 4))));
+  }
+
+  @Test
+  void testExpressions() {
+    assertThat(ThreatPrefixDatabase.expressions("example.com")).containsExactly("example.com/");
+    assertThat(ThreatPrefixDatabase.expressions("A.B.Example.com"))
+        .containsExactly("a.b.example.com/", "b.example.com/", "example.com/")
+        .inOrder();
+    assertThat(ThreatPrefixDatabase.expressions("a.b.c.d.e.f.g"))
+        .containsExactly("a.b.c.d.e.f.g/", "c.d.e.f.g/", "d.e.f.g/", "e.f.g/", "f.g/")
+        .inOrder();
+  }
+
+  @Test
+  void testMatchingThreatTypes() {
+    ThreatPrefixDatabase database = database();
+    assertThat(database.matchingThreatTypes("evil.example.com")).containsExactly("MALWARE");
+    assertThat(database.matchingThreatTypes("www.evil.example.com")).containsExactly("MALWARE");
+    assertThat(database.matchingThreatTypes("bad.dev")).containsExactly("MALWARE");
+    assertThat(database.matchingThreatTypes("phish.net")).containsExactly("SOCIAL_ENGINEERING");
+    assertThat(database.matchingThreatTypes("example.com")).isEmpty();
+    assertThat(database.matchingThreatTypes("notbad.dev")).isEmpty();
+  }
+
+  @Test
+  void testUpdate_removesByIndexAndKeepsOrder() {
+    ThreatList list =
+        ThreatList.EMPTY.update(
+            "state-1",
+            ImmutableList.of(),
+            ImmutableList.of(new byte[] {5, 0, 0, 0}, new byte[] {-1, 0, 0, 0}, new byte[4]));
+    // The list is sorted as unsigned bytes, so {-1, 0, 0, 0} is last.
+    ThreatList updated =
+        list.update("state-2", ImmutableList.of(1), ImmutableList.of(new byte[] {1, 2, 3, 4}));
+    assertThat(updated.clientState()).isEqualTo("state-2");
+    assertThat(updated.size()).isEqualTo(3);
+    assertThat(updated.matches(new byte[] {5, 0, 0, 0, 9})).isFalse();
+    assertThat(updated.matches(new byte[] {1, 2, 3, 4, 9})).isTrue();
+    assertThat(updated.matches(new byte[] {-1, 0, 0, 0, 9})).isTrue();
+    assertThat(updated.checksum())
+        .isEqualTo(
+            Hashing.sha256()
+                .newHasher()
+                .putBytes(new byte[4])
+                .putBytes(new byte[] {1, 2, 3, 4})
+                .putBytes(new byte[] {-1, 0, 0, 0})
+                .hash()
+                .asBytes());
+  }
+
+  @Test
+  void testFailure_removalOutOfRange() {
+    IllegalArgumentException thrown =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> ThreatList.EMPTY.update("state", ImmutableList.of(0), ImmutableList.of()));
+    assertThat(thrown).hasMessageThat().isEqualTo("Removal index 0 is out of range");
+  }
+
+  @Test
+  void testWriteAndRead() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    database().writeTo(out);
+    ThreatPrefixDatabase read =
+        ThreatPrefixDatabase.readFrom(new ByteArrayInputStream(out.toByteArray()));
+    assertThat(read.getList("MALWARE").clientState()).isEqualTo("state-1");
+    assertThat(read.getList("MALWARE").checksum())
+        .isEqualTo(database().getList("MALWARE").checksum());
+    assertThat(read.matchingThreatTypes("phish.net")).containsExactly("SOCIAL_ENGINEERING");
+    assertThat(read.getList("UNWANTED_SOFTWARE").size()).isEqualTo(0);
+  }
+
+  @Test
+  void testSaveAndLoad() throws Exception {
+    String path = tmpDir.resolve("threat-prefix-database").toString();
+    assertThat(ThreatPrefixDatabase.load(path).getList("MALWARE").size()).isEqualTo(0);
+    database().save(path);
+    assertThat(ThreatPrefixDatabase.load(path).matchingThreatTypes("evil.example.com"))
+        .containsExactly("MALWARE");
+  }
+}
@@ -14,29 +14,38 @@
 
 package google.registry.eppserver.handler;
 
+import static com.google.common.truth.Truth.assertThat;
 import static google.registry.eppserver.handler.EppProxyProtocolHandler.REMOTE_ADDRESS_KEY;
 import static google.registry.networking.handler.SslServerInitializer.CLIENT_CERTIFICATE_PROMISE_KEY;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableSet;
 import google.registry.eppserver.metric.FrontendMetrics;
 import google.registry.eppserver.quota.LocalConnectionLimiter;
 import google.registry.eppserver.quota.QuotaManager;
 import google.registry.eppserver.quota.QuotaManager.QuotaRequest;
 import google.registry.eppserver.quota.QuotaManager.QuotaResponse;
 import google.registry.request.RequestHandler;
+import google.registry.request.auth.AuthResult;
+import google.registry.request.auth.InProcessAuthenticationMechanism;
 import google.registry.util.FakeHttpServletRequest;
 import google.registry.util.FakeHttpServletResponse;
 import google.registry.util.ProxyHttpHeaders;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelConfig;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
@@ -45,10 +54,19 @@ import io.netty.util.concurrent.DefaultPromise;
 import io.netty.util.concurrent.ImmediateEventExecutor;
 import io.netty.util.concurrent.Promise;
 import java.security.cert.X509Certificate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -62,6 +80,7 @@ class EppServiceHandlerTest {
   @Mock private ChannelHandlerContext ctx;
   @Mock private Channel channel;
   @Mock private RequestHandler<?> requestHandler;
+  @Mock private ChannelConfig channelConfig;
 
   @Mock private Attribute<Promise<X509Certificate>> certPromiseAttr;
   @Mock private Attribute<String> remoteAddressAttr;
@@ -80,7 +99,10 @@ class EppServiceHandlerTest {
             localConnectionLimiter,
             commandQuotaManager,
             idTokenSupplier,
-            "test-project");
+            Optional.empty(),
+            "test-project",
+            0,
+            Runnable::run);
 
     handler.requestHandler = requestHandler;
 
@@ -284,6 +306,227 @@ class EppServiceHandlerTest {
     verify(mockFuture).addListener(ChannelFutureListener.CLOSE);
   }
 
+  @Test
+  void testIsReadOnlyCommand() {
+    assertThat(EppServiceHandler.isReadOnlyCommand("<epp><hello/></epp>")).isTrue();
+    assertThat(EppServiceHandler.isReadOnlyCommand("<epp><command><check>")).isTrue();
+    assertThat(EppServiceHandler.isReadOnlyCommand("<epp:command>\n  <epp:info>")).isTrue();
+    assertThat(EppServiceHandler.isReadOnlyCommand("<epp><command><poll op=\"req\"/>")).isTrue();
+    assertThat(EppServiceHandler.isReadOnlyCommand("<epp><command><poll op=\"ack\" msgID=\"1\"/>"))
+        .isFalse();
+    assertThat(EppServiceHandler.isReadOnlyCommand("<epp><command><login>")).isFalse();
+    assertThat(EppServiceHandler.isReadOnlyCommand("<epp><command><create>")).isFalse();
+    assertThat(EppServiceHandler.isReadOnlyCommand("<epp><command><checkout>")).isFalse();
+  }
+
+  @Test
+  void testPipelining_readOnlyCommandsRunConcurrently_mutatingCommandsAreBarriers()
+      throws Exception {
+    Queue<Runnable> queuedCommands = new ArrayDeque<>();
+    List<String> executedCommands = new ArrayList<>();
+    setUpPipeliningHandler(10, queuedCommands, executedCommands);
+
+    readFrame("<epp><command><check>1</check></command></epp>");
+    readFrame("<epp><command><check>2</check></command></epp>");
+    // Both checks are submitted without waiting for each other.
+    assertThat(queuedCommands).hasSize(2);
+
+    readFrame("<epp><command><create>3</create></command></epp>");
+    readFrame("<epp><command><info>4</info></command></epp>");
+    // The create waits for both checks, and the info waits for the create.
+    assertThat(queuedCommands).hasSize(2);
+
+    runAll(queuedCommands);
+    assertThat(queuedCommands).hasSize(1);
+    runAll(queuedCommands);
+    assertThat(queuedCommands).hasSize(1);
+    runAll(queuedCommands);
+    assertThat(queuedCommands).isEmpty();
+    assertThat(executedCommands).containsExactly("1", "2", "3", "4").inOrder();
+  }
+
+  @Test
+  void testPipelining_responsesWrittenInRequestOrder() throws Exception {
+    Queue<Runnable> queuedCommands = new ArrayDeque<>();
+    setUpPipeliningHandler(10, queuedCommands, new ArrayList<>());
+
+    readFrame("<epp><command><check>1</check></command></epp>");
+    readFrame("<epp><command><check>2</check></command></epp>");
+    Runnable first = queuedCommands.remove();
+    Runnable second = queuedCommands.remove();
+
+    // The second check finishes first, but its response must not overtake the first one.
+    second.run();
+    verify(ctx, never()).writeAndFlush(any());
+    first.run();
+    InOrder inOrder = inOrder(ctx);
+    inOrder.verify(ctx).writeAndFlush(argThat((ByteBuf buf) -> buf.toString(UTF_8).equals("1")));
+    inOrder.verify(ctx).writeAndFlush(argThat((ByteBuf buf) -> buf.toString(UTF_8).equals("2")));
+  }
+
+  @Test
+  void testPipelining_pausesReadsAtLimit() throws Exception {
+    Queue<Runnable> queuedCommands = new ArrayDeque<>();
+    setUpPipeliningHandler(2, queuedCommands, new ArrayList<>());
+    when(channel.config()).thenReturn(channelConfig);
+
+    readFrame("<epp><command><check>1</check></command></epp>");
+    verify(channelConfig, never()).setAutoRead(false);
+    readFrame("<epp><command><check>2</check></command></epp>");
+    verify(channelConfig).setAutoRead(false);
+
+    queuedCommands.remove().run();
+    verify(channelConfig).setAutoRead(true);
+  }
+
+  @Test
+  void testPipelining_rejectedCommand_closesChannelAndKeepsWriting() throws Exception {
+    Queue<Runnable> queuedCommands = new ArrayDeque<>();
+    AtomicBoolean rejecting = new AtomicBoolean();
+    when(channel.config()).thenReturn(channelConfig);
+    setUpPipeliningHandler(
+        1,
+        command -> {
+          if (rejecting.get()) {
+            throw new RejectedExecutionException("Executor is shutting down");
+          }
+          queuedCommands.add(command);
+        },
+        queuedCommands,
+        new ArrayList<>());
+    clearInvocations(channelConfig);
+
+    rejecting.set(true);
+    readFrame("<epp><command><check>1</check></command></epp>");
+    verify(ctx).close();
+    verify(channelConfig).setAutoRead(true);
+
+    rejecting.set(false);
+    readFrame("<epp><command><check>2</check></command></epp>");
+    runAll(queuedCommands);
+    verify(ctx).writeAndFlush(argThat((ByteBuf buf) -> buf.toString(UTF_8).equals("2")));
+    verify(channelConfig, times(2)).setAutoRead(true);
+  }
+
+  @Test
+  void testPipelining_errorInCommand_closesChannelAndKeepsWriting() throws Exception {
+    Queue<Runnable> queuedCommands = new ArrayDeque<>();
+    setUpPipeliningHandler(10, queuedCommands, new ArrayList<>());
+
+    readFrame("<epp><command><check>error</check></command></epp>");
+    readFrame("<epp><command><check>2</check></command></epp>");
+    runAll(queuedCommands);
+
+    InOrder inOrder = inOrder(ctx);
+    inOrder.verify(ctx).close();
+    inOrder.verify(ctx).writeAndFlush(argThat((ByteBuf buf) -> buf.toString(UTF_8).equals("2")));
+  }
+
+  @Test
+  void testChannelRead0_inProcessAuthentication_doesNotMintToken() throws Exception {
+    handler =
+        new EppServiceHandler(
+            new byte[] {'h', 'e', 'l', 'l', 'o'},
+            metrics,
+            localConnectionLimiter,
+            commandQuotaManager,
+            idTokenSupplier,
+            Optional.of("service@email.test"),
+            "test-project",
+            0,
+            Runnable::run);
+    handler.requestHandler = requestHandler;
+    List<FakeHttpServletRequest> requests = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              requests.add(invocation.getArgument(0));
+              return null;
+            })
+        .when(requestHandler)
+        .handleRequest(any(FakeHttpServletRequest.class), any(FakeHttpServletResponse.class));
+    when(commandQuotaManager.acquireQuota(any(QuotaRequest.class)))
+        .thenReturn(new QuotaResponse(true));
+    setUpSuccessfulHandshake();
+
+    readFrame("<epp><command><check></check></command></epp>");
+
+    verify(idTokenSupplier, never()).get();
+    InProcessAuthenticationMechanism mechanism =
+        new InProcessAuthenticationMechanism(ImmutableSet.of("service@email.test"));
+    assertThat(requests).hasSize(2);
+    for (FakeHttpServletRequest req : requests) {
+      assertThat(req.getHeader("Authorization")).isNull();
+      assertThat(mechanism.authenticate(req)).isEqualTo(AuthResult.createApp("service@email.test"));
+    }
+  }
+
+  private void setUpPipeliningHandler(
+      int maxPipelinedCommands, Queue<Runnable> queuedCommands, List<String> executedCommands)
+      throws Exception {
+    setUpPipeliningHandler(
+        maxPipelinedCommands, queuedCommands::add, queuedCommands, executedCommands);
+  }
+
+  /**
+   * Sets up a pipelining handler whose commands run on the given executor, which is expected to
+   * queue them on {@code queuedCommands}.
+   *
+   * <p>Commands are answered with their text content, and throw an {@link AssertionError} if it is
+   * {@code error}.
+   */
+  private void setUpPipeliningHandler(
+      int maxPipelinedCommands,
+      Executor commandExecutor,
+      Queue<Runnable> queuedCommands,
+      List<String> executedCommands)
+      throws Exception {
+    handler =
+        new EppServiceHandler(
+            new byte[] {'h', 'e', 'l', 'l', 'o'},
+            metrics,
+            localConnectionLimiter,
+            commandQuotaManager,
+            idTokenSupplier,
+            Optional.empty(),
+            "test-project",
+            maxPipelinedCommands,
+            commandExecutor);
+    handler.requestHandler = requestHandler;
+    when(channel.isActive()).thenReturn(true);
+    setUpSuccessfulHandshake();
+    // Drain the greeting so that tests only see their own commands.
+    runAll(queuedCommands);
+    clearInvocations(ctx);
+
+    when(commandQuotaManager.acquireQuota(any(QuotaRequest.class)))
+        .thenReturn(new QuotaResponse(true));
+    doAnswer(
+            invocation -> {
+              FakeHttpServletRequest req = invocation.getArgument(0);
+              FakeHttpServletResponse rsp = invocation.getArgument(1);
+              String body = new String(req.getInputStream().readAllBytes(), UTF_8);
+              String id = body.replaceAll("<[^>]*>", "");
+              if (id.equals("error")) {
+                throw new AssertionError("Command failed");
+              }
+              executedCommands.add(id);
+              rsp.getWriter().write(id);
+              return null;
+            })
+        .when(requestHandler)
+        .handleRequest(any(FakeHttpServletRequest.class), any(FakeHttpServletResponse.class));
+  }
+
+  private void readFrame(String xml) {
+    handler.channelRead0(ctx, Unpooled.wrappedBuffer(xml.getBytes(UTF_8)));
+  }
+
+  private static void runAll(Queue<Runnable> queue) {
+    List<Runnable> runnables = new ArrayList<>(queue);
+    queue.clear();
+    runnables.forEach(Runnable::run);
+  }
+
   @Test
   void testChannelInactive_releasesQuotas() throws Exception {
     setUpSuccessfulHandshake();
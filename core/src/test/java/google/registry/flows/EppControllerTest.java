@@ -24,6 +24,7 @@ import static google.registry.testing.TestLogHandlerUtils.findFirstLogRecordWith
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.logging.Level.INFO;
 import static java.util.logging.Level.SEVERE;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -34,6 +35,7 @@ import com.google.common.testing.TestLogHandler;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import google.registry.flows.EppException.UnimplementedExtensionException;
+import google.registry.flows.EppMetrics.XmlOperation;
 import google.registry.flows.EppTestComponent.FakeServerTridProvider;
 import google.registry.flows.FlowModule.EppExceptionInProviderException;
 import google.registry.model.eppcommon.Trid;
@@ -42,12 +44,14 @@ import google.registry.model.eppoutput.EppResponse;
 import google.registry.model.eppoutput.Result;
 import google.registry.model.eppoutput.Result.Code;
 import google.registry.monitoring.whitebox.EppMetric;
+import google.registry.monitoring.whitebox.EppMetric.Phase;
 import google.registry.persistence.transaction.JpaTestExtensions;
 import google.registry.persistence.transaction.JpaTestExtensions.JpaIntegrationTestExtension;
 import google.registry.testing.FakeClock;
 import google.registry.tools.GsonUtils;
 import google.registry.util.Clock;
 import google.registry.xml.ValidationMode;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
@@ -58,6 +62,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -153,9 +158,46 @@ class EppControllerTest {
         true,
         domainCreateXml.getBytes(UTF_8));
 
-    EppMetric expectedMetric = metricBuilder.build();
-    verify(eppMetrics).incrementEppRequests(eq(expectedMetric));
+    ArgumentCaptor<EppMetric> metricCaptor = ArgumentCaptor.forClass(EppMetric.class);
+    verify(eppMetrics).incrementEppRequests(metricCaptor.capture());
+    // The parse time is measured by a real stopwatch, so it can only be checked for presence.
+    assertThat(metricCaptor.getValue().getPhaseTimes()).containsKey(Phase.PARSE);
+    EppMetric expectedMetric =
+        metricBuilder
+            .addPhaseTime(Phase.PARSE, metricCaptor.getValue().getPhaseTimes().get(Phase.PARSE))
+            .build();
+    assertThat(metricCaptor.getValue()).isEqualTo(expectedMetric);
     verify(eppMetrics).recordProcessingTime(eq(expectedMetric));
+    verify(eppMetrics).recordSqlStatementCounts(eq(expectedMetric));
+    verify(eppMetrics).recordPhaseTimes(eq(expectedMetric));
+  }
+
+  @Test
+  void testHandleEppCommand_recordsUnmarshalTimeByCommandType() {
+    createTld("tld");
+    eppController.handleEppCommand(
+        sessionMetadata,
+        transportCredentials,
+        EppRequestSource.UNIT_TEST,
+        false,
+        true,
+        domainCreateXml.getBytes(UTF_8));
+    verify(eppMetrics)
+        .recordXmlProcessingTime(eq("create"), eq(XmlOperation.UNMARSHAL), any(Duration.class));
+    assertThat(eppController.getCommandType()).isEqualTo("create");
+  }
+
+  @Test
+  void testHandleEppCommand_unmarshallableData_recordsUnmarshalTimeAsInvalid() {
+    eppController.handleEppCommand(
+        sessionMetadata,
+        transportCredentials,
+        EppRequestSource.UNIT_TEST,
+        false,
+        false,
+        "GET / HTTP/1.1\n\n".getBytes(UTF_8));
+    verify(eppMetrics)
+        .recordXmlProcessingTime(eq("_invalid"), eq(XmlOperation.UNMARSHAL), any(Duration.class));
   }
 
   @Test
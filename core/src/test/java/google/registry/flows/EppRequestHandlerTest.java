@@ -0,0 +1,52 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.flows;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import google.registry.model.eppcommon.Trid;
+import google.registry.model.eppoutput.EppOutput;
+import google.registry.model.eppoutput.EppResponse;
+import google.registry.model.eppoutput.Result;
+import google.registry.model.eppoutput.Result.Code;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link EppRequestHandler}. */
+class EppRequestHandlerTest {
+
+  private final EppRequestHandler handler = new EppRequestHandler();
+
+  @Test
+  void testShouldValidateOutput_fullSampleRate_validatesEverything() {
+    handler.outputValidationSampleRate = 1;
+    assertThat(handler.shouldValidateOutput(createOutput(Code.SUCCESS))).isTrue();
+    assertThat(handler.shouldValidateOutput(createOutput(Code.COMMAND_FAILED))).isTrue();
+  }
+
+  @Test
+  void testShouldValidateOutput_zeroSampleRate_onlyValidatesErrors() {
+    handler.outputValidationSampleRate = 0;
+    assertThat(handler.shouldValidateOutput(createOutput(Code.SUCCESS))).isFalse();
+    assertThat(handler.shouldValidateOutput(createOutput(Code.COMMAND_FAILED))).isTrue();
+  }
+
+  private static EppOutput createOutput(Code code) {
+    return EppOutput.create(
+        new EppResponse.Builder()
+            .setResult(Result.create(code))
+            .setTrid(Trid.create("client-trid", "server-trid"))
+            .build());
+  }
+}
@@ -165,6 +165,8 @@ public class EppTestCase {
     EppRequestHandler handler = new EppRequestHandler();
     FakeResponse response = new FakeResponse();
     handler.response = response;
+    handler.eppMetrics = new EppMetrics();
+    handler.outputValidationSampleRate = 1;
     FakesAndMocksModule fakesAndMocksModule = FakesAndMocksModule.create(clock);
     eppMetricBuilder = fakesAndMocksModule.getMetricBuilder();
     handler.eppController =
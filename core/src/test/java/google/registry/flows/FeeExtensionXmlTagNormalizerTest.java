@@ -15,11 +15,12 @@
 package google.registry.flows;
 
 import static com.google.common.truth.Truth.assertThat;
-import static google.registry.flows.FeeExtensionXmlTagNormalizer.feeExtensionInUseRegex;
+import static google.registry.flows.FeeExtensionXmlTagNormalizer.findFeeExtensionInUse;
 import static google.registry.flows.FeeExtensionXmlTagNormalizer.normalize;
 import static google.registry.flows.FlowTestCase.verifyFeeTagNormalized;
 import static google.registry.model.eppcommon.EppXmlTransformer.validateOutput;
 import static google.registry.testing.TestDataHelper.loadFile;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.stream.Stream;
@@ -31,9 +32,23 @@ import org.junit.jupiter.params.provider.MethodSource;
 class FeeExtensionXmlTagNormalizerTest {
 
   @Test
-  void feeExtensionInUseRegex_correct() {
-    assertThat(feeExtensionInUseRegex())
-        .isEqualTo("\\b(fee):|\\b(fee11):|\\b(fee12):|\\b(fee_1_00):");
+  void findFeeExtensionInUse_firstPrefixUsed() {
+    assertThat(findFeeExtensionInUse("<a xmlns:fee12=\"x\"><fee12:b/><fee:c/></a>"))
+        .hasValue("fee12");
+    assertThat(findFeeExtensionInUse("<fee_1_00:b/>")).hasValue("fee_1_00");
+    assertThat(findFeeExtensionInUse("<a xmlns:fee=\"x\" xmlns:fee11=\"y\"/>")).isEmpty();
+  }
+
+  @Test
+  void findFeeExtensionInUse_requiresWordBoundary() {
+    assertThat(findFeeExtensionInUse("<xfee:b/><b_fee11:c/><d-fee12:e/>")).hasValue("fee12");
+    assertThat(findFeeExtensionInUse("<\u00e9fee:b/>")).hasValue("fee");
+  }
+
+  @Test
+  void normalize_bytesWithoutFeeExtensionsNotCopied() throws Exception {
+    byte[] xml = loadFile(getClass(), "domain_create.xml").getBytes(UTF_8);
+    assertThat(normalize(xml)).isSameInstanceAs(xml);
   }
 
   @Test
@@ -62,6 +77,7 @@ class FeeExtensionXmlTagNormalizerTest {
     validateOutput(expected);
 
     assertThat(normalized).isEqualTo(expected);
+    assertThat(normalize(original.getBytes(UTF_8))).isEqualTo(expected.getBytes(UTF_8));
   }
 
   // Piggyback tests for FlowTestCase.verifyFeeTagNormalized here.
@@ -36,6 +36,7 @@ import google.registry.model.eppcommon.Trid;
 import google.registry.model.eppoutput.EppOutput.ResponseOrGreeting;
 import google.registry.model.eppoutput.EppResponse;
 import google.registry.monitoring.whitebox.EppMetric;
+import google.registry.monitoring.whitebox.EppMetric.Phase;
 import google.registry.persistence.PersistenceModule.TransactionIsolationLevel;
 import google.registry.persistence.transaction.JpaTestExtensions;
 import google.registry.persistence.transaction.JpaTestExtensions.JpaIntegrationTestExtension;
@@ -107,6 +108,8 @@ class FlowRunnerTest {
     flowRunner.isSuperuser = false;
     flowRunner.isTransactional = false;
     flowRunner.isolationLevelOverride = Optional.empty();
+    flowRunner.transactionRetries = Optional.empty();
+    flowRunner.conflictKey = Optional.empty();
     flowRunner.sessionMetadata =
         new StatelessRequestSessionMetadata("TheRegistrar", ImmutableSet.of());
     flowRunner.trid = Trid.create("client-123", "server-456");
@@ -129,6 +132,23 @@ class FlowRunnerTest {
     assertThat(eppMetricBuilder.build().getCommandName()).hasValue("TestTransactional");
   }
 
+  @Test
+  void testRun_nonTransactionalCommand_recordsPhaseTimes() throws Exception {
+    flowRunner.run(eppMetricBuilder);
+    assertThat(eppMetricBuilder.build().getPhaseTimes().keySet())
+        .containsExactly(Phase.SANITIZE_AND_LOG, Phase.FLOW);
+  }
+
+  @Test
+  void testRun_transactionalCommand_recordsPhaseTimes() throws Exception {
+    flowRunner.isTransactional = true;
+    flowRunner.flowClass = TestTransactionalFlow.class;
+    flowRunner.flowProvider = () -> new TestTransactionalFlow(Optional.empty());
+    flowRunner.run(eppMetricBuilder);
+    assertThat(eppMetricBuilder.build().getPhaseTimes().keySet())
+        .containsExactly(Phase.SANITIZE_AND_LOG, Phase.FLOW, Phase.SQL, Phase.COMMIT);
+  }
+
   @Test
   void testRun_transactionalCommand_isolationLevelOverride() throws Exception {
     flowRunner.isTransactional = true;
@@ -0,0 +1,171 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.flows.domain;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.truth.Truth.assertThat;
+import static google.registry.testing.DatabaseHelper.createTld;
+import static google.registry.testing.DatabaseHelper.persistActiveDomain;
+import static google.registry.testing.DatabaseHelper.persistDomainAsDeleted;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.net.InternetDomainName;
+import google.registry.flows.domain.DomainAvailabilitySnapshot.SortedLabels;
+import google.registry.model.domain.Domain;
+import google.registry.persistence.transaction.JpaTestExtensions;
+import google.registry.persistence.transaction.JpaTestExtensions.JpaIntegrationTestExtension;
+import google.registry.testing.FakeClock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+/** Tests for {@link DomainAvailabilitySnapshot}. */
+public class DomainAvailabilitySnapshotTest {
+
+  private static final Duration REFRESH_INTERVAL = Duration.ofSeconds(5);
+  private static final Duration MAX_STALENESS = Duration.ofSeconds(60);
+
+  private final FakeClock clock = new FakeClock(Instant.parse("2026-01-01T00:00:00.000Z"));
+
+  @RegisterExtension
+  final JpaIntegrationTestExtension jpa =
+      new JpaTestExtensions.Builder().withClock(clock).buildIntegrationTestExtension();
+
+  @BeforeEach
+  void beforeEach() {
+    createTld("tld");
+    createTld("example");
+  }
+
+  @Test
+  void testDisabled_returnsAllNames() {
+    persistActiveDomain("registered.tld");
+    DomainAvailabilitySnapshot snapshot = createSnapshot(false, Runnable::run);
+    assertThat(snapshot.filterPossiblyRegistered(parse("registered.tld", "available.tld")))
+        .containsExactly("registered.tld", "available.tld");
+  }
+
+  @Test
+  void testNotYetBuilt_returnsAllNamesAndTriggersRefresh() {
+    persistActiveDomain("registered.tld");
+    DomainAvailabilitySnapshot snapshot = createSnapshot(true, Runnable::run);
+    assertThat(snapshot.filterPossiblyRegistered(parse("registered.tld", "available.tld")))
+        .containsExactly("registered.tld", "available.tld");
+    assertThat(snapshot.filterPossiblyRegistered(parse("registered.tld", "available.tld")))
+        .containsExactly("registered.tld");
+  }
+
+  @Test
+  void testFullLoad_filtersUnregisteredNames() {
+    persistActiveDomain("registered.tld");
+    persistActiveDomain("other.example");
+    persistDomainAsDeleted(persistActiveDomain("deleted.tld"), clock.now().minusMillis(1));
+    DomainAvailabilitySnapshot snapshot = createSnapshot(true, Runnable::run);
+    snapshot.refresh();
+    assertThat(
+            snapshot.filterPossiblyRegistered(
+                parse(
+                    "registered.tld",
+                    "deleted.tld",
+                    "other.tld",
+                    "registered.example",
+                    "other.example")))
+        .containsExactly("registered.tld", "other.example");
+  }
+
+  @Test
+  void testIncrementalRefresh_picksUpCreatesAndDeletes() {
+    Domain toBeDeleted = persistActiveDomain("deleted.tld");
+    DomainAvailabilitySnapshot snapshot = createSnapshot(true, Runnable::run);
+    snapshot.refresh();
+    clock.advanceBy(Duration.ofMinutes(5));
+    persistActiveDomain("created.tld");
+    persistDomainAsDeleted(toBeDeleted, clock.now());
+    clock.advanceBy(Duration.ofSeconds(1));
+    snapshot.refresh();
+    // Recently changed names always go to the database.
+    assertThat(snapshot.filterPossiblyRegistered(parse("created.tld", "deleted.tld")))
+        .containsExactly("created.tld", "deleted.tld");
+    // Once the changes fall out of the overlap window, the snapshot alone answers for them.
+    clock.advanceBy(Duration.ofMinutes(5));
+    snapshot.refresh();
+    clock.advanceBy(Duration.ofMinutes(5));
+    snapshot.refresh();
+    assertThat(snapshot.filterPossiblyRegistered(parse("created.tld", "deleted.tld")))
+        .containsExactly("created.tld");
+  }
+
+  @Test
+  void testRecordChange_namesGoToDatabaseUntilRefreshPicksThemUp() {
+    DomainAvailabilitySnapshot snapshot = createSnapshot(true, runnable -> {});
+    snapshot.refresh();
+    snapshot.recordChange("created.tld");
+    assertThat(snapshot.filterPossiblyRegistered(parse("created.tld", "other.tld")))
+        .containsExactly("created.tld");
+    // A refresh taken right after the change may not have seen it yet.
+    clock.advanceBy(Duration.ofSeconds(1));
+    snapshot.refresh();
+    assertThat(snapshot.filterPossiblyRegistered(parse("created.tld", "other.tld")))
+        .containsExactly("created.tld");
+    clock.advanceBy(Duration.ofMinutes(5));
+    snapshot.refresh();
+    // The create was rolled back, so the snapshot now knows the name to be available.
+    assertThat(snapshot.filterPossiblyRegistered(parse("created.tld", "other.tld"))).isEmpty();
+  }
+
+  @Test
+  void testStale_returnsAllNames() {
+    persistActiveDomain("registered.tld");
+    DomainAvailabilitySnapshot snapshot = createSnapshot(true, runnable -> {});
+    snapshot.refresh();
+    clock.advanceBy(MAX_STALENESS.minusSeconds(1));
+    assertThat(snapshot.filterPossiblyRegistered(parse("registered.tld", "available.tld")))
+        .containsExactly("registered.tld");
+    clock.advanceBy(Duration.ofSeconds(2));
+    assertThat(snapshot.filterPossiblyRegistered(parse("registered.tld", "available.tld")))
+        .containsExactly("registered.tld", "available.tld");
+  }
+
+  @Test
+  void testSortedLabels_withChanges() {
+    SortedLabels labels = SortedLabels.create(ImmutableList.of("delta", "alpha", "charlie"));
+    SortedLabels changed =
+        labels.withChanges(
+            ImmutableList.of("echo", "bravo", "alpha", "bravo"), ImmutableList.of("charlie"));
+    assertThat(changed.size()).isEqualTo(4L);
+    assertThat(changed.contains("alpha")).isTrue();
+    assertThat(changed.contains("bravo")).isTrue();
+    assertThat(changed.contains("charlie")).isFalse();
+    assertThat(changed.contains("delta")).isTrue();
+    assertThat(changed.contains("echo")).isTrue();
+    // The original is unchanged.
+    assertThat(labels.size()).isEqualTo(3L);
+    assertThat(labels.contains("charlie")).isTrue();
+  }
+
+  private DomainAvailabilitySnapshot createSnapshot(boolean enabled, Executor executor) {
+    return new DomainAvailabilitySnapshot(
+        clock, enabled, REFRESH_INTERVAL, MAX_STALENESS, executor);
+  }
+
+  private static ImmutableMap<String, InternetDomainName> parse(String... domainNames) {
+    return ImmutableList.copyOf(domainNames).stream()
+        .collect(toImmutableMap(name -> name, InternetDomainName::from));
+  }
+}
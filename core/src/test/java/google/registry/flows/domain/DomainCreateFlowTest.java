@@ -182,6 +182,7 @@ import google.registry.model.tld.Tld.TldState;
 import google.registry.model.tld.Tld.TldType;
 import google.registry.monitoring.whitebox.EppMetric;
 import google.registry.persistence.VKey;
+import google.registry.persistence.transaction.SqlStatementCounter.StatementType;
 import google.registry.testing.DatabaseHelper;
 import google.registry.tmch.LordnTaskUtils.LordnPhase;
 import google.registry.tmch.SmdrlCsvParser;
@@ -3214,6 +3215,9 @@ class DomainCreateFlowTest extends ResourceFlowTestCase<DomainCreateFlow, Domain
     runFlow();
     EppMetric eppMetric = getEppMetric();
     assertThat(eppMetric.getCommandName()).hasValue("DomainCreate");
+    assertThat(eppMetric.getSqlStatementCounts()).isPresent();
+    assertThat(eppMetric.getSqlStatementCounts().get().count(StatementType.INSERT))
+        .isGreaterThan(0);
   }
 
   @Test
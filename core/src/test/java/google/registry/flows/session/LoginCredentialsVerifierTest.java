@@ -0,0 +1,144 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.flows.session;
+
+import static com.google.common.truth.Truth.assertThat;
+import static google.registry.testing.DatabaseHelper.loadRegistrar;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import google.registry.flows.PasswordOnlyTransportCredentials;
+import google.registry.flows.TransportCredentials;
+import google.registry.flows.TransportCredentials.BadRegistrarPasswordException;
+import google.registry.flows.session.LoginCredentialsVerifier.TooManyConcurrentLoginsException;
+import google.registry.model.registrar.Registrar;
+import google.registry.persistence.transaction.JpaTestExtensions;
+import google.registry.persistence.transaction.JpaTestExtensions.JpaIntegrationTestExtension;
+import google.registry.util.PasswordUtils.HashAlgorithm;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+/** Unit tests for {@link LoginCredentialsVerifier}. */
+class LoginCredentialsVerifierTest {
+
+  @RegisterExtension
+  final JpaIntegrationTestExtension jpa =
+      new JpaTestExtensions.Builder().buildIntegrationTestExtension();
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+  private final ExecutorService callers = Executors.newSingleThreadExecutor();
+  private final CountDownLatch started = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final TransportCredentials blockingCredentials =
+      (registrar, password) -> {
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return HashAlgorithm.ARGON_2_ID;
+      };
+
+  private Registrar registrar;
+
+  @BeforeEach
+  void beforeEach() {
+    registrar = loadRegistrar("TheRegistrar");
+  }
+
+  @AfterEach
+  void afterEach() {
+    release.countDown();
+    executor.shutdownNow();
+    callers.shutdownNow();
+  }
+
+  @Test
+  void testVerify_returnsHashAlgorithm() throws Exception {
+    LoginCredentialsVerifier verifier =
+        new LoginCredentialsVerifier(executor, 1, Duration.ofSeconds(10));
+    assertThat(
+            verifier.verify(new PasswordOnlyTransportCredentials(), registrar, "password2"))
+        .isEqualTo(HashAlgorithm.ARGON_2_ID);
+  }
+
+  @Test
+  void testVerify_badPassword_propagatesException() {
+    LoginCredentialsVerifier verifier =
+        new LoginCredentialsVerifier(executor, 1, Duration.ofSeconds(10));
+    assertThrows(
+        BadRegistrarPasswordException.class,
+        () -> verifier.verify(new PasswordOnlyTransportCredentials(), registrar, "wrong"));
+  }
+
+  @Test
+  void testVerify_overRegistrarLimit_rejected() throws Exception {
+    LoginCredentialsVerifier verifier =
+        new LoginCredentialsVerifier(executor, 1, Duration.ofSeconds(10));
+    Future<HashAlgorithm> first =
+        callers.submit(() -> verifier.verify(blockingCredentials, registrar, "password2"));
+    started.await();
+    assertThrows(
+        TooManyConcurrentLoginsException.class,
+        () -> verifier.verify(new PasswordOnlyTransportCredentials(), registrar, "password2"));
+    release.countDown();
+    assertThat(first.get()).isEqualTo(HashAlgorithm.ARGON_2_ID);
+    // The permit is released once the first login finishes.
+    assertThat(
+            verifier.verify(new PasswordOnlyTransportCredentials(), registrar, "password2"))
+        .isEqualTo(HashAlgorithm.ARGON_2_ID);
+  }
+
+  @Test
+  void testVerify_timeout_rejected() {
+    LoginCredentialsVerifier verifier =
+        new LoginCredentialsVerifier(executor, 1, Duration.ofMillis(50));
+    assertThrows(
+        TooManyConcurrentLoginsException.class,
+        () -> verifier.verify(blockingCredentials, registrar, "password2"));
+  }
+
+  @Test
+  void testVerify_timeout_permitHeldUntilHashingFinishes() throws Exception {
+    ExecutorService singleThread = Executors.newSingleThreadExecutor();
+    try {
+      LoginCredentialsVerifier verifier =
+          new LoginCredentialsVerifier(singleThread, 1, Duration.ofMillis(50));
+      assertThrows(
+          TooManyConcurrentLoginsException.class,
+          () -> verifier.verify(blockingCredentials, registrar, "password2"));
+      started.await();
+      // The timed out login is still being hashed, so it still counts against the registrar.
+      assertThrows(
+          TooManyConcurrentLoginsException.class,
+          () -> verifier.verify(new PasswordOnlyTransportCredentials(), registrar, "password2"));
+      release.countDown();
+      // Wait for the hashing to finish.
+      singleThread.submit(() -> {}).get();
+      assertThat(
+              verifier.verify(new PasswordOnlyTransportCredentials(), registrar, "password2"))
+          .isEqualTo(HashAlgorithm.ARGON_2_ID);
+    } finally {
+      singleThread.shutdownNow();
+    }
+  }
+}
@@ -142,6 +142,17 @@ public abstract class LoginFlowTestCase extends FlowTestCase<LoginFlow> {
     assertThat(registrar.verifyPassword("randomstring")).isFalse();
   }
 
+  @Test
+  void testSetNewPassword_dryRun_leavesPasswordUntouched() throws Exception {
+    setEppInput("login_set_new_password.xml", ImmutableMap.of("NEWPW", "ANewPassword"));
+    assertMutatingFlow(true);
+    dryRunFlowAssertResponse(loadFile("generic_success_response.xml"));
+
+    Registrar newRegistrar = loadRegistrar("NewRegistrar");
+    assertThat(newRegistrar.verifyPassword("foo-BAR2")).isTrue();
+    assertThat(newRegistrar.verifyPassword("ANewPassword")).isFalse();
+  }
+
   @Test
   void testFailure_invalidNewPassword_tooShort() throws Exception {
     setEppInput("login_set_new_password.xml", ImmutableMap.of("NEWPW", "5Char"));
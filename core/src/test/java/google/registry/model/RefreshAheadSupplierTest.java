@@ -0,0 +1,170 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.model;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.testing.FakeTicker;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link RefreshAheadSupplier}. */
+class RefreshAheadSupplierTest {
+
+  private static final Duration REFRESH = Duration.ofMinutes(1);
+
+  private final FakeTicker ticker = new FakeTicker();
+  private final AtomicInteger loads = new AtomicInteger();
+  private final AtomicInteger version = new AtomicInteger();
+  private final List<Runnable> pendingRefreshes = new ArrayList<>();
+
+  private RefreshAheadSupplier<Integer> createSupplier(boolean withProbe) {
+    return new RefreshAheadSupplier<>(
+        "test",
+        loads::incrementAndGet,
+        withProbe ? version::get : null,
+        REFRESH,
+        pendingRefreshes::add,
+        ticker::read);
+  }
+
+  private void runPendingRefreshes() {
+    List<Runnable> refreshes = new ArrayList<>(pendingRefreshes);
+    pendingRefreshes.clear();
+    refreshes.forEach(Runnable::run);
+  }
+
+  @Test
+  void testGet_loadsOnce() {
+    RefreshAheadSupplier<Integer> supplier = createSupplier(true);
+    assertThat(supplier.getStaleness()).isNull();
+    assertThat(supplier.get()).isEqualTo(1);
+    assertThat(supplier.get()).isEqualTo(1);
+    assertThat(loads.get()).isEqualTo(1);
+    assertThat(supplier.getStaleness()).isEqualTo(Duration.ZERO);
+  }
+
+  @Test
+  void testGet_servesOldValueWhileRefreshing() {
+    RefreshAheadSupplier<Integer> supplier = createSupplier(false);
+    supplier.get();
+    ticker.advance(REFRESH.plusSeconds(1).toNanos());
+    // The refresh is only queued, and the caller gets the old value.
+    assertThat(supplier.get()).isEqualTo(1);
+    assertThat(loads.get()).isEqualTo(1);
+    assertThat(supplier.getStaleness()).isEqualTo(REFRESH.plusSeconds(1));
+    runPendingRefreshes();
+    assertThat(supplier.get()).isEqualTo(2);
+    assertThat(supplier.getStaleness()).isEqualTo(Duration.ZERO);
+  }
+
+  @Test
+  void testRefresh_skipsReloadIfVersionUnchanged() {
+    RefreshAheadSupplier<Integer> supplier = createSupplier(true);
+    supplier.get();
+    ticker.advance(REFRESH.plusSeconds(1).toNanos());
+    supplier.get();
+    runPendingRefreshes();
+    assertThat(supplier.get()).isEqualTo(1);
+    assertThat(loads.get()).isEqualTo(1);
+    assertThat(supplier.getStaleness()).isEqualTo(Duration.ZERO);
+
+    version.incrementAndGet();
+    ticker.advance(REFRESH.plusSeconds(1).toNanos());
+    supplier.get();
+    runPendingRefreshes();
+    assertThat(supplier.get()).isEqualTo(2);
+  }
+
+  @Test
+  void testRefresh_reloadsOldValueEvenIfVersionUnchanged() {
+    RefreshAheadSupplier<Integer> supplier = createSupplier(true);
+    supplier.get();
+    for (int i = 1; i < RefreshAheadSupplier.FULL_RELOAD_REFRESHES; i++) {
+      ticker.advance(REFRESH.plusSeconds(1).toNanos());
+      supplier.get();
+      runPendingRefreshes();
+      assertThat(loads.get()).isEqualTo(1);
+    }
+    ticker.advance(REFRESH.plusSeconds(1).toNanos());
+    supplier.get();
+    runPendingRefreshes();
+    assertThat(supplier.get()).isEqualTo(2);
+  }
+
+  @Test
+  void testGet_unchangedRefreshesDoNotDelayExpiry() {
+    RefreshAheadSupplier<Integer> supplier = createSupplier(true);
+    supplier.get();
+    ticker.advance(REFRESH.plusSeconds(1).toNanos());
+    supplier.get();
+    runPendingRefreshes();
+    assertThat(loads.get()).isEqualTo(1);
+    // The value expires the same time after its load, regardless of the unchanged refresh.
+    ticker.advance(REFRESH.multipliedBy(RefreshAheadSupplier.EXPIRY_REFRESHES - 1).toNanos());
+    assertThat(supplier.get()).isEqualTo(2);
+  }
+
+  @Test
+  void testRefresh_failureKeepsOldValue() {
+    AtomicInteger attempts = new AtomicInteger();
+    RefreshAheadSupplier<Integer> supplier =
+        new RefreshAheadSupplier<>(
+            "test",
+            () -> {
+              if (attempts.incrementAndGet() > 1) {
+                throw new IllegalStateException("database is down");
+              }
+              return 1;
+            },
+            null,
+            REFRESH,
+            pendingRefreshes::add,
+            ticker::read);
+    supplier.get();
+    ticker.advance(REFRESH.plusSeconds(1).toNanos());
+    supplier.get();
+    runPendingRefreshes();
+    assertThat(supplier.get()).isEqualTo(1);
+    assertThat(attempts.get()).isEqualTo(2);
+  }
+
+  @Test
+  void testGet_reloadsSynchronouslyAfterLongIdle() {
+    RefreshAheadSupplier<Integer> supplier = createSupplier(false);
+    supplier.get();
+    ticker.advance(REFRESH.multipliedBy(11).toNanos());
+    assertThat(supplier.get()).isEqualTo(2);
+  }
+
+  @Test
+  void testGet_propagatesFirstLoadFailure() {
+    RefreshAheadSupplier<Integer> supplier =
+        new RefreshAheadSupplier<>(
+            "test",
+            () -> {
+              throw new IllegalStateException("database is down");
+            },
+            null,
+            REFRESH,
+            pendingRefreshes::add,
+            ticker::read);
+    assertThrows(IllegalStateException.class, supplier::get);
+  }
+}
@@ -17,8 +17,12 @@ package google.registry.model.eppcommon;
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth.assertWithMessage;
 import static google.registry.model.eppcommon.EppXmlTransformer.isFeeExtension;
+import static google.registry.model.eppcommon.EppXmlTransformer.marshal;
 import static google.registry.model.eppcommon.EppXmlTransformer.unmarshal;
 import static google.registry.testing.TestDataHelper.loadBytes;
+import static google.registry.xml.ValidationMode.LENIENT;
+import static google.registry.xml.ValidationMode.STRICT;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.google.common.collect.ImmutableSet;
@@ -29,7 +33,10 @@ import google.registry.model.domain.secdns.SecDnsInfoExtension;
 import google.registry.model.eppinput.EppInput;
 import google.registry.model.eppoutput.EppOutput;
 import google.registry.model.eppoutput.EppResponse;
+import google.registry.model.eppoutput.Result;
+import google.registry.model.eppoutput.Result.Code;
 import google.registry.util.RegistryEnvironment;
+import google.registry.xml.XmlException;
 import jakarta.xml.bind.annotation.XmlElementRef;
 import jakarta.xml.bind.annotation.XmlElementRefs;
 import java.util.Arrays;
@@ -70,6 +77,34 @@ class EppXmlTransformerTest {
         () -> unmarshal(EppOutput.class, loadBytes(getClass(), "domain_info.xml").read()));
   }
 
+  @Test
+  void testUnmarshal_afterInvalidInput_stillWorks() throws Exception {
+    byte[] input = loadBytes(getClass(), "domain_info.xml").read();
+    assertThrows(XmlException.class, () -> unmarshal(EppInput.class, "<epp><bad".getBytes(UTF_8)));
+    for (int i = 0; i < 3; i++) {
+      assertThat(unmarshal(EppInput.class, input).getCommandType()).isEqualTo("info");
+    }
+  }
+
+  @Test
+  void testMarshal_reusedMarshallerGivesSameOutput() throws Exception {
+    EppOutput output =
+        EppOutput.create(
+            new EppResponse.Builder()
+                .setResult(Result.create(Code.COMMAND_FAILED))
+                .setTrid(Trid.create("client-trid", "server-trid"))
+                .build());
+    byte[] strict = marshal(output, STRICT);
+    assertThat(new String(strict, UTF_8)).startsWith("<?xml");
+    assertThat(marshal(output, LENIENT)).isEqualTo(strict);
+    assertThat(marshal(output, STRICT)).isEqualTo(strict);
+  }
+
+  @Test
+  void testWarmUp() throws Exception {
+    EppXmlTransformer.warmUp();
+  }
+
   @Test
   void testSchemas_inNonProduction_includesFee1Point0() {
     var currentEnv = RegistryEnvironment.get();
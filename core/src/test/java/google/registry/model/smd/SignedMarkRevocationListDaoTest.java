@@ -16,12 +16,17 @@ package google.registry.model.smd;
 
 import static com.google.common.truth.Truth.assertThat;
 import static google.registry.model.ImmutableObjectSubject.assertAboutImmutableObjects;
+import static google.registry.model.common.FeatureFlag.FeatureName.TMCH_DELTA_REVISIONS;
+import static google.registry.model.common.FeatureFlag.FeatureStatus.ACTIVE;
 import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
+import static google.registry.testing.DatabaseHelper.persistFeatureFlag;
 import static google.registry.util.DateTimeUtils.minusHours;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import google.registry.model.EntityTestCase;
 import jakarta.persistence.OptimisticLockException;
+import java.time.Instant;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.jupiter.api.Test;
 
@@ -82,4 +87,54 @@ public class SignedMarkRevocationListDaoTest extends EntityTestCase {
     SignedMarkRevocationListDao.save(secondList);
     assertThat(SignedMarkRevocationListDao.load().isSmdRevoked("mark", fakeClock.now())).isFalse();
   }
+
+  @Test
+  void testSave_smallChangeStoredAsDelta() {
+    persistFeatureFlag(TMCH_DELTA_REVISIONS, ACTIVE);
+    ImmutableMap.Builder<String, Instant> revokes = new ImmutableMap.Builder<>();
+    for (int i = 0; i < 10; i++) {
+      revokes.put("mark" + i, minusHours(fakeClock.now(), i));
+    }
+    SignedMarkRevocationList snapshot =
+        SignedMarkRevocationListDao.save(
+            SignedMarkRevocationList.create(fakeClock.now(), revokes.buildOrThrow()));
+    ImmutableMap<String, Instant> changed =
+        ImmutableMap.copyOf(
+            Maps.filterKeys(
+                revokes
+                    .put("mark1", fakeClock.now())
+                    .put("mark10", fakeClock.now())
+                    .buildKeepingLast(),
+                id -> !id.equals("mark0")));
+    SignedMarkRevocationList delta =
+        SignedMarkRevocationListDao.save(
+            SignedMarkRevocationList.create(fakeClock.now(), changed));
+    assertThat(snapshot.baseRevisionId).isNull();
+    assertThat(delta.baseRevisionId).isEqualTo(snapshot.revisionId);
+    assertThat(
+            tm().transact(
+                    () ->
+                        tm().query(
+                                "SELECT COUNT(*) FROM SignedMarkRevocationEntry "
+                                    + "WHERE revisionId = :revisionId",
+                                Long.class)
+                            .setParameter("revisionId", delta.revisionId)
+                            .getSingleResult()))
+        .isEqualTo(3);
+    SignedMarkRevocationList fromDb = SignedMarkRevocationListDao.load();
+    assertAboutImmutableObjects().that(fromDb).isEqualExceptFields(delta);
+    assertThat(fromDb.isSmdRevoked("mark0", fakeClock.now())).isFalse();
+    assertThat(fromDb.size()).isEqualTo(10);
+  }
+
+  @Test
+  void testSave_deltaRevisionsInactive_storedAsSnapshot() {
+    ImmutableMap<String, Instant> revokes =
+        ImmutableMap.of("mark", minusHours(fakeClock.now(), 1), "other", fakeClock.now());
+    SignedMarkRevocationListDao.save(SignedMarkRevocationList.create(fakeClock.now(), revokes));
+    SignedMarkRevocationList unchanged =
+        SignedMarkRevocationListDao.save(SignedMarkRevocationList.create(fakeClock.now(), revokes));
+    assertThat(unchanged.baseRevisionId).isNull();
+    assertThat(SignedMarkRevocationListDao.load().size()).isEqualTo(2);
+  }
 }
@@ -110,4 +110,42 @@ public class SignedMarkRevocationListTest {
     assertThat(smdrl.isSmdRevoked(Integer.toString(rows - 1), clock.now())).isFalse();
     assertThat(smdrl.isSmdRevoked(Integer.toString(rows), clock.now())).isFalse();
   }
+
+  @Test
+  void testCacheReload_keepsListIfRevisionUnchanged() {
+    SignedMarkRevocationList.RevisionAwareLoader loader =
+        new SignedMarkRevocationList.RevisionAwareLoader();
+    SignedMarkRevocationList cached = createSaveGetHelper(5);
+    assertThat(loader.reload(SignedMarkRevocationList.class, cached)).isSameInstanceAs(cached);
+    SignedMarkRevocationListDao.save(
+        SignedMarkRevocationList.create(clock.now(), ImmutableMap.of("6", clock.now())));
+    SignedMarkRevocationList reloaded = loader.reload(SignedMarkRevocationList.class, cached);
+    assertThat(reloaded).isNotSameInstanceAs(cached);
+    assertThat(reloaded.size()).isEqualTo(1);
+    assertThat(reloaded.isSmdRevoked("6", clock.now())).isTrue();
+  }
+
+  @Test
+  void testCacheReload_emptyList() {
+    SignedMarkRevocationList empty = SignedMarkRevocationList.get();
+    assertThat(
+            new SignedMarkRevocationList.RevisionAwareLoader()
+                .reload(SignedMarkRevocationList.class, empty))
+        .isSameInstanceAs(empty);
+  }
+
+  @Test
+  void testRevocationIndex_lookups() {
+    RevocationIndex index =
+        RevocationIndex.copyOf(
+            ImmutableMap.of("3-2", START_INSTANT.plusMillis(3), "1-1", START_INSTANT));
+    assertThat(index.size()).isEqualTo(2);
+    assertThat(index.getRevocationTime("1-1")).hasValue(START_INSTANT);
+    assertThat(index.getRevocationTime("3-2")).hasValue(START_INSTANT.plusMillis(3));
+    assertThat(index.getRevocationTime("2-1")).isEmpty();
+    assertThat(index.toMap())
+        .containsExactly("1-1", START_INSTANT, "3-2", START_INSTANT.plusMillis(3))
+        .inOrder();
+    assertThat(RevocationIndex.copyOf(index.toMap())).isEqualTo(index);
+  }
 }
@@ -15,9 +15,14 @@
 package google.registry.model.tmch;
 
 import static com.google.common.truth.Truth.assertThat;
+import static google.registry.model.common.FeatureFlag.FeatureName.TMCH_DELTA_REVISIONS;
+import static google.registry.model.common.FeatureFlag.FeatureStatus.ACTIVE;
 import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
+import static google.registry.testing.DatabaseHelper.persistFeatureFlag;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import google.registry.model.DeltaRevisions;
 import google.registry.persistence.transaction.JpaTestExtensions;
 import google.registry.persistence.transaction.JpaTestExtensions.JpaIntegrationWithCoverageExtension;
 import google.registry.testing.FakeClock;
@@ -138,6 +143,116 @@ public class ClaimsListDaoTest {
         .isEmpty();
   }
 
+  @Test
+  void save_smallChange_storedAsDelta() {
+    persistFeatureFlag(TMCH_DELTA_REVISIONS, ACTIVE);
+    ClaimsList snapshot = ClaimsListDao.save(ClaimsList.create(fakeClock.now(), tenLabels()));
+    ImmutableMap<String, String> changed =
+        ImmutableMap.<String, String>builder()
+            .putAll(Maps.filterKeys(tenLabels(), label -> !label.equals("label0")))
+            .put("label1", "newKey1")
+            .put("label10", "key10")
+            .buildKeepingLast();
+    ClaimsList delta = ClaimsListDao.save(ClaimsList.create(fakeClock.now(), changed));
+    assertThat(snapshot.baseRevisionId).isNull();
+    assertThat(delta.baseRevisionId).isEqualTo(snapshot.getRevisionId());
+    assertThat(countEntries(delta)).isEqualTo(3);
+
+    ClaimsListDao.CACHE.invalidateAll();
+    ClaimsList fromDatabase = ClaimsListDao.get();
+    assertThat(fromDatabase.getRevisionId()).isEqualTo(delta.getRevisionId());
+    assertThat(tm().transact(() -> fromDatabase.getClaimKey("label0"))).isEmpty();
+    assertThat(tm().transact(() -> fromDatabase.getClaimKey("label1"))).hasValue("newKey1");
+    assertThat(tm().transact(() -> fromDatabase.getClaimKey("label2"))).hasValue("key2");
+    assertThat(tm().transact(() -> fromDatabase.getClaimKey("label10"))).hasValue("key10");
+    assertThat(tm().transact(fromDatabase::size)).isEqualTo(10);
+    assertThat(tm().transact(fromDatabase::getLabelsToKeys)).isEqualTo(changed);
+  }
+
+  @Test
+  void save_deltaRevisionsInactive_storedAsSnapshot() {
+    ClaimsListDao.save(ClaimsList.create(fakeClock.now(), tenLabels()));
+    ClaimsList unchanged = ClaimsListDao.save(ClaimsList.create(fakeClock.now(), tenLabels()));
+    assertThat(unchanged.baseRevisionId).isNull();
+    assertThat(countEntries(unchanged)).isEqualTo(10);
+  }
+
+  @Test
+  void save_deltaOnDelta_readsWholeChain() {
+    persistFeatureFlag(TMCH_DELTA_REVISIONS, ACTIVE);
+    ClaimsList snapshot = ClaimsListDao.save(ClaimsList.create(fakeClock.now(), tenLabels()));
+    ClaimsListDao.save(
+        ClaimsList.create(
+            fakeClock.now(),
+            ImmutableMap.<String, String>builder()
+                .putAll(tenLabels())
+                .put("label10", "key10")
+                .buildOrThrow()));
+    ClaimsList second =
+        ClaimsListDao.save(
+            ClaimsList.create(
+                fakeClock.now(),
+                ImmutableMap.<String, String>builder()
+                    .putAll(tenLabels())
+                    .put("label11", "key11")
+                    .buildOrThrow()));
+    assertThat(second.baseRevisionId).isEqualTo(snapshot.getRevisionId());
+    ClaimsListDao.CACHE.invalidateAll();
+    ClaimsList fromDatabase = ClaimsListDao.get();
+    assertThat(tm().transact(() -> fromDatabase.getClaimKey("label10"))).isEmpty();
+    assertThat(tm().transact(fromDatabase::getLabelsToKeys))
+        .isEqualTo(second.getLabelsToKeys());
+  }
+
+  @Test
+  void save_largeChange_storedAsSnapshot() {
+    persistFeatureFlag(TMCH_DELTA_REVISIONS, ACTIVE);
+    ClaimsListDao.save(ClaimsList.create(fakeClock.now(), tenLabels()));
+    ClaimsList replaced =
+        ClaimsListDao.save(
+            ClaimsList.create(fakeClock.now(), ImmutableMap.of("label3", "key3", "new", "key")));
+    assertThat(replaced.baseRevisionId).isNull();
+    assertThat(countEntries(replaced)).isEqualTo(2);
+  }
+
+  @Test
+  void save_fullChain_storedAsSnapshot() {
+    persistFeatureFlag(TMCH_DELTA_REVISIONS, ACTIVE);
+    ClaimsList previous = ClaimsListDao.save(ClaimsList.create(fakeClock.now(), tenLabels()));
+    for (int i = 1; i <= DeltaRevisions.MAX_DELTAS_PER_SNAPSHOT; i++) {
+      previous =
+          ClaimsListDao.save(
+              ClaimsList.create(
+                  fakeClock.now(),
+                  ImmutableMap.<String, String>builder()
+                      .putAll(tenLabels())
+                      .put("label0", "key0v" + i)
+                      .buildKeepingLast()));
+      assertThat(previous.baseRevisionId).isNotNull();
+    }
+    ClaimsList snapshot = ClaimsListDao.save(ClaimsList.create(fakeClock.now(), tenLabels()));
+    assertThat(snapshot.baseRevisionId).isNull();
+    assertThat(countEntries(snapshot)).isEqualTo(10);
+    ClaimsListDao.CACHE.invalidateAll();
+    assertThat(tm().transact(() -> ClaimsListDao.get().getLabelsToKeys())).isEqualTo(tenLabels());
+  }
+
+  private static ImmutableMap<String, String> tenLabels() {
+    ImmutableMap.Builder<String, String> labels = new ImmutableMap.Builder<>();
+    for (int i = 0; i < 10; i++) {
+      labels.put("label" + i, "key" + i);
+    }
+    return labels.buildOrThrow();
+  }
+
+  private static long countEntries(ClaimsList claimsList) {
+    return tm().transact(
+            () ->
+                tm().query("SELECT COUNT(*) FROM ClaimsEntry WHERE revisionId = :id", Long.class)
+                    .setParameter("id", claimsList.getRevisionId())
+                    .getSingleResult());
+  }
+
   private void assertClaimsListEquals(ClaimsList left, ClaimsList right) {
     assertThat(left.getRevisionId()).isEqualTo(right.getRevisionId());
     assertThat(left.getTmdbGenerationTime()).isEqualTo(right.getTmdbGenerationTime());
@@ -0,0 +1,115 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.persistence.converter;
+
+import static com.google.common.truth.Truth.assertThat;
+import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
+import static google.registry.testing.DatabaseHelper.persistResource;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Strings;
+import google.registry.model.ImmutableObject;
+import google.registry.persistence.transaction.JpaTestExtensions;
+import google.registry.persistence.transaction.JpaTestExtensions.JpaUnitTestExtension;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+/** Unit tests for {@link CompressedXmlConverter}. */
+class CompressedXmlConverterTest {
+
+  private static final byte[] XML =
+      ("<epp><command><info>"
+              + Strings.repeat("<domain:name>example.tld</domain:name>", 20)
+              + "</info></command></epp>")
+          .getBytes(UTF_8);
+
+  @RegisterExtension
+  public final JpaUnitTestExtension jpaExtension =
+      new JpaTestExtensions.Builder().withEntityClass(TestEntity.class).buildUnitTestExtension();
+
+  @Test
+  void roundTripConversion_returnsSameBytes() {
+    persistResource(new TestEntity(XML));
+    assertThat(loadXml()).isEqualTo(XML);
+    assertThat(loadColumnValue()).isEqualTo(XML);
+  }
+
+  @Test
+  void roundTripConversion_null() {
+    persistResource(new TestEntity(null));
+    assertThat(loadXml()).isNull();
+  }
+
+  @Test
+  void testRead_compressedColumnValue() {
+    persistResource(new TestEntity(null));
+    setColumnValue(CompressedXmlConverter.compress(XML));
+    assertThat(CompressedXmlConverter.isCompressed(loadColumnValue())).isTrue();
+    assertThat(loadXml()).isEqualTo(XML);
+  }
+
+  @Test
+  void testRead_uncompressedColumnValue() {
+    persistResource(new TestEntity(null));
+    setColumnValue(XML);
+    assertThat(loadXml()).isEqualTo(XML);
+  }
+
+  @Test
+  void testCompress_shortDocument_getsLarger() {
+    byte[] xml = "<epp/>".getBytes(UTF_8);
+    assertThat(CompressedXmlConverter.compress(xml).length).isGreaterThan(xml.length);
+  }
+
+  private static void setColumnValue(byte[] columnValue) {
+    tm().transact(
+            () ->
+                tm().getEntityManager()
+                    .createNativeQuery("UPDATE \"TestEntity\" SET xml = :xml")
+                    .setParameter("xml", columnValue)
+                    .executeUpdate());
+  }
+
+  private static byte[] loadXml() {
+    return tm().transact(() -> tm().getEntityManager().find(TestEntity.class, "id")).xml;
+  }
+
+  private static byte[] loadColumnValue() {
+    return (byte[])
+        tm().transact(
+                () ->
+                    tm().getEntityManager()
+                        .createNativeQuery("SELECT xml FROM \"TestEntity\"")
+                        .getSingleResult());
+  }
+
+  @Entity(name = "TestEntity") // Override entity name to avoid the nested class reference.
+  public static class TestEntity extends ImmutableObject {
+
+    @Id String name = "id";
+
+    @Convert(converter = CompressedXmlConverter.class)
+    byte[] xml;
+
+    public TestEntity() {}
+
+    TestEntity(byte[] xml) {
+      this.xml = xml;
+    }
+  }
+}
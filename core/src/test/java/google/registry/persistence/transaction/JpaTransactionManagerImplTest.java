@@ -20,6 +20,11 @@ import static com.google.common.truth.Truth.assertThat;
 import static google.registry.persistence.PersistenceModule.TransactionIsolationLevel.TRANSACTION_READ_COMMITTED;
 import static google.registry.persistence.PersistenceModule.TransactionIsolationLevel.TRANSACTION_READ_UNCOMMITTED;
 import static google.registry.persistence.PersistenceModule.TransactionIsolationLevel.TRANSACTION_REPEATABLE_READ;
+import static google.registry.persistence.transaction.SqlStatementCounter.StatementType.DELETE;
+import static google.registry.persistence.transaction.SqlStatementCounter.StatementType.INSERT;
+import static google.registry.persistence.transaction.SqlStatementCounter.StatementType.OTHER;
+import static google.registry.persistence.transaction.SqlStatementCounter.StatementType.SELECT;
+import static google.registry.persistence.transaction.SqlStatementCounter.StatementType.UPDATE;
 import static google.registry.persistence.transaction.TransactionManagerFactory.replicaTm;
 import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
 import static google.registry.testing.DatabaseHelper.assertDetachedFromEntityManager;
@@ -43,6 +48,7 @@ import google.registry.model.ImmutableObject;
 import google.registry.persistence.PersistenceModule.TransactionIsolationLevel;
 import google.registry.persistence.VKey;
 import google.registry.persistence.transaction.JpaTestExtensions.JpaUnitTestExtension;
+import google.registry.persistence.transaction.SqlStatementCounter.StatementType;
 import google.registry.testing.DatabaseHelper;
 import google.registry.testing.FakeClock;
 import jakarta.persistence.Entity;
@@ -53,6 +59,7 @@ import jakarta.persistence.OptimisticLockException;
 import jakarta.persistence.PersistenceException;
 import jakarta.persistence.RollbackException;
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.NoSuchElementException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -804,6 +811,66 @@ class JpaTransactionManagerImplTest {
     verify(spyJpaTm, times(6)).delete(theEntityKey);
   }
 
+  @Test
+  void sqlStatementCounter_countsOneBatchPerTable() {
+    SqlStatementCounter.start();
+    tm().transact(
+            () -> {
+              tm().insert(new TestEntity("entity1", "foo"));
+              tm().insert(new TestCompoundIdEntity("entity1", 1, "foo"));
+              tm().insert(new TestEntity("entity2", "bar"));
+              tm().insert(new TestCompoundIdEntity("entity2", 2, "bar"));
+            });
+    // The inserts are ordered by table, so each table takes a single batch.
+    assertThat(SqlStatementCounter.stop().counts()).containsExactly(INSERT, INSERT);
+    assertThat(tm().transact(() -> tm().loadAllOf(TestEntity.class))).hasSize(2);
+  }
+
+  @Test
+  void sqlStatementCounter_timesStatementsAndCommit() {
+    SqlStatementCounter.start();
+    tm().transact(() -> tm().insert(theEntity));
+    SqlStatementCounter.Totals totals = SqlStatementCounter.stop();
+    assertThat(totals.executionTime()).isGreaterThan(Duration.ZERO);
+    assertThat(totals.commitTime()).isGreaterThan(Duration.ZERO);
+    // The insert is only sent when the transaction is flushed on commit.
+    assertThat(totals.commitTime()).isAtLeast(totals.executionTime());
+  }
+
+  @Test
+  void update_readsEntityOnce() {
+    tm().transact(() -> tm().insert(theEntity));
+    SqlStatementCounter.start();
+    tm().transact(() -> tm().update(new TestEntity("theEntity", "bar")));
+    assertThat(SqlStatementCounter.stop().counts()).containsExactly(SELECT, UPDATE);
+    assertThat(tm().transact(() -> tm().loadByKey(theEntityKey)).data).isEqualTo("bar");
+  }
+
+  @Test
+  void transact_replica_noSetupStatements() {
+    tm().transact(() -> tm().insert(theEntity));
+    SqlStatementCounter.start();
+    replicaTm().transact(() -> replicaTm().loadByKey(theEntityKey));
+    assertThat(SqlStatementCounter.stop().counts()).containsExactly(SELECT);
+  }
+
+  @Test
+  void sqlStatementType_fromFirstKeyword() {
+    assertThat(StatementType.of("select t.name from TestEntity t")).isEqualTo(SELECT);
+    assertThat(StatementType.of("  with cte as (select 1) select * from cte")).isEqualTo(SELECT);
+    assertThat(StatementType.of("insert into TestEntity (data,name) values (?,?)"))
+        .isEqualTo(INSERT);
+    assertThat(StatementType.of("UPDATE TestEntity SET data=?")).isEqualTo(UPDATE);
+    assertThat(StatementType.of("delete from TestEntity")).isEqualTo(DELETE);
+    assertThat(StatementType.of("SET TRANSACTION READ ONLY")).isEqualTo(OTHER);
+    assertThat(StatementType.of("")).isEqualTo(OTHER);
+  }
+
+  @Test
+  void sqlStatementCounter_failsWhenNotStarted() {
+    assertThrows(IllegalStateException.class, SqlStatementCounter::stop);
+  }
+
   private static void insertPerson(int age) {
     tm().getEntityManager()
         .createNativeQuery(String.format("INSERT INTO Person (age) VALUES (%d)", age))
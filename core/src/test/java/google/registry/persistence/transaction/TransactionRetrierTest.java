@@ -0,0 +1,212 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.persistence.transaction;
+
+import static com.google.common.truth.Truth.assertThat;
+import static google.registry.persistence.transaction.TransactionRetrier.HOT_KEY_THRESHOLD;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import google.registry.persistence.transaction.TransactionRetrier.RetryScope;
+import google.registry.testing.FakeClock;
+import google.registry.testing.FakeSleeper;
+import google.registry.util.Sleeper;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link TransactionRetrier}. */
+class TransactionRetrierTest {
+
+  private final FakeClock clock = new FakeClock(Instant.parse("2026-01-01T00:00:00Z"));
+  private final TransactionRetrier retrier =
+      new TransactionRetrier(new FakeSleeper(clock), new Random(42));
+  private final AtomicInteger attempts = new AtomicInteger();
+
+  private static DatabaseException serializationFailure() {
+    return new DatabaseException(new SQLException("could not serialize access", "40001"));
+  }
+
+  private String failTimes(int failures) {
+    if (attempts.incrementAndGet() <= failures) {
+      throw serializationFailure();
+    }
+    return "done";
+  }
+
+  @Test
+  void testSuccess_retriesContentionFailures() {
+    assertThat(retrier.callWithRetry(() -> failTimes(5))).isEqualTo("done");
+    assertThat(attempts.get()).isEqualTo(6);
+  }
+
+  @Test
+  void testFailure_givesUpAfterDefaultAttempts() {
+    assertThrows(DatabaseException.class, () -> retrier.callWithRetry(() -> failTimes(6)));
+    assertThat(attempts.get()).isEqualTo(TransactionRetrier.DEFAULT_ATTEMPTS);
+  }
+
+  @Test
+  void testFailure_givesUpAfterScopeAttempts() {
+    try (RetryScope scope = TransactionRetrier.enterScope("Test", 2, Optional.empty(), false)) {
+      assertThrows(RuntimeException.class, () -> retrier.callWithRetry(() -> failTimes(6)));
+    }
+    assertThat(attempts.get()).isEqualTo(2);
+  }
+
+  @Test
+  void testFailure_doesNotRetryOtherFailures() {
+    IllegalStateException thrown =
+        assertThrows(
+            IllegalStateException.class,
+            () ->
+                retrier.callWithRetry(
+                    () -> {
+                      attempts.incrementAndGet();
+                      throw new IllegalStateException("bad");
+                    }));
+    assertThat(thrown).hasMessageThat().isEqualTo("bad");
+    assertThat(attempts.get()).isEqualTo(1);
+  }
+
+  @Test
+  void testFailure_doesNotRetryContentionOutsidePersistenceException() {
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            retrier.callWithRetry(
+                () -> {
+                  attempts.incrementAndGet();
+                  throw new IllegalStateException(
+                      new SQLException("could not serialize access", "40001"));
+                }));
+    assertThat(attempts.get()).isEqualTo(1);
+  }
+
+  @Test
+  void testFailure_doesNotRetryErrors() {
+    assertThrows(
+        AssertionError.class,
+        () ->
+            retrier.callWithRetry(
+                () -> {
+                  attempts.incrementAndGet();
+                  throw new AssertionError(serializationFailure());
+                }));
+    assertThat(attempts.get()).isEqualTo(1);
+  }
+
+  @Test
+  void testSuccess_backsOffWithinBounds() {
+    for (int i = 0; i < 100; i++) {
+      assertThat(retrier.getBackoff(1)).isAtMost(Duration.ofMillis(200));
+      assertThat(retrier.getBackoff(3)).isAtMost(Duration.ofMillis(800));
+      assertThat(retrier.getBackoff(10)).isAtMost(Duration.ofSeconds(5));
+      assertThat(retrier.getBackoff(100)).isAtLeast(Duration.ZERO);
+    }
+  }
+
+  @Test
+  void testSuccess_sleepsBetweenAttempts() {
+    Instant start = clock.now();
+    retrier.callWithRetry(() -> failTimes(3));
+    assertThat(clock.now()).isAtMost(start.plusMillis(200 + 400 + 800));
+  }
+
+  @Test
+  void testSuccess_countsConflictsByKey() {
+    try (RetryScope scope =
+        TransactionRetrier.enterScope(
+            "Test", HOT_KEY_THRESHOLD + 1, Optional.of("example.tld"), false)) {
+      retrier.callWithRetry(() -> failTimes(HOT_KEY_THRESHOLD));
+    }
+    assertThat(retrier.getRecentConflicts("example.tld")).isEqualTo(HOT_KEY_THRESHOLD);
+    assertThat(retrier.getRecentConflicts("other.tld")).isEqualTo(0);
+  }
+
+  @Test
+  void testSuccess_serializesByKey_onlyWhileAttempting() {
+    List<Boolean> lockedWhileSleeping = new ArrayList<>();
+    AtomicReference<TransactionRetrier> serializingRetrier = new AtomicReference<>();
+    serializingRetrier.set(
+        new TransactionRetrier(
+            new Sleeper() {
+              @Override
+              public void sleep(Duration duration) {
+                sleepUninterruptibly(duration);
+              }
+
+              @Override
+              public void sleepUninterruptibly(Duration duration) {
+                lockedWhileSleeping.add(serializingRetrier.get().isKeyLocked("example.tld"));
+              }
+            },
+            new Random(42)));
+    List<Boolean> lockedWhileAttempting = new ArrayList<>();
+    try (RetryScope scope =
+        TransactionRetrier.enterScope("Test", 3, Optional.of("example.tld"), true)) {
+      serializingRetrier
+          .get()
+          .callWithRetry(
+              () -> {
+                lockedWhileAttempting.add(serializingRetrier.get().isKeyLocked("example.tld"));
+                assertThat(serializingRetrier.get().isKeyLocked("other.tld")).isFalse();
+                return failTimes(2);
+              });
+    }
+    assertThat(lockedWhileAttempting).containsExactly(true, true, true);
+    assertThat(lockedWhileSleeping).containsExactly(false, false);
+    assertThat(serializingRetrier.get().isKeyLocked("example.tld")).isFalse();
+  }
+
+  @Test
+  void testSuccess_doesNotSerializeByDefault() {
+    try (RetryScope scope =
+        TransactionRetrier.enterScope("Test", 1, Optional.of("example.tld"), false)) {
+      retrier.callWithRetry(
+          () -> {
+            assertThat(retrier.isKeyLocked("example.tld")).isFalse();
+            return "done";
+          });
+    }
+  }
+
+  @Test
+  void testSuccess_closingScopeRestoresPrevious() {
+    try (RetryScope outer = TransactionRetrier.enterScope("Outer", 2, Optional.empty(), false)) {
+      try (RetryScope inner = TransactionRetrier.enterScope("Inner", 4, Optional.empty(), false)) {
+        assertThrows(RuntimeException.class, () -> retrier.callWithRetry(() -> failTimes(10)));
+        assertThat(attempts.getAndSet(0)).isEqualTo(4);
+      }
+      assertThrows(RuntimeException.class, () -> retrier.callWithRetry(() -> failTimes(10)));
+      assertThat(attempts.getAndSet(0)).isEqualTo(2);
+    }
+    assertThrows(RuntimeException.class, () -> retrier.callWithRetry(() -> failTimes(10)));
+    assertThat(attempts.get()).isEqualTo(TransactionRetrier.DEFAULT_ATTEMPTS);
+  }
+
+  @Test
+  void testFailure_scopeNeedsAnAttempt() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> TransactionRetrier.enterScope("Test", 0, Optional.empty(), false));
+  }
+}
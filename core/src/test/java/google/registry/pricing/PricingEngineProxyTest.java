@@ -32,8 +32,11 @@ import google.registry.persistence.transaction.JpaTestExtensions;
 import google.registry.persistence.transaction.JpaTestExtensions.JpaIntegrationTestExtension;
 import google.registry.testing.FakeClock;
 import google.registry.util.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Optional;
 import org.joda.money.Money;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -57,6 +60,11 @@ public class PricingEngineProxyTest {
     clock = new FakeClock(Instant.parse("2016-03-17T12:01:00Z"));
   }
 
+  @AfterEach
+  void afterEach() {
+    PricingEngineProxy.setPricesCacheForTest(Optional.empty());
+  }
+
   @Test
   void test_getDomainCreateCost_multipleYears() {
     assertThat(getDomainCreateCost("espresso.moka", clock.now(), 1))
@@ -121,6 +129,41 @@ public class PricingEngineProxyTest {
     assertThat(getDomainRenewCost("rich.example", clock.now(), 2)).isEqualTo(Money.of(USD, 200));
   }
 
+  @Test
+  void testGetDomainCreateCost_cachedAcrossRequestsInSamePricingPeriod() {
+    PricingEngineProxy.setPricesCacheForTest(Optional.of(Duration.ofMinutes(10)));
+    createTld("example");
+    assertThat(getDomainCreateCost("poor.example", clock.now(), 1)).isEqualTo(Money.of(USD, 13));
+    persistResource(
+        Tld.get("example")
+            .asBuilder()
+            .setCreateBillingCostTransitions(
+                ImmutableSortedMap.of(START_INSTANT, Money.of(USD, 20)))
+            .build());
+    // A later request in the same pricing period is served from the cache.
+    assertThat(getDomainCreateCost("poor.example", clock.now().plus(Duration.ofHours(1)), 1))
+        .isEqualTo(Money.of(USD, 13));
+  }
+
+  @Test
+  void testGetDomainCreateCost_notCachedAcrossPricingPeriods() {
+    PricingEngineProxy.setPricesCacheForTest(Optional.of(Duration.ofMinutes(10)));
+    createTld("example");
+    Instant priceChange = clock.now().plus(Duration.ofDays(1));
+    assertThat(getDomainCreateCost("poor.example", clock.now(), 1)).isEqualTo(Money.of(USD, 13));
+    persistResource(
+        Tld.get("example")
+            .asBuilder()
+            .setCreateBillingCostTransitions(
+                ImmutableSortedMap.of(
+                    START_INSTANT, Money.of(USD, 13), priceChange, Money.of(USD, 20)))
+            .build());
+    assertThat(getDomainCreateCost("poor.example", clock.now(), 1)).isEqualTo(Money.of(USD, 13));
+    assertThat(getDomainCreateCost("poor.example", priceChange, 1)).isEqualTo(Money.of(USD, 20));
+    assertThat(getDomainCreateCost("poor.example", priceChange.plus(Duration.ofDays(1)), 1))
+        .isEqualTo(Money.of(USD, 20));
+  }
+
   @Test
   void testFailure_cantLoadPricingEngine() {
     createTld("example");
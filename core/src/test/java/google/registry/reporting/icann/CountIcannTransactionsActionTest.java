@@ -0,0 +1,47 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.reporting.icann;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import google.registry.testing.FakeClock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link CountIcannTransactionsAction}. */
+class CountIcannTransactionsActionTest {
+
+  private final FakeClock clock = new FakeClock(Instant.parse("2027-03-10T12:00:00Z"));
+  private final IcannTransactionCounter counter = mock(IcannTransactionCounter.class);
+
+  @Test
+  void testRun_recountsFromPreviousMonth() {
+    new CountIcannTransactionsAction(Optional.empty(), counter, clock).run();
+    verify(counter).recount(LocalDate.of(2027, 2, 1), LocalDate.of(2027, 5, 9));
+    verifyNoMoreInteractions(counter);
+  }
+
+  @Test
+  void testRun_recountsGivenMonth() {
+    new CountIcannTransactionsAction(Optional.of(YearMonth.of(2026, 11)), counter, clock).run();
+    verify(counter).recount(YearMonth.of(2026, 11));
+    verifyNoMoreInteractions(counter);
+  }
+}
@@ -18,6 +18,8 @@ import static com.google.common.truth.Truth.assertThat;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.google.api.services.bigquery.model.TableFieldSchema;
@@ -48,6 +50,7 @@ class IcannReportingStagerTest {
   private YearMonth yearMonth = YearMonth.of(2017, 6);
   private String subdir = "icann/monthly/2017-06";
   private GcsUtils gcsUtils = new GcsUtils(LocalStorageHelper.getOptions());
+  private IcannTransactionCounter transactionCounter = mock(IcannTransactionCounter.class);
 
   private IcannReportingStager createStager() {
     IcannReportingStager action = new IcannReportingStager();
@@ -56,6 +59,7 @@ class IcannReportingStagerTest {
             "test-project", "icann_reporting", new DummyDnsCountQueryCoordinator());
     action.transactionsQueryBuilder =
         new TransactionsReportingQueryBuilder("test-project", "icann_reporting");
+    action.transactionCounter = transactionCounter;
     action.reportingBucket = "test-bucket";
     action.bigquery = bigquery;
     action.gcsUtils = gcsUtils;
@@ -89,6 +93,7 @@ class IcannReportingStagerTest {
     when(bigquery.queryToLocalTableSync(any(String.class))).thenReturn(activityReportTable);
     IcannReportingStager stager = createStager();
     stager.stageReports(yearMonth, subdir, ReportType.ACTIVITY);
+    verifyNoInteractions(transactionCounter);
 
     String expectedReport1 = "fooField,barField\r\n12,34";
     String expectedReport2 = "fooField,barField\r\n56,78";
@@ -130,6 +135,7 @@ class IcannReportingStagerTest {
     when(bigquery.queryToLocalTableSync(any(String.class))).thenReturn(transactionReportTable);
     IcannReportingStager stager = createStager();
     stager.stageReports(yearMonth, subdir, ReportType.TRANSACTIONS);
+    verify(transactionCounter).recount(yearMonth);
 
     String expectedReport1 =
         "registrar,iana,field\r\n\"reg1\",123,10\r\n\"reg2\",456,20\r\nTotals,,30";
@@ -0,0 +1,192 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.reporting.icann;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+import static google.registry.model.reporting.DomainTransactionRecord.TransactionReportField.NET_ADDS_1_YR;
+import static google.registry.model.reporting.DomainTransactionRecord.TransactionReportField.TRANSFER_NACKED;
+import static google.registry.model.reporting.DomainTransactionRecord.TransactionReportField.TRANSFER_SUCCESSFUL;
+import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
+import static google.registry.testing.DatabaseHelper.createTld;
+import static google.registry.testing.DatabaseHelper.persistActiveDomain;
+import static google.registry.testing.DatabaseHelper.persistResource;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import google.registry.model.domain.Domain;
+import google.registry.model.domain.DomainHistory;
+import google.registry.model.reporting.DomainTransactionRecord;
+import google.registry.model.reporting.DomainTransactionRecord.TransactionReportField;
+import google.registry.model.reporting.HistoryEntry;
+import google.registry.persistence.transaction.JpaTestExtensions;
+import google.registry.persistence.transaction.JpaTestExtensions.JpaIntegrationTestExtension;
+import google.registry.testing.FakeClock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+/** Unit tests for {@link IcannTransactionCounter}. */
+class IcannTransactionCounterTest {
+
+  private final FakeClock clock = new FakeClock(Instant.parse("2027-01-10T12:00:00Z"));
+
+  @RegisterExtension
+  final JpaIntegrationTestExtension jpa =
+      new JpaTestExtensions.Builder().withClock(clock).buildIntegrationTestExtension();
+
+  private final IcannTransactionCounter counter = new IcannTransactionCounter();
+
+  private Domain domain;
+
+  @BeforeEach
+  void beforeEach() {
+    createTld("tld");
+    domain = persistActiveDomain("example.tld");
+  }
+
+  @Test
+  void testRecount_countsPerDayTldAndRegistrar() {
+    persistHistory(
+        HistoryEntry.Type.DOMAIN_CREATE,
+        "TheRegistrar",
+        null,
+        record("2027-01-15T10:00:00Z", NET_ADDS_1_YR, 1),
+        record("2027-01-15T23:59:59Z", NET_ADDS_1_YR, 1));
+    persistHistory(
+        HistoryEntry.Type.DOMAIN_CREATE,
+        "NewRegistrar",
+        null,
+        record("2027-01-16T00:00:00Z", NET_ADDS_1_YR, 1));
+    // A cancellation.
+    persistHistory(
+        HistoryEntry.Type.DOMAIN_DELETE,
+        "TheRegistrar",
+        null,
+        record("2027-01-15T10:00:00Z", NET_ADDS_1_YR, -1));
+    // Outside of the recounted month.
+    persistHistory(
+        HistoryEntry.Type.DOMAIN_CREATE,
+        "TheRegistrar",
+        null,
+        record("2027-02-01T00:00:00Z", NET_ADDS_1_YR, 1));
+
+    counter.recount(YearMonth.of(2027, 1));
+
+    assertThat(loadCounts())
+        .containsExactly(
+            "2027-01-15 tld TheRegistrar NET_ADDS_1_YR 1",
+            "2027-01-16 tld NewRegistrar NET_ADDS_1_YR 1");
+  }
+
+  @Test
+  void testRecount_countsTransfersForBothRegistrars() {
+    // Approved by the losing registrar.
+    persistHistory(
+        HistoryEntry.Type.DOMAIN_TRANSFER_APPROVE,
+        "TheRegistrar",
+        "NewRegistrar",
+        record("2027-01-15T10:00:00Z", TRANSFER_SUCCESSFUL, 1));
+    // Requested by the gaining registrar, and approved automatically.
+    persistHistory(
+        HistoryEntry.Type.DOMAIN_TRANSFER_REQUEST,
+        "NewRegistrar",
+        "TheRegistrar",
+        record("2027-01-15T11:00:00Z", TRANSFER_SUCCESSFUL, 1));
+    // Rejected by the losing registrar.
+    persistHistory(
+        HistoryEntry.Type.DOMAIN_TRANSFER_REJECT,
+        "NewRegistrar",
+        "TheRegistrar",
+        record("2027-01-15T12:00:00Z", TRANSFER_NACKED, 1));
+
+    counter.recount(YearMonth.of(2027, 1));
+
+    assertThat(loadCounts())
+        .containsExactly(
+            "2027-01-15 tld NewRegistrar TRANSFER_GAINING_SUCCESSFUL 2",
+            "2027-01-15 tld TheRegistrar TRANSFER_LOSING_SUCCESSFUL 2",
+            "2027-01-15 tld TheRegistrar TRANSFER_GAINING_NACKED 1",
+            "2027-01-15 tld NewRegistrar TRANSFER_LOSING_NACKED 1");
+  }
+
+  @Test
+  void testRecount_replacesCountsOfRecountedDaysOnly() {
+    persistHistory(
+        HistoryEntry.Type.DOMAIN_CREATE,
+        "TheRegistrar",
+        null,
+        record("2027-01-15T10:00:00Z", NET_ADDS_1_YR, 1),
+        record("2027-01-20T10:00:00Z", NET_ADDS_1_YR, 1));
+    counter.recount(YearMonth.of(2027, 1));
+    persistHistory(
+        HistoryEntry.Type.DOMAIN_CREATE,
+        "TheRegistrar",
+        null,
+        record("2027-01-15T11:00:00Z", NET_ADDS_1_YR, 1),
+        record("2027-01-20T11:00:00Z", NET_ADDS_1_YR, 1));
+
+    counter.recount(LocalDate.of(2027, 1, 20), LocalDate.of(2027, 1, 21));
+
+    assertThat(loadCounts())
+        .containsExactly(
+            "2027-01-15 tld TheRegistrar NET_ADDS_1_YR 1",
+            "2027-01-20 tld TheRegistrar NET_ADDS_1_YR 2");
+  }
+
+  private void persistHistory(
+      HistoryEntry.Type type,
+      String registrarId,
+      String otherRegistrarId,
+      DomainTransactionRecord... records) {
+    persistResource(
+        new DomainHistory.Builder()
+            .setDomain(domain)
+            .setType(type)
+            .setModificationTime(clock.now())
+            .setRegistrarId(registrarId)
+            .setOtherRegistrarId(otherRegistrarId)
+            .setDomainTransactionRecords(ImmutableSet.copyOf(records))
+            .build());
+    clock.advanceOneMilli();
+  }
+
+  private static DomainTransactionRecord record(
+      String reportingTime, TransactionReportField field, int amount) {
+    return DomainTransactionRecord.create("tld", Instant.parse(reportingTime), field, amount);
+  }
+
+  private static ImmutableList<String> loadCounts() {
+    @SuppressWarnings("unchecked")
+    List<Object[]> rows =
+        tm().transact(
+                () ->
+                    tm().getEntityManager()
+                        .createNativeQuery(
+                            """
+                            SELECT CAST(reporting_date AS text), tld, registrar_id, metric_name,
+                              metric_value
+                            FROM "IcannTransactionCount"
+                            """)
+                        .getResultList());
+    return rows.stream()
+        .map(row -> String.format("%s %s %s %s %s", row))
+        .collect(toImmutableList());
+  }
+}
@@ -49,6 +49,7 @@ class GenerateSpec11ReportActionTest extends BeamActionTestBase {
             "gs://staging-project/staging-bucket/",
             "gs://reporting-project/reporting-bucket/",
             "api_key/a",
+            false,
             clock.nowDate(),
             true,
             clock,
@@ -72,6 +73,7 @@ class GenerateSpec11ReportActionTest extends BeamActionTestBase {
             "gs://staging-project/staging-bucket/",
             "gs://reporting-project/reporting-bucket/",
             "api_key/a",
+            false,
             clock.nowDate(),
             true,
             clock,
@@ -103,6 +105,7 @@ class GenerateSpec11ReportActionTest extends BeamActionTestBase {
             "gs://staging-project/staging-bucket/",
             "gs://reporting-project/reporting-bucket/",
             "api_key/a",
+            false,
             clock.nowDate(),
             false,
             clock,
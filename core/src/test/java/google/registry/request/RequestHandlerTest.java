@@ -20,6 +20,7 @@ import static google.registry.request.Action.Method.POST;
 import static google.registry.request.auth.Auth.AUTH_ADMIN;
 import static google.registry.request.auth.Auth.AUTH_PUBLIC;
 import static google.registry.request.auth.AuthResult.NOT_AUTHENTICATED;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -37,6 +38,7 @@ import google.registry.request.auth.AuthSettings.AuthLevel;
 import google.registry.request.auth.RequestAuthenticator;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.Optional;
@@ -87,6 +89,14 @@ public final class RequestHandlerTest {
     }
   }
 
+  @Action(service = Action.Service.FRONTEND, path = "/abort", auth = AUTH_PUBLIC)
+  public static final class AbortTask implements Runnable {
+    @Override
+    public void run() {
+      throw new ResponseAbortedException("Abort the stream", new IOException("Connection reset"));
+    }
+  }
+
   @Action(service = Action.Service.FRONTEND, path = "/failAtConstruction", auth = AUTH_PUBLIC)
   public static final class FailAtConstructionTask implements Runnable {
     FailAtConstructionTask() {
@@ -158,6 +168,10 @@ public final class RequestHandlerTest {
       return new FailTask();
     }
 
+    public AbortTask abortTask() {
+      return new AbortTask();
+    }
+
     public FailAtConstructionTask failAtConstructionTask() {
       return new FailAtConstructionTask();
     }
@@ -309,6 +323,18 @@ public final class RequestHandlerTest {
     assertMetric("/fail", GET, AuthLevel.NONE, false);
   }
 
+  @Test
+  void testHandleRequest_taskAbortsResponse_propagates() throws Exception {
+    when(req.getMethod()).thenReturn("GET");
+    when(req.getRequestURI()).thenReturn("/abort");
+    when(requestAuthenticator.authorize(AUTH_PUBLIC.authSettings(), req))
+        .thenReturn(Optional.of(NOT_AUTHENTICATED));
+
+    assertThrows(ResponseAbortedException.class, () -> handler.handleRequest(req, rsp));
+
+    assertMetric("/abort", GET, AuthLevel.NONE, false);
+  }
+
   /** Test for a regression of the issue in b/21377705. */
   @Test
   void testHandleRequest_taskThrowsHttpException_atConstructionTime_getsHandledByHandler()
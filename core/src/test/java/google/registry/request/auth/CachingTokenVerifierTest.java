@@ -0,0 +1,87 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.request.auth;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken.Payload;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.api.client.json.webtoken.JsonWebSignature.Header;
+import com.google.auth.oauth2.TokenVerifier.VerificationException;
+import google.registry.testing.FakeClock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link CachingTokenVerifier}. */
+class CachingTokenVerifierTest {
+
+  private final FakeClock clock = new FakeClock(Instant.parse("2026-01-01T00:00:00Z"));
+  private final Payload payload = new Payload();
+  private final JsonWebSignature jwt =
+      new JsonWebSignature(new Header(), payload, new byte[0], new byte[0]);
+  private final List<String> verifiedTokens = new ArrayList<>();
+  private final CachingTokenVerifier verifier =
+      new CachingTokenVerifier(
+          "TEST",
+          (service, token) -> {
+            verifiedTokens.add(service + ":" + token);
+            if (token.equals("bad-token")) {
+              throw new VerificationException("Bad token");
+            }
+            return jwt;
+          },
+          clock,
+          10);
+
+  @Test
+  void testVerify_cachesUntilExpiration() throws Exception {
+    payload.setExpirationTimeSeconds(clock.now().plus(Duration.ofMinutes(30)).getEpochSecond());
+    assertThat(verifier.verify("backend", "token")).isSameInstanceAs(jwt);
+    clock.advanceBy(Duration.ofMinutes(29));
+    assertThat(verifier.verify("backend", "token")).isSameInstanceAs(jwt);
+    assertThat(verifiedTokens).containsExactly("backend:token");
+    clock.advanceBy(Duration.ofMinutes(1));
+    assertThat(verifier.verify("backend", "token")).isSameInstanceAs(jwt);
+    assertThat(verifiedTokens).containsExactly("backend:token", "backend:token");
+  }
+
+  @Test
+  void testVerify_keyedByService() throws Exception {
+    payload.setExpirationTimeSeconds(clock.now().plus(Duration.ofMinutes(30)).getEpochSecond());
+    verifier.verify("backend", "token");
+    verifier.verify("frontend", "token");
+    verifier.verify(null, "token");
+    verifier.verify("backend", "token");
+    assertThat(verifiedTokens).containsExactly("backend:token", "frontend:token", "null:token");
+  }
+
+  @Test
+  void testVerify_failuresNotCached() {
+    assertThrows(VerificationException.class, () -> verifier.verify("backend", "bad-token"));
+    assertThrows(VerificationException.class, () -> verifier.verify("backend", "bad-token"));
+    assertThat(verifiedTokens).containsExactly("backend:bad-token", "backend:bad-token");
+  }
+
+  @Test
+  void testVerify_tokenWithoutExpirationNotCached() throws Exception {
+    verifier.verify("backend", "token");
+    verifier.verify("backend", "token");
+    assertThat(verifiedTokens).containsExactly("backend:token", "backend:token");
+  }
+}
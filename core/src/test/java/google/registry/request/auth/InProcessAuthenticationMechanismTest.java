@@ -0,0 +1,53 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.request.auth;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+import google.registry.util.FakeHttpServletRequest;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link InProcessAuthenticationMechanism}. */
+class InProcessAuthenticationMechanismTest {
+
+  private final InProcessAuthenticationMechanism mechanism =
+      new InProcessAuthenticationMechanism(ImmutableSet.of("service@email.test"));
+  private final FakeHttpServletRequest request = new FakeHttpServletRequest();
+
+  @Test
+  void testAuthenticate_marked() {
+    InProcessAuthenticationMechanism.markAuthenticated(request, "service@email.test");
+    assertThat(mechanism.authenticate(request))
+        .isEqualTo(AuthResult.createApp("service@email.test"));
+  }
+
+  @Test
+  void testAuthenticate_notMarked() {
+    assertThat(mechanism.authenticate(request)).isEqualTo(AuthResult.NOT_AUTHENTICATED);
+  }
+
+  @Test
+  void testAuthenticate_unknownServiceAccount() {
+    InProcessAuthenticationMechanism.markAuthenticated(request, "bad-guy@evil.real");
+    assertThat(mechanism.authenticate(request)).isEqualTo(AuthResult.NOT_AUTHENTICATED);
+  }
+
+  @Test
+  void testAuthenticate_forgedAttribute() {
+    request.setAttribute(InProcessAuthenticationMechanism.class.getName(), "service@email.test");
+    assertThat(mechanism.authenticate(request)).isEqualTo(AuthResult.NOT_AUTHENTICATED);
+  }
+}
@@ -41,6 +41,8 @@ import google.registry.persistence.transaction.JpaTestExtensions;
 import google.registry.request.auth.AuthSettings.AuthLevel;
 import google.registry.request.auth.OidcTokenAuthenticationMechanism.IapOidcAuthenticationMechanism;
 import google.registry.request.auth.OidcTokenAuthenticationMechanism.RegularOidcAuthenticationMechanism;
+import google.registry.testing.FakeClock;
+import google.registry.util.Clock;
 import google.registry.util.GoogleCredentialsBundle;
 import jakarta.inject.Singleton;
 import jakarta.servlet.http.HttpServletRequest;
@@ -230,6 +232,19 @@ public class OidcTokenAuthenticationMechanismTest {
       return "client-id";
     }
 
+    @Provides
+    @Singleton
+    @Config("verifiedTokenCacheMaxEntries")
+    int provideVerifiedTokenCacheMaxEntries() {
+      return 10;
+    }
+
+    @Provides
+    @Singleton
+    Clock provideClock() {
+      return new FakeClock();
+    }
+
     @Provides
     @Singleton
     @ApplicationDefaultCredential
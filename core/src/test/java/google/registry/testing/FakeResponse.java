@@ -24,7 +24,9 @@ import com.google.common.net.MediaType;
 import google.registry.request.Response;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.time.Instant;
@@ -45,6 +47,7 @@ public final class FakeResponse implements Response {
 
   private final StringWriter writer = new StringWriter();
   private PrintWriter printWriter = new PrintWriter(writer);
+  private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
   private ArrayList<Cookie> cookies = new ArrayList<>();
 
@@ -68,6 +71,11 @@ public final class FakeResponse implements Response {
     return writer;
   }
 
+  /** Returns everything written to {@link #getOutputStream}. */
+  public byte[] getOutputStreamBytes() {
+    return outputStream.toByteArray();
+  }
+
   @Override
   public void sendRedirect(String url) throws IOException {
     status = HttpServletResponse.SC_FOUND;
@@ -110,11 +118,28 @@ public final class FakeResponse implements Response {
     cookies.add(cookie);
   }
 
+  @Override
+  public void reset() {
+    status = 200;
+    contentType = MediaType.HTML_UTF_8;
+    payload = "";
+    headers.clear();
+    cookies.clear();
+    writer.getBuffer().setLength(0);
+    outputStream.reset();
+    wasMutuallyExclusiveResponseSet = false;
+  }
+
   @Override
   public PrintWriter getWriter() throws IOException {
     return printWriter;
   }
 
+  @Override
+  public OutputStream getOutputStream() throws IOException {
+    return outputStream;
+  }
+
   public List<Cookie> getCookies() {
     return cookies;
   }
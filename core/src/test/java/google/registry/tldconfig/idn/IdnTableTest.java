@@ -14,11 +14,15 @@
 
 package google.registry.tldconfig.idn;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.Range;
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 
@@ -118,4 +122,37 @@ class IdnTableTest {
             NullPointerException.class, () -> IdnTable.createFrom("sloth", of, Optional.empty()));
     assertThat(thrown).hasMessageThat().contains("sloth missing '# Policy:");
   }
+
+  @Test
+  void testCodepointIndex_masksTablesByCodepoint() {
+    IdnCodepointIndex index =
+        IdnCodepointIndex.create(
+            ImmutableList.of(
+                ImmutableRangeSet.of(Range.closed((int) '0', (int) '9')),
+                ImmutableRangeSet.of(Range.closed((int) '5', (int) 'z')),
+                ImmutableRangeSet.of(Range.singleton(0x2070E))));
+    assertThat(index.getTablesAllowing("")).isEqualTo(0b111);
+    assertThat(index.getTablesAllowing("567")).isEqualTo(0b011);
+    assertThat(index.getTablesAllowing("0123")).isEqualTo(0b001);
+    assertThat(index.getTablesAllowing("abc")).isEqualTo(0b010);
+    assertThat(index.getTablesAllowing("𠜎")).isEqualTo(0b100);
+    assertThat(index.getTablesAllowing("𠜎5")).isEqualTo(0);
+    assertThat(index.getTablesAllowing("𠜱")).isEqualTo(0);
+  }
+
+  @Test
+  void testGetValidTables_matchesEachTable() {
+    for (String label :
+        ImmutableList.of("foo", "à", "á", "っ", "д", "みんなアシヨわみけabc", "eco・driving", "")) {
+      ImmutableList<IdnTableEnum> expected =
+          Arrays.stream(IdnTableEnum.values())
+              .filter(idnTable -> idnTable.getTable().isValidLabel(label))
+              .collect(toImmutableList());
+      assertThat(IdnTableEnum.getValidTables(label, Arrays.asList(IdnTableEnum.values())))
+          .containsExactlyElementsIn(expected)
+          .inOrder();
+      assertThat(IdnTableEnum.findFirstValidTable(label, Arrays.asList(IdnTableEnum.values())))
+          .isEqualTo(expected.stream().findFirst());
+    }
+  }
 }
@@ -22,6 +22,7 @@ import static google.registry.util.DateTimeUtils.minusDays;
 import static jakarta.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import google.registry.model.ForeignKeyUtils;
 import google.registry.model.domain.Domain;
@@ -89,6 +90,69 @@ public class ConsoleDomainListActionTest extends ConsoleActionBaseTestCase {
         .containsExactly("4exists.tld", "3exists.tld", "2exists.tld", "1exists.tld", "0exists.tld");
   }
 
+  @Test
+  void testSuccess_pageCursor() {
+    ConsoleDomainListAction action = createAction("TheRegistrar", null, 0, 5, null, null);
+    action.run();
+    DomainListResult result = GSON.fromJson(response.getPayload(), DomainListResult.class);
+    assertThat(result.nextPageCursor).isNotNull();
+
+    action =
+        createAction("TheRegistrar", result.checkpointTime, 0, 5, 10L, null, result.nextPageCursor);
+    action.run();
+    result = GSON.fromJson(response.getPayload(), DomainListResult.class);
+    assertThat(result.domains.stream().map(Domain::getDomainName).collect(toImmutableList()))
+        .containsExactly("4exists.tld", "3exists.tld", "2exists.tld", "1exists.tld", "0exists.tld")
+        .inOrder();
+
+    action =
+        createAction("TheRegistrar", result.checkpointTime, 0, 5, 10L, null, result.nextPageCursor);
+    action.run();
+    result = GSON.fromJson(response.getPayload(), DomainListResult.class);
+    assertThat(result.domains).isEmpty();
+    assertThat(result.nextPageCursor).isNull();
+  }
+
+  @Test
+  void testSuccess_pageCursor_sameCreationTime() {
+    // Domains created at the same time are ordered by repo ID, so none are skipped or repeated.
+    clock.advanceOneMilli();
+    persistActiveDomain("a-tie.tld", clock.now());
+    persistActiveDomain("b-tie.tld", clock.now());
+    persistActiveDomain("c-tie.tld", clock.now());
+    clock.advanceOneMilli();
+    ImmutableList.Builder<String> domainNames = new ImmutableList.Builder<>();
+    String pageCursor = null;
+    do {
+      createAction("TheRegistrar", null, 0, 2, null, null, pageCursor).run();
+      DomainListResult result = GSON.fromJson(response.getPayload(), DomainListResult.class);
+      result.domains.forEach(domain -> domainNames.add(domain.getDomainName()));
+      pageCursor = result.nextPageCursor;
+    } while (pageCursor != null);
+    assertThat(domainNames.build()).hasSize(13);
+    assertThat(domainNames.build()).containsNoDuplicates();
+  }
+
+  @Test
+  void testSuccess_totalResultsEstimatedPastMaxExactCount() {
+    ConsoleDomainListAction.setMaxExactCountForTest(3);
+    try {
+      createAction("TheRegistrar").run();
+      DomainListResult result = GSON.fromJson(response.getPayload(), DomainListResult.class);
+      assertThat(result.domains).hasSize(10);
+      assertThat(result.totalResults).isAtLeast(4);
+    } finally {
+      ConsoleDomainListAction.setMaxExactCountForTest(10_000);
+    }
+  }
+
+  @Test
+  void testFailure_invalidPageCursor() {
+    createAction("TheRegistrar", null, 0, 5, null, null, "not a cursor").run();
+    assertThat(response.getStatus()).isEqualTo(SC_BAD_REQUEST);
+    assertThat(response.getPayload()).isEqualTo("Invalid page cursor");
+  }
+
   @Test
   void testSuccess_partialPage() {
     ConsoleDomainListAction action = createAction("TheRegistrar", null, 1, 8, null, null);
@@ -212,6 +276,18 @@ public class ConsoleDomainListActionTest extends ConsoleActionBaseTestCase {
       @Nullable Integer resultsPerPage,
       @Nullable Long totalResults,
       @Nullable String searchTerm) {
+    return createAction(
+        registrarId, checkpointTime, pageNumber, resultsPerPage, totalResults, searchTerm, null);
+  }
+
+  private ConsoleDomainListAction createAction(
+      String registrarId,
+      @Nullable Instant checkpointTime,
+      @Nullable Integer pageNumber,
+      @Nullable Integer resultsPerPage,
+      @Nullable Long totalResults,
+      @Nullable String searchTerm,
+      @Nullable String pageCursor) {
     AuthResult authResult = AuthResult.createUser(fteUser);
     consoleApiParams = ConsoleApiParamsUtils.createFake(authResult);
     when(consoleApiParams.request().getMethod()).thenReturn(Action.Method.GET.toString());
@@ -223,6 +299,7 @@ public class ConsoleDomainListActionTest extends ConsoleActionBaseTestCase {
         Optional.ofNullable(pageNumber),
         Optional.ofNullable(resultsPerPage),
         Optional.ofNullable(totalResults),
-        Optional.ofNullable(searchTerm));
+        Optional.ofNullable(searchTerm),
+        Optional.ofNullable(pageCursor));
   }
 }
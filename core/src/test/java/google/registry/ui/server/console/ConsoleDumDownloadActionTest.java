@@ -14,11 +14,20 @@
 
 package google.registry.ui.server.console;
 
+import static com.google.common.net.HttpHeaders.ACCEPT_ENCODING;
+import static com.google.common.net.HttpHeaders.CONTENT_ENCODING;
 import static com.google.common.truth.Truth.assertThat;
 import static google.registry.util.DateTimeUtils.minusDays;
 import static google.registry.util.DateTimeUtils.plusDays;
 import static jakarta.servlet.http.HttpServletResponse.SC_FORBIDDEN;
+import static jakarta.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
 import static jakarta.servlet.http.HttpServletResponse.SC_OK;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
@@ -26,13 +35,19 @@ import google.registry.model.console.GlobalRole;
 import google.registry.model.console.User;
 import google.registry.model.console.UserRoles;
 import google.registry.request.Action;
+import google.registry.request.Response;
+import google.registry.request.ResponseAbortedException;
 import google.registry.request.auth.AuthResult;
 import google.registry.testing.ConsoleApiParamsUtils;
 import google.registry.testing.DatabaseHelper;
 import google.registry.testing.FakeResponse;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 class ConsoleDumDownloadActionTest extends ConsoleActionBaseTestCase {
 
@@ -58,8 +73,42 @@ class ConsoleDumDownloadActionTest extends ConsoleActionBaseTestCase {
             "0exists.tld,2024-04-15 00:00:00+00,2025-02-09 00:00:00+00,{INACTIVE}");
     assertThat(response.getStatus()).isEqualTo(SC_OK);
     ImmutableList<String> actual =
-        ImmutableList.copyOf(response.getStringWriter().toString().split("\r\n"));
+        ImmutableList.copyOf(new String(response.getOutputStreamBytes(), UTF_8).split("\r\n"));
     assertThat(actual).containsExactlyElementsIn(expected);
+    assertThat(response.getHeaders()).doesNotContainKey(CONTENT_ENCODING);
+  }
+
+  @Test
+  void testSuccess_gzip() throws IOException {
+    AuthResult authResult = AuthResult.createUser(fteUser);
+    ConsoleDumDownloadAction action = createAction(authResult);
+    when(consoleApiParams.request().getHeader(ACCEPT_ENCODING)).thenReturn("gzip, deflate, br");
+    action.run();
+    assertThat(response.getStatus()).isEqualTo(SC_OK);
+    assertThat(response.getHeaders()).containsEntry(CONTENT_ENCODING, "gzip");
+    String csv;
+    try (GZIPInputStream gzipStream =
+        new GZIPInputStream(new ByteArrayInputStream(response.getOutputStreamBytes()))) {
+      csv = new String(gzipStream.readAllBytes(), UTF_8);
+    }
+    assertThat(csv.split("\r\n"))
+        .asList()
+        .containsExactly(
+            "Domain Name,Creation Time,Expiration Time,Domain Statuses",
+            "2exists.tld,2024-04-15 00:00:00.002+00,2025-02-09 00:00:00.002+00,{INACTIVE}",
+            "1exists.tld,2024-04-15 00:00:00.001+00,2025-02-09 00:00:00.001+00,{INACTIVE}",
+            "0exists.tld,2024-04-15 00:00:00+00,2025-02-09 00:00:00+00,{INACTIVE}");
+  }
+
+  @Test
+  void testAcceptsGzip() {
+    assertThat(ConsoleDumDownloadAction.acceptsGzip(null)).isFalse();
+    assertThat(ConsoleDumDownloadAction.acceptsGzip("")).isFalse();
+    assertThat(ConsoleDumDownloadAction.acceptsGzip("deflate, br")).isFalse();
+    assertThat(ConsoleDumDownloadAction.acceptsGzip("gzip")).isTrue();
+    assertThat(ConsoleDumDownloadAction.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+    assertThat(ConsoleDumDownloadAction.acceptsGzip("gzip;q=0, deflate")).isFalse();
+    assertThat(ConsoleDumDownloadAction.acceptsGzip("gzip; q=0.0")).isFalse();
   }
 
   @Test
@@ -76,10 +125,89 @@ class ConsoleDumDownloadActionTest extends ConsoleActionBaseTestCase {
     assertThat(response.getStatus()).isEqualTo(SC_FORBIDDEN);
   }
 
+  @Test
+  void testFailure_beforeStreaming_returnsError() throws IOException {
+    // NewRegistrar has no domains, so nothing is sent until the response is completed.
+    Response failingResponse = mock(Response.class);
+    when(failingResponse.getOutputStream()).thenReturn(new FailingOutputStream(0));
+    ConsoleDumDownloadAction action =
+        createAction(AuthResult.createUser(fteUser), failingResponse, "NewRegistrar");
+    action.run();
+    InOrder inOrder = inOrder(failingResponse);
+    inOrder.verify(failingResponse).reset();
+    inOrder.verify(failingResponse).setStatus(SC_INTERNAL_SERVER_ERROR);
+  }
+
+  @Test
+  void testFailure_gzipBeforeStreaming_dropsGzipHeaderAndReturnsError() throws IOException {
+    // The gzip header is written when the stream is opened, the failure comes when it's finished.
+    Response failingResponse = mock(Response.class);
+    when(failingResponse.getOutputStream()).thenReturn(new FailingOutputStream(1));
+    ConsoleDumDownloadAction action =
+        createAction(AuthResult.createUser(fteUser), failingResponse, "NewRegistrar");
+    when(consoleApiParams.request().getHeader(ACCEPT_ENCODING)).thenReturn("gzip");
+    action.run();
+    InOrder inOrder = inOrder(failingResponse);
+    inOrder.verify(failingResponse).setHeader(CONTENT_ENCODING, "gzip");
+    inOrder.verify(failingResponse).reset();
+    inOrder.verify(failingResponse).setStatus(SC_INTERNAL_SERVER_ERROR);
+  }
+
+  @Test
+  void testFailure_whileStreaming_abortsResponse() throws IOException {
+    // The first write is the header and first row, the second one the remaining rows.
+    Response failingResponse = mock(Response.class);
+    when(failingResponse.getOutputStream()).thenReturn(new FailingOutputStream(1));
+    ConsoleDumDownloadAction action =
+        createAction(AuthResult.createUser(fteUser), failingResponse, "TheRegistrar");
+    ResponseAbortedException thrown = assertThrows(ResponseAbortedException.class, action::run);
+    assertThat(thrown).hasCauseThat().isInstanceOf(IOException.class);
+    verify(failingResponse, never()).reset();
+    verify(failingResponse, never()).setStatus(SC_INTERNAL_SERVER_ERROR);
+    verify(failingResponse, never()).setStatus(SC_OK);
+  }
+
   private ConsoleDumDownloadAction createAction(AuthResult authResult) {
     consoleApiParams = ConsoleApiParamsUtils.createFake(authResult);
     response = (FakeResponse) consoleApiParams.response();
     when(consoleApiParams.request().getMethod()).thenReturn(Action.Method.GET.toString());
     return new ConsoleDumDownloadAction(clock, consoleApiParams, "TheRegistrar", "test_name");
   }
+
+  private ConsoleDumDownloadAction createAction(
+      AuthResult authResult, Response response, String registrarId) {
+    ConsoleApiParams fakeParams = ConsoleApiParamsUtils.createFake(authResult);
+    consoleApiParams =
+        ConsoleApiParams.create(
+            fakeParams.request(),
+            response,
+            authResult,
+            fakeParams.sendEmailUtils(),
+            fakeParams.xsrfTokenManager(),
+            fakeParams.gson());
+    when(consoleApiParams.request().getMethod()).thenReturn(Action.Method.GET.toString());
+    return new ConsoleDumDownloadAction(clock, consoleApiParams, registrarId, "test_name");
+  }
+
+  /** An output stream that accepts a number of writes and fails on all later ones. */
+  private static final class FailingOutputStream extends OutputStream {
+
+    private int writesLeft;
+
+    FailingOutputStream(int successfulWrites) {
+      this.writesLeft = successfulWrites;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      if (writesLeft-- <= 0) {
+        throw new IOException("Connection reset");
+      }
+    }
+  }
 }
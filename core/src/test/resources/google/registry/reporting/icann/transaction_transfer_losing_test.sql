@@ -13,60 +13,29 @@
   -- See the License for the specific language governing permissions and
   -- limitations under the License.
 
-  -- Counts the number of mutating transactions each registrar made.
+  -- Counts the number of transfers away from each registrar.
 
-  -- We populate the fields through explicit logging of
-  -- DomainTransactionRecords, which contain all necessary information for
-  -- reporting (such as reporting time, report field, report amount, etc.
+  -- The daily counts per TLD, registrar and report field are kept in the
+  -- IcannTransactionCount table from the DomainTransactionRecords, which contain
+  -- all necessary information for reporting (such as reporting time, report
+  -- field, report amount, etc.), already attributed to the losing registrar for
+  -- the TRANSFER_LOSING fields. See IcannTransactionCounter.
 
 SELECT
     tld,
     registrar_table.registrar_name AS registrar_name,
     metricName,
     metricValue
-FROM (
-    SELECT
-        tld,
-        clientId,
-        CASE WHEN field = 'TRANSFER_SUCCESSFUL' THEN 'TRANSFER_LOSING_SUCCESSFUL'
-        WHEN field = 'TRANSFER_NACKED' THEN 'TRANSFER_LOSING_NACKED'
-        ELSE NULL
-        END AS metricName,
-        SUM(amount) AS metricValue
-    FROM (
-        SELECT
-            CASE
-                -- Explicit transfer acks (approve) and nacks (reject) are done
-                -- by the opposing registrar. Thus, for these specific actions,
-                -- we swap the 'history_other_registrar_id' with the
-                -- 'history_registrar_id' to properly account for this reversal.
-                WHEN (history_type = 'DOMAIN_TRANSFER_APPROVE'
-                OR history_type = 'DOMAIN_TRANSFER_REJECT')
-                THEN history_registrar_id
-                ELSE history_other_registrar_id
-            END AS clientId,
-            tld,
-            report_field AS field,
-            report_amount AS amount,
-            reporting_time AS reportingTime
-            FROM EXTERNAL_QUERY("projects/domain-registry-alpha/locations/us/connections/domain-registry-alpha-sql",
-            ''' SELECT history_type, history_other_registrar_id, history_registrar_id, domain_repo_id, history_revision_id FROM "DomainHistory";''') AS dh
-            JOIN
-                EXTERNAL_QUERY("projects/domain-registry-alpha/locations/us/connections/domain-registry-alpha-sql",
-                '''SELECT domain_repo_id, history_revision_id, reporting_time, tld, report_field, report_amount FROM "DomainTransactionRecord";''') AS dtr
-            ON
-            dh.domain_repo_id = dtr.domain_repo_id AND dh.history_revision_id = dtr.history_revision_id
-        )
-    -- Only look at this month's data
-    WHERE reportingTime
-    BETWEEN TIMESTAMP('2017-09-01 00:00:00.000')
-    AND TIMESTAMP('2017-09-30 23:59:59.999')
-    GROUP BY
-        tld,
-        clientId,
-        field ) AS counts_table
+FROM
+    EXTERNAL_QUERY("projects/domain-registry-alpha/locations/us/connections/domain-registry-alpha-sql",
+    '''SELECT tld, registrar_id, metric_name AS "metricName",
+        CAST(SUM(metric_value) AS bigint) AS "metricValue"
+    FROM "IcannTransactionCount"
+    WHERE reporting_date BETWEEN '2017-09-01' AND '2017-09-30'
+    AND metric_name IN ('TRANSFER_LOSING_SUCCESSFUL', 'TRANSFER_LOSING_NACKED')
+    GROUP BY tld, registrar_id, metric_name;''') AS counts_table
 JOIN
      EXTERNAL_QUERY("projects/domain-registry-alpha/locations/us/connections/domain-registry-alpha-sql",
                 '''SELECT registrar_id, registrar_name FROM "Registrar";''') AS registrar_table
 ON
-    counts_table.clientId = registrar_table.registrar_id
+    counts_table.registrar_id = registrar_table.registrar_id
@@ -0,0 +1,21 @@
+-- Copyright 2026 The Nomulus Authors. All Rights Reserved.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+
+-- Serves the console domain list, which pages through a registrar's domains
+-- by (creation_time, repo_id) and searches them by substring.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS domain_registrar_creation_time_repo_id_idx ON "Domain"
+    USING btree (current_sponsor_registrar_id, creation_time DESC, repo_id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS domain_domain_name_lower_trgm_idx ON "Domain"
+    USING gin (lower(domain_name) gin_trgm_ops);
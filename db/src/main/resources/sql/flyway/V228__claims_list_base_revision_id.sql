@@ -0,0 +1,18 @@
+-- Copyright 2026 The Nomulus Authors. All Rights Reserved.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+
+-- Claims list and SMD revocation list revisions can be deltas against the
+-- latest snapshot, in which case base_revision_id is the snapshot's revision
+-- and a null claim key or revocation time marks a removed entry.
+ALTER TABLE "ClaimsList" ADD COLUMN base_revision_id bigint;
@@ -0,0 +1,21 @@
+-- Copyright 2026 The Nomulus Authors. All Rights Reserved.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+
+-- Unique indexes on the primary keys of the history tables once they are partitioned by
+-- modification time (V240 and V241), so that the existing tables can take on those primary keys
+-- without being locked while the indexes are built.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS domainhistory_partition_key_idx ON "DomainHistory"
+  USING btree (domain_repo_id, history_revision_id, history_modification_time);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS hosthistory_partition_key_idx ON "HostHistory"
+  USING btree (host_repo_id, history_revision_id, history_modification_time);
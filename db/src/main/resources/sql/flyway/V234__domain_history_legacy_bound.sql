@@ -0,0 +1,44 @@
+-- Copyright 2026 The Nomulus Authors. All Rights Reserved.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+
+-- Bounds the existing rows of DomainHistory to the range of the partition it is about to become
+-- (V240), so that Postgres can attach it without scanning it. The constraint is validated by the
+-- next script, outside of the exclusive lock taken here.
+--
+-- The bound is the start of the month after next as of when this script runs, so that it is still
+-- in the future when V240 and V241 run in the same deployment, and no new row can break it. A
+-- database without any history, such as that of a new environment, gets a fixed bound in the past
+-- instead, so that all of its history goes into monthly partitions and its schema is the same
+-- whenever it is created.
+--
+-- The bound is kept in the history_legacy_bound function for the later scripts, until V241 drops
+-- it.
+DO $$
+DECLARE
+  this_month timestamp := date_trunc('month', now() AT TIME ZONE 'UTC');
+  bound timestamptz := CASE
+      WHEN EXISTS (SELECT 1 FROM "DomainHistory") OR EXISTS (SELECT 1 FROM "HostHistory")
+        THEN (this_month + interval '2 months') AT TIME ZONE 'UTC'
+      ELSE '2000-01-01 00:00:00+00'
+    END;
+BEGIN
+  EXECUTE format(
+      'CREATE FUNCTION history_legacy_bound() RETURNS timestamptz LANGUAGE sql IMMUTABLE AS %L',
+      format('SELECT %L::timestamptz', bound));
+  EXECUTE format(
+      'ALTER TABLE ONLY "DomainHistory" ADD CONSTRAINT domainhistory_legacy_bound '
+          || 'CHECK (history_modification_time < %L) NOT VALID',
+      bound);
+END;
+$$;
@@ -0,0 +1,18 @@
+-- Copyright 2026 The Nomulus Authors. All Rights Reserved.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+
+-- A foreign key can only reference a partitioned table by a key that includes the partition key,
+-- which the history revision references don't have.
+ALTER TABLE ONLY "DomainHistoryHost"
+  DROP CONSTRAINT fka9woh3hu8gx5x0vly6bai327n;
@@ -0,0 +1,69 @@
+-- Copyright 2026 The Nomulus Authors. All Rights Reserved.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+
+-- Partitions DomainHistory by month of history_modification_time.
+--
+-- The existing table becomes the partition for all times before the bound set by V234, and later
+-- months get their own partitions from create_history_partitions (see V242). Rows written
+-- before their month's partition exists go to the default partition.
+--
+-- The primary key of a partitioned table has to include the partition key. Entries are still
+-- identified by repo ID and revision ID alone, since revision IDs are unique.
+ALTER TABLE ONLY "DomainHistory"
+  DROP CONSTRAINT "DomainHistory_pkey",
+  ADD CONSTRAINT "DomainHistory_legacy_pkey"
+  PRIMARY KEY USING INDEX domainhistory_partition_key_idx;
+ALTER TABLE "DomainHistory" RENAME TO "DomainHistory_legacy";
+
+CREATE TABLE "DomainHistory" (LIKE "DomainHistory_legacy" INCLUDING DEFAULTS)
+  PARTITION BY RANGE (history_modification_time);
+
+ALTER TABLE "DomainHistory"
+  ADD CONSTRAINT "DomainHistory_pkey"
+  PRIMARY KEY (domain_repo_id, history_revision_id, history_modification_time);
+ALTER TABLE "DomainHistory"
+  ADD CONSTRAINT fk_domain_history_current_package_token FOREIGN KEY (current_package_token)
+  REFERENCES "AllocationToken"(token) DEFERRABLE INITIALLY DEFERRED;
+ALTER TABLE "DomainHistory"
+  ADD CONSTRAINT fk_domain_history_domain_repo_id FOREIGN KEY (domain_repo_id)
+  REFERENCES "Domain"(repo_id) DEFERRABLE INITIALLY DEFERRED;
+ALTER TABLE "DomainHistory"
+  ADD CONSTRAINT fk_domain_history_registrar_id FOREIGN KEY (history_registrar_id)
+  REFERENCES "Registrar"(registrar_id) DEFERRABLE INITIALLY DEFERRED;
+
+-- The existing indexes of the legacy partition become partitions of these.
+CREATE INDEX domain_history_creation_time_idx ON "DomainHistory"
+  USING btree (creation_time);
+CREATE INDEX domain_history_current_package_token_idx ON "DomainHistory"
+  USING hash (current_package_token);
+CREATE INDEX domain_history_domain_repo_id_idx ON "DomainHistory"
+  USING hash (domain_repo_id);
+CREATE INDEX domain_history_history_modification_time_idx ON "DomainHistory"
+  USING btree (history_modification_time);
+CREATE INDEX domain_history_history_registrar_id_idx ON "DomainHistory"
+  USING btree (history_registrar_id);
+CREATE INDEX domain_history_history_revision_id_idx ON "DomainHistory"
+  USING hash (history_revision_id);
+CREATE INDEX domain_history_history_type_idx ON "DomainHistory"
+  USING btree (history_type);
+
+DO $$
+BEGIN
+  EXECUTE format(
+      'ALTER TABLE "DomainHistory" ATTACH PARTITION "DomainHistory_legacy" '
+          || 'FOR VALUES FROM (MINVALUE) TO (%L)',
+      history_legacy_bound());
+END;
+$$;
+CREATE TABLE "DomainHistory_default" PARTITION OF "DomainHistory" DEFAULT;
@@ -0,0 +1,56 @@
+-- Copyright 2026 The Nomulus Authors. All Rights Reserved.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+
+-- Partitions HostHistory by month of history_modification_time, see V240.
+ALTER TABLE ONLY "HostHistory"
+  DROP CONSTRAINT "HostHistory_pkey",
+  ADD CONSTRAINT "HostHistory_legacy_pkey"
+  PRIMARY KEY USING INDEX hosthistory_partition_key_idx;
+ALTER TABLE "HostHistory" RENAME TO "HostHistory_legacy";
+
+CREATE TABLE "HostHistory" (LIKE "HostHistory_legacy" INCLUDING DEFAULTS)
+  PARTITION BY RANGE (history_modification_time);
+
+ALTER TABLE "HostHistory"
+  ADD CONSTRAINT "HostHistory_pkey"
+  PRIMARY KEY (host_repo_id, history_revision_id, history_modification_time);
+ALTER TABLE "HostHistory"
+  ADD CONSTRAINT fk_history_registrar_id FOREIGN KEY (history_registrar_id)
+  REFERENCES "Registrar"(registrar_id) DEFERRABLE INITIALLY DEFERRED;
+ALTER TABLE "HostHistory"
+  ADD CONSTRAINT fk_hosthistory_host FOREIGN KEY (host_repo_id)
+  REFERENCES "Host"(repo_id) DEFERRABLE INITIALLY DEFERRED;
+
+CREATE INDEX host_history_creation_time_idx ON "HostHistory"
+  USING btree (creation_time);
+CREATE INDEX host_history_history_modification_time_idx ON "HostHistory"
+  USING btree (history_modification_time);
+CREATE INDEX host_history_history_registrar_id_idx ON "HostHistory"
+  USING btree (history_registrar_id);
+CREATE INDEX host_history_history_type_idx ON "HostHistory"
+  USING btree (history_type);
+CREATE INDEX host_history_host_name_idx ON "HostHistory"
+  USING btree (host_name);
+
+DO $$
+BEGIN
+  EXECUTE format(
+      'ALTER TABLE "HostHistory" ATTACH PARTITION "HostHistory_legacy" '
+          || 'FOR VALUES FROM (MINVALUE) TO (%L)',
+      history_legacy_bound());
+END;
+$$;
+CREATE TABLE "HostHistory_default" PARTITION OF "HostHistory" DEFAULT;
+
+DROP FUNCTION history_legacy_bound();
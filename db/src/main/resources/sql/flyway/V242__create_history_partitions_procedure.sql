@@ -0,0 +1,59 @@
+-- Copyright 2026 The Nomulus Authors. All Rights Reserved.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+
+-- Creates the partitions of the history tables for the month starting on the given date, unless
+-- the month is already covered by a partition.
+--
+-- Rows of the month may already have been written to the default partition, and Postgres refuses
+-- to add a partition for rows that are in the default one. So each partition is created as a plain
+-- table, the month's rows are moved into it from the default partition, and then it is attached.
+--
+-- This runs as the owner of the history tables, since the users the server connects as can't
+-- create tables, see ManageHistoryPartitionsAction.
+CREATE OR REPLACE PROCEDURE create_history_partitions(month_start date)
+    LANGUAGE plpgsql SECURITY DEFINER
+    SET search_path TO 'public'
+    AS $$
+DECLARE
+  lower_bound timestamptz := month_start::timestamp AT TIME ZONE 'UTC';
+  upper_bound timestamptz := (month_start + interval '1 month') AT TIME ZONE 'UTC';
+  suffix text := to_char(month_start, '"_y"YYYY"m"MM');
+  history_table text;
+  partition_table text;
+BEGIN
+  IF month_start <> date_trunc('month', month_start)::date THEN
+    RAISE EXCEPTION '% is not the start of a month', month_start;
+  END IF;
+  FOREACH history_table IN ARRAY ARRAY['DomainHistory', 'HostHistory'] LOOP
+    partition_table := history_table || suffix;
+    CONTINUE WHEN to_regclass(quote_ident(partition_table)) IS NOT NULL;
+    BEGIN
+      EXECUTE format(
+          'CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS)', partition_table, history_table);
+      EXECUTE format(
+          'WITH moved AS (DELETE FROM %I WHERE history_modification_time >= %L '
+              || 'AND history_modification_time < %L RETURNING *) '
+              || 'INSERT INTO %I SELECT * FROM moved',
+          history_table || '_default', lower_bound, upper_bound, partition_table);
+      EXECUTE format(
+          'ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+          history_table, partition_table, lower_bound, upper_bound);
+    EXCEPTION WHEN invalid_object_definition THEN
+      -- The month is already covered, e.g. by the legacy partition. Everything done for the
+      -- partition above is rolled back.
+      RAISE NOTICE 'Not creating %: %', partition_table, SQLERRM;
+    END;
+  END LOOP;
+END;
+$$;
@@ -0,0 +1,24 @@
+-- Copyright 2026 The Nomulus Authors. All Rights Reserved.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+
+-- Daily transaction counts for the ICANN transactions report, per TLD, registrar and report
+-- field, see IcannTransactionCounter.
+CREATE TABLE IF NOT EXISTS "IcannTransactionCount" (
+    reporting_date date NOT NULL,
+    tld text NOT NULL,
+    registrar_id text NOT NULL,
+    metric_name text NOT NULL,
+    metric_value bigint NOT NULL,
+    PRIMARY KEY (reporting_date, tld, registrar_id, metric_name)
+);
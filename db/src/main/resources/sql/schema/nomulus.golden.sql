@@ -31,6 +31,62 @@ CREATE EXTENSION IF NOT EXISTS hstore WITH SCHEMA public;
 COMMENT ON EXTENSION hstore IS 'data type for storing sets of (key, value) pairs';
 
 
+--
+-- Name: pg_trgm; Type: EXTENSION; Schema: -; Owner: -
+--
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public;
+
+
+--
+-- Name: EXTENSION pg_trgm; Type: COMMENT; Schema: -; Owner: -
+--
+
+COMMENT ON EXTENSION pg_trgm IS 'text similarity measurement and index searching based on trigrams';
+
+
+--
+-- Name: create_history_partitions(date); Type: PROCEDURE; Schema: public; Owner: -
+--
+
+CREATE PROCEDURE public.create_history_partitions(IN month_start date)
+    LANGUAGE plpgsql SECURITY DEFINER
+    SET search_path TO 'public'
+    AS $$
+DECLARE
+  lower_bound timestamptz := month_start::timestamp AT TIME ZONE 'UTC';
+  upper_bound timestamptz := (month_start + interval '1 month') AT TIME ZONE 'UTC';
+  suffix text := to_char(month_start, '"_y"YYYY"m"MM');
+  history_table text;
+  partition_table text;
+BEGIN
+  IF month_start <> date_trunc('month', month_start)::date THEN
+    RAISE EXCEPTION '% is not the start of a month', month_start;
+  END IF;
+  FOREACH history_table IN ARRAY ARRAY['DomainHistory', 'HostHistory'] LOOP
+    partition_table := history_table || suffix;
+    CONTINUE WHEN to_regclass(quote_ident(partition_table)) IS NOT NULL;
+    BEGIN
+      EXECUTE format(
+          'CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS)', partition_table, history_table);
+      EXECUTE format(
+          'WITH moved AS (DELETE FROM %I WHERE history_modification_time >= %L '
+              || 'AND history_modification_time < %L RETURNING *) '
+              || 'INSERT INTO %I SELECT * FROM moved',
+          history_table || '_default', lower_bound, upper_bound, partition_table);
+      EXECUTE format(
+          'ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+          history_table, partition_table, lower_bound, upper_bound);
+    EXCEPTION WHEN invalid_object_definition THEN
+      -- The month is already covered, e.g. by the legacy partition. Everything done for the
+      -- partition above is rolled back.
+      RAISE NOTICE 'Not creating %: %', partition_table, SQLERRM;
+    END;
+  END LOOP;
+END;
+$$;
+
+
 SET default_tablespace = '';
 
 SET default_table_access_method = heap;
@@ -219,7 +275,7 @@ CREATE TABLE public."BsaUnblockableDomain" (
 
 CREATE TABLE public."ClaimsEntry" (
     revision_id bigint NOT NULL,
-    claim_key text NOT NULL,
+    claim_key text,
     domain_label text NOT NULL
 );
 
@@ -231,7 +287,8 @@ CREATE TABLE public."ClaimsEntry" (
 CREATE TABLE public."ClaimsList" (
     revision_id bigint NOT NULL,
     creation_timestamp timestamp with time zone NOT NULL,
-    tmdb_generation_time timestamp with time zone NOT NULL
+    tmdb_generation_time timestamp with time zone NOT NULL,
+    base_revision_id bigint
 );
 
 
@@ -493,7 +550,8 @@ CREATE TABLE public."DomainHistory" (
     current_package_token text,
     lordn_phase text DEFAULT 'NONE'::text NOT NULL,
     last_update_time_via_epp timestamp with time zone
-);
+)
+PARTITION BY RANGE (history_modification_time);
 
 
 --
@@ -507,6 +565,157 @@ CREATE TABLE public."DomainHistoryHost" (
 );
 
 
+--
+-- Name: DomainHistory_default; Type: TABLE; Schema: public; Owner: -
+--
+
+CREATE TABLE public."DomainHistory_default" (
+    history_revision_id bigint NOT NULL,
+    history_by_superuser boolean NOT NULL,
+    history_registrar_id text,
+    history_modification_time timestamp with time zone NOT NULL,
+    history_reason text,
+    history_requested_by_registrar boolean,
+    history_client_transaction_id text,
+    history_server_transaction_id text,
+    history_type text NOT NULL,
+    history_xml_bytes bytea,
+    admin_contact text,
+    auth_info_repo_id text,
+    auth_info_value text,
+    billing_recurrence_id bigint,
+    autorenew_poll_message_id bigint,
+    billing_contact text,
+    deletion_poll_message_id bigint,
+    domain_name text,
+    idn_table_name text,
+    last_transfer_time timestamp with time zone,
+    launch_notice_accepted_time timestamp with time zone,
+    launch_notice_expiration_time timestamp with time zone,
+    launch_notice_tcn_id text,
+    launch_notice_validator_id text,
+    registrant_contact text,
+    registration_expiration_time timestamp with time zone,
+    smd_id text,
+    subordinate_hosts text[],
+    tech_contact text,
+    tld text,
+    transfer_billing_cancellation_id bigint,
+    transfer_billing_recurrence_id bigint,
+    transfer_autorenew_poll_message_id bigint,
+    transfer_billing_event_id bigint,
+    transfer_renew_period_unit text,
+    transfer_renew_period_value integer,
+    transfer_registration_expiration_time timestamp with time zone,
+    transfer_poll_message_id_1 bigint,
+    transfer_poll_message_id_2 bigint,
+    transfer_client_txn_id text,
+    transfer_server_txn_id text,
+    transfer_gaining_registrar_id text,
+    transfer_losing_registrar_id text,
+    transfer_pending_expiration_time timestamp with time zone,
+    transfer_request_time timestamp with time zone,
+    transfer_status text,
+    creation_registrar_id text,
+    creation_time timestamp with time zone,
+    current_sponsor_registrar_id text,
+    deletion_time timestamp with time zone,
+    last_epp_update_registrar_id text,
+    last_epp_update_time timestamp with time zone,
+    statuses text[],
+    update_timestamp timestamp with time zone,
+    domain_repo_id text NOT NULL,
+    autorenew_end_time timestamp with time zone,
+    history_other_registrar_id text,
+    history_period_unit text,
+    history_period_value integer,
+    autorenew_poll_message_history_id bigint,
+    transfer_autorenew_poll_message_history_id bigint,
+    transfer_history_entry_id bigint,
+    transfer_repo_id text,
+    transfer_poll_message_id_3 bigint,
+    current_package_token text,
+    lordn_phase text DEFAULT 'NONE'::text NOT NULL,
+    last_update_time_via_epp timestamp with time zone
+);
+
+
+--
+-- Name: DomainHistory_legacy; Type: TABLE; Schema: public; Owner: -
+--
+
+CREATE TABLE public."DomainHistory_legacy" (
+    history_revision_id bigint NOT NULL,
+    history_by_superuser boolean NOT NULL,
+    history_registrar_id text,
+    history_modification_time timestamp with time zone NOT NULL,
+    history_reason text,
+    history_requested_by_registrar boolean,
+    history_client_transaction_id text,
+    history_server_transaction_id text,
+    history_type text NOT NULL,
+    history_xml_bytes bytea,
+    admin_contact text,
+    auth_info_repo_id text,
+    auth_info_value text,
+    billing_recurrence_id bigint,
+    autorenew_poll_message_id bigint,
+    billing_contact text,
+    deletion_poll_message_id bigint,
+    domain_name text,
+    idn_table_name text,
+    last_transfer_time timestamp with time zone,
+    launch_notice_accepted_time timestamp with time zone,
+    launch_notice_expiration_time timestamp with time zone,
+    launch_notice_tcn_id text,
+    launch_notice_validator_id text,
+    registrant_contact text,
+    registration_expiration_time timestamp with time zone,
+    smd_id text,
+    subordinate_hosts text[],
+    tech_contact text,
+    tld text,
+    transfer_billing_cancellation_id bigint,
+    transfer_billing_recurrence_id bigint,
+    transfer_autorenew_poll_message_id bigint,
+    transfer_billing_event_id bigint,
+    transfer_renew_period_unit text,
+    transfer_renew_period_value integer,
+    transfer_registration_expiration_time timestamp with time zone,
+    transfer_poll_message_id_1 bigint,
+    transfer_poll_message_id_2 bigint,
+    transfer_client_txn_id text,
+    transfer_server_txn_id text,
+    transfer_gaining_registrar_id text,
+    transfer_losing_registrar_id text,
+    transfer_pending_expiration_time timestamp with time zone,
+    transfer_request_time timestamp with time zone,
+    transfer_status text,
+    creation_registrar_id text,
+    creation_time timestamp with time zone,
+    current_sponsor_registrar_id text,
+    deletion_time timestamp with time zone,
+    last_epp_update_registrar_id text,
+    last_epp_update_time timestamp with time zone,
+    statuses text[],
+    update_timestamp timestamp with time zone,
+    domain_repo_id text NOT NULL,
+    autorenew_end_time timestamp with time zone,
+    history_other_registrar_id text,
+    history_period_unit text,
+    history_period_value integer,
+    autorenew_poll_message_history_id bigint,
+    transfer_autorenew_poll_message_history_id bigint,
+    transfer_history_entry_id bigint,
+    transfer_repo_id text,
+    transfer_poll_message_id_3 bigint,
+    current_package_token text,
+    lordn_phase text DEFAULT 'NONE'::text NOT NULL,
+    last_update_time_via_epp timestamp with time zone,
+    CONSTRAINT domainhistory_legacy_bound CHECK ((history_modification_time < '2000-01-01 00:00:00+00'::timestamp with time zone))
+);
+
+
 --
 -- Name: DomainHost; Type: TABLE; Schema: public; Owner: -
 --
@@ -648,6 +857,89 @@ CREATE TABLE public."HostHistory" (
     update_timestamp timestamp with time zone,
     transfer_poll_message_id_3 bigint,
     last_update_time_via_epp timestamp with time zone
+)
+PARTITION BY RANGE (history_modification_time);
+
+
+--
+-- Name: HostHistory_default; Type: TABLE; Schema: public; Owner: -
+--
+
+CREATE TABLE public."HostHistory_default" (
+    history_revision_id bigint NOT NULL,
+    history_by_superuser boolean NOT NULL,
+    history_registrar_id text NOT NULL,
+    history_modification_time timestamp with time zone NOT NULL,
+    history_reason text,
+    history_requested_by_registrar boolean,
+    history_client_transaction_id text,
+    history_server_transaction_id text,
+    history_type text NOT NULL,
+    history_xml_bytes bytea,
+    host_name text,
+    inet_addresses text[],
+    last_superordinate_change timestamp with time zone,
+    last_transfer_time timestamp with time zone,
+    superordinate_domain text,
+    creation_registrar_id text,
+    creation_time timestamp with time zone,
+    current_sponsor_registrar_id text,
+    deletion_time timestamp with time zone,
+    last_epp_update_registrar_id text,
+    last_epp_update_time timestamp with time zone,
+    statuses text[],
+    host_repo_id text NOT NULL,
+    update_timestamp timestamp with time zone,
+    transfer_poll_message_id_3 bigint,
+    last_update_time_via_epp timestamp with time zone
+);
+
+
+--
+-- Name: HostHistory_legacy; Type: TABLE; Schema: public; Owner: -
+--
+
+CREATE TABLE public."HostHistory_legacy" (
+    history_revision_id bigint NOT NULL,
+    history_by_superuser boolean NOT NULL,
+    history_registrar_id text NOT NULL,
+    history_modification_time timestamp with time zone NOT NULL,
+    history_reason text,
+    history_requested_by_registrar boolean,
+    history_client_transaction_id text,
+    history_server_transaction_id text,
+    history_type text NOT NULL,
+    history_xml_bytes bytea,
+    host_name text,
+    inet_addresses text[],
+    last_superordinate_change timestamp with time zone,
+    last_transfer_time timestamp with time zone,
+    superordinate_domain text,
+    creation_registrar_id text,
+    creation_time timestamp with time zone,
+    current_sponsor_registrar_id text,
+    deletion_time timestamp with time zone,
+    last_epp_update_registrar_id text,
+    last_epp_update_time timestamp with time zone,
+    statuses text[],
+    host_repo_id text NOT NULL,
+    update_timestamp timestamp with time zone,
+    transfer_poll_message_id_3 bigint,
+    last_update_time_via_epp timestamp with time zone,
+    CONSTRAINT hosthistory_legacy_bound CHECK ((history_modification_time < '2000-01-01 00:00:00+00'::timestamp with time zone))
+);
+
+
+--
+-- Name: IcannTransactionCount; Type: TABLE; Schema: public; Owner: -
+--
+
+CREATE TABLE public."IcannTransactionCount" (
+    reporting_date date NOT NULL,
+    tld text NOT NULL,
+    registrar_id text NOT NULL,
+    metric_name text NOT NULL,
+    metric_value bigint NOT NULL
 );
 
 
@@ -1124,7 +1416,7 @@ CREATE TABLE public."ServerSecret" (
 
 CREATE TABLE public."SignedMarkRevocationEntry" (
     revision_id bigint NOT NULL,
-    revocation_time timestamp with time zone NOT NULL,
+    revocation_time timestamp with time zone,
     smd_id text NOT NULL
 );
 
@@ -1135,7 +1427,8 @@ CREATE TABLE public."SignedMarkRevocationEntry" (
 
 CREATE TABLE public."SignedMarkRevocationList" (
     revision_id bigint NOT NULL,
-    creation_time timestamp with time zone
+    creation_time timestamp with time zone,
+    base_revision_id bigint
 );
 
 
@@ -1273,6 +1566,34 @@ CREATE SEQUENCE public.project_wide_unique_id_seq
     CACHE 10;
 
 
+--
+-- Name: DomainHistory_default; Type: TABLE ATTACH; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public."DomainHistory" ATTACH PARTITION public."DomainHistory_default" DEFAULT;
+
+
+--
+-- Name: DomainHistory_legacy; Type: TABLE ATTACH; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public."DomainHistory" ATTACH PARTITION public."DomainHistory_legacy" FOR VALUES FROM (MINVALUE) TO ('2000-01-01 00:00:00+00');
+
+
+--
+-- Name: HostHistory_default; Type: TABLE ATTACH; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public."HostHistory" ATTACH PARTITION public."HostHistory_default" DEFAULT;
+
+
+--
+-- Name: HostHistory_legacy; Type: TABLE ATTACH; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public."HostHistory" ATTACH PARTITION public."HostHistory_legacy" FOR VALUES FROM (MINVALUE) TO ('2000-01-01 00:00:00+00');
+
+
 --
 -- Name: BsaDomainRefresh job_id; Type: DEFAULT; Schema: public; Owner: -
 --
@@ -1486,18 +1807,34 @@ ALTER TABLE ONLY public."DomainDsDataHistory"
 
 
 --
--- Name: DomainHistory DomainHistory_pkey; Type: CONSTRAINT; Schema: public; Owner: -
+-- Name: DomainHistory_default DomainHistory_default_pkey; Type: CONSTRAINT; Schema: public; Owner: -
 --
 
-ALTER TABLE ONLY public."DomainHistory"
-    ADD CONSTRAINT "DomainHistory_pkey" PRIMARY KEY (domain_repo_id, history_revision_id);
+ALTER TABLE ONLY public."DomainHistory_default"
+    ADD CONSTRAINT "DomainHistory_default_pkey" PRIMARY KEY (domain_repo_id, history_revision_id, history_modification_time);
 
 
 --
--- Name: DomainTransactionRecord DomainTransactionRecord_pkey; Type: CONSTRAINT; Schema: public; Owner: -
+-- Name: DomainHistory_legacy DomainHistory_legacy_pkey; Type: CONSTRAINT; Schema: public; Owner: -
 --
 
-ALTER TABLE ONLY public."DomainTransactionRecord"
+ALTER TABLE ONLY public."DomainHistory_legacy"
+    ADD CONSTRAINT "DomainHistory_legacy_pkey" PRIMARY KEY (domain_repo_id, history_revision_id, history_modification_time);
+
+
+--
+-- Name: DomainHistory DomainHistory_pkey; Type: CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public."DomainHistory"
+    ADD CONSTRAINT "DomainHistory_pkey" PRIMARY KEY (domain_repo_id, history_revision_id, history_modification_time);
+
+
+--
+-- Name: DomainTransactionRecord DomainTransactionRecord_pkey; Type: CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public."DomainTransactionRecord"
     ADD CONSTRAINT "DomainTransactionRecord_pkey" PRIMARY KEY (id);
 
 
@@ -1533,12 +1870,28 @@ ALTER TABLE ONLY public."GracePeriod"
     ADD CONSTRAINT "GracePeriod_pkey" PRIMARY KEY (grace_period_id);
 
 
+--
+-- Name: HostHistory_default HostHistory_default_pkey; Type: CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public."HostHistory_default"
+    ADD CONSTRAINT "HostHistory_default_pkey" PRIMARY KEY (host_repo_id, history_revision_id, history_modification_time);
+
+
+--
+-- Name: HostHistory_legacy HostHistory_legacy_pkey; Type: CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public."HostHistory_legacy"
+    ADD CONSTRAINT "HostHistory_legacy_pkey" PRIMARY KEY (host_repo_id, history_revision_id, history_modification_time);
+
+
 --
 -- Name: HostHistory HostHistory_pkey; Type: CONSTRAINT; Schema: public; Owner: -
 --
 
 ALTER TABLE ONLY public."HostHistory"
-    ADD CONSTRAINT "HostHistory_pkey" PRIMARY KEY (host_repo_id, history_revision_id);
+    ADD CONSTRAINT "HostHistory_pkey" PRIMARY KEY (host_repo_id, history_revision_id, history_modification_time);
 
 
 --
@@ -1549,6 +1902,14 @@ ALTER TABLE ONLY public."Host"
     ADD CONSTRAINT "Host_pkey" PRIMARY KEY (repo_id);
 
 
+--
+-- Name: IcannTransactionCount IcannTransactionCount_pkey; Type: CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public."IcannTransactionCount"
+    ADD CONSTRAINT "IcannTransactionCount_pkey" PRIMARY KEY (reporting_date, tld, registrar_id, metric_name);
+
+
 --
 -- Name: Lock Lock_pkey; Type: CONSTRAINT; Schema: public; Owner: -
 --
@@ -1757,6 +2118,90 @@ ALTER TABLE ONLY public."User"
     ADD CONSTRAINT user_unique_email UNIQUE (email_address);
 
 
+--
+-- Name: DomainHistory_default_creation_time_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX "DomainHistory_default_creation_time_idx" ON public."DomainHistory_default" USING btree (creation_time);
+
+
+--
+-- Name: DomainHistory_default_current_package_token_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX "DomainHistory_default_current_package_token_idx" ON public."DomainHistory_default" USING hash (current_package_token);
+
+
+--
+-- Name: DomainHistory_default_domain_repo_id_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX "DomainHistory_default_domain_repo_id_idx" ON public."DomainHistory_default" USING hash (domain_repo_id);
+
+
+--
+-- Name: DomainHistory_default_history_modification_time_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX "DomainHistory_default_history_modification_time_idx" ON public."DomainHistory_default" USING btree (history_modification_time);
+
+
+--
+-- Name: DomainHistory_default_history_registrar_id_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX "DomainHistory_default_history_registrar_id_idx" ON public."DomainHistory_default" USING btree (history_registrar_id);
+
+
+--
+-- Name: DomainHistory_default_history_revision_id_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX "DomainHistory_default_history_revision_id_idx" ON public."DomainHistory_default" USING hash (history_revision_id);
+
+
+--
+-- Name: DomainHistory_default_history_type_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX "DomainHistory_default_history_type_idx" ON public."DomainHistory_default" USING btree (history_type);
+
+
+--
+-- Name: HostHistory_default_creation_time_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX "HostHistory_default_creation_time_idx" ON public."HostHistory_default" USING btree (creation_time);
+
+
+--
+-- Name: HostHistory_default_history_modification_time_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX "HostHistory_default_history_modification_time_idx" ON public."HostHistory_default" USING btree (history_modification_time);
+
+
+--
+-- Name: HostHistory_default_history_registrar_id_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX "HostHistory_default_history_registrar_id_idx" ON public."HostHistory_default" USING btree (history_registrar_id);
+
+
+--
+-- Name: HostHistory_default_history_type_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX "HostHistory_default_history_type_idx" ON public."HostHistory_default" USING btree (history_type);
+
+
+--
+-- Name: HostHistory_default_host_name_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX "HostHistory_default_host_name_idx" ON public."HostHistory_default" USING btree (host_name);
+
+
 --
 -- Name: allocation_token_domain_name_idx; Type: INDEX; Schema: public; Owner: -
 --
@@ -1792,6 +2237,13 @@ CREATE INDEX billingevent_billing_event_id_hash ON public."BillingEvent" USING h
 CREATE INDEX billingrecurrence_billing_recurrence_id_hash ON public."BillingRecurrence" USING hash (billing_recurrence_id);
 
 
+--
+-- Name: claimsentry_domain_label_revision_id_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX claimsentry_domain_label_revision_id_idx ON public."ClaimsEntry" USING btree (domain_label, revision_id);
+
+
 --
 -- Name: delegationsignerdata_domain_repo_id_hash; Type: INDEX; Schema: public; Owner: -
 --
@@ -1813,6 +2265,13 @@ CREATE INDEX domain_current_package_token_idx ON public."Domain" USING hash (cur
 CREATE INDEX domain_domain_name_hash ON public."Domain" USING hash (domain_name);
 
 
+--
+-- Name: domain_domain_name_lower_trgm_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX domain_domain_name_lower_trgm_idx ON public."Domain" USING gin (lower(domain_name) public.gin_trgm_ops);
+
+
 --
 -- Name: domain_domain_repo_id_hash; Type: INDEX; Schema: public; Owner: -
 --
@@ -1820,6 +2279,55 @@ CREATE INDEX domain_domain_name_hash ON public."Domain" USING hash (domain_name)
 CREATE INDEX domain_domain_repo_id_hash ON public."Domain" USING hash (repo_id);
 
 
+--
+-- Name: domain_history_creation_time_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX domain_history_creation_time_idx ON ONLY public."DomainHistory" USING btree (creation_time);
+
+
+--
+-- Name: domain_history_current_package_token_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX domain_history_current_package_token_idx ON ONLY public."DomainHistory" USING hash (current_package_token);
+
+
+--
+-- Name: domain_history_domain_repo_id_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX domain_history_domain_repo_id_idx ON ONLY public."DomainHistory" USING hash (domain_repo_id);
+
+
+--
+-- Name: domain_history_history_modification_time_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX domain_history_history_modification_time_idx ON ONLY public."DomainHistory" USING btree (history_modification_time);
+
+
+--
+-- Name: domain_history_history_registrar_id_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX domain_history_history_registrar_id_idx ON ONLY public."DomainHistory" USING btree (history_registrar_id);
+
+
+--
+-- Name: domain_history_history_revision_id_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX domain_history_history_revision_id_idx ON ONLY public."DomainHistory" USING hash (history_revision_id);
+
+
+--
+-- Name: domain_history_history_type_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX domain_history_history_type_idx ON ONLY public."DomainHistory" USING btree (history_type);
+
+
 --
 -- Name: domain_history_to_ds_data_history_idx; Type: INDEX; Schema: public; Owner: -
 --
@@ -1841,6 +2349,13 @@ CREATE INDEX domain_history_to_transaction_record_idx ON public."DomainTransacti
 CREATE UNIQUE INDEX domain_no_duplicate_active ON public."Domain" USING btree (domain_name) WHERE (deletion_time = '294247-01-10 04:00:54.775+00'::timestamp with time zone);
 
 
+--
+-- Name: domain_registrar_creation_time_repo_id_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX domain_registrar_creation_time_repo_id_idx ON public."Domain" USING btree (current_sponsor_registrar_id, creation_time DESC, repo_id DESC);
+
+
 --
 -- Name: domaindsdatahistory_domain_history_revision_id_hash; Type: INDEX; Schema: public; Owner: -
 --
@@ -1852,21 +2367,21 @@ CREATE INDEX domaindsdatahistory_domain_history_revision_id_hash ON public."Doma
 -- Name: domainhistory_current_package_token_idx; Type: INDEX; Schema: public; Owner: -
 --
 
-CREATE INDEX domainhistory_current_package_token_idx ON public."DomainHistory" USING hash (current_package_token);
+CREATE INDEX domainhistory_current_package_token_idx ON public."DomainHistory_legacy" USING hash (current_package_token);
 
 
 --
 -- Name: domainhistory_domain_repo_id_hash; Type: INDEX; Schema: public; Owner: -
 --
 
-CREATE INDEX domainhistory_domain_repo_id_hash ON public."DomainHistory" USING hash (domain_repo_id);
+CREATE INDEX domainhistory_domain_repo_id_hash ON public."DomainHistory_legacy" USING hash (domain_repo_id);
 
 
 --
 -- Name: domainhistory_history_revision_id_hash; Type: INDEX; Schema: public; Owner: -
 --
 
-CREATE INDEX domainhistory_history_revision_id_hash ON public."DomainHistory" USING hash (history_revision_id);
+CREATE INDEX domainhistory_history_revision_id_hash ON public."DomainHistory_legacy" USING hash (history_revision_id);
 
 
 --
@@ -1897,6 +2412,13 @@ CREATE INDEX domaintransactionrecord_domain_history_revision_id_hash ON public."
 CREATE INDEX domaintransactionrecord_id_hash ON public."DomainTransactionRecord" USING hash (id);
 
 
+--
+-- Name: domaintransactionrecord_reporting_time_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX domaintransactionrecord_reporting_time_idx ON public."DomainTransactionRecord" USING btree (reporting_time);
+
+
 --
 -- Name: graceperiod_domain_repo_id_hash; Type: INDEX; Schema: public; Owner: -
 --
@@ -1925,6 +2447,41 @@ CREATE INDEX graceperiodhistory_domain_history_revision_id_hash ON public."Grace
 CREATE INDEX graceperiodhistory_grace_period_history_revision_id_hash ON public."GracePeriodHistory" USING hash (grace_period_history_revision_id);
 
 
+--
+-- Name: host_history_creation_time_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX host_history_creation_time_idx ON ONLY public."HostHistory" USING btree (creation_time);
+
+
+--
+-- Name: host_history_history_modification_time_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX host_history_history_modification_time_idx ON ONLY public."HostHistory" USING btree (history_modification_time);
+
+
+--
+-- Name: host_history_history_registrar_id_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX host_history_history_registrar_id_idx ON ONLY public."HostHistory" USING btree (history_registrar_id);
+
+
+--
+-- Name: host_history_history_type_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX host_history_history_type_idx ON ONLY public."HostHistory" USING btree (history_type);
+
+
+--
+-- Name: host_history_host_name_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX host_history_host_name_idx ON ONLY public."HostHistory" USING btree (host_name);
+
+
 --
 -- Name: host_host_name_hash; Type: INDEX; Schema: public; Owner: -
 --
@@ -1950,7 +2507,7 @@ CREATE INDEX idx1dyqmqb61xbnj7mt7bk27ds25 ON public."DomainTransactionRecord" US
 -- Name: idx1iy7njgb7wjmj9piml4l2g0qi; Type: INDEX; Schema: public; Owner: -
 --
 
-CREATE INDEX idx1iy7njgb7wjmj9piml4l2g0qi ON public."HostHistory" USING btree (history_registrar_id);
+CREATE INDEX idx1iy7njgb7wjmj9piml4l2g0qi ON public."HostHistory_legacy" USING btree (history_registrar_id);
 
 
 --
@@ -2020,7 +2577,7 @@ CREATE INDEX idx5yqacw829y5bm6f7eajsq1cts ON public."UserUpdateHistory" USING bt
 -- Name: idx67qwkjtlq5q8dv6egtrtnhqi7; Type: INDEX; Schema: public; Owner: -
 --
 
-CREATE INDEX idx67qwkjtlq5q8dv6egtrtnhqi7 ON public."HostHistory" USING btree (history_modification_time);
+CREATE INDEX idx67qwkjtlq5q8dv6egtrtnhqi7 ON public."HostHistory_legacy" USING btree (history_modification_time);
 
 
 --
@@ -2055,7 +2612,7 @@ CREATE INDEX idx6syykou4nkc7hqa5p8r92cpch ON public."BillingRecurrence" USING bt
 -- Name: idx6w3qbtgce93cal2orjg1tw7b7; Type: INDEX; Schema: public; Owner: -
 --
 
-CREATE INDEX idx6w3qbtgce93cal2orjg1tw7b7 ON public."DomainHistory" USING btree (history_modification_time);
+CREATE INDEX idx6w3qbtgce93cal2orjg1tw7b7 ON public."DomainHistory_legacy" USING btree (history_modification_time);
 
 
 --
@@ -2153,7 +2710,7 @@ CREATE INDEX idxa7fu0bqynfb79rr80528b4jqt ON public."Domain" USING btree (regist
 -- Name: idxaro1omfuaxjwmotk3vo00trwm; Type: INDEX; Schema: public; Owner: -
 --
 
-CREATE INDEX idxaro1omfuaxjwmotk3vo00trwm ON public."DomainHistory" USING btree (history_registrar_id);
+CREATE INDEX idxaro1omfuaxjwmotk3vo00trwm ON public."DomainHistory_legacy" USING btree (history_registrar_id);
 
 
 --
@@ -2244,7 +2801,7 @@ CREATE INDEX idxfdk2xpil2x1gh0omt84k2y3o1 ON public."DnsRefreshRequest" USING bt
 -- Name: idxfg2nnjlujxo6cb9fha971bq2n; Type: INDEX; Schema: public; Owner: -
 --
 
-CREATE INDEX idxfg2nnjlujxo6cb9fha971bq2n ON public."HostHistory" USING btree (creation_time);
+CREATE INDEX idxfg2nnjlujxo6cb9fha971bq2n ON public."HostHistory_legacy" USING btree (creation_time);
 
 
 --
@@ -2293,7 +2850,7 @@ CREATE INDEX idxj1mtx98ndgbtb1bkekahms18w ON public."GracePeriod" USING btree (d
 -- Name: idxj77pfwhui9f0i7wjq6lmibovj; Type: INDEX; Schema: public; Owner: -
 --
 
-CREATE INDEX idxj77pfwhui9f0i7wjq6lmibovj ON public."HostHistory" USING btree (host_name);
+CREATE INDEX idxj77pfwhui9f0i7wjq6lmibovj ON public."HostHistory_legacy" USING btree (host_name);
 
 
 --
@@ -2328,7 +2885,7 @@ CREATE INDEX idxkjt9yaq92876dstimd93hwckh ON public."Domain" USING btree (curren
 -- Name: idxknk8gmj7s47q56cwpa6rmpt5l; Type: INDEX; Schema: public; Owner: -
 --
 
-CREATE INDEX idxknk8gmj7s47q56cwpa6rmpt5l ON public."HostHistory" USING btree (history_type);
+CREATE INDEX idxknk8gmj7s47q56cwpa6rmpt5l ON public."HostHistory_legacy" USING btree (history_type);
 
 
 --
@@ -2510,7 +3067,7 @@ CREATE INDEX idxrc77s1ndiemi2vwwudchye214 ON public."Host" USING gin (inet_addre
 -- Name: idxrh4xmrot9bd63o382ow9ltfig; Type: INDEX; Schema: public; Owner: -
 --
 
-CREATE INDEX idxrh4xmrot9bd63o382ow9ltfig ON public."DomainHistory" USING btree (creation_time);
+CREATE INDEX idxrh4xmrot9bd63o382ow9ltfig ON public."DomainHistory_legacy" USING btree (creation_time);
 
 
 --
@@ -2538,7 +3095,7 @@ CREATE INDEX idxsfci08jgsymxy6ovh4k7r358c ON public."Domain" USING btree (billin
 -- Name: idxsu1nam10cjes9keobapn5jvxj; Type: INDEX; Schema: public; Owner: -
 --
 
-CREATE INDEX idxsu1nam10cjes9keobapn5jvxj ON public."DomainHistory" USING btree (history_type);
+CREATE INDEX idxsu1nam10cjes9keobapn5jvxj ON public."DomainHistory_legacy" USING btree (history_type);
 
 
 --
@@ -2618,6 +3175,202 @@ CREATE INDEX spec11threatmatch_tld_idx ON public."Spec11ThreatMatch" USING btree
 CREATE INDEX user_registry_lock_email_address_idx ON public."User" USING hash (registry_lock_email_address);
 
 
+--
+-- Name: DomainHistory_default_creation_time_idx; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.domain_history_creation_time_idx ATTACH PARTITION public."DomainHistory_default_creation_time_idx";
+
+
+--
+-- Name: DomainHistory_default_current_package_token_idx; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.domain_history_current_package_token_idx ATTACH PARTITION public."DomainHistory_default_current_package_token_idx";
+
+
+--
+-- Name: DomainHistory_default_domain_repo_id_idx; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.domain_history_domain_repo_id_idx ATTACH PARTITION public."DomainHistory_default_domain_repo_id_idx";
+
+
+--
+-- Name: DomainHistory_default_history_modification_time_idx; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.domain_history_history_modification_time_idx ATTACH PARTITION public."DomainHistory_default_history_modification_time_idx";
+
+
+--
+-- Name: DomainHistory_default_history_registrar_id_idx; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.domain_history_history_registrar_id_idx ATTACH PARTITION public."DomainHistory_default_history_registrar_id_idx";
+
+
+--
+-- Name: DomainHistory_default_history_revision_id_idx; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.domain_history_history_revision_id_idx ATTACH PARTITION public."DomainHistory_default_history_revision_id_idx";
+
+
+--
+-- Name: DomainHistory_default_history_type_idx; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.domain_history_history_type_idx ATTACH PARTITION public."DomainHistory_default_history_type_idx";
+
+
+--
+-- Name: DomainHistory_default_pkey; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public."DomainHistory_pkey" ATTACH PARTITION public."DomainHistory_default_pkey";
+
+
+--
+-- Name: DomainHistory_legacy_pkey; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public."DomainHistory_pkey" ATTACH PARTITION public."DomainHistory_legacy_pkey";
+
+
+--
+-- Name: HostHistory_default_creation_time_idx; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.host_history_creation_time_idx ATTACH PARTITION public."HostHistory_default_creation_time_idx";
+
+
+--
+-- Name: HostHistory_default_history_modification_time_idx; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.host_history_history_modification_time_idx ATTACH PARTITION public."HostHistory_default_history_modification_time_idx";
+
+
+--
+-- Name: HostHistory_default_history_registrar_id_idx; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.host_history_history_registrar_id_idx ATTACH PARTITION public."HostHistory_default_history_registrar_id_idx";
+
+
+--
+-- Name: HostHistory_default_history_type_idx; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.host_history_history_type_idx ATTACH PARTITION public."HostHistory_default_history_type_idx";
+
+
+--
+-- Name: HostHistory_default_host_name_idx; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.host_history_host_name_idx ATTACH PARTITION public."HostHistory_default_host_name_idx";
+
+
+--
+-- Name: HostHistory_default_pkey; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public."HostHistory_pkey" ATTACH PARTITION public."HostHistory_default_pkey";
+
+
+--
+-- Name: HostHistory_legacy_pkey; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public."HostHistory_pkey" ATTACH PARTITION public."HostHistory_legacy_pkey";
+
+
+--
+-- Name: domainhistory_current_package_token_idx; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.domain_history_current_package_token_idx ATTACH PARTITION public.domainhistory_current_package_token_idx;
+
+
+--
+-- Name: domainhistory_domain_repo_id_hash; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.domain_history_domain_repo_id_idx ATTACH PARTITION public.domainhistory_domain_repo_id_hash;
+
+
+--
+-- Name: domainhistory_history_revision_id_hash; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.domain_history_history_revision_id_idx ATTACH PARTITION public.domainhistory_history_revision_id_hash;
+
+
+--
+-- Name: idx1iy7njgb7wjmj9piml4l2g0qi; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.host_history_history_registrar_id_idx ATTACH PARTITION public.idx1iy7njgb7wjmj9piml4l2g0qi;
+
+
+--
+-- Name: idx67qwkjtlq5q8dv6egtrtnhqi7; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.host_history_history_modification_time_idx ATTACH PARTITION public.idx67qwkjtlq5q8dv6egtrtnhqi7;
+
+
+--
+-- Name: idx6w3qbtgce93cal2orjg1tw7b7; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.domain_history_history_modification_time_idx ATTACH PARTITION public.idx6w3qbtgce93cal2orjg1tw7b7;
+
+
+--
+-- Name: idxaro1omfuaxjwmotk3vo00trwm; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.domain_history_history_registrar_id_idx ATTACH PARTITION public.idxaro1omfuaxjwmotk3vo00trwm;
+
+
+--
+-- Name: idxfg2nnjlujxo6cb9fha971bq2n; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.host_history_creation_time_idx ATTACH PARTITION public.idxfg2nnjlujxo6cb9fha971bq2n;
+
+
+--
+-- Name: idxj77pfwhui9f0i7wjq6lmibovj; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.host_history_host_name_idx ATTACH PARTITION public.idxj77pfwhui9f0i7wjq6lmibovj;
+
+
+--
+-- Name: idxknk8gmj7s47q56cwpa6rmpt5l; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.host_history_history_type_idx ATTACH PARTITION public.idxknk8gmj7s47q56cwpa6rmpt5l;
+
+
+--
+-- Name: idxrh4xmrot9bd63o382ow9ltfig; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.domain_history_creation_time_idx ATTACH PARTITION public.idxrh4xmrot9bd63o382ow9ltfig;
+
+
+--
+-- Name: idxsu1nam10cjes9keobapn5jvxj; Type: INDEX ATTACH; Schema: public; Owner: -
+--
+
+ALTER INDEX public.domain_history_history_type_idx ATTACH PARTITION public.idxsu1nam10cjes9keobapn5jvxj;
+
+
 --
 -- Name: Domain fk2jc69qyg2tv9hhnmif6oa1cx1; Type: FK CONSTRAINT; Schema: public; Owner: -
 --
@@ -2742,7 +3495,7 @@ ALTER TABLE ONLY public."Domain"
 -- Name: DomainHistory fk_domain_history_current_package_token; Type: FK CONSTRAINT; Schema: public; Owner: -
 --
 
-ALTER TABLE ONLY public."DomainHistory"
+ALTER TABLE public."DomainHistory"
     ADD CONSTRAINT fk_domain_history_current_package_token FOREIGN KEY (current_package_token) REFERENCES public."AllocationToken"(token) DEFERRABLE INITIALLY DEFERRED;
 
 
@@ -2750,7 +3503,7 @@ ALTER TABLE ONLY public."DomainHistory"
 -- Name: DomainHistory fk_domain_history_domain_repo_id; Type: FK CONSTRAINT; Schema: public; Owner: -
 --
 
-ALTER TABLE ONLY public."DomainHistory"
+ALTER TABLE public."DomainHistory"
     ADD CONSTRAINT fk_domain_history_domain_repo_id FOREIGN KEY (domain_repo_id) REFERENCES public."Domain"(repo_id) DEFERRABLE INITIALLY DEFERRED;
 
 
@@ -2758,7 +3511,7 @@ ALTER TABLE ONLY public."DomainHistory"
 -- Name: DomainHistory fk_domain_history_registrar_id; Type: FK CONSTRAINT; Schema: public; Owner: -
 --
 
-ALTER TABLE ONLY public."DomainHistory"
+ALTER TABLE public."DomainHistory"
     ADD CONSTRAINT fk_domain_history_registrar_id FOREIGN KEY (history_registrar_id) REFERENCES public."Registrar"(registrar_id) DEFERRABLE INITIALLY DEFERRED;
 
 
@@ -2862,7 +3615,7 @@ ALTER TABLE ONLY public."GracePeriod"
 -- Name: HostHistory fk_history_registrar_id; Type: FK CONSTRAINT; Schema: public; Owner: -
 --
 
-ALTER TABLE ONLY public."HostHistory"
+ALTER TABLE public."HostHistory"
     ADD CONSTRAINT fk_history_registrar_id FOREIGN KEY (history_registrar_id) REFERENCES public."Registrar"(registrar_id) DEFERRABLE INITIALLY DEFERRED;
 
 
@@ -2902,7 +3655,7 @@ ALTER TABLE ONLY public."Host"
 -- Name: HostHistory fk_hosthistory_host; Type: FK CONSTRAINT; Schema: public; Owner: -
 --
 
-ALTER TABLE ONLY public."HostHistory"
+ALTER TABLE public."HostHistory"
     ADD CONSTRAINT fk_hosthistory_host FOREIGN KEY (host_repo_id) REFERENCES public."Host"(repo_id) DEFERRABLE INITIALLY DEFERRED;
 
 
@@ -2914,14 +3667,6 @@ ALTER TABLE ONLY public."PollMessage"
     ADD CONSTRAINT fk_poll_message_domain_repo_id FOREIGN KEY (domain_repo_id) REFERENCES public."Domain"(repo_id) DEFERRABLE INITIALLY DEFERRED;
 
 
---
--- Name: PollMessage fk_poll_message_host_history; Type: FK CONSTRAINT; Schema: public; Owner: -
---
-
-ALTER TABLE ONLY public."PollMessage"
-    ADD CONSTRAINT fk_poll_message_host_history FOREIGN KEY (host_repo_id, host_history_revision_id) REFERENCES public."HostHistory"(host_repo_id, history_revision_id) DEFERRABLE INITIALLY DEFERRED;
-
-
 --
 -- Name: PollMessage fk_poll_message_host_repo_id; Type: FK CONSTRAINT; Schema: public; Owner: -
 --
@@ -2962,14 +3707,6 @@ ALTER TABLE ONLY public."RegistrarPoc"
     ADD CONSTRAINT fk_registrar_poc_registrar_id FOREIGN KEY (registrar_id) REFERENCES public."Registrar"(registrar_id) DEFERRABLE INITIALLY DEFERRED;
 
 
---
--- Name: DomainHistoryHost fka9woh3hu8gx5x0vly6bai327n; Type: FK CONSTRAINT; Schema: public; Owner: -
---
-
-ALTER TABLE ONLY public."DomainHistoryHost"
-    ADD CONSTRAINT fka9woh3hu8gx5x0vly6bai327n FOREIGN KEY (domain_history_domain_repo_id, domain_history_history_revision_id) REFERENCES public."DomainHistory"(domain_repo_id, history_revision_id) DEFERRABLE INITIALLY DEFERRED;
-
-
 --
 -- Name: BsaUnblockableDomain fkbsaunblockabledomainlabel; Type: FK CONSTRAINT; Schema: public; Owner: -
 --
@@ -0,0 +1,89 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Locale.US;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A weighted random choice of {@link LoadCommand}s, parsed from a spec such as {@code
+ * check=60,info=25,create=5,renew=2,transfer=2,poll=4,update=2}.
+ */
+final class CommandMix {
+
+  private final ImmutableMap<LoadCommand, Integer> weights;
+  private final LoadCommand[] commands;
+  private final int[] cumulativeWeights;
+
+  private CommandMix(ImmutableMap<LoadCommand, Integer> weights) {
+    this.weights = weights;
+    this.commands = weights.keySet().toArray(new LoadCommand[0]);
+    this.cumulativeWeights = new int[commands.length];
+    int total = 0;
+    for (int i = 0; i < commands.length; i++) {
+      total += weights.get(commands[i]);
+      cumulativeWeights[i] = total;
+    }
+  }
+
+  static CommandMix parse(String spec) {
+    ImmutableMap.Builder<LoadCommand, Integer> weights = new ImmutableMap.Builder<>();
+    for (Map.Entry<String, String> entry :
+        Splitter.on(',')
+            .trimResults()
+            .omitEmptyStrings()
+            .withKeyValueSeparator(Splitter.on('=').trimResults())
+            .split(spec)
+            .entrySet()) {
+      LoadCommand command;
+      try {
+        command = LoadCommand.valueOf(entry.getKey().toUpperCase(US));
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Unknown command in mix: " + entry.getKey(), e);
+      }
+      int weight = Integer.parseInt(entry.getValue());
+      checkArgument(weight >= 0, "Negative weight for %s", command);
+      if (weight > 0) {
+        weights.put(command, weight);
+      }
+    }
+    ImmutableMap<LoadCommand, Integer> result = weights.buildOrThrow();
+    checkArgument(!result.isEmpty(), "Command mix %s has no commands", spec);
+    return new CommandMix(result);
+  }
+
+  ImmutableMap<LoadCommand, Integer> weights() {
+    return weights;
+  }
+
+  boolean needsExistingDomains() {
+    return weights.keySet().stream().anyMatch(LoadCommand::needsExistingDomain);
+  }
+
+  LoadCommand next(Random random) {
+    int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+    for (int i = 0; i < cumulativeWeights.length; i++) {
+      if (value < cumulativeWeights[i]) {
+        return commands[i];
+      }
+    }
+    throw new AssertionError("Weighted choice out of range");
+  }
+}
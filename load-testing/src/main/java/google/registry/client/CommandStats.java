@@ -0,0 +1,66 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.client;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencies and outcomes of all measured commands of one {@link LoadCommand} type.
+ *
+ * <p>Two latencies are recorded for each response. The response time is measured from when the
+ * schedule said the command should be sent, so it includes any time the command spent waiting for
+ * a free connection. This is what a client sending at that rate would actually see, and it doesn't
+ * hide server stalls the way a closed-loop measurement does. The service time is measured from
+ * when the command was actually written, and is what the server (and network) took by itself.
+ */
+final class CommandStats {
+
+  final LatencyHistogram responseTime = new LatencyHistogram();
+  final LatencyHistogram serviceTime = new LatencyHistogram();
+
+  /** Responses with a success result code (1xxx). */
+  final AtomicLong succeeded = new AtomicLong();
+
+  /** Responses with an error result code below 2400, i.e. the command itself was refused. */
+  final AtomicLong rejected = new AtomicLong();
+
+  /** Commands with a 24xx/25xx result, or that never got a response at all. */
+  final AtomicLong failed = new AtomicLong();
+
+  /** Commands that were scheduled but couldn't be built, e.g. no domain was free to renew. */
+  final AtomicLong skipped = new AtomicLong();
+
+  void recordResponse(long intendedNanos, long sentNanos, long receivedNanos, int resultCode) {
+    responseTime.record(NANOSECONDS.toMicros(receivedNanos - intendedNanos));
+    serviceTime.record(NANOSECONDS.toMicros(receivedNanos - sentNanos));
+    if (resultCode < 2000) {
+      succeeded.incrementAndGet();
+    } else if (resultCode < 2400) {
+      rejected.incrementAndGet();
+    } else {
+      failed.incrementAndGet();
+    }
+  }
+
+  void recordFailure() {
+    failed.incrementAndGet();
+  }
+
+  void recordSkipped() {
+    skipped.incrementAndGet();
+  }
+}
@@ -0,0 +1,73 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.client;
+
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * The domains created by a load test, which the commands that need an existing domain pick from.
+ *
+ * <p>A renew has to state the domain's current expiration date, so two renews of the same domain
+ * can't be in flight at the same time. A renew therefore {@link #checkOut checks out} a domain,
+ * which hides it from other renews until it is {@link #checkIn checked in} again. Other commands
+ * just {@link #pick} any domain.
+ */
+final class DomainPool {
+
+  /** A domain created by the load test, and its expiration date as of its last create or renew. */
+  static final class Domain {
+    final String name;
+    volatile String expirationDate;
+
+    Domain(String name, String expirationDate) {
+      this.name = name;
+      this.expirationDate = expirationDate;
+    }
+  }
+
+  private final ArrayList<Domain> all = new ArrayList<>();
+  private final ArrayList<Domain> available = new ArrayList<>();
+
+  synchronized void add(Domain domain) {
+    all.add(domain);
+    available.add(domain);
+  }
+
+  synchronized int size() {
+    return all.size();
+  }
+
+  synchronized Optional<Domain> pick(Random random) {
+    return all.isEmpty() ? Optional.empty() : Optional.of(all.get(random.nextInt(all.size())));
+  }
+
+  synchronized Optional<Domain> checkOut(Random random) {
+    if (available.isEmpty()) {
+      return Optional.empty();
+    }
+    // Swap the chosen domain to the end so that removing it is cheap.
+    int index = random.nextInt(available.size());
+    Domain domain = available.get(index);
+    available.set(index, available.getLast());
+    available.removeLast();
+    return Optional.of(domain);
+  }
+
+  synchronized void checkIn(Domain domain) {
+    available.add(domain);
+  }
+}
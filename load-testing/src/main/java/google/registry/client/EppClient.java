@@ -182,7 +182,7 @@ public class EppClient implements Runnable {
     eppClient.run();
   }
 
-  private static String generateRandomString(int length) {
+  static String generateRandomString(int length) {
     byte[] buffer = new byte[length];
     random.nextBytes(buffer);
     return BaseEncoding.base32().encode(buffer).toLowerCase(Locale.US);
@@ -218,7 +218,7 @@ public class EppClient implements Runnable {
     return inputList.build();
   }
 
-  private static String readStringFromFile(String filename) {
+  static String readStringFromFile(String filename) {
     try {
       return Resources.toString(getResource(EppClient.class, "resources/" + filename), UTF_8);
     } catch (IOException e) {
@@ -226,7 +226,7 @@ public class EppClient implements Runnable {
     }
   }
 
-  private static KeyPair getKeyPair(String filename) throws IOException {
+  static KeyPair getKeyPair(String filename) throws IOException {
     byte[] keyBytes = Files.asCharSource(new File(filename), UTF_8).read().getBytes(UTF_8);
     try {
       PEMKeyPair pemPair =
@@ -239,7 +239,7 @@ public class EppClient implements Runnable {
     }
   }
 
-  private static X509Certificate getCertificate(String filename) throws IOException {
+  static X509Certificate getCertificate(String filename) throws IOException {
     byte[] certificateBytes = Files.asCharSource(new File(filename), UTF_8).read().getBytes(UTF_8);
     try {
       X509CertificateHolder certificateHolder =
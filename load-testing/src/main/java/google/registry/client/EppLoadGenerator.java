@@ -0,0 +1,552 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static google.registry.client.EppClient.generateRandomString;
+import static google.registry.client.EppClient.getCertificate;
+import static google.registry.client.EppClient.getKeyPair;
+import static google.registry.client.EppClient.readStringFromFile;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import google.registry.client.EppClient.InetAddressConverter;
+import google.registry.client.LoadGeneratorHandler.Listener;
+import google.registry.client.LoadGeneratorHandler.PendingCommand;
+import google.registry.client.LoadGeneratorHandler.Phase;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.KeyPair;
+import java.security.Security;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+/**
+ * An open-loop EPP load generator that reports per-command latency percentiles.
+ *
+ * <p>Unlike {@link EppClient}, which sends each command as soon as the previous one is answered,
+ * this sends commands at a constant rate, following a schedule that doesn't depend on how fast the
+ * server responds, and picks each command at random from a weighted mix. A server that slows down
+ * therefore builds up a backlog, as it would with real registrars, and each command's latency is
+ * measured from when the schedule said to send it, so that the backlog shows up in the tail
+ * percentiles instead of just lowering the request rate.
+ *
+ * <p>Before the schedule starts, the generator creates a pool of domains for the commands that need
+ * an existing one. Each run writes a CSV and a JSON summary, and the CSV of an earlier run can be
+ * passed with {@code --baseline} to compare the two.
+ */
+@Parameters(separators = " =")
+@SuppressWarnings("FutureReturnValueIgnored")
+public class EppLoadGenerator implements Runnable {
+
+  static {
+    Security.addProvider(new BouncyCastleProvider());
+  }
+
+  private static final Pattern EXPIRATION_DATE =
+      Pattern.compile("<domain:exDate>(\\d{4}-\\d{2}-\\d{2})T");
+
+  private static final long LOGIN_TIMEOUT_SECONDS = 60;
+  private static final long SEED_TIMEOUT_SECONDS = 600;
+  private static final long LOGOUT_TIMEOUT_SECONDS = 10;
+
+  @Parameter(
+      names = {"--help"},
+      description = "Print this help message.",
+      help = true)
+  private boolean help = false;
+
+  @Parameter(
+      names = {"--host", "-h"},
+      description = "Epp server hostname/IP to connect to.",
+      converter = InetAddressConverter.class,
+      required = true)
+  private InetAddress host = null;
+
+  @Parameter(
+      names = {"--port"},
+      description = "Epp server port to connect to.")
+  private int port = 700;
+
+  @Parameter(
+      names = {"--certificate"},
+      description = "Certificate pem file.",
+      required = true)
+  private String certFileName = null;
+
+  @Parameter(
+      names = {"--key", "-k"},
+      description = "Private key pem file.",
+      required = true)
+  private String keyFileName = null;
+
+  @Parameter(
+      names = {"--client", "-c"},
+      description = "Registrar client id.")
+  private String client = "proxy";
+
+  @Parameter(
+      names = {"--password", "-pw"},
+      description = "Registrar password.")
+  private String password = "abcde12345";
+
+  @Parameter(
+      names = {"--tld"},
+      description = "TLD to create domains on.",
+      required = true)
+  private String tld = "loadtest";
+
+  @Parameter(
+      names = {"--connections", "-cn"},
+      description = "Number of connections that commands are spread over.")
+  private int connections = 10;
+
+  @Parameter(
+      names = {"--max_in_flight"},
+      description =
+          "Number of commands sent on a connection before their responses arrive. Values above 1"
+              + " require the server to accept pipelined commands.")
+  private int maxInFlight = 1;
+
+  @Parameter(
+      names = {"--rate"},
+      description = "Commands per second to send, across all connections.",
+      required = true)
+  private double rate = 0;
+
+  @Parameter(
+      names = {"--duration_seconds"},
+      description = "How long to send commands for after the warmup, in seconds.")
+  private int durationSeconds = 60;
+
+  @Parameter(
+      names = {"--warmup_seconds"},
+      description = "How long to send commands for before measuring latencies, in seconds.")
+  private int warmupSeconds = 10;
+
+  @Parameter(
+      names = {"--drain_timeout_seconds"},
+      description = "How long to wait for outstanding responses after the schedule ends.")
+  private int drainTimeoutSeconds = 30;
+
+  @Parameter(
+      names = {"--mix"},
+      description =
+          "Relative weights of the commands to send, out of check, info, create, renew, transfer"
+              + " (a transfer query), poll and update.")
+  private String mix = "check=60,info=25,create=5,renew=2,transfer=2,poll=4,update=2";
+
+  @Parameter(
+      names = {"--check_names"},
+      description = "Number of domain names in each check command.")
+  private int checkNames = 5;
+
+  @Parameter(
+      names = {"--seed_domains"},
+      description = "Number of domains to create before the schedule starts.")
+  private int seedDomains = 100;
+
+  @Parameter(
+      names = {"--output"},
+      description = "Folder to write the latency summaries to. Defaults to load-tests/<now>.")
+  private String output = null;
+
+  @Parameter(
+      names = {"--baseline"},
+      description = "A summary.csv file of an earlier run to compare the latencies with.")
+  private String baseline = null;
+
+  private final Random random = new Random();
+  private final DomainPool domainPool = new DomainPool();
+  private final AtomicLong sequence = new AtomicLong();
+  private final String runId = generateRandomString(5);
+  private ImmutableMap<LoadCommand, String> templates;
+  private ImmutableMap<LoadCommand, CommandStats> stats;
+  private CountDownLatch seedsRemaining;
+
+  public static void main(String[] args) {
+    EppLoadGenerator generator = new EppLoadGenerator();
+    JCommander jCommander = new JCommander(generator);
+    jCommander.parse(args);
+    if (generator.help) {
+      jCommander.usage();
+      return;
+    }
+    generator.run();
+  }
+
+  @Override
+  public void run() {
+    CommandMix commandMix = CommandMix.parse(mix);
+    checkArgument(rate > 0, "--rate must be positive");
+    checkArgument(connections > 0 && maxInFlight > 0, "Need at least one connection and command");
+    checkArgument(
+        seedDomains > 0 || !commandMix.needsExistingDomains(),
+        "--seed_domains must be positive for a mix with commands on existing domains");
+    templates =
+        Arrays.stream(LoadCommand.values())
+            .collect(
+                toImmutableMap(
+                    command -> command, command -> readStringFromFile(command.templateFile())));
+    stats =
+        commandMix.weights().keySet().stream()
+            .collect(toImmutableMap(command -> command, command -> new CommandStats()));
+    Path outputFolder =
+        Paths.get(output == null ? String.format("load-tests/%s", Instant.now()) : output);
+
+    EventLoopGroup eventLoopGroup = new NioEventLoopGroup();
+    try {
+      ImmutableList<LoadGeneratorHandler> handlers = connect(eventLoopGroup);
+      seed(handlers);
+      Instant startTime = Instant.now();
+      long measuredNanos = runSchedule(handlers, commandMix);
+      drain(handlers);
+      logout(handlers);
+
+      long responses = stats.values().stream().mapToLong(s -> s.responseTime.count()).sum();
+      LatencyReport report =
+          LatencyReport.of(
+              stats,
+              new ImmutableMap.Builder<String, String>()
+                  .put("start_time", startTime.toString())
+                  .put("host", host.getHostName())
+                  .put("connections", Integer.toString(connections))
+                  .put("max_in_flight", Integer.toString(maxInFlight))
+                  .put("target_rate", Double.toString(rate))
+                  .put(
+                      "achieved_rate",
+                      String.format(
+                          Locale.US, "%.2f", responses * 1e9 / Math.max(1, measuredNanos)))
+                  .put("warmup_seconds", Integer.toString(warmupSeconds))
+                  .put("duration_seconds", Integer.toString(durationSeconds))
+                  .put("mix", mix)
+                  .put("check_names", Integer.toString(checkNames))
+                  .put("seed_domains", Integer.toString(seedDomains))
+                  .buildOrThrow());
+      System.out.println();
+      System.out.println("====== SUMMARY ======");
+      System.out.printf(
+          "Target rate: %.2f/s, measured responses: %d over %d seconds%n",
+          rate, responses, durationSeconds);
+      report.print(System.out);
+      Files.createDirectories(outputFolder);
+      report.writeCsv(outputFolder.resolve(LatencyReport.CSV_FILE));
+      report.writeJson(outputFolder.resolve(LatencyReport.JSON_FILE));
+      System.out.printf("%nOutputs saved at %s%n", outputFolder);
+      if (baseline != null) {
+        System.out.printf("%n====== COMPARISON WITH %s ======%n", baseline);
+        report.printComparison(LatencyReport.readCsv(Paths.get(baseline)), System.out);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } finally {
+      eventLoopGroup.shutdownGracefully();
+    }
+  }
+
+  /** Opens and logs in all connections. */
+  private ImmutableList<LoadGeneratorHandler> connect(EventLoopGroup eventLoopGroup)
+      throws IOException {
+    KeyPair key = getKeyPair(keyFileName);
+    X509Certificate cert = getCertificate(certFileName);
+    SslContext sslContext =
+        SslContextBuilder.forClient()
+            .keyManager(key.getPrivate(), cert)
+            .trustManager(InsecureTrustManagerFactory.INSTANCE)
+            .build();
+    Listener listener = new ResultRecorder();
+    ImmutableList.Builder<LoadGeneratorHandler> handlers = new ImmutableList.Builder<>();
+    for (int i = 0; i < connections; i++) {
+      String channelNumber = String.valueOf(i);
+      LoadGeneratorHandler handler =
+          new LoadGeneratorHandler(
+              fillSessionTemplate(readStringFromFile("login.xml"), channelNumber),
+              fillSessionTemplate(readStringFromFile("logout.xml"), channelNumber),
+              maxInFlight,
+              listener);
+      new Bootstrap()
+          .group(eventLoopGroup)
+          .channel(NioSocketChannel.class)
+          .handler(
+              new ChannelInitializer<SocketChannel>() {
+                @Override
+                protected void initChannel(SocketChannel ch) {
+                  ch.pipeline()
+                      .addLast(sslContext.newHandler(ch.alloc(), host.getHostName(), port))
+                      .addLast(new LengthFieldBasedFrameDecoder(512 * 1024, 0, 4, -4, 4))
+                      .addLast(new LengthFieldPrepender(4, true))
+                      .addLast(handler);
+                }
+              })
+          .connect(host, port)
+          .syncUninterruptibly();
+      handlers.add(handler);
+    }
+    ImmutableList<LoadGeneratorHandler> result = handlers.build();
+    for (LoadGeneratorHandler handler : result) {
+      if (!handler.loggedIn().awaitUninterruptibly(LOGIN_TIMEOUT_SECONDS, SECONDS)) {
+        throw new IllegalStateException("Timed out logging in");
+      }
+      if (!handler.loggedIn().isSuccess()) {
+        throw new IllegalStateException("Could not log in", handler.loggedIn().cause());
+      }
+    }
+    return result;
+  }
+
+  /** Creates the initial domains, spread over all connections, and waits for them. */
+  private void seed(ImmutableList<LoadGeneratorHandler> handlers) throws InterruptedException {
+    seedsRemaining = new CountDownLatch(seedDomains);
+    for (int i = 0; i < seedDomains; i++) {
+      int connection = i % handlers.size();
+      buildCommand(LoadCommand.CREATE, connection, System.nanoTime(), Phase.SEED)
+          .ifPresent(handlers.get(connection)::submit);
+    }
+    if (!seedsRemaining.await(SEED_TIMEOUT_SECONDS, SECONDS)) {
+      System.out.printf("Timed out creating seed domains%n");
+    }
+    System.out.printf("Created %d of %d seed domains%n", domainPool.size(), seedDomains);
+  }
+
+  /**
+   * Sends commands at the target rate until the warmup and measured durations have passed.
+   *
+   * @return the length of the measured part of the schedule, in nanoseconds
+   */
+  private long runSchedule(ImmutableList<LoadGeneratorHandler> handlers, CommandMix commandMix) {
+    double nanosPerCommand = SECONDS.toNanos(1) / rate;
+    long start = System.nanoTime();
+    long measureStart = start + SECONDS.toNanos(warmupSeconds);
+    long end = measureStart + SECONDS.toNanos(durationSeconds);
+    for (long i = 0; ; i++) {
+      long intendedNanos = start + Math.round(i * nanosPerCommand);
+      if (intendedNanos - end >= 0) {
+        break;
+      }
+      // Sleep until the command is due. If the generator has fallen behind, it catches up at once
+      // rather than skipping commands, and the delay still counts towards their latency.
+      long delay;
+      while ((delay = intendedNanos - System.nanoTime()) > 0) {
+        LockSupport.parkNanos(delay);
+      }
+      LoadCommand command = commandMix.next(random);
+      Phase phase = intendedNanos - measureStart < 0 ? Phase.WARMUP : Phase.MEASURED;
+      int connection = (int) (i % handlers.size());
+      Optional<PendingCommand> pending = buildCommand(command, connection, intendedNanos, phase);
+      if (pending.isPresent()) {
+        handlers.get(connection).submit(pending.get());
+      } else if (phase == Phase.MEASURED) {
+        stats.get(command).recordSkipped();
+      }
+    }
+    return end - measureStart;
+  }
+
+  /** Waits for the responses to all commands sent, up to the drain timeout. */
+  private void drain(ImmutableList<LoadGeneratorHandler> handlers) {
+    long deadline = System.nanoTime() + SECONDS.toNanos(drainTimeoutSeconds);
+    while (handlers.stream().anyMatch(handler -> handler.outstanding() > 0)
+        && deadline - System.nanoTime() > 0) {
+      LockSupport.parkNanos(MILLISECONDS.toNanos(100));
+    }
+    int outstanding = handlers.stream().mapToInt(LoadGeneratorHandler::outstanding).sum();
+    if (outstanding > 0) {
+      System.out.printf("%d commands got no response within the drain timeout%n", outstanding);
+    }
+  }
+
+  /** Logs out of all connections, and closes those that don't respond in time. */
+  private void logout(ImmutableList<LoadGeneratorHandler> handlers) {
+    handlers.forEach(LoadGeneratorHandler::logout);
+    for (LoadGeneratorHandler handler : handlers) {
+      if (!handler.closeFuture().awaitUninterruptibly(LOGOUT_TIMEOUT_SECONDS, SECONDS)) {
+        handler.close();
+      }
+    }
+  }
+
+  private Optional<PendingCommand> buildCommand(
+      LoadCommand command, int connection, long intendedNanos, Phase phase) {
+    long id = sequence.getAndIncrement();
+    String clientTransactionId =
+        String.format("load-%s-%s-%d", command.name().toLowerCase(Locale.US), runId, id);
+    String request =
+        templates
+            .get(command)
+            .replace("@@CLTRID@@", clientTransactionId)
+            .replace("@@NOW@@", Instant.now().toString())
+            .replace("@@CHANNEL_NUMBER@@", String.valueOf(connection))
+            .replace("@@TLD@@", tld);
+    String domainName = null;
+    DomainPool.Domain checkedOutDomain = null;
+    switch (command) {
+      case CHECK -> {
+        StringBuilder names = new StringBuilder();
+        for (int i = 0; i < checkNames; i++) {
+          // About half of the names exist, so that both outcomes of a check are exercised.
+          String name =
+              random.nextBoolean()
+                  ? domainPool.pick(random).map(domain -> domain.name).orElse(null)
+                  : null;
+          names.append(
+              String.format(
+                  "        <domain:name>%s</domain:name>\n",
+                  name == null ? String.format("%s.%s", generateRandomString(8), tld) : name));
+        }
+        request = request.replace("@@DOMAIN_NAMES@@\n", names.toString());
+      }
+      case CREATE -> {
+        // The template names the domain @@RANDOM@@-@@CHANNEL_NUMBER@@-@@REPEAT_NUMBER@@.@@TLD@@.
+        domainName = String.format("%s-%d-%d.%s", runId, connection, id, tld);
+        request =
+            request.replace("@@RANDOM@@", runId).replace("@@REPEAT_NUMBER@@", String.valueOf(id));
+      }
+      case RENEW -> {
+        Optional<DomainPool.Domain> domain = domainPool.checkOut(random);
+        if (domain.isEmpty()) {
+          return Optional.empty();
+        }
+        checkedOutDomain = domain.get();
+        request =
+            request
+                .replace("@@DOMAIN@@", checkedOutDomain.name)
+                .replace("@@EXPIRATION_DATE@@", checkedOutDomain.expirationDate);
+      }
+      case INFO, TRANSFER, UPDATE -> {
+        Optional<DomainPool.Domain> domain = domainPool.pick(random);
+        if (domain.isEmpty()) {
+          return Optional.empty();
+        }
+        request =
+            request
+                .replace("@@DOMAIN@@", domain.get().name)
+                .replace("@@RANDOM@@", generateRandomString(8));
+      }
+      case POLL -> {}
+    }
+    return Optional.of(
+        new PendingCommand(
+            command,
+            request.getBytes(UTF_8),
+            intendedNanos,
+            phase,
+            domainName,
+            checkedOutDomain));
+  }
+
+  private byte[] fillSessionTemplate(String template, String channelNumber) {
+    return template
+        .replace("@@CLIENT@@", client)
+        .replace("@@PASSWORD@@", password)
+        .replace("@@NOW@@", Instant.now().toString())
+        .replace("@@CHANNEL_NUMBER@@", channelNumber)
+        .getBytes(UTF_8);
+  }
+
+  /** Records the outcomes of commands and keeps the domain pool up to date. */
+  private class ResultRecorder implements Listener {
+
+    @Override
+    public void onResponse(
+        PendingCommand pending,
+        long sentNanos,
+        long receivedNanos,
+        int resultCode,
+        String response) {
+      if (pending.phase() == Phase.MEASURED) {
+        // A response without a result code isn't valid EPP, so count it as a server failure.
+        stats
+            .get(pending.command())
+            .recordResponse(
+                pending.intendedNanos(),
+                sentNanos,
+                receivedNanos,
+                resultCode < 0 ? 2400 : resultCode);
+      }
+      boolean succeeded = resultCode >= 1000 && resultCode < 2000;
+      switch (pending.command()) {
+        case CREATE -> {
+          Optional<String> expirationDate = expirationDate(response);
+          if (succeeded && expirationDate.isPresent()) {
+            domainPool.add(new DomainPool.Domain(pending.domainName(), expirationDate.get()));
+          }
+          if (pending.phase() == Phase.SEED) {
+            seedsRemaining.countDown();
+          }
+        }
+        case RENEW -> {
+          DomainPool.Domain domain = pending.checkedOutDomain();
+          if (succeeded) {
+            expirationDate(response).ifPresent(date -> domain.expirationDate = date);
+          }
+          domainPool.checkIn(domain);
+        }
+        default -> {}
+      }
+    }
+
+    @Override
+    public void onFailure(PendingCommand pending) {
+      if (pending.phase() == Phase.MEASURED) {
+        stats.get(pending.command()).recordFailure();
+      }
+      if (pending.phase() == Phase.SEED) {
+        seedsRemaining.countDown();
+      }
+      if (pending.checkedOutDomain() != null) {
+        domainPool.checkIn(pending.checkedOutDomain());
+      }
+    }
+
+    private Optional<String> expirationDate(String response) {
+      Matcher matcher = EXPIRATION_DATE.matcher(response);
+      return matcher.find() ? Optional.of(matcher.group(1)) : Optional.empty();
+    }
+  }
+}
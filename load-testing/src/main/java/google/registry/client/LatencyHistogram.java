@@ -0,0 +1,110 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-precision latency histogram that is safe to record into from several threads.
+ *
+ * <p>This uses the same log-linear bucketing as HdrHistogram: values below {@link #SUB_BUCKETS}
+ * microseconds are counted exactly, and above that each power of two is split into {@code
+ * SUB_BUCKETS / 2} linear buckets, so every recorded value is accurate to within 0.1%. The memory
+ * used is fixed, no matter how many values are recorded, and percentiles are exact up to that
+ * precision rather than sampled.
+ */
+final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 11;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+
+  /** Values are clamped to one hour, which is far beyond any timeout a load test would use. */
+  static final long MAX_TRACKABLE_MICROS = 3_600_000_000L;
+
+  private final AtomicLongArray counts =
+      new AtomicLongArray(bucketIndex(MAX_TRACKABLE_MICROS) + 1);
+  private final AtomicLong totalCount = new AtomicLong();
+  private final AtomicLong totalMicros = new AtomicLong();
+  private final AtomicLong maxMicros = new AtomicLong();
+
+  /** Records a single latency, in microseconds. */
+  void record(long micros) {
+    checkArgument(micros >= 0, "Negative latency: %s", micros);
+    long value = Math.min(micros, MAX_TRACKABLE_MICROS);
+    counts.incrementAndGet(bucketIndex(value));
+    totalCount.incrementAndGet();
+    totalMicros.addAndGet(value);
+    maxMicros.accumulateAndGet(value, Math::max);
+  }
+
+  long count() {
+    return totalCount.get();
+  }
+
+  long maxMicros() {
+    return maxMicros.get();
+  }
+
+  double meanMicros() {
+    long count = totalCount.get();
+    return count == 0 ? 0 : (double) totalMicros.get() / count;
+  }
+
+  /**
+   * Returns the value at the given percentile, i.e. the smallest recorded value (up to the
+   * histogram's precision) that at least {@code percentile}% of all recorded values are at or
+   * below. Returns 0 if nothing was recorded.
+   */
+  long valueAtPercentileMicros(double percentile) {
+    checkArgument(percentile >= 0 && percentile <= 100, "Invalid percentile: %s", percentile);
+    long count = totalCount.get();
+    if (count == 0) {
+      return 0;
+    }
+    long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      seen += counts.get(i);
+      if (seen >= target) {
+        return Math.min(highestEquivalentValue(i), maxMicros.get());
+      }
+    }
+    return maxMicros.get();
+  }
+
+  private static int bucketIndex(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    // The shift that brings the value into [HALF_SUB_BUCKETS, SUB_BUCKETS).
+    int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+    return SUB_BUCKETS
+        + (shift - 1) * HALF_SUB_BUCKETS
+        + (int) ((value >>> shift) - HALF_SUB_BUCKETS);
+  }
+
+  private static long highestEquivalentValue(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = (index - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+    long subBucket = (index - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+    return (subBucket << shift) + (1L << shift) - 1;
+  }
+}
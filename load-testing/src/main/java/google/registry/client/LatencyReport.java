@@ -0,0 +1,272 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-command latency summaries of a load test run, written as CSV and JSON.
+ *
+ * <p>The CSV file of an earlier run can be passed back in as a baseline, in which case the
+ * percentiles of the two runs are printed side by side.
+ */
+final class LatencyReport {
+
+  static final String CSV_FILE = "summary.csv";
+  static final String JSON_FILE = "summary.json";
+
+  private static final ImmutableList<String> CSV_COLUMNS =
+      ImmutableList.of(
+          "command",
+          "count",
+          "succeeded",
+          "rejected",
+          "failed",
+          "skipped",
+          "mean_ms",
+          "p50_ms",
+          "p90_ms",
+          "p99_ms",
+          "p999_ms",
+          "max_ms",
+          "service_p50_ms",
+          "service_p99_ms");
+
+  /** The latency summary of one command type. All latencies are response times, in ms. */
+  record Summary(
+      String command,
+      long count,
+      long succeeded,
+      long rejected,
+      long failed,
+      long skipped,
+      double meanMs,
+      double p50Ms,
+      double p90Ms,
+      double p99Ms,
+      double p999Ms,
+      double maxMs,
+      double serviceP50Ms,
+      double serviceP99Ms) {
+
+    static Summary of(LoadCommand command, CommandStats stats) {
+      LatencyHistogram latency = stats.responseTime;
+      return new Summary(
+          command.name().toLowerCase(Locale.US),
+          latency.count(),
+          stats.succeeded.get(),
+          stats.rejected.get(),
+          stats.failed.get(),
+          stats.skipped.get(),
+          latency.meanMicros() / 1000,
+          toMillis(latency.valueAtPercentileMicros(50)),
+          toMillis(latency.valueAtPercentileMicros(90)),
+          toMillis(latency.valueAtPercentileMicros(99)),
+          toMillis(latency.valueAtPercentileMicros(99.9)),
+          toMillis(latency.maxMicros()),
+          toMillis(stats.serviceTime.valueAtPercentileMicros(50)),
+          toMillis(stats.serviceTime.valueAtPercentileMicros(99)));
+    }
+
+    private ImmutableList<String> csvValues() {
+      return ImmutableList.of(
+          command,
+          Long.toString(count),
+          Long.toString(succeeded),
+          Long.toString(rejected),
+          Long.toString(failed),
+          Long.toString(skipped),
+          formatMillis(meanMs),
+          formatMillis(p50Ms),
+          formatMillis(p90Ms),
+          formatMillis(p99Ms),
+          formatMillis(p999Ms),
+          formatMillis(maxMs),
+          formatMillis(serviceP50Ms),
+          formatMillis(serviceP99Ms));
+    }
+
+    private static Summary fromCsvValues(Map<String, String> values) {
+      return new Summary(
+          values.get("command"),
+          Long.parseLong(values.get("count")),
+          Long.parseLong(values.get("succeeded")),
+          Long.parseLong(values.get("rejected")),
+          Long.parseLong(values.get("failed")),
+          Long.parseLong(values.get("skipped")),
+          Double.parseDouble(values.get("mean_ms")),
+          Double.parseDouble(values.get("p50_ms")),
+          Double.parseDouble(values.get("p90_ms")),
+          Double.parseDouble(values.get("p99_ms")),
+          Double.parseDouble(values.get("p999_ms")),
+          Double.parseDouble(values.get("max_ms")),
+          Double.parseDouble(values.get("service_p50_ms")),
+          Double.parseDouble(values.get("service_p99_ms")));
+    }
+  }
+
+  private final ImmutableList<Summary> summaries;
+  private final ImmutableMap<String, String> runInfo;
+
+  /**
+   * Creates a report.
+   *
+   * @param runInfo parameters and totals of the run, included as-is in the JSON output
+   */
+  LatencyReport(ImmutableList<Summary> summaries, ImmutableMap<String, String> runInfo) {
+    this.summaries = summaries;
+    this.runInfo = runInfo;
+  }
+
+  static LatencyReport of(
+      Map<LoadCommand, CommandStats> stats, ImmutableMap<String, String> runInfo) {
+    return new LatencyReport(
+        stats.entrySet().stream()
+            .map(entry -> Summary.of(entry.getKey(), entry.getValue()))
+            .collect(toImmutableList()),
+        runInfo);
+  }
+
+  ImmutableList<Summary> summaries() {
+    return summaries;
+  }
+
+  void writeCsv(Path file) throws IOException {
+    StringBuilder csv = new StringBuilder();
+    Joiner.on(',').appendTo(csv, CSV_COLUMNS).append('\n');
+    for (Summary summary : summaries) {
+      Joiner.on(',').appendTo(csv, summary.csvValues()).append('\n');
+    }
+    Files.writeString(file, csv, UTF_8);
+  }
+
+  void writeJson(Path file) throws IOException {
+    StringBuilder json = new StringBuilder("{\n");
+    for (Map.Entry<String, String> entry : runInfo.entrySet()) {
+      json.append(String.format("  %s: %s,\n", quote(entry.getKey()), quote(entry.getValue())));
+    }
+    json.append("  \"commands\": [");
+    for (int i = 0; i < summaries.size(); i++) {
+      List<String> values = summaries.get(i).csvValues();
+      json.append(i == 0 ? "\n" : ",\n").append("    {");
+      for (int j = 0; j < CSV_COLUMNS.size(); j++) {
+        json.append(j == 0 ? "" : ", ")
+            .append(quote(CSV_COLUMNS.get(j)))
+            .append(": ")
+            .append(j == 0 ? quote(values.get(j)) : values.get(j));
+      }
+      json.append('}');
+    }
+    json.append("\n  ]\n}\n");
+    Files.writeString(file, json, UTF_8);
+  }
+
+  /** Reads the summaries from a CSV file written by {@link #writeCsv}. */
+  static ImmutableList<Summary> readCsv(Path file) throws IOException {
+    List<String> lines = Files.readAllLines(file, UTF_8);
+    checkArgument(!lines.isEmpty(), "Empty latency summary file %s", file);
+    List<String> header = Splitter.on(',').splitToList(lines.getFirst());
+    checkArgument(header.containsAll(CSV_COLUMNS), "%s is not a latency summary file", file);
+    ImmutableList.Builder<Summary> summaries = new ImmutableList.Builder<>();
+    for (String line : lines.subList(1, lines.size())) {
+      if (line.isBlank()) {
+        continue;
+      }
+      List<String> values = Splitter.on(',').splitToList(line);
+      ImmutableMap.Builder<String, String> row = new ImmutableMap.Builder<>();
+      for (int i = 0; i < header.size() && i < values.size(); i++) {
+        row.put(header.get(i), values.get(i));
+      }
+      summaries.add(Summary.fromCsvValues(row.buildOrThrow()));
+    }
+    return summaries.build();
+  }
+
+  void print(PrintStream out) {
+    out.printf(
+        "%-9s %9s %9s %9s %9s %10s %10s %10s %10s %10s%n",
+        "command", "count", "ok", "rejected", "failed", "p50_ms", "p90_ms", "p99_ms", "p999_ms",
+        "max_ms");
+    for (Summary summary : summaries) {
+      out.printf(
+          "%-9s %9d %9d %9d %9d %10.3f %10.3f %10.3f %10.3f %10.3f%n",
+          summary.command(),
+          summary.count(),
+          summary.succeeded(),
+          summary.rejected(),
+          summary.failed(),
+          summary.p50Ms(),
+          summary.p90Ms(),
+          summary.p99Ms(),
+          summary.p999Ms(),
+          summary.maxMs());
+    }
+  }
+
+  /** Prints the response time percentiles of this run next to those of a baseline run. */
+  void printComparison(ImmutableList<Summary> baseline, PrintStream out) {
+    ImmutableMap<String, Summary> baselineByCommand =
+        baseline.stream().collect(toImmutableMap(Summary::command, summary -> summary));
+    out.printf(
+        "%-9s %-6s %12s %12s %9s%n", "command", "metric", "baseline_ms", "current_ms", "change");
+    for (Summary current : summaries) {
+      Summary previous = baselineByCommand.get(current.command());
+      if (previous == null) {
+        out.printf("%-9s (not in baseline)%n", current.command());
+        continue;
+      }
+      printChange(out, current.command(), "p50", previous.p50Ms(), current.p50Ms());
+      printChange(out, current.command(), "p99", previous.p99Ms(), current.p99Ms());
+      printChange(out, current.command(), "p999", previous.p999Ms(), current.p999Ms());
+    }
+  }
+
+  private static void printChange(
+      PrintStream out, String command, String metric, double baseline, double current) {
+    String change =
+        baseline == 0
+            ? "n/a"
+            : String.format(Locale.US, "%+.1f%%", (current - baseline) * 100 / baseline);
+    out.printf(
+        Locale.US, "%-9s %-6s %12.3f %12.3f %9s%n", command, metric, baseline, current, change);
+  }
+
+  private static double toMillis(long micros) {
+    return micros / 1000d;
+  }
+
+  private static String formatMillis(double millis) {
+    return String.format(Locale.US, "%.3f", millis);
+  }
+
+  private static String quote(String value) {
+    return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+  }
+}
@@ -0,0 +1,43 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.client;
+
+/** The EPP commands that {@link EppLoadGenerator} can send, and the templates they use. */
+enum LoadCommand {
+  CHECK("domain_check.xml", false),
+  INFO("domain_info.xml", true),
+  CREATE("domain_create.xml", false),
+  RENEW("domain_renew.xml", true),
+  TRANSFER("domain_transfer_query.xml", true),
+  POLL("poll_request.xml", false),
+  UPDATE("domain_update.xml", true);
+
+  private final String templateFile;
+  private final boolean needsExistingDomain;
+
+  LoadCommand(String templateFile, boolean needsExistingDomain) {
+    this.templateFile = templateFile;
+    this.needsExistingDomain = needsExistingDomain;
+  }
+
+  String templateFile() {
+    return templateFile;
+  }
+
+  /** Whether the command operates on a domain that the load generator created earlier. */
+  boolean needsExistingDomain() {
+    return needsExistingDomain;
+  }
+}
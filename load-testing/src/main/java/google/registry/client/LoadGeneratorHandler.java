@@ -0,0 +1,255 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.client;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.flogger.FluentLogger;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.util.concurrent.Promise;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Handler for one connection of {@link EppLoadGenerator}.
+ *
+ * <p>After the greeting it logs in, then sends the commands it is given as soon as fewer than the
+ * configured number of them are awaiting a response. Commands submitted while the connection is
+ * busy wait in a backlog, and the time they spend there counts towards their response time. EPP
+ * responses arrive in the order of the commands, which is how they are matched up.
+ *
+ * <p>All state except the outstanding count is only accessed on the channel's event loop.
+ */
+@SuppressWarnings("FutureReturnValueIgnored")
+final class LoadGeneratorHandler extends SimpleChannelInboundHandler<ByteBuf> {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private static final Pattern RESULT_CODE = Pattern.compile("<result code=\"(\\d{4})\"");
+
+  /** The stages of the load test a command was sent in. */
+  enum Phase {
+    /** Creating the initial domains, before the measured schedule starts. */
+    SEED,
+    /** The start of the schedule, whose latencies are discarded. */
+    WARMUP,
+    MEASURED
+  }
+
+  /**
+   * A command to send, and when the schedule meant for it to be sent.
+   *
+   * <p>{@code domainName} is the name a create registers, and {@code checkedOutDomain} the {@link
+   * DomainPool} entry a renew has checked out. Both are null for other commands.
+   */
+  record PendingCommand(
+      LoadCommand command,
+      byte[] request,
+      long intendedNanos,
+      Phase phase,
+      String domainName,
+      DomainPool.Domain checkedOutDomain) {}
+
+  /** Receives the outcome of every command given to the handler, on the event loop. */
+  interface Listener {
+    void onResponse(
+        PendingCommand command,
+        long sentNanos,
+        long receivedNanos,
+        int resultCode,
+        String response);
+
+    /** Called for commands that were never sent or got no response before the connection ended. */
+    void onFailure(PendingCommand command);
+  }
+
+  private enum State {
+    AWAITING_GREETING,
+    AWAITING_LOGIN,
+    READY,
+    LOGGING_OUT,
+    CLOSED
+  }
+
+  private record SentCommand(PendingCommand command, long sentNanos) {}
+
+  private final byte[] loginRequest;
+  private final byte[] logoutRequest;
+  private final int maxInFlight;
+  private final Listener listener;
+  private final ArrayDeque<SentCommand> inFlight = new ArrayDeque<>();
+  private final ArrayDeque<PendingCommand> backlog = new ArrayDeque<>();
+  private final AtomicInteger outstanding = new AtomicInteger();
+
+  private ChannelHandlerContext ctx;
+  private Promise<Void> loggedIn;
+  private State state = State.AWAITING_GREETING;
+
+  LoadGeneratorHandler(
+      byte[] loginRequest, byte[] logoutRequest, int maxInFlight, Listener listener) {
+    this.loginRequest = loginRequest;
+    this.logoutRequest = logoutRequest;
+    this.maxInFlight = maxInFlight;
+    this.listener = listener;
+  }
+
+  /** Returns the result code of an EPP response, or -1 if it doesn't have one. */
+  static int resultCode(String response) {
+    Matcher matcher = RESULT_CODE.matcher(response);
+    return matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+  }
+
+  @Override
+  public void handlerAdded(ChannelHandlerContext ctx) {
+    this.ctx = ctx;
+    this.loggedIn = ctx.executor().newPromise();
+  }
+
+  /** Returns a future that completes once the connection has logged in. */
+  Promise<Void> loggedIn() {
+    return loggedIn;
+  }
+
+  /** Returns how many submitted commands have neither been answered nor failed. */
+  int outstanding() {
+    return outstanding.get();
+  }
+
+  ChannelFuture closeFuture() {
+    return ctx.channel().closeFuture();
+  }
+
+  void close() {
+    ctx.close();
+  }
+
+  /** Queues a command to be sent on this connection. Can be called from any thread. */
+  void submit(PendingCommand command) {
+    outstanding.incrementAndGet();
+    ctx.executor().execute(() -> enqueue(command));
+  }
+
+  /** Fails all commands without a response yet, and logs out. Can be called from any thread. */
+  void logout() {
+    ctx.executor()
+        .execute(
+            () -> {
+              if (state != State.READY) {
+                ctx.close();
+                return;
+              }
+              failAll();
+              state = State.LOGGING_OUT;
+              ctx.writeAndFlush(Unpooled.wrappedBuffer(logoutRequest));
+            });
+  }
+
+  private void enqueue(PendingCommand command) {
+    if (state != State.READY) {
+      fail(command);
+      return;
+    }
+    backlog.add(command);
+    sendFromBacklog();
+  }
+
+  private void sendFromBacklog() {
+    boolean wrote = false;
+    while (inFlight.size() < maxInFlight && !backlog.isEmpty()) {
+      PendingCommand command = backlog.poll();
+      inFlight.add(new SentCommand(command, System.nanoTime()));
+      ctx.write(Unpooled.wrappedBuffer(command.request()));
+      wrote = true;
+    }
+    if (wrote) {
+      ctx.flush();
+    }
+  }
+
+  @Override
+  protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+    long receivedNanos = System.nanoTime();
+    String response = msg.toString(UTF_8);
+    int resultCode = resultCode(response);
+    switch (state) {
+      case AWAITING_GREETING -> {
+        state = State.AWAITING_LOGIN;
+        ctx.writeAndFlush(Unpooled.wrappedBuffer(loginRequest));
+      }
+      case AWAITING_LOGIN -> {
+        if (resultCode == 1000) {
+          state = State.READY;
+          loggedIn.setSuccess(null);
+        } else {
+          loggedIn.tryFailure(new IllegalStateException("Login failed with code " + resultCode));
+          ctx.close();
+        }
+      }
+      case READY -> {
+        SentCommand sent = inFlight.poll();
+        if (sent == null) {
+          logger.atWarning().log("Unexpected EPP response: %s", response);
+          return;
+        }
+        outstanding.decrementAndGet();
+        listener.onResponse(sent.command(), sent.sentNanos(), receivedNanos, resultCode, response);
+        sendFromBacklog();
+      }
+      case LOGGING_OUT -> {
+        // Responses to commands that were already given up on can still arrive before this one.
+        if (resultCode == 1500) {
+          ctx.close();
+        }
+      }
+      case CLOSED -> {}
+    }
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+    state = State.CLOSED;
+    failAll();
+    loggedIn.tryFailure(new IllegalStateException("Connection closed before login"));
+    super.channelInactive(ctx);
+  }
+
+  @Override
+  public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+    logger.atWarning().withCause(cause).log("Closing load test connection %s.", ctx.channel());
+    ctx.close();
+  }
+
+  private void failAll() {
+    for (SentCommand sent : inFlight) {
+      fail(sent.command());
+    }
+    inFlight.clear();
+    for (PendingCommand command : backlog) {
+      fail(command);
+    }
+    backlog.clear();
+  }
+
+  private void fail(PendingCommand command) {
+    outstanding.decrementAndGet();
+    listener.onFailure(command);
+  }
+}
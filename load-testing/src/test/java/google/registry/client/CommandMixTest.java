@@ -0,0 +1,102 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.client;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.Range;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link CommandMix}. */
+class CommandMixTest {
+
+  @Test
+  void testParse() {
+    CommandMix mix = CommandMix.parse(" check=60, info = 25,create=15,,renew=0");
+    assertThat(mix.weights())
+        .containsExactly(LoadCommand.CHECK, 60, LoadCommand.INFO, 25, LoadCommand.CREATE, 15)
+        .inOrder();
+  }
+
+  @Test
+  void testNext_picksByCumulativeWeight() {
+    CommandMix mix = CommandMix.parse("check=60,info=25,create=15");
+    assertThat(mix.next(new FixedRandom(0))).isEqualTo(LoadCommand.CHECK);
+    assertThat(mix.next(new FixedRandom(59))).isEqualTo(LoadCommand.CHECK);
+    assertThat(mix.next(new FixedRandom(60))).isEqualTo(LoadCommand.INFO);
+    assertThat(mix.next(new FixedRandom(84))).isEqualTo(LoadCommand.INFO);
+    assertThat(mix.next(new FixedRandom(85))).isEqualTo(LoadCommand.CREATE);
+    assertThat(mix.next(new FixedRandom(99))).isEqualTo(LoadCommand.CREATE);
+  }
+
+  @Test
+  void testNext_followsWeights() {
+    CommandMix mix = CommandMix.parse("check=3,poll=1");
+    Random random = new Random(42);
+    int checks = 0;
+    for (int i = 0; i < 10_000; i++) {
+      if (mix.next(random) == LoadCommand.CHECK) {
+        checks++;
+      }
+    }
+    assertThat(checks).isIn(Range.closed(7_300, 7_700));
+  }
+
+  @Test
+  void testNeedsExistingDomains() {
+    assertThat(CommandMix.parse("check=1,create=1,poll=1").needsExistingDomains()).isFalse();
+    assertThat(CommandMix.parse("check=1,info=1").needsExistingDomains()).isTrue();
+    // Commands with a weight of zero are never sent.
+    assertThat(CommandMix.parse("check=1,renew=0").needsExistingDomains()).isFalse();
+  }
+
+  @Test
+  void testFailure_unknownCommand() {
+    IllegalArgumentException thrown =
+        assertThrows(IllegalArgumentException.class, () -> CommandMix.parse("check=1,delete=1"));
+    assertThat(thrown).hasMessageThat().isEqualTo("Unknown command in mix: delete");
+  }
+
+  @Test
+  void testFailure_negativeWeight() {
+    IllegalArgumentException thrown =
+        assertThrows(IllegalArgumentException.class, () -> CommandMix.parse("check=-1"));
+    assertThat(thrown).hasMessageThat().isEqualTo("Negative weight for CHECK");
+  }
+
+  @Test
+  void testFailure_noCommands() {
+    assertThrows(IllegalArgumentException.class, () -> CommandMix.parse("check=0,info=0"));
+    assertThrows(IllegalArgumentException.class, () -> CommandMix.parse(""));
+  }
+
+  /** A {@link Random} that always returns the same bounded int. */
+  private static final class FixedRandom extends Random {
+
+    private final int value;
+
+    FixedRandom(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+      assertThat(value).isLessThan(bound);
+      return value;
+    }
+  }
+}
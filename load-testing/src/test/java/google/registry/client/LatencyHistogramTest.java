@@ -0,0 +1,107 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.client;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link LatencyHistogram}. */
+class LatencyHistogramTest {
+
+  private final LatencyHistogram histogram = new LatencyHistogram();
+
+  @Test
+  void testEmpty() {
+    assertThat(histogram.count()).isEqualTo(0);
+    assertThat(histogram.meanMicros()).isEqualTo(0);
+    assertThat(histogram.maxMicros()).isEqualTo(0);
+    assertThat(histogram.valueAtPercentileMicros(50)).isEqualTo(0);
+  }
+
+  @Test
+  void testPercentiles_smallValuesAreExact() {
+    for (long i = 100; i >= 1; i--) {
+      histogram.record(i);
+    }
+    assertThat(histogram.count()).isEqualTo(100);
+    assertThat(histogram.meanMicros()).isEqualTo(50.5);
+    assertThat(histogram.maxMicros()).isEqualTo(100);
+    assertThat(histogram.valueAtPercentileMicros(0)).isEqualTo(1);
+    assertThat(histogram.valueAtPercentileMicros(1)).isEqualTo(1);
+    assertThat(histogram.valueAtPercentileMicros(50)).isEqualTo(50);
+    assertThat(histogram.valueAtPercentileMicros(90)).isEqualTo(90);
+    assertThat(histogram.valueAtPercentileMicros(99)).isEqualTo(99);
+    assertThat(histogram.valueAtPercentileMicros(99.9)).isEqualTo(100);
+    assertThat(histogram.valueAtPercentileMicros(100)).isEqualTo(100);
+  }
+
+  @Test
+  void testPercentiles_roundUpToTheNextRecordedValue() {
+    histogram.record(10);
+    histogram.record(20);
+    histogram.record(30);
+    // A third of the values is at or below 10, so anything above that needs the next value.
+    assertThat(histogram.valueAtPercentileMicros(33)).isEqualTo(10);
+    assertThat(histogram.valueAtPercentileMicros(34)).isEqualTo(20);
+    assertThat(histogram.valueAtPercentileMicros(67)).isEqualTo(30);
+  }
+
+  @Test
+  void testPercentiles_largeValuesWithinPrecision() {
+    histogram.record(1_000_000);
+    histogram.record(2_000_000);
+    histogram.record(3_000_000);
+    assertThat(histogram.valueAtPercentileMicros(10)).isAtLeast(1_000_000);
+    assertThat(histogram.valueAtPercentileMicros(10)).isAtMost(1_001_000);
+    assertThat(histogram.valueAtPercentileMicros(50)).isAtLeast(2_000_000);
+    assertThat(histogram.valueAtPercentileMicros(50)).isAtMost(2_002_000);
+    // The top bucket is capped at the largest value actually recorded.
+    assertThat(histogram.valueAtPercentileMicros(100)).isEqualTo(3_000_000);
+  }
+
+  @Test
+  void testPercentiles_bucketBoundaries() {
+    // 2048 is the first value that isn't counted exactly, and shares a bucket with 2049.
+    histogram.record(2047);
+    histogram.record(2048);
+    histogram.record(2049);
+    histogram.record(2050);
+    assertThat(histogram.valueAtPercentileMicros(25)).isEqualTo(2047);
+    assertThat(histogram.valueAtPercentileMicros(50)).isEqualTo(2049);
+    assertThat(histogram.valueAtPercentileMicros(75)).isEqualTo(2049);
+    assertThat(histogram.valueAtPercentileMicros(100)).isEqualTo(2050);
+  }
+
+  @Test
+  void testRecord_clampsToMaxTrackable() {
+    histogram.record(Long.MAX_VALUE);
+    assertThat(histogram.maxMicros()).isEqualTo(LatencyHistogram.MAX_TRACKABLE_MICROS);
+    assertThat(histogram.valueAtPercentileMicros(100))
+        .isEqualTo(LatencyHistogram.MAX_TRACKABLE_MICROS);
+  }
+
+  @Test
+  void testFailure_negativeLatency() {
+    assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+  }
+
+  @Test
+  void testFailure_invalidPercentile() {
+    assertThrows(IllegalArgumentException.class, () -> histogram.valueAtPercentileMicros(101));
+    assertThrows(IllegalArgumentException.class, () -> histogram.valueAtPercentileMicros(-1));
+  }
+}
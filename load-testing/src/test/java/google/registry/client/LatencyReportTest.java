@@ -0,0 +1,146 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.client;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import google.registry.client.LatencyReport.Summary;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Unit tests for {@link LatencyReport}. */
+class LatencyReportTest {
+
+  private static final Summary CHECK =
+      new Summary("check", 4, 3, 1, 0, 2, 2.5, 2, 4, 4, 4, 4, 1.5, 3);
+
+  private static final Summary INFO =
+      new Summary("info", 1, 1, 0, 0, 0, 10, 10, 10, 10, 10, 10, 0.25, 0.25);
+
+  @TempDir Path tmpDir;
+
+  @Test
+  void testSummaryOf() {
+    // Timestamps are passed in explicitly, as nanoseconds since an arbitrary origin.
+    CommandStats stats = new CommandStats();
+    long start = 1_000_000_000L;
+    for (int i = 1; i <= 4; i++) {
+      long intended = start + MILLISECONDS.toNanos(i * 100);
+      // Each command waited 1ms for a connection before it was written.
+      long sent = intended + MILLISECONDS.toNanos(1);
+      long received = intended + MILLISECONDS.toNanos(i);
+      stats.recordResponse(intended, sent, received, i == 4 ? 2303 : 1000);
+    }
+    stats.recordFailure();
+    stats.recordSkipped();
+    Summary summary = Summary.of(LoadCommand.CHECK, stats);
+    assertThat(summary)
+        .isEqualTo(new Summary("check", 4, 3, 1, 1, 1, 2.5, 2, 4, 4, 4, 4, 1, 3));
+  }
+
+  @Test
+  void testCsv_roundTrips() throws IOException {
+    LatencyReport report = new LatencyReport(ImmutableList.of(CHECK, INFO), ImmutableMap.of());
+    Path file = tmpDir.resolve(LatencyReport.CSV_FILE);
+    report.writeCsv(file);
+    assertThat(Files.readAllLines(file, UTF_8))
+        .containsExactly(
+            "command,count,succeeded,rejected,failed,skipped,mean_ms,p50_ms,p90_ms,p99_ms,"
+                + "p999_ms,max_ms,service_p50_ms,service_p99_ms",
+            "check,4,3,1,0,2,2.500,2.000,4.000,4.000,4.000,4.000,1.500,3.000",
+            "info,1,1,0,0,0,10.000,10.000,10.000,10.000,10.000,10.000,0.250,0.250")
+        .inOrder();
+    assertThat(LatencyReport.readCsv(file)).containsExactly(CHECK, INFO).inOrder();
+  }
+
+  @Test
+  void testReadCsv_notASummaryFile() throws IOException {
+    Path file = tmpDir.resolve("other.csv");
+    Files.writeString(file, "a,b,c\n1,2,3\n", UTF_8);
+    assertThrows(IllegalArgumentException.class, () -> LatencyReport.readCsv(file));
+  }
+
+  @Test
+  void testWriteJson() throws IOException {
+    LatencyReport report =
+        new LatencyReport(
+            ImmutableList.of(INFO), ImmutableMap.of("target", "epp.\"example\"", "rate", "100"));
+    Path file = tmpDir.resolve(LatencyReport.JSON_FILE);
+    report.writeJson(file);
+    assertThat(Files.readString(file, UTF_8))
+        .isEqualTo(
+            """
+            {
+              "target": "epp.\\"example\\"",
+              "rate": "100",
+              "commands": [
+                {"command": "info", "count": 1, "succeeded": 1, "rejected": 0, "failed": 0, \
+            "skipped": 0, "mean_ms": 10.000, "p50_ms": 10.000, "p90_ms": 10.000, \
+            "p99_ms": 10.000, "p999_ms": 10.000, "max_ms": 10.000, "service_p50_ms": 0.250, \
+            "service_p99_ms": 0.250}
+              ]
+            }
+            """);
+  }
+
+  @Test
+  void testPrint() {
+    LatencyReport report = new LatencyReport(ImmutableList.of(CHECK), ImmutableMap.of());
+    assertThat(print(report::print))
+        .isEqualTo(
+            """
+            command       count        ok  rejected    failed     p50_ms     p90_ms     p99_ms \
+               p999_ms     max_ms
+            check             4         3         1         0      2.000      4.000      4.000 \
+                 4.000      4.000
+            """);
+  }
+
+  @Test
+  void testPrintComparison() {
+    Summary slowerCheck = new Summary("check", 4, 4, 0, 0, 0, 3, 2.2, 5, 5, 6, 6, 2, 4);
+    LatencyReport report =
+        new LatencyReport(ImmutableList.of(slowerCheck, INFO), ImmutableMap.of());
+    Summary baselineCheck = new Summary("check", 4, 4, 0, 0, 0, 2, 2, 4, 4, 0, 4, 1, 3);
+    assertThat(print(out -> report.printComparison(ImmutableList.of(baselineCheck), out)))
+        .isEqualTo(
+            """
+            command   metric  baseline_ms   current_ms    change
+            check     p50           2.000        2.200    +10.0%
+            check     p99           4.000        5.000    +25.0%
+            check     p999          0.000        6.000       n/a
+            info      (not in baseline)
+            """);
+  }
+
+  private static String print(Consumer<PrintStream> printer) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (PrintStream out = new PrintStream(bytes, true, UTF_8)) {
+      printer.accept(out);
+    }
+    return bytes.toString(UTF_8).replace(System.lineSeparator(), "\n");
+  }
+}
@@ -0,0 +1,127 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.util;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import javax.annotation.Nullable;
+
+/**
+ * A set of {@link CidrAddressBlock CIDR address blocks}, compiled into a binary trie for checking
+ * whether an address is in any of them.
+ *
+ * <p>A lookup walks down the trie one bit of the address at a time, so it takes at most 32 steps
+ * for an IPv4 address and 128 for an IPv6 one, however many blocks there are.
+ *
+ * <p>As with {@link CidrAddressBlock#contains(InetAddress)}, IPv4 blocks never contain IPv6
+ * addresses, and vice versa.
+ */
+public final class CidrAddressTrie {
+
+  private final BinaryTrie ipv4Blocks;
+  private final BinaryTrie ipv6Blocks;
+
+  private CidrAddressTrie(BinaryTrie ipv4Blocks, BinaryTrie ipv6Blocks) {
+    this.ipv4Blocks = ipv4Blocks;
+    this.ipv6Blocks = ipv6Blocks;
+  }
+
+  /** Creates a trie containing the given blocks. */
+  public static CidrAddressTrie create(Iterable<CidrAddressBlock> blocks) {
+    BinaryTrie ipv4Blocks = new BinaryTrie();
+    BinaryTrie ipv6Blocks = new BinaryTrie();
+    for (CidrAddressBlock block : blocks) {
+      byte[] address = block.getInetAddress().getAddress();
+      (address.length == 4 ? ipv4Blocks : ipv6Blocks).add(address, block.getNetmask());
+    }
+    ipv4Blocks.trim();
+    ipv6Blocks.trim();
+    return new CidrAddressTrie(ipv4Blocks, ipv6Blocks);
+  }
+
+  /** Returns true if the address is in any of the blocks of this trie. */
+  public boolean contains(@Nullable InetAddress address) {
+    if (address == null) {
+      return false;
+    }
+    byte[] bytes = address.getAddress();
+    return (bytes.length == 4 ? ipv4Blocks : ipv6Blocks).contains(bytes);
+  }
+
+  /**
+   * Binary trie of address prefixes, with its nodes laid out in arrays.
+   *
+   * <p>Node 0 is the root. The children of node {@code n} for a 0 bit and a 1 bit are at {@code
+   * children[2n]} and {@code children[2n + 1]}, where 0 stands for no child since the root is
+   * nobody's child.
+   */
+  private static final class BinaryTrie {
+
+    private int[] children = new int[2];
+
+    /** Whether each node is the end of a block, so every address below it is in the set. */
+    private boolean[] blockEnds = new boolean[1];
+
+    private int size = 1;
+
+    void add(byte[] address, int prefixLength) {
+      int node = 0;
+      for (int i = 0; i < prefixLength; i++) {
+        if (blockEnds[node]) {
+          // A shorter block already covers this one.
+          return;
+        }
+        int slot = 2 * node + getBit(address, i);
+        if (children[slot] == 0) {
+          children[slot] = newNode();
+        }
+        node = children[slot];
+      }
+      blockEnds[node] = true;
+    }
+
+    boolean contains(byte[] address) {
+      int node = 0;
+      for (int i = 0; !blockEnds[node]; i++) {
+        if (i == address.length * 8) {
+          return false;
+        }
+        node = children[2 * node + getBit(address, i)];
+        if (node == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /** Releases the unused space at the end of the arrays, once all blocks have been added. */
+    void trim() {
+      children = Arrays.copyOf(children, 2 * size);
+      blockEnds = Arrays.copyOf(blockEnds, size);
+    }
+
+    private int newNode() {
+      if (size == blockEnds.length) {
+        children = Arrays.copyOf(children, 4 * size);
+        blockEnds = Arrays.copyOf(blockEnds, 2 * size);
+      }
+      return size++;
+    }
+
+    private static int getBit(byte[] address, int index) {
+      return (address[index >> 3] >> (7 - (index & 7))) & 1;
+    }
+  }
+}
@@ -0,0 +1,120 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.util;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.net.InetAddresses;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link CidrAddressTrie}. */
+class CidrAddressTrieTest {
+
+  private static CidrAddressTrie create(String... blocks) {
+    return CidrAddressTrie.create(
+        Stream.of(blocks).map(CidrAddressBlock::new).collect(toImmutableList()));
+  }
+
+  private static InetAddress ip(String address) {
+    return InetAddresses.forString(address);
+  }
+
+  @Test
+  void testEmpty() {
+    CidrAddressTrie trie = create();
+    assertFalse(trie.contains(ip("1.2.3.4")));
+    assertFalse(trie.contains(ip("::1")));
+    assertFalse(trie.contains(null));
+  }
+
+  @Test
+  void testIpv4() {
+    CidrAddressTrie trie = create("10.0.0.0/8", "192.168.1.0/24", "172.16.5.7");
+    assertTrue(trie.contains(ip("10.255.0.1")));
+    assertTrue(trie.contains(ip("192.168.1.255")));
+    assertTrue(trie.contains(ip("172.16.5.7")));
+    assertFalse(trie.contains(ip("11.0.0.0")));
+    assertFalse(trie.contains(ip("192.168.2.0")));
+    assertFalse(trie.contains(ip("172.16.5.6")));
+  }
+
+  @Test
+  void testIpv6() {
+    CidrAddressTrie trie = create("2001:db8::/32", "fe80::1");
+    assertTrue(trie.contains(ip("2001:db8:ffff::1")));
+    assertTrue(trie.contains(ip("fe80::1")));
+    assertFalse(trie.contains(ip("2001:db9::")));
+    assertFalse(trie.contains(ip("fe80::2")));
+  }
+
+  @Test
+  void testAddressFamiliesDontMix() {
+    assertFalse(create("::/0").contains(ip("1.2.3.4")));
+    assertFalse(create("0.0.0.0/0").contains(ip("::1")));
+    assertTrue(create("0.0.0.0/0").contains(ip("1.2.3.4")));
+  }
+
+  @Test
+  void testNestedBlocks_inEitherOrder() {
+    for (CidrAddressTrie trie :
+        ImmutableList.of(
+            create("10.1.0.0/16", "10.0.0.0/8"), create("10.0.0.0/8", "10.1.0.0/16"))) {
+      assertTrue(trie.contains(ip("10.1.2.3")));
+      assertTrue(trie.contains(ip("10.2.3.4")));
+      assertFalse(trie.contains(ip("9.1.2.3")));
+    }
+  }
+
+  @Test
+  void testMatchesCidrAddressBlock() {
+    Random random = new Random(1);
+    ImmutableList<CidrAddressBlock> blocks =
+        Stream.generate(() -> randomBlock(random)).limit(200).collect(toImmutableList());
+    CidrAddressTrie trie = CidrAddressTrie.create(blocks);
+    for (int i = 0; i < 10_000; i++) {
+      // Take half the addresses from within the blocks, so that both outcomes are covered.
+      InetAddress address =
+          i % 2 == 0
+              ? randomAddress(random, 4)
+              : blocks.get(random.nextInt(blocks.size())).getAllOnesAddress();
+      boolean expected = blocks.stream().anyMatch(block -> block.contains(address));
+      assertWithMessage(address.toString()).that(trie.contains(address)).isEqualTo(expected);
+    }
+  }
+
+  private static CidrAddressBlock randomBlock(Random random) {
+    boolean ipv4 = random.nextBoolean();
+    return CidrAddressBlock.create(
+        randomAddress(random, ipv4 ? 4 : 16), random.nextInt(8, ipv4 ? 33 : 129));
+  }
+
+  private static InetAddress randomAddress(Random random, int length) {
+    byte[] bytes = new byte[length];
+    random.nextBytes(bytes);
+    try {
+      return InetAddress.getByAddress(bytes);
+    } catch (UnknownHostException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+}